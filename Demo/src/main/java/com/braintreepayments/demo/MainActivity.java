@@ -80,6 +80,10 @@ public class MainActivity extends BaseActivity implements DropInListener {
                 nonce = savedInstanceState.getParcelable(KEY_NONCE);
             }
         }
+        if (savedInstanceState == null) {
+            Settings.applyLaunchExtras(this, getIntent().getExtras());
+            DemoApplication.resetApiClient();
+        }
         configureDropInClient();
         registerSharedPreferencesListener();
     }
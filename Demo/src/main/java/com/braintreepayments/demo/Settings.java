@@ -2,8 +2,11 @@ package com.braintreepayments.demo;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Bundle;
 import android.preference.PreferenceManager;
 
+import androidx.annotation.Nullable;
+
 import com.braintreepayments.api.ThreeDSecureRequest;
 import com.braintreepayments.cardform.view.CardForm;
 
@@ -23,6 +26,13 @@ public class Settings {
     private static final String PRODUCTION_TOKENIZATION_KEY = "production_t2wns2y2_dfy45jdj3dxkmz5m";
     private static final String MOCKED_PAY_PAL_SANDBOX_TOKENIZATION_KEY = "sandbox_q7v35n9n_555d2htrfsnnmfb3";
 
+    private static final String[] BOOLEAN_LAUNCH_EXTRAS = {
+            "tokenization_key", "enable_vault_manager", "enable_three_d_secure"
+    };
+    private static final String MERCHANT_SERVER_URL_OVERRIDE = "merchant_server_url";
+
+    private static final String[] STRING_LAUNCH_EXTRAS = { "customer", MERCHANT_SERVER_URL_OVERRIDE };
+
     private static SharedPreferences sSharedPreferences;
 
     public static SharedPreferences getPreferences(Context context) {
@@ -33,6 +43,29 @@ public class Settings {
         return sSharedPreferences;
     }
 
+    /**
+     * Stores settings passed as extras of the launch intent so automated runs, such as the
+     * Macrobenchmark module, can configure the app without going through the settings screen.
+     */
+    public static void applyLaunchExtras(Context context, @Nullable Bundle extras) {
+        if (extras == null) {
+            return;
+        }
+
+        SharedPreferences.Editor editor = getPreferences(context).edit();
+        for (String key : BOOLEAN_LAUNCH_EXTRAS) {
+            if (extras.containsKey(key)) {
+                editor.putBoolean(key, extras.getBoolean(key));
+            }
+        }
+        for (String key : STRING_LAUNCH_EXTRAS) {
+            if (extras.containsKey(key)) {
+                editor.putString(key, extras.getString(key));
+            }
+        }
+        editor.commit();
+    }
+
     public static int getVersion(Context context) {
         return getPreferences(context).getInt(VERSION, 0);
     }
@@ -57,6 +90,12 @@ public class Settings {
     }
 
     public static String getEnvironmentUrl(Context context) {
+        // set by the Macrobenchmark module to point the Demo app at a local mock gateway
+        String merchantServerUrl = getPreferences(context).getString(MERCHANT_SERVER_URL_OVERRIDE, null);
+        if (merchantServerUrl != null && !merchantServerUrl.isEmpty()) {
+            return merchantServerUrl;
+        }
+
         int environment = getEnvironment(context);
         switch (environment) {
             case 0:
@@ -0,0 +1,82 @@
+package com.braintreepayments.api;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+
+import com.braintreepayments.mockgateway.GatewayEndpoint;
+import com.braintreepayments.mockgateway.LatencyDistribution;
+import com.braintreepayments.mockgateway.MockGateway;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class PaymentMethodClientGatewayTest {
+
+    private Context context;
+    private MockGateway gateway;
+
+    @Before
+    public void setUp() throws IOException {
+        context = ApplicationProvider.getApplicationContext();
+        gateway = new MockGateway();
+        gateway.addVaultedCards(3);
+        gateway.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        gateway.shutdown();
+    }
+
+    @Test(timeout = 10000)
+    public void getPaymentMethodNonces_andDeletePaymentMethods_onSlowNetwork() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        gateway.setLatency(LatencyDistribution.logNormal(300, 0.5));
+
+        BraintreeClient braintreeClient = new BraintreeClient(context, gateway.createClientToken());
+        final PaymentMethodClient sut = new PaymentMethodClient(braintreeClient);
+
+        sut.getPaymentMethodNonces((paymentMethodNonces, getPaymentMethodNoncesError) -> {
+            assertNull(getPaymentMethodNoncesError);
+            assertEquals(3, paymentMethodNonces.size());
+
+            sut.deletePaymentMethods(paymentMethodNonces, (result, deletePaymentMethodsError) -> {
+                assertNull(deletePaymentMethodsError);
+                assertEquals(3, result.getDeletedPaymentMethodNonces().size());
+                assertEquals(0, gateway.getVaultedCardCount());
+                latch.countDown();
+            });
+        });
+
+        latch.await();
+    }
+
+    @Test(timeout = 10000)
+    public void getPaymentMethodNonces_whenConnectionDrops_returnsError() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        gateway.setDisconnectRate(GatewayEndpoint.PAYMENT_METHODS, 1);
+
+        BraintreeClient braintreeClient = new BraintreeClient(context, gateway.createClientToken());
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient);
+
+        sut.getPaymentMethodNonces((paymentMethodNonces, getPaymentMethodNoncesError) -> {
+            assertNull(paymentMethodNonces);
+            assertNotNull(getPaymentMethodNoncesError);
+            latch.countDown();
+        });
+
+        latch.await();
+    }
+}
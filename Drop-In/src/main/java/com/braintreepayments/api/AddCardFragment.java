@@ -10,7 +10,7 @@ import androidx.activity.OnBackPressedCallback;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import androidx.appcompat.widget.Toolbar;
-import androidx.lifecycle.ViewModelProvider;
+import androidx.tracing.Trace;
 
 import com.braintreepayments.api.dropin.R;
 import com.braintreepayments.cardform.OnCardFormSubmitListener;
@@ -53,7 +53,17 @@ public class AddCardFragment extends DropInFragment implements OnCardFormSubmitL
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
-        View view = inflater.inflate(R.layout.bt_fragment_add_card, container, false);
+        Trace.beginSection("AddCardFragment.onCreateView");
+        try {
+            return createView(inflater, container);
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    private View createView(LayoutInflater inflater, ViewGroup container) {
+        View view = DropInViewCache.from(this)
+                .take(inflater, DropInViewCache.ADD_CARD, container);
 
         cardForm = view.findViewById(R.id.bt_card_form);
         supportedCardTypesView = view.findViewById(R.id.bt_supported_card_types);
@@ -80,7 +90,7 @@ public class AddCardFragment extends DropInFragment implements OnCardFormSubmitL
         cardForm.setOnCardTypeChangedListener(this);
         cardForm.setOnCardFormSubmitListener(this);
 
-        dropInViewModel = new ViewModelProvider(requireActivity()).get(DropInViewModel.class);
+        dropInViewModel = DropInHost.getViewModel(this);
 
         dropInViewModel.getSupportedCardTypes().observe(getViewLifecycleOwner(), cardTypes ->
                 supportedCardTypesView.setSupportedCardTypes(cardTypes.toArray(new CardType[0])));
@@ -91,7 +101,7 @@ public class AddCardFragment extends DropInFragment implements OnCardFormSubmitL
             }
         });
 
-        requireActivity().getOnBackPressedDispatcher().addCallback(requireActivity(), new OnBackPressedCallback(true) {
+        requireActivity().getOnBackPressedDispatcher().addCallback(DropInHost.getLifecycleOwner(this), new OnBackPressedCallback(true) {
             @Override
             public void handleOnBackPressed() {
                 getParentFragmentManager().popBackStack();
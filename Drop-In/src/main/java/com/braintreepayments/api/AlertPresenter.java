@@ -2,12 +2,16 @@ package com.braintreepayments.api;
 
 import android.content.Context;
 import android.view.View;
+import android.widget.LinearLayout;
+import android.widget.ScrollView;
 
 import androidx.appcompat.app.AlertDialog;
 
 import com.braintreepayments.api.dropin.R;
 import com.google.android.material.snackbar.Snackbar;
 
+import java.util.List;
+
 class AlertPresenter {
 
     void showConfirmNonceDeletionDialog(Context context, PaymentMethodNonce paymentMethodNonceToDelete, final DialogInteractionCallback callback) {
@@ -26,6 +30,30 @@ class AlertPresenter {
                 .show();
     }
 
+    void showConfirmNoncesDeletionDialog(Context context, List<PaymentMethodNonce> paymentMethodNoncesToDelete, final DialogInteractionCallback callback) {
+        LinearLayout paymentMethodsView = new LinearLayout(context);
+        paymentMethodsView.setOrientation(LinearLayout.VERTICAL);
+        for (PaymentMethodNonce paymentMethodNonce : paymentMethodNoncesToDelete) {
+            PaymentMethodItemView itemView = new PaymentMethodItemView(context);
+            itemView.setPaymentMethod(paymentMethodNonce, false);
+            paymentMethodsView.addView(itemView);
+        }
+
+        ScrollView dialogView = new ScrollView(context);
+        dialogView.addView(paymentMethodsView);
+
+        new AlertDialog.Builder(context,
+                R.style.Theme_AppCompat_Light_Dialog_Alert)
+                .setTitle(R.string.bt_delete_confirmation_title)
+                .setMessage(R.string.bt_delete_confirmation_description)
+                .setView(dialogView)
+                .setPositiveButton(R.string.bt_delete, (dialog, which) -> callback.onDialogInteraction(DialogInteraction.POSITIVE))
+                .setOnDismissListener(dialog -> callback.onDialogInteraction(DialogInteraction.NEGATIVE))
+                .setNegativeButton(R.string.bt_cancel, null)
+                .create()
+                .show();
+    }
+
     void showSnackbarText(View targetView, int textResId, int duration) {
         Snackbar.make(targetView, textResId, duration).show();
     }
@@ -5,28 +5,31 @@ import java.util.List;
 
 class AvailablePaymentMethodNonceList {
 
-    final private List<PaymentMethodNonce> items;
+    final private VaultedPaymentMethodNonceList items;
 
     AvailablePaymentMethodNonceList(Configuration configuration, List<PaymentMethodNonce> paymentMethodNonces, DropInRequest dropInRequest, boolean googlePayEnabled) {
-        items = new ArrayList<>();
+        List<VaultedPaymentMethodSummary> availableSummaries = new ArrayList<>();
 
-        for (PaymentMethodNonce paymentMethodNonce: paymentMethodNonces) {
+        // filter on summaries so that nonces are not built just to check their type
+        for (VaultedPaymentMethodSummary summary : VaultedPaymentMethodNonceList.of(paymentMethodNonces).getSummaries()) {
             boolean shouldAddPaymentMethod = false;
 
-            if (paymentMethodNonce instanceof PayPalAccountNonce) {
+            String type = summary.getType();
+            if (VaultedPaymentMethodSummary.TYPE_PAYPAL.equals(type)) {
                 shouldAddPaymentMethod = !dropInRequest.isPayPalDisabled() && configuration.isPayPalEnabled();
-            } else if (paymentMethodNonce instanceof VenmoAccountNonce) {
+            } else if (VaultedPaymentMethodSummary.TYPE_VENMO.equals(type)) {
                 shouldAddPaymentMethod = !dropInRequest.isVenmoDisabled() && configuration.isVenmoEnabled();
-            } else if (paymentMethodNonce instanceof CardNonce) {
+            } else if (VaultedPaymentMethodSummary.TYPE_CARD.equals(type)) {
                 shouldAddPaymentMethod = !dropInRequest.isCardDisabled() && !configuration.getSupportedCardTypes().isEmpty();
-            } else if (paymentMethodNonce instanceof GooglePayCardNonce) {
+            } else if (VaultedPaymentMethodSummary.TYPE_GOOGLE_PAY.equals(type)) {
                 shouldAddPaymentMethod = googlePayEnabled && !dropInRequest.isGooglePayDisabled();
             }
 
             if (shouldAddPaymentMethod) {
-                items.add(paymentMethodNonce);
+                availableSummaries.add(summary);
             }
         }
+        items = new VaultedPaymentMethodNonceList(availableSummaries);
     }
 
     int size() {
@@ -12,7 +12,7 @@ import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
-import androidx.lifecycle.ViewModelProvider;
+import androidx.tracing.Trace;
 import androidx.viewpager2.widget.ViewPager2;
 
 import com.braintreepayments.api.dropin.R;
@@ -40,14 +40,29 @@ public class BottomSheetFragment extends Fragment implements BottomSheetPresente
         return instance;
     }
 
+    @NonNull
+    @Override
+    public LayoutInflater onGetLayoutInflater(@Nullable Bundle savedInstanceState) {
+        return DropInHost.getLayoutInflater(this, super.onGetLayoutInflater(savedInstanceState));
+    }
+
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
+        Trace.beginSection("BottomSheetFragment.onCreateView");
+        try {
+            return createView(inflater, container);
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    private View createView(LayoutInflater inflater, ViewGroup container) {
         Bundle args = getArguments();
         if (args != null) {
             dropInRequest = args.getParcelable("EXTRA_DROP_IN_REQUEST");
         }
 
-        dropInViewModel = new ViewModelProvider(requireActivity()).get(DropInViewModel.class);
+        dropInViewModel = DropInHost.getViewModel(this);
 
         View view = inflater.inflate(R.layout.bt_fragment_bottom_sheet, container, false);
         backgroundView = view.findViewById(R.id.background);
@@ -64,7 +79,7 @@ public class BottomSheetFragment extends Fragment implements BottomSheetPresente
         childFragmentManager.setFragmentResultListener(DropInEvent.REQUEST_KEY, this,
                 (requestKey, result) -> onDropInEvent(DropInEvent.fromBundle(result)));
 
-        requireActivity().getOnBackPressedDispatcher().addCallback(requireActivity(), new OnBackPressedCallback(true) {
+        requireActivity().getOnBackPressedDispatcher().addCallback(DropInHost.getLifecycleOwner(this), new OnBackPressedCallback(true) {
             @Override
             public void handleOnBackPressed() {
                 BottomSheetViewType visibleFragment =
@@ -87,7 +102,7 @@ public class BottomSheetFragment extends Fragment implements BottomSheetPresente
             }
         });
 
-        dropInViewModel.getBottomSheetState().observe(requireActivity(), bottomSheetState -> {
+        dropInViewModel.getBottomSheetState().observe(DropInHost.getLifecycleOwner(this), bottomSheetState -> {
             switch (bottomSheetState) {
                 case HIDE_REQUESTED:
                     slideDownBottomSheet();
@@ -1,16 +1,17 @@
 package com.braintreepayments.api;
 
-import android.animation.Animator;
-import android.animation.AnimatorSet;
-import android.animation.ObjectAnimator;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.animation.AccelerateDecelerateInterpolator;
 import android.view.animation.AccelerateInterpolator;
 import android.view.animation.DecelerateInterpolator;
 
 import androidx.annotation.Nullable;
+import androidx.core.view.OneShotPreDrawListener;
+import androidx.core.view.ViewCompat;
 import androidx.fragment.app.FragmentManager;
 import androidx.lifecycle.Lifecycle;
+import androidx.tracing.Trace;
 import androidx.viewpager2.widget.ViewPager2;
 
 import static com.braintreepayments.api.BottomSheetViewType.VAULT_MANAGER;
@@ -36,8 +37,8 @@ class BottomSheetPresenter {
     private ViewPager2Animator viewPagerAnimator;
     private BottomSheetViewModel childFragmentList;
 
-    private Animator bottomSheetSlideUpAnimator;
-    private Animator bottomSheetSlideDownAnimator;
+    private boolean isSlidingUpBottomSheet;
+    private boolean isSlidingDownBottomSheet;
 
     private BottomSheetViewAdapter viewPagerAdapter;
 
@@ -60,6 +61,17 @@ class BottomSheetPresenter {
         // disable animation when smooth scrolling between supported payment methods
         // and vault manager fragments
         viewPager.setPageTransformer(new NoAnimationPageTransformer());
+
+        viewPager.registerOnPageChangeCallback(new ViewPager2.OnPageChangeCallback() {
+            @Override
+            public void onPageSelected(int position) {
+                tagVisibleFragment();
+            }
+        });
+
+        // keep the vault manager laid out next to supported payment methods while it is shown,
+        // so transitions between them only animate view properties
+        viewPager.setOffscreenPageLimit(1);
     }
 
     void unbind() {
@@ -83,41 +95,84 @@ class BottomSheetPresenter {
         return childFragmentList.getItem(position);
     }
 
+    /**
+     * Slides the bottom sheet up from its laid out height and fades the background in. The sheet
+     * is laid out before its first frame is drawn, so when it has not been laid out yet the
+     * animation starts on that frame instead of measuring the sheet up front. The sheet and the
+     * background are drawn from hardware layers while they animate.
+     */
     void slideUpBottomSheet(final AnimationCompleteCallback callback) {
+        Trace.beginSection("BottomSheetPresenter.slideUpBottomSheet");
+        try {
+            startSlidingUpBottomSheet(callback);
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    private void startSlidingUpBottomSheet(final AnimationCompleteCallback callback) {
         if (isUnbound()) {
             return;
         }
 
-        ViewPager2 viewPager = viewHolder.getViewPager();
-        View backgroundView = viewHolder.getBackgroundView();
-
-        ObjectAnimator backgroundFadeInAnimator =
-                ObjectAnimator.ofFloat(backgroundView, View.ALPHA, 0.0f, 1.0f);
-        backgroundFadeInAnimator.setDuration(BACKGROUND_FADE_ANIM_DURATION);
-
-        int viewPagerHeight = getViewGroupMeasuredHeight(viewPager);
-
-        viewPager.setTranslationY(viewPagerHeight);
-        ObjectAnimator slideUpAnimator =
-                ObjectAnimator.ofFloat(viewPager, View.TRANSLATION_Y, viewPagerHeight, 0);
-        slideUpAnimator.setInterpolator(new DecelerateInterpolator());
-        slideUpAnimator.setDuration(BOTTOM_SHEET_SLIDE_ANIM_DURATION);
-        slideUpAnimator.setStartDelay(BOTTOM_SHEET_SLIDE_UP_DELAY);
-
-        AnimatorSet animatorSet = new AnimatorSet();
-        animatorSet.play(slideUpAnimator).with(backgroundFadeInAnimator);
-        animatorSet.start();
+        isSlidingUpBottomSheet = true;
+        final ViewPager2 viewPager = viewHolder.getViewPager();
+        if (ViewCompat.isLaidOut(viewPager)) {
+            startSlideUpAnimation(viewPager, callback);
+        } else {
+            OneShotPreDrawListener.add(viewPager, () -> {
+                if (isUnbound()) {
+                    isSlidingUpBottomSheet = false;
+                } else {
+                    startSlideUpAnimation(viewPager, callback);
+                }
+            });
+        }
+    }
 
-        animatorSet.addListener(new SimpleAnimatorListener() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                callback.onAnimationComplete();
-            }
-        });
+    private void startSlideUpAnimation(ViewPager2 viewPager, final AnimationCompleteCallback callback) {
+        View backgroundView = viewHolder.getBackgroundView();
+        tagVisibleFragment();
+
+        viewPager.setTranslationY(viewPager.getHeight());
+        viewPager.animate()
+                .translationY(0)
+                .setInterpolator(new DecelerateInterpolator())
+                .setDuration(BOTTOM_SHEET_SLIDE_ANIM_DURATION)
+                .setStartDelay(BOTTOM_SHEET_SLIDE_UP_DELAY)
+                .withLayer()
+                .start();
+
+        // the background fades in for as long as the sheet takes to slide up
+        backgroundView.setAlpha(0.0f);
+        backgroundView.animate()
+                .alpha(1.0f)
+                .setInterpolator(new AccelerateDecelerateInterpolator())
+                .setDuration(BACKGROUND_FADE_ANIM_DURATION)
+                .setStartDelay(0)
+                .withLayer()
+                .withEndAction(() -> {
+                    isSlidingUpBottomSheet = false;
+                    callback.onAnimationComplete();
+                })
+                .start();
+    }
 
-        bottomSheetSlideUpAnimator = animatorSet;
+    /**
+     * Tags the frames Drop-in renders with the visible page when its frames are monitored.
+     */
+    private void tagVisibleFragment() {
+        BottomSheetViewType visibleFragment = getVisibleFragment();
+        if (visibleFragment != null) {
+            DropInFrameMonitor.putState(viewHolder.getViewPager(),
+                    DropInFrameMetrics.BOTTOM_SHEET_VIEW, visibleFragment.name());
+        }
     }
 
+    /**
+     * Slides the bottom sheet down by its laid out height and fades the background out, drawing
+     * both from hardware layers while they animate.
+     */
     void slideDownBottomSheet(final AnimationCompleteCallback callback) {
         if (isUnbound()) {
             return;
@@ -126,31 +181,27 @@ class BottomSheetPresenter {
         ViewPager2 viewPager = viewHolder.getViewPager();
         View backgroundView = viewHolder.getBackgroundView();
 
-        ObjectAnimator backgroundFadeInAnimator =
-                ObjectAnimator.ofFloat(backgroundView, View.ALPHA, 1.0f, 0.0f);
-        backgroundFadeInAnimator.setDuration(BACKGROUND_FADE_ANIM_DURATION);
-
-        int viewPagerHeight = getViewGroupMeasuredHeight(viewPager);
-
-        viewPager.setTranslationY(viewPagerHeight);
-        ObjectAnimator slideUpAnimator =
-                ObjectAnimator.ofFloat(viewPager, View.TRANSLATION_Y, 0, viewPagerHeight);
-        slideUpAnimator.setInterpolator(new AccelerateInterpolator());
-        slideUpAnimator.setDuration(BOTTOM_SHEET_SLIDE_ANIM_DURATION);
-
-        AnimatorSet animatorSet = new AnimatorSet();
-        animatorSet.play(slideUpAnimator).with(backgroundFadeInAnimator);
-
-        animatorSet.addListener(new SimpleAnimatorListener() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                callback.onAnimationComplete();
-            }
-        });
-
-        animatorSet.start();
-
-        bottomSheetSlideDownAnimator = animatorSet;
+        isSlidingDownBottomSheet = true;
+        viewPager.animate()
+                .translationY(getViewGroupHeight(viewPager))
+                .setInterpolator(new AccelerateInterpolator())
+                .setDuration(BOTTOM_SHEET_SLIDE_ANIM_DURATION)
+                .setStartDelay(0)
+                .withLayer()
+                .start();
+
+        // the background keeps fading out after the sheet has slid down
+        backgroundView.animate()
+                .alpha(0.0f)
+                .setInterpolator(new AccelerateDecelerateInterpolator())
+                .setDuration(BACKGROUND_FADE_ANIM_DURATION)
+                .setStartDelay(0)
+                .withLayer()
+                .withEndAction(() -> {
+                    isSlidingDownBottomSheet = false;
+                    callback.onAnimationComplete();
+                })
+                .start();
     }
 
     void showVaultManager() {
@@ -161,7 +212,7 @@ class BottomSheetPresenter {
         ViewPager2 viewPager = viewHolder.getViewPager();
 
         // keep the same height when transitioning to vault manager
-        int currentHeight = getViewGroupMeasuredHeight(viewPager);
+        int currentHeight = getViewGroupHeight(viewPager);
         setViewGroupHeight(viewPager, currentHeight);
         viewHolder.requestLayout();
 
@@ -188,13 +239,20 @@ class BottomSheetPresenter {
     }
 
     boolean isAnimating() {
-        boolean isSlidingUpBottomSheet =
-                (bottomSheetSlideUpAnimator != null && bottomSheetSlideUpAnimator.isRunning());
-        boolean isSlidingDownBottomSheet =
-                (bottomSheetSlideDownAnimator != null && bottomSheetSlideDownAnimator.isRunning());
         return (isSlidingUpBottomSheet || isSlidingDownBottomSheet);
     }
 
+    /**
+     * @return the laid out height of the view group, which is only measured when it has not been
+     * laid out yet
+     */
+    private int getViewGroupHeight(ViewGroup viewGroup) {
+        if (ViewCompat.isLaidOut(viewGroup)) {
+            return viewGroup.getHeight();
+        }
+        return getViewGroupMeasuredHeight(viewGroup);
+    }
+
     private int getViewGroupMeasuredHeight(ViewGroup viewGroup) {
         ViewGroup.LayoutParams viewPagerLayoutParams = viewGroup.getLayoutParams();
         viewGroup.measure(viewPagerLayoutParams.width, viewPagerLayoutParams.height);
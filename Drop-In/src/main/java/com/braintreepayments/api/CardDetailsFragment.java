@@ -12,7 +12,7 @@ import androidx.activity.OnBackPressedCallback;
 import androidx.annotation.VisibleForTesting;
 import androidx.appcompat.widget.Toolbar;
 import androidx.fragment.app.FragmentActivity;
-import androidx.lifecycle.ViewModelProvider;
+import androidx.tracing.Trace;
 
 import com.braintreepayments.api.dropin.R;
 import com.braintreepayments.cardform.OnCardFormFieldFocusedListener;
@@ -69,8 +69,17 @@ public class CardDetailsFragment extends DropInFragment implements OnCardFormSub
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container,
                              Bundle savedInstanceState) {
+        Trace.beginSection("CardDetailsFragment.onCreateView");
+        try {
+            return createView(inflater, container);
+        } finally {
+            Trace.endSection();
+        }
+    }
 
-        View view = inflater.inflate(R.layout.bt_fragment_card_details, container, false);
+    private View createView(LayoutInflater inflater, ViewGroup container) {
+        View view = DropInViewCache.from(this)
+                .take(inflater, DropInViewCache.CARD_DETAILS, container);
         cardForm = view.findViewById(R.id.bt_card_form);
         animatedButtonView = view.findViewById(R.id.bt_animated_button_view);
 
@@ -80,7 +89,7 @@ public class CardDetailsFragment extends DropInFragment implements OnCardFormSub
         String noticeOfCollection = getString(R.string.bt_notice_of_collection);
         NoticeOfCollectionHelper.setNoticeOfCollectionText(textView, noticeOfCollection);
 
-        dropInViewModel = new ViewModelProvider(requireActivity()).get(DropInViewModel.class);
+        dropInViewModel = DropInHost.getViewModel(this);
 
         dropInViewModel.getCardTokenizationError().observe(getViewLifecycleOwner(), error -> {
             if (error instanceof ErrorWithResponse) {
@@ -91,7 +100,7 @@ public class CardDetailsFragment extends DropInFragment implements OnCardFormSub
 
         dropInViewModel.getUserCanceledError().observe(getViewLifecycleOwner(), e -> animatedButtonView.showButton());
 
-        requireActivity().getOnBackPressedDispatcher().addCallback(requireActivity(),
+        requireActivity().getOnBackPressedDispatcher().addCallback(DropInHost.getLifecycleOwner(this),
                 new OnBackPressedCallback(true) {
                     @Override
                     public void handleOnBackPressed() {
@@ -0,0 +1,17 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Callback for receiving result of {@link PaymentMethodClient#deletePaymentMethods(List, DeletePaymentMethodNoncesCallback)}.
+ */
+public interface DeletePaymentMethodNoncesCallback {
+
+    /**
+     * @param result the payment methods that were deleted and those that could not be deleted
+     * @param error an exception that prevented the payment methods from being deleted
+     */
+    void onResult(@Nullable DeletePaymentMethodNoncesResult result, @Nullable Exception error);
+}
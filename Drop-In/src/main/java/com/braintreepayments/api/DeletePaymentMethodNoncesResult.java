@@ -0,0 +1,62 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of {@link PaymentMethodClient#deletePaymentMethods(List, DeletePaymentMethodNoncesCallback)}.
+ */
+public class DeletePaymentMethodNoncesResult {
+
+    private final List<PaymentMethodNonce> deletedPaymentMethodNonces = new ArrayList<>();
+    private final List<PaymentMethodDeleteException> failures = new ArrayList<>();
+
+    DeletePaymentMethodNoncesResult() {
+    }
+
+    void addDeletedPaymentMethodNonce(PaymentMethodNonce paymentMethodNonce) {
+        deletedPaymentMethodNonces.add(paymentMethodNonce);
+    }
+
+    void addFailedPaymentMethodNonce(PaymentMethodDeleteException failure) {
+        failures.add(failure);
+    }
+
+    /**
+     * @return the {@link PaymentMethodNonce}s that were deleted
+     */
+    @NonNull
+    public List<PaymentMethodNonce> getDeletedPaymentMethodNonces() {
+        return Collections.unmodifiableList(deletedPaymentMethodNonces);
+    }
+
+    /**
+     * @return the {@link PaymentMethodNonce}s that could not be deleted
+     */
+    @NonNull
+    public List<PaymentMethodNonce> getFailedPaymentMethodNonces() {
+        List<PaymentMethodNonce> failedPaymentMethodNonces = new ArrayList<>();
+        for (PaymentMethodDeleteException failure : failures) {
+            failedPaymentMethodNonces.add(failure.getPaymentMethodNonce());
+        }
+        return failedPaymentMethodNonces;
+    }
+
+    /**
+     * @param paymentMethodNonce a {@link PaymentMethodNonce} that could not be deleted
+     * @return the reason the payment method could not be deleted or {@code null} if it was deleted
+     */
+    @Nullable
+    public Exception getError(PaymentMethodNonce paymentMethodNonce) {
+        for (PaymentMethodDeleteException failure : failures) {
+            if (failure.getPaymentMethodNonce() == paymentMethodNonce) {
+                return failure;
+            }
+        }
+        return null;
+    }
+}
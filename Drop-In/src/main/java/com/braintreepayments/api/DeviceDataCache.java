@@ -0,0 +1,57 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the device data collected for a Drop-in session so that it can be collected while the
+ * customer is choosing a payment method and reused when a nonce is produced.
+ * <p>
+ * Device data is only reused for the location consent it was collected with and while it is
+ * younger than {@link #MAX_AGE_MILLIS}.
+ */
+class DeviceDataCache {
+
+    static final long MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final DropInClock clock;
+
+    private String deviceData;
+    private boolean hasUserLocationConsent;
+    private long timestamp;
+
+    DeviceDataCache() {
+        this(System::currentTimeMillis);
+    }
+
+    @VisibleForTesting
+    DeviceDataCache(DropInClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @return the cached device data or {@code null} if none was collected with the given
+     * location consent or it is older than {@link #MAX_AGE_MILLIS}
+     */
+    @Nullable
+    synchronized String get(boolean hasUserLocationConsent) {
+        if (deviceData == null || this.hasUserLocationConsent != hasUserLocationConsent) {
+            return null;
+        }
+
+        long age = clock.currentTimeMillis() - timestamp;
+        if (age < 0 || age >= MAX_AGE_MILLIS) {
+            deviceData = null;
+            return null;
+        }
+        return deviceData;
+    }
+
+    synchronized void put(boolean hasUserLocationConsent, String deviceData) {
+        this.deviceData = deviceData;
+        this.hasUserLocationConsent = hasUserLocationConsent;
+        this.timestamp = clock.currentTimeMillis();
+    }
+}
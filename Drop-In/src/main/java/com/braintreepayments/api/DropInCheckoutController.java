@@ -0,0 +1,616 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentActivity;
+import androidx.fragment.app.FragmentManager;
+import androidx.fragment.app.FragmentTransaction;
+
+import com.braintreepayments.api.dropin.R;
+import com.braintreepayments.cardform.utils.CardType;
+import com.google.android.material.snackbar.Snackbar;
+
+import java.util.List;
+
+/**
+ * Runs the checkout shared by {@link DropInActivity} and {@link DropInEmbeddedFragment}: handles
+ * the events of Drop-in's screens, renders Drop-in sessions, shows the card entry screens,
+ * deletes vaulted payment methods and turns the payment method the customer chose into a
+ * {@link DropInResult}. Its {@link Host} provides the screens' fragment manager, starts payment
+ * methods that leave Drop-in and delivers the result.
+ */
+class DropInCheckoutController {
+
+    static final String ADD_CARD_TAG = "ADD_CARD";
+    static final String CARD_DETAILS_TAG = "CARD_DETAILS";
+    static final String BOTTOM_SHEET_TAG = "BOTTOM_SHEET";
+
+    interface Host extends DropInViewCache.Owner {
+
+        /**
+         * @return the activity Drop-in runs in
+         */
+        FragmentActivity getHostActivity();
+
+        /**
+         * @return the context Drop-in's dialogs are shown with
+         */
+        Context getDropInContext();
+
+        /**
+         * @return the fragment manager Drop-in's screens are added to
+         */
+        FragmentManager getDropInFragmentManager();
+
+        DropInInternalClient getDropInInternalClient();
+
+        AlertPresenter getAlertPresenter();
+
+        boolean isDropInResumed();
+
+        /**
+         * Starts a payment method that is completed outside of Drop-in, e.g. PayPal.
+         */
+        void startPaymentFlow(DropInPaymentMethod paymentMethod);
+
+        /**
+         * Delivers the result of the checkout. The checkout's spans have ended.
+         *
+         * @param dropInResult the result, or {@code null} if the customer canceled
+         */
+        void onFinish(@Nullable DropInResult dropInResult, DropInExitTransition transition);
+
+        /**
+         * Delivers the error the checkout failed with. The checkout's spans have ended.
+         */
+        void onFinishWithError(Exception error);
+    }
+
+    private final Host host;
+    private final String sessionId;
+    private final DropInSpanRecorder spanRecorder;
+
+    private DropInSpan launchSpan;
+    private DropInSpan cardCheckoutSpan;
+    private DropInSpan resultDeliverySpan;
+
+    private DropInRequest dropInRequest;
+    private DropInViewModel dropInViewModel;
+    private View fragmentContainerView;
+
+    @VisibleForTesting
+    DropInSession preparedDropInSession;
+
+    @VisibleForTesting
+    DropInResult pendingDropInResult;
+
+    /**
+     * @param sessionId the Braintree session id Drop-in was launched with
+     * @param restored  whether the host was recreated, in which case its launch was already handled
+     */
+    DropInCheckoutController(Host host, @Nullable String sessionId, boolean restored) {
+        this.host = host;
+        this.sessionId = sessionId;
+        spanRecorder = new DropInSpanRecorder(DropInTracers.get(sessionId));
+        if (!restored) {
+            launchSpan = DropInTracers.takeLaunchSpan(sessionId);
+        }
+    }
+
+    DropInSpanRecorder getSpanRecorder() {
+        return spanRecorder;
+    }
+
+    /**
+     * Renders a session prepared before launch or, when there is none, the last known session
+     * while a fresh one is fetched.
+     *
+     * @param restored whether the host was recreated with its screens
+     */
+    void start(DropInRequest dropInRequest, DropInViewModel dropInViewModel,
+               View fragmentContainerView, boolean restored) {
+        this.dropInRequest = dropInRequest;
+        this.dropInViewModel = dropInViewModel;
+        this.fragmentContainerView = fragmentContainerView;
+
+        if (restored) {
+            return;
+        }
+
+        preparedDropInSession = PreparedDropInSessions.take(sessionId);
+        if (preparedDropInSession != null) {
+            // render the bottom sheet with prepared results on its first frame
+            applyDropInSession(preparedDropInSession);
+        } else {
+            getDropInInternalClient().getCachedDropInSession(host.getHostActivity(),
+                    (cachedSession, cacheError) -> {
+                        // the cache is read off the main thread and must not replace a fresh session
+                        if (cachedSession != null && !hasDropInSession()) {
+                            applyDropInSession(cachedSession);
+                        }
+                    });
+        }
+    }
+
+    void showBottomSheetIfNecessary(boolean addToBackStack) {
+        // fragment manager will restore entire backstack on configuration change; here, we only
+        // show the bottom sheet if no fragments are currently being displayed. This fixes an issue
+        // where a configuration change causes card tokenization to appear idle after it is complete
+        if (host.getDropInFragmentManager().getFragments().isEmpty()) {
+            BottomSheetFragment bottomSheetFragment = BottomSheetFragment.from(dropInRequest);
+            replaceExistingFragment(bottomSheetFragment, BOTTOM_SHEET_TAG, addToBackStack);
+            dropInViewModel.setBottomSheetState(BottomSheetState.SHOW_REQUESTED);
+        }
+    }
+
+    void onDropInEvent(DropInEvent event) {
+        switch (event.getType()) {
+            case ADD_CARD_SUBMIT:
+                showCardDetailsFragment(event.getString(DropInEventProperty.CARD_NUMBER));
+                break;
+            case CARD_DETAILS_SUBMIT:
+                onCardDetailsSubmit(event);
+                break;
+            case DELETE_VAULTED_PAYMENT_METHOD:
+                onDeleteVaultedPaymentMethod(event);
+                break;
+            case DELETE_VAULTED_PAYMENT_METHODS:
+                onDeleteVaultedPaymentMethods(event);
+                break;
+            case EDIT_CARD_NUMBER:
+                startAddCardFlow(event.getString(DropInEventProperty.CARD_NUMBER));
+                break;
+            case SEND_ANALYTICS:
+                sendAnalyticsEvent(event.getString(DropInEventProperty.ANALYTICS_EVENT_NAME));
+                break;
+            case SHOW_VAULT_MANAGER:
+                refreshVaultedPaymentMethods();
+                break;
+            case SUPPORTED_PAYMENT_METHOD_SELECTED:
+                onSupportedPaymentMethodSelected(event);
+                break;
+            case VAULTED_PAYMENT_METHOD_SELECTED:
+                onVaultedPaymentMethodSelected(event);
+                break;
+        }
+    }
+
+    private void onSupportedPaymentMethodSelected(DropInEvent event) {
+        if (!host.isDropInResumed()) {
+            return;
+        }
+
+        DropInPaymentMethod paymentMethodType =
+                event.getDropInPaymentMethodType(DropInEventProperty.SUPPORTED_PAYMENT_METHOD);
+        switch (paymentMethodType) {
+            case GOOGLE_PAY:
+            case PAYPAL:
+            case VENMO:
+                host.startPaymentFlow(paymentMethodType);
+                break;
+            default:
+                prefetchSupportedCardTypes();
+                startAddCardFlow(null);
+                break;
+        }
+    }
+
+    private void prefetchSupportedCardTypes() {
+        getDropInInternalClient().getSupportedCardTypes((supportedCardTypes, error) -> {
+            if (error != null) {
+                onError(error);
+            } else if (supportedCardTypes != null) {
+                dropInViewModel.setSupportedCardTypes(supportedCardTypes);
+            }
+        });
+    }
+
+    private void startAddCardFlow(@Nullable String cardNumber) {
+        // clear card tokenization error to prevent Error UI from a previous duplicate card submission
+        dropInViewModel.setCardTokenizationError(null);
+        // TODO: 👆 isolate transactional state within the calling fragment to prevent stale data
+        // in the activity view model from causing UI bugs; in this case, we should migrate the card
+        // tokenization error out of the activity view model's scope and contain the error state
+        // within the scope of the CardDetailsFragment that's making the request
+
+        if (shouldAddFragment(ADD_CARD_TAG)) {
+            AddCardFragment addCardFragment = AddCardFragment.from(dropInRequest, cardNumber);
+            replaceExistingFragment(addCardFragment, ADD_CARD_TAG, true);
+        }
+    }
+
+    private void showCardDetailsFragment(final String cardNumber) {
+        if (!shouldAddFragment(CARD_DETAILS_TAG)) {
+            return;
+        }
+
+        DropInInternalClient dropInInternalClient = getDropInInternalClient();
+        dropInInternalClient.getAuthorization((authorization, authorizationError) -> {
+            if (authorization == null) {
+                finishWithError(authorizationError);
+                return;
+            }
+            dropInInternalClient.getConfiguration((configuration, configurationError) -> {
+                if (configuration != null) {
+                    boolean hasTokenizationKeyAuth = (authorization instanceof TokenizationKey);
+
+                    CardDetailsFragment cardDetailsFragment = CardDetailsFragment.from(
+                            dropInRequest, cardNumber, configuration, hasTokenizationKeyAuth);
+                    replaceExistingFragment(cardDetailsFragment, CARD_DETAILS_TAG, true);
+                } else {
+                    finishWithError(configurationError);
+                }
+            });
+        });
+    }
+
+    private void onCardDetailsSubmit(DropInEvent event) {
+        Card card = event.getCard(DropInEventProperty.CARD);
+        dropInViewModel.setDropInState(DropInState.WILL_FINISH);
+        cardCheckoutSpan = spanRecorder.start(DropInSpanPhase.CARD_CHECKOUT);
+
+        getDropInInternalClient().tokenizeCard(card, (cardNonce, error) -> {
+            if (error != null) {
+                if (error instanceof ErrorWithResponse) {
+                    // the customer can correct the card details and submit again
+                    spanRecorder.end(cardCheckoutSpan, error);
+                    dropInViewModel.setCardTokenizationError(error);
+                    dropInViewModel.setDropInState(DropInState.IDLE);
+                } else {
+                    onError(error);
+                }
+                return;
+            }
+            onPaymentMethodNonceCreated(cardNonce);
+        });
+    }
+
+    private void onPaymentMethodNonceCreated(final PaymentMethodNonce paymentMethod) {
+        DropInInternalClient dropInInternalClient = getDropInInternalClient();
+        FragmentActivity activity = host.getHostActivity();
+        dropInInternalClient.shouldRequestThreeDSecureVerification(paymentMethod, shouldRequestThreeDSecureVerification -> {
+            if (shouldRequestThreeDSecureVerification) {
+                dropInInternalClient.performThreeDSecureVerification(activity, paymentMethod, (dropInResult, error) -> {
+                    if (error != null) {
+                        onError(error);
+                        return;
+                    }
+                    finishWithResult(dropInResult);
+                });
+            } else {
+                DropInResult dropInResult = new DropInResult();
+                dropInResult.setPaymentMethodNonce(paymentMethod);
+                dropInInternalClient.collectDeviceData(activity, dropInRequest.hasUserLocationConsent(), (deviceData, deviceDataError) -> {
+                    if (deviceData != null) {
+                        dropInResult.setDeviceData(deviceData);
+                        finishWithResult(dropInResult);
+                    } else {
+                        onError(deviceDataError);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onVaultedPaymentMethodSelected(DropInEvent event) {
+        final PaymentMethodNonce paymentMethodNonce =
+                event.getPaymentMethodNonce(DropInEventProperty.VAULTED_PAYMENT_METHOD);
+
+        if (paymentMethodNonce instanceof CardNonce) {
+            sendAnalyticsEvent("vaulted-card.select");
+        }
+
+        dropInViewModel.setDropInState(DropInState.WILL_FINISH);
+        DropInInternalClient dropInInternalClient = getDropInInternalClient();
+        FragmentActivity activity = host.getHostActivity();
+        dropInInternalClient.shouldRequestThreeDSecureVerification(paymentMethodNonce, shouldRequestThreeDSecureVerification -> {
+            if (shouldRequestThreeDSecureVerification) {
+                dropInInternalClient.performThreeDSecureVerification(activity, paymentMethodNonce, (dropInResult, error) -> {
+                    if (dropInResult != null) {
+                        finishWithResult(dropInResult);
+                    } else {
+                        updateVaultedPaymentMethodNonces();
+                        onError(error);
+                    }
+                });
+            } else {
+                final DropInResult dropInResult = new DropInResult();
+                dropInResult.setPaymentMethodNonce(paymentMethodNonce);
+                dropInInternalClient.collectDeviceData(activity, dropInRequest.hasUserLocationConsent(), (deviceData, error) -> {
+                    if (deviceData != null) {
+                        dropInResult.setDeviceData(deviceData);
+                        finishWithResult(dropInResult);
+                    } else {
+                        updateVaultedPaymentMethodNonces();
+                        onError(error);
+                    }
+                });
+            }
+        });
+    }
+
+    private void updateVaultedPaymentMethodNonces() {
+        DropInInternalClient dropInInternalClient = getDropInInternalClient();
+        dropInInternalClient.getAuthorization((authorization, authorizationError) -> {
+            if (authorization instanceof ClientToken) {
+                refreshVaultedPaymentMethods();
+            }
+        });
+    }
+
+    private void refreshVaultedPaymentMethods() {
+        // TODO: show loading indicator while fetching vaulted payment methods
+        getDropInInternalClient().getVaultedPaymentMethods(host.getHostActivity(), (paymentMethodNonceList, error) -> {
+            if (paymentMethodNonceList != null) {
+                dropInViewModel.setVaultedPaymentMethods(paymentMethodNonceList);
+            } else if (error != null) {
+                onError(error);
+            }
+        });
+    }
+
+    /**
+     * Handles the result of a payment method that was completed outside of Drop-in.
+     */
+    void onDropInResult(DropInResult dropInResult, Exception error) {
+        if (dropInResult != null) {
+            finishWithResult(dropInResult);
+        } else if (error instanceof UserCanceledException) {
+            // canceling doesn't change the vault, so the vaulted payment methods are not refetched
+            dropInViewModel.setUserCanceledError(error);
+        } else {
+            onError(error);
+        }
+    }
+
+    private void onDeleteVaultedPaymentMethod(DropInEvent event) {
+        final PaymentMethodNonce paymentMethodNonceToDelete =
+                event.getPaymentMethodNonce(DropInEventProperty.VAULTED_PAYMENT_METHOD);
+        host.getAlertPresenter().showConfirmNonceDeletionDialog(host.getDropInContext(),
+                paymentMethodNonceToDelete, interaction -> {
+                    if (onDeleteConfirmation(interaction)) {
+                        removePaymentMethodNonce(paymentMethodNonceToDelete);
+                    }
+                });
+    }
+
+    private void onDeleteVaultedPaymentMethods(DropInEvent event) {
+        final List<PaymentMethodNonce> paymentMethodNoncesToDelete =
+                event.getPaymentMethodNonces(DropInEventProperty.VAULTED_PAYMENT_METHODS);
+        host.getAlertPresenter().showConfirmNoncesDeletionDialog(host.getDropInContext(),
+                paymentMethodNoncesToDelete, interaction -> {
+                    if (onDeleteConfirmation(interaction)) {
+                        removePaymentMethodNonces(paymentMethodNoncesToDelete);
+                    }
+                });
+    }
+
+    /**
+     * @return {@code true} if the customer confirmed the deletion
+     */
+    private boolean onDeleteConfirmation(DialogInteraction interaction) {
+        switch (interaction) {
+            case POSITIVE:
+                sendAnalyticsEvent("manager.delete.confirmation.positive");
+                return true;
+            case NEGATIVE:
+                sendAnalyticsEvent("manager.delete.confirmation.negative");
+                break;
+        }
+        return false;
+    }
+
+    void removePaymentMethodNonce(PaymentMethodNonce paymentMethodNonceToDelete) {
+        // proactively remove from view model
+        dropInViewModel.removeVaultedPaymentMethodNonce(paymentMethodNonceToDelete);
+
+        getDropInInternalClient().deletePaymentMethod(host.getHostActivity(), paymentMethodNonceToDelete, (deletedNonce, error) -> {
+            if (deletedNonce != null) {
+                sendAnalyticsEvent("manager.delete.succeeded");
+            } else if (error instanceof PaymentMethodDeleteException) {
+                sendAnalyticsEvent("manager.delete.failed");
+                showDeleteFailure();
+            } else {
+                sendAnalyticsEvent("manager.unknown.failed");
+                // TODO: determine how to handle unexpected error when deleting payment method (previously finished drop in)
+                onError(error);
+            }
+        });
+    }
+
+    void removePaymentMethodNonces(List<PaymentMethodNonce> paymentMethodNoncesToDelete) {
+        // proactively remove from view model
+        dropInViewModel.removeVaultedPaymentMethodNonces(paymentMethodNoncesToDelete);
+
+        getDropInInternalClient().deletePaymentMethods(paymentMethodNoncesToDelete, (result, error) -> {
+            if (result != null) {
+                if (!result.getDeletedPaymentMethodNonces().isEmpty()) {
+                    sendAnalyticsEvent("manager.delete.succeeded");
+                }
+                if (!result.getFailedPaymentMethodNonces().isEmpty()) {
+                    sendAnalyticsEvent("manager.delete.failed");
+                    showDeleteFailure();
+                }
+            } else {
+                sendAnalyticsEvent("manager.unknown.failed");
+                onError(error);
+            }
+        });
+    }
+
+    private void showDeleteFailure() {
+        host.getAlertPresenter().showSnackbarText(fragmentContainerView,
+                R.string.bt_vault_manager_delete_failure, Snackbar.LENGTH_LONG);
+    }
+
+    private boolean hasDropInSession() {
+        return dropInViewModel.getSupportedPaymentMethods().getValue() != null;
+    }
+
+    /**
+     * Renders a session, leaving parts that are already displayed untouched.
+     */
+    void applyDropInSession(DropInSession dropInSession) {
+        List<DropInPaymentMethod> supportedPaymentMethods = dropInSession.getSupportedPaymentMethods();
+        if (!supportedPaymentMethods.equals(dropInViewModel.getSupportedPaymentMethods().getValue())) {
+            dropInViewModel.setSupportedPaymentMethods(supportedPaymentMethods);
+        }
+
+        List<CardType> supportedCardTypes = dropInSession.getSupportedCardTypes();
+        if (!supportedCardTypes.equals(dropInViewModel.getSupportedCardTypes().getValue())) {
+            dropInViewModel.setSupportedCardTypes(supportedCardTypes);
+        }
+
+        List<PaymentMethodNonce> vaultedPaymentMethods = dropInSession.getVaultedPaymentMethods();
+        if (vaultedPaymentMethods != null
+                && !vaultedPaymentMethods.equals(dropInViewModel.getVaultedPaymentMethods().getValue())) {
+            dropInViewModel.setVaultedPaymentMethods(vaultedPaymentMethods);
+        }
+    }
+
+    void onBottomSheetShown() {
+        spanRecorder.end(launchSpan, null);
+
+        DropInInternalClient dropInInternalClient = getDropInInternalClient();
+        FragmentActivity activity = host.getHostActivity();
+        // collect device data while the customer chooses so result delivery doesn't wait on it
+        dropInInternalClient.prefetchDeviceData(activity);
+
+        if (!dropInRequest.isCardDisabled()) {
+            // the card flow replaces the bottom sheet, so its screens are inflated for the same parent
+            DropInViewCache cache = host.getDropInViewCache();
+            cache.preinflate(fragmentContainerView, DropInViewCache.ADD_CARD);
+            cache.preinflate(fragmentContainerView, DropInViewCache.CARD_DETAILS);
+        }
+
+        if (preparedDropInSession != null) {
+            // payment methods were resolved before launch; no need to fetch them again
+            preparedDropInSession = null;
+            return;
+        }
+
+        // TODO: consider pull to refresh to allow user to request an updated
+        // instead of having this event respond to the visual presentation of supported
+        // payment methods
+        dropInInternalClient.getDropInSession(activity, (dropInSession, error) -> {
+            if (dropInSession != null) {
+                applyDropInSession(dropInSession);
+            } else {
+                onError(error);
+            }
+        });
+    }
+
+    void onBottomSheetHidden() {
+        finishWithPendingResult(DropInExitTransition.FADE_OUT);
+    }
+
+    private void finishWithResult(DropInResult dropInResult) {
+        pendingDropInResult = dropInResult;
+
+        // the result resolved its payment method type when its nonce was set
+        DropInPaymentMethod paymentMethod = (dropInResult.getPaymentMethodNonce() != null)
+                ? dropInResult.getPaymentMethodType() : null;
+        resultDeliverySpan = spanRecorder.start(DropInSpanPhase.RESULT_DELIVERY, paymentMethod);
+
+        if (isBottomSheetVisible()) {
+            // Drop-in finishes when the bottom sheet transitions to the "HIDDEN" state
+            dropInViewModel.setBottomSheetState(BottomSheetState.HIDE_REQUESTED);
+        } else {
+            // no need to animate Drop-in hidden since bottom sheet is not visible
+            finishWithPendingResult(DropInExitTransition.NO_ANIMATION);
+        }
+    }
+
+    private void finishWithPendingResult(DropInExitTransition transition) {
+        DropInResult dropInResult = pendingDropInResult;
+        pendingDropInResult = null;
+
+        if (dropInResult != null) {
+            sendAnalyticsEvent("sdk.exit.success");
+            getDropInInternalClient().setLastUsedPaymentMethodType(dropInResult.getPaymentMethodNonce());
+            endSpansOnFinish(DropInSpanOutcome.SUCCEEDED);
+        } else {
+            // assume drop in cancelled
+            sendAnalyticsEvent("sdk.exit.canceled");
+            endSpansOnFinish(DropInSpanOutcome.CANCELED);
+        }
+        host.onFinish(dropInResult, transition);
+    }
+
+    void onError(Exception error) {
+        if (error instanceof ErrorWithResponse) {
+            dropInViewModel.setCardTokenizationError(error);
+        } else {
+            sendAnalyticsEvent(getExitAnalyticsEvent(error));
+        }
+
+        finishWithError(error);
+    }
+
+    void finishWithError(Exception error) {
+        endSpansOnFinish(DropInSpanRecorder.outcomeOf(error));
+        host.onFinishWithError(error);
+    }
+
+    /**
+     * @return the analytics event sent when Drop-in finishes with an error
+     */
+    static String getExitAnalyticsEvent(Exception error) {
+        if (error instanceof AuthenticationException || error instanceof AuthorizationException || error instanceof UpgradeRequiredException) {
+            return "sdk.exit.developer-error";
+        } else if (error instanceof ConfigurationException) {
+            return "sdk.exit.configuration-exception";
+        } else if (error instanceof ServerException || error instanceof UnexpectedException) {
+            return "sdk.exit.server-error";
+        } else if (error instanceof ServiceUnavailableException) {
+            return "sdk.exit.server-unavailable";
+        }
+        return "sdk.exit.sdk-error";
+    }
+
+    private void endSpansOnFinish(DropInSpanOutcome outcome) {
+        // Drop-in can finish before its bottom sheet is shown or a submitted card is tokenized
+        spanRecorder.end(launchSpan, outcome, null);
+        spanRecorder.end(cardCheckoutSpan, outcome, null);
+
+        if (resultDeliverySpan == null) {
+            // Drop-in is finishing without a result, e.g. canceled or failed
+            resultDeliverySpan = spanRecorder.start(DropInSpanPhase.RESULT_DELIVERY);
+        }
+        spanRecorder.end(resultDeliverySpan, outcome, null);
+    }
+
+    private void sendAnalyticsEvent(String eventName) {
+        getDropInInternalClient().sendAnalyticsEvent(eventName);
+    }
+
+    private DropInInternalClient getDropInInternalClient() {
+        // hosts can replace their client, e.g. in tests
+        return host.getDropInInternalClient();
+    }
+
+    private boolean shouldAddFragment(String tag) {
+        return host.getDropInFragmentManager().findFragmentByTag(tag) == null;
+    }
+
+    private void replaceExistingFragment(Fragment fragment, String tag, boolean addToBackStack) {
+        FragmentTransaction transaction = host.getDropInFragmentManager()
+                .beginTransaction()
+                .setCustomAnimations(R.anim.bt_fade_in, R.anim.bt_fade_out)
+                .replace(R.id.fragment_container_view, fragment, tag);
+        if (addToBackStack) {
+            transaction.addToBackStack(null);
+        }
+        transaction.commit();
+    }
+
+    private boolean isBottomSheetVisible() {
+        Fragment fragment = host.getDropInFragmentManager().findFragmentByTag(BOTTOM_SHEET_TAG);
+        return fragment != null && fragment.isVisible();
+    }
+}
@@ -4,12 +4,16 @@ import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
 
+import androidx.annotation.IdRes;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentActivity;
+import androidx.fragment.app.FragmentManager;
 import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.savedstate.SavedStateRegistryOwner;
 
 /**
  * Used to launch Drop-in and handle results
@@ -31,30 +35,71 @@ public class DropInClient {
     private final DropInRequest dropInRequest;
 
     private final DropInSharedPreferences dropInSharedPreferences;
+    private final DropInConfigurationCache configurationCache;
+    private final VaultedPaymentMethodCache vaultedPaymentMethodCache;
 
     private DropInListener listener;
+    private DropInTracer tracer;
+    private DropInFrameMetricsListener frameMetricsListener;
+
+    private DropInSpanRecorder spanRecorder = new DropInSpanRecorder(null);
 
     @VisibleForTesting
     DropInLifecycleObserver observer;
 
-    private static DropInClientParams createDefaultParams(Context context, String authorization, ClientTokenProvider clientTokenProvider, DropInRequest dropInRequest, FragmentActivity activity, Lifecycle lifecycle) {
+    private final FragmentActivity activity;
+
+    // the view model of the embedded Drop-in fragment this client was handed to
+    private DropInEmbeddedViewModel embeddedViewModel;
+
+    private final FragmentManager.FragmentLifecycleCallbacks embeddedFragmentCallbacks =
+            new FragmentManager.FragmentLifecycleCallbacks() {
+                @Override
+                public void onFragmentAttached(@NonNull FragmentManager fragmentManager,
+                                               @NonNull Fragment fragment,
+                                               @NonNull Context context) {
+                    if (fragment instanceof DropInEmbeddedFragment) {
+                        handOffToEmbeddedFragment(fragment);
+                    }
+                }
+            };
+
+    private DropInRequest preparedDropInRequest;
+
+    @VisibleForTesting
+    DropInSession preparedDropInSession;
+
+    private static DropInClientParams createDefaultParams(Context context, String authorization, ClientTokenProvider clientTokenProvider, DropInRequest dropInRequest, FragmentActivity activity, SavedStateRegistryOwner owner) {
 
         String customUrlScheme = null;
         if (dropInRequest != null) {
             customUrlScheme = dropInRequest.getCustomUrlScheme();
         }
 
-        BraintreeOptions braintreeOptions = new BraintreeOptions(
-                context,
-                null,
-                customUrlScheme,
-                null,
-                authorization,
-                clientTokenProvider,
-                IntegrationType.DROP_IN
-        );
-
-        BraintreeClient braintreeClient = new BraintreeClient(braintreeOptions);
+        Lifecycle lifecycle = (owner != null) ? owner.getLifecycle() : null;
+        BraintreeClient braintreeClient;
+        if (owner != null && authorization != null) {
+            // shared with the Drop-in activity and with the client recreated with the owner;
+            // released when the lifecycle is destroyed
+            DropInSessionState sessionState = DropInSessionState.of(owner);
+            braintreeClient = DropInSessionRegistry.acquire(context, authorization,
+                    sessionState.getRestoredSessionId(), customUrlScheme);
+            sessionState.save(braintreeClient.getSessionId());
+        } else {
+            BraintreeOptions braintreeOptions = new BraintreeOptions(
+                    context,
+                    null,
+                    customUrlScheme,
+                    null,
+                    authorization,
+                    clientTokenProvider,
+                    IntegrationType.DROP_IN
+            );
+            braintreeClient = new BraintreeClient(braintreeOptions);
+            if (lifecycle != null) {
+                DropInSessionRegistry.register(braintreeClient, customUrlScheme);
+            }
+        }
         return new DropInClientParams()
                 .activity(activity)
                 .lifecycle(lifecycle)
@@ -62,7 +107,9 @@ public class DropInClient {
                 .braintreeClient(braintreeClient)
                 .paymentMethodClient(new PaymentMethodClient(braintreeClient))
                 .googlePayClient(new GooglePayClient(braintreeClient))
-                .dropInSharedPreferences(DropInSharedPreferences.getInstance(context.getApplicationContext()));
+                .dropInSharedPreferences(DropInSharedPreferences.getInstance(context.getApplicationContext()))
+                .configurationCache(DropInConfigurationCache.getInstance(context.getApplicationContext()))
+                .vaultedPaymentMethodCache(VaultedPaymentMethodCache.getInstance(context.getApplicationContext()));
     }
 
     /**
@@ -88,7 +135,7 @@ public class DropInClient {
      */
     @Deprecated
     public DropInClient(FragmentActivity activity, DropInRequest dropInRequest, String authorization) {
-        this(activity, activity.getLifecycle(), authorization, dropInRequest);
+        this(activity, activity, authorization, dropInRequest);
     }
 
     /**
@@ -98,7 +145,7 @@ public class DropInClient {
      * @param authorization a Tokenization Key authorization string
      */
     public DropInClient(FragmentActivity activity, String authorization) {
-        this(activity, activity.getLifecycle(), authorization, null);
+        this(activity, activity, authorization, null);
     }
 
     /**
@@ -111,7 +158,7 @@ public class DropInClient {
      */
     @Deprecated
     public DropInClient(Fragment fragment, DropInRequest dropInRequest, String authorization) {
-        this(fragment.requireActivity(), fragment.getLifecycle(), authorization, dropInRequest);
+        this(fragment.requireActivity(), fragment, authorization, dropInRequest);
     }
 
     /**
@@ -121,7 +168,7 @@ public class DropInClient {
      * @param authorization a Tokenization Key authorization string
      */
     public DropInClient(Fragment fragment, String authorization) {
-        this(fragment.requireActivity(), fragment.getLifecycle(), authorization, null);
+        this(fragment.requireActivity(), fragment, authorization, null);
     }
 
     /**
@@ -134,7 +181,7 @@ public class DropInClient {
      */
     @Deprecated
     public DropInClient(FragmentActivity activity, DropInRequest dropInRequest, ClientTokenProvider clientTokenProvider) {
-        this(createDefaultParams(activity, null, clientTokenProvider, dropInRequest, activity, activity.getLifecycle()));
+        this(createDefaultParams(activity, null, clientTokenProvider, dropInRequest, activity, activity));
     }
 
     /**
@@ -144,7 +191,7 @@ public class DropInClient {
      * @param clientTokenProvider a {@link ClientTokenProvider}
      */
     public DropInClient(FragmentActivity activity, ClientTokenProvider clientTokenProvider) {
-        this(createDefaultParams(activity, null, clientTokenProvider, null, activity, activity.getLifecycle()));
+        this(createDefaultParams(activity, null, clientTokenProvider, null, activity, activity));
     }
 
     /**
@@ -157,7 +204,7 @@ public class DropInClient {
      */
     @Deprecated
     public DropInClient(Fragment fragment, DropInRequest dropInRequest, ClientTokenProvider clientTokenProvider) {
-        this(createDefaultParams(fragment.requireActivity(), null, clientTokenProvider, dropInRequest, fragment.requireActivity(), fragment.getLifecycle()));
+        this(createDefaultParams(fragment.requireActivity(), null, clientTokenProvider, dropInRequest, fragment.requireActivity(), fragment));
     }
 
     /**
@@ -167,11 +214,11 @@ public class DropInClient {
      * @param clientTokenProvider a {@link ClientTokenProvider}
      */
     public DropInClient(Fragment fragment, ClientTokenProvider clientTokenProvider) {
-        this(createDefaultParams(fragment.requireActivity(), null, clientTokenProvider, null, fragment.requireActivity(), fragment.getLifecycle()));
+        this(createDefaultParams(fragment.requireActivity(), null, clientTokenProvider, null, fragment.requireActivity(), fragment));
     }
 
-    DropInClient(FragmentActivity activity, Lifecycle lifecycle, String authorization, DropInRequest dropInRequest) {
-        this(createDefaultParams(activity, authorization, null, dropInRequest, activity, lifecycle));
+    DropInClient(FragmentActivity activity, SavedStateRegistryOwner owner, String authorization, DropInRequest dropInRequest) {
+        this(createDefaultParams(activity, authorization, null, dropInRequest, activity, owner));
     }
 
     @VisibleForTesting
@@ -181,8 +228,10 @@ public class DropInClient {
         this.googlePayClient = params.getGooglePayClient();
         this.paymentMethodClient = params.getPaymentMethodClient();
         this.dropInSharedPreferences = params.getDropInSharedPreferences();
+        this.configurationCache = params.getConfigurationCache();
+        this.vaultedPaymentMethodCache = params.getVaultedPaymentMethodCache();
+        this.activity = params.getActivity();
 
-        FragmentActivity activity = params.getActivity();
         Lifecycle lifecycle = params.getLifecycle();
         if (activity != null && lifecycle != null) {
             addObserver(activity, lifecycle);
@@ -192,6 +241,20 @@ public class DropInClient {
     private void addObserver(@NonNull FragmentActivity activity, @NonNull Lifecycle lifecycle) {
         observer = new DropInLifecycleObserver(activity.getActivityResultRegistry(), this);
         lifecycle.addObserver(observer);
+
+        FragmentManager fragmentManager = activity.getSupportFragmentManager();
+        // a fragment restored with the activity is attached before this client is created
+        Fragment embeddedFragment = fragmentManager.findFragmentByTag(DropInEmbeddedFragment.TAG);
+        if (embeddedFragment instanceof DropInEmbeddedFragment && embeddedFragment.isAdded()) {
+            handOffToEmbeddedFragment(embeddedFragment);
+        }
+        fragmentManager.registerFragmentLifecycleCallbacks(embeddedFragmentCallbacks, false);
+    }
+
+    private void handOffToEmbeddedFragment(Fragment embeddedFragment) {
+        embeddedViewModel =
+                new ViewModelProvider(embeddedFragment).get(DropInEmbeddedViewModel.class);
+        embeddedViewModel.setDropInClient(this);
     }
 
     /**
@@ -204,8 +267,67 @@ public class DropInClient {
         this.listener = listener;
     }
 
+    /**
+     * Add a {@link DropInTracer} to your client to receive timing spans for each phase of the
+     * checkout, including phases that run after Drop-in has been launched. Pass {@code null} to
+     * stop receiving spans.
+     *
+     * @param tracer a {@link DropInTracer}
+     */
+    public void setTracer(@Nullable DropInTracer tracer) {
+        this.tracer = tracer;
+        this.spanRecorder = new DropInSpanRecorder(tracer);
+        DropInTracers.put(braintreeClient.getSessionId(), tracer);
+    }
+
+    @Nullable
+    DropInTracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Add a {@link DropInFrameMetricsListener} to your client to monitor the frames Drop-in
+     * renders and receive a summary of each checkout session's frames when Drop-in finishes.
+     * Frames are only monitored while a listener is set. Pass {@code null} to stop monitoring.
+     *
+     * @param listener a {@link DropInFrameMetricsListener}
+     */
+    public void setFrameMetricsListener(@Nullable DropInFrameMetricsListener listener) {
+        this.frameMetricsListener = listener;
+        DropInFrameMonitor.putListener(braintreeClient.getSessionId(), listener);
+    }
+
     void getAuthorization(AuthorizationCallback callback) {
-        braintreeClient.getAuthorization(callback);
+        DropInSpan span = spanRecorder.start(DropInSpanPhase.AUTHORIZATION);
+        braintreeClient.getAuthorization((authorization, error) -> {
+            spanRecorder.end(span, error);
+            callback.onAuthorizationResult(authorization, error);
+        });
+    }
+
+    /**
+     * Called when the {@link FragmentActivity} or {@link Fragment} hosting this client is
+     * destroyed.
+     */
+    void onDestroy() {
+        if (tracer != null) {
+            DropInTracers.put(braintreeClient.getSessionId(), null);
+        }
+        // a launch span that no Drop-in claimed would otherwise be held forever
+        DropInTracers.takeLaunchSpan(braintreeClient.getSessionId());
+        if (frameMetricsListener != null) {
+            DropInFrameMonitor.putListener(braintreeClient.getSessionId(), null);
+        }
+        if (observer != null) {
+            // registered along with the lifecycle observer
+            activity.getSupportFragmentManager()
+                    .unregisterFragmentLifecycleCallbacks(embeddedFragmentCallbacks);
+        }
+        if (embeddedViewModel != null) {
+            embeddedViewModel.removeDropInClient(this);
+            embeddedViewModel = null;
+        }
+        DropInSessionRegistry.release(braintreeClient);
     }
 
     /**
@@ -215,7 +337,7 @@ public class DropInClient {
      */
     @Deprecated
     public void launchDropInForResult(FragmentActivity activity, int requestCode) {
-        getAuthorization((authorization, authorizationError) -> {
+        launchWithAuthorization(dropInRequest, (authorization, authorizationError) -> {
             if (authorization != null) {
                 if (observer != null) {
                     DropInIntentData intentData =
@@ -255,7 +377,7 @@ public class DropInClient {
      */
     @Deprecated
     public void launchDropIn() {
-        getAuthorization((authorization, authorizationError) -> {
+        launchWithAuthorization(dropInRequest, (authorization, authorizationError) -> {
             if (authorization != null && observer != null) {
                 DropInIntentData intentData =
                         new DropInIntentData(dropInRequest, authorization, braintreeClient.getSessionId());
@@ -278,7 +400,7 @@ public class DropInClient {
      * @see #DropInClient(FragmentActivity, ClientTokenProvider)
      */
     public void launchDropIn(DropInRequest request) {
-        getAuthorization((authorization, authorizationError) -> {
+        launchWithAuthorization(request, (authorization, authorizationError) -> {
             if (authorization != null && observer != null) {
                 DropInIntentData intentData =
                         new DropInIntentData(request, authorization, braintreeClient.getSessionId());
@@ -289,6 +411,122 @@ public class DropInClient {
         });
     }
 
+    /**
+     * Called to show Drop-in inside the current activity instead of launching a
+     * {@link DropInActivity}. Embedded Drop-in is added to the activity's fragment manager in the
+     * given container, uses this client for its requests, and delivers results to the
+     * {@link DropInListener} of this client.
+     * <p>
+     * Embedded Drop-in offers cards and vaulted cards. PayPal, Venmo, Google Pay and
+     * {@link ThreeDSecureRequest} verification need results from other activities or apps, so
+     * requests that don't disable them are launched in a {@link DropInActivity} as with
+     * {@link #launchDropIn(DropInRequest)}.
+     * <p>
+     * NOTE: This method requires {@link DropInClient} to be instantiated with either an Activity
+     * or with a Fragment.
+     *
+     * @param request the {@link DropInRequest} to show Drop-in with
+     * @param containerViewId the id of a view group in the activity's layout to show Drop-in in
+     */
+    public void showEmbeddedDropIn(@NonNull DropInRequest request, @IdRes int containerViewId) {
+        if (activity == null || !isEmbeddable(request)) {
+            launchDropIn(request);
+            return;
+        }
+
+        launchWithAuthorization(request, (authorization, authorizationError) -> {
+            if (authorization != null) {
+                // authorization can be fetched after the activity has saved its state
+                activity.getSupportFragmentManager()
+                        .beginTransaction()
+                        .replace(containerViewId,
+                                DropInEmbeddedFragment.from(request, braintreeClient.getSessionId()),
+                                DropInEmbeddedFragment.TAG)
+                        .commitAllowingStateLoss();
+            } else if (authorizationError != null && listener != null) {
+                listener.onDropInFailure(authorizationError);
+            }
+        });
+    }
+
+    /**
+     * Starts the {@link DropInSpanPhase#LAUNCH} span and fetches authorization for the callback to
+     * launch Drop-in with. With authorization, the prepared session and the span are handed off to
+     * the Drop-in about to be launched; otherwise the span ends with the authorization error.
+     */
+    private void launchWithAuthorization(DropInRequest request, AuthorizationCallback callback) {
+        DropInSpan launchSpan = spanRecorder.start(DropInSpanPhase.LAUNCH);
+        getAuthorization((authorization, authorizationError) -> {
+            if (authorization != null) {
+                handOffPreparedSession(request);
+                DropInTracers.putLaunchSpan(braintreeClient.getSessionId(), launchSpan);
+            } else {
+                spanRecorder.end(launchSpan, authorizationError);
+            }
+            callback.onAuthorizationResult(authorization, authorizationError);
+        });
+    }
+
+    /**
+     * @return {@code true} if every payment method the request offers completes without leaving
+     * the merchant's activity
+     */
+    private static boolean isEmbeddable(DropInRequest request) {
+        return request.getThreeDSecureRequest() == null
+                && request.isPayPalDisabled()
+                && request.isVenmoDisabled()
+                && request.isGooglePayDisabled();
+    }
+
+    /**
+     * Called to resolve authorization, configuration, available payment methods and (when using a
+     * Client Token) vaulted payment methods before Drop-in is launched. When
+     * {@link #launchDropIn(DropInRequest)} is later called with the same {@link DropInRequest}
+     * instance, Drop-in will display the prepared payment methods immediately instead of fetching
+     * them after the bottom sheet has been shown.
+     * <p>
+     * Prepared results expire after a few minutes; launching Drop-in with an expired or different
+     * request falls back to fetching payment methods as usual.
+     * <p>
+     * NOTE: This method requires {@link DropInClient} to be instantiated with either an Activity
+     * or with a Fragment.
+     *
+     * @param request the {@link DropInRequest} that will be used to launch Drop-in
+     */
+    public void prepare(@NonNull final DropInRequest request) {
+        preparedDropInRequest = request;
+        preparedDropInSession = null;
+
+        if (activity == null) {
+            return;
+        }
+
+        DropInInternalClient dropInInternalClient = createDropInInternalClient(request);
+        dropInInternalClient.getDropInSession(activity, (dropInSession, error) -> {
+            // ignore results for a request that has since been replaced
+            if (preparedDropInRequest == request) {
+                preparedDropInSession = dropInSession;
+            }
+        });
+    }
+
+    @VisibleForTesting
+    DropInInternalClient createDropInInternalClient(DropInRequest request) {
+        return new DropInInternalClient(activity, braintreeClient, request);
+    }
+
+    private void handOffPreparedSession(DropInRequest request) {
+        DropInSession dropInSession = preparedDropInSession;
+        boolean isPreparedRequest = (request != null && request == preparedDropInRequest);
+
+        preparedDropInRequest = null;
+        preparedDropInSession = null;
+
+        if (isPreparedRequest && dropInSession != null && !dropInSession.isExpired()) {
+            PreparedDropInSessions.put(braintreeClient.getSessionId(), dropInSession);
+        }
+    }
+
     /**
      * Called to get a user's existing payment method, if any.
      * The payment method returned is not guaranteed to be the most recently added payment method.
@@ -367,11 +605,27 @@ public class DropInClient {
 
     /**
      * For clients using a {@link ClientTokenProvider}, call this method to invalidate the existing,
-     * cached client token. A new client token will be fetched by the SDK when it is needed.
+     * cached client token. A new client token will be fetched by the SDK when it is needed. Any
+     * cached configuration and vaulted payment methods are removed as well.
      * <p>
-     * For clients not using a {@link ClientTokenProvider}, this method does nothing.
+     * For clients not using a {@link ClientTokenProvider}, this method only removes cached data.
      */
     public void invalidateClientToken() {
         braintreeClient.invalidateClientToken();
+        clearConfigurationCache();
+        if (vaultedPaymentMethodCache != null) {
+            vaultedPaymentMethodCache.clear();
+        }
+    }
+
+    /**
+     * Drop-in stores the most recently fetched configuration on disk so the next checkout can
+     * display payment methods before configuration has been fetched again. Call this method to
+     * remove the stored configuration, for example when a user logs out.
+     */
+    public void clearConfigurationCache() {
+        if (configurationCache != null) {
+            configurationCache.clear();
+        }
     }
 }
@@ -11,6 +11,8 @@ class DropInClientParams {
     private GooglePayClient googlePayClient;
     private PaymentMethodClient paymentMethodClient;
     private DropInSharedPreferences dropInSharedPreferences;
+    private DropInConfigurationCache configurationCache;
+    private VaultedPaymentMethodCache vaultedPaymentMethodCache;
     private FragmentActivity activity;
     private Lifecycle lifecycle;
 
@@ -76,4 +78,22 @@ class DropInClientParams {
     Lifecycle getLifecycle() {
         return lifecycle;
     }
+
+    DropInClientParams configurationCache(DropInConfigurationCache configurationCache) {
+        this.configurationCache = configurationCache;
+        return this;
+    }
+
+    DropInConfigurationCache getConfigurationCache() {
+        return configurationCache;
+    }
+
+    DropInClientParams vaultedPaymentMethodCache(VaultedPaymentMethodCache vaultedPaymentMethodCache) {
+        this.vaultedPaymentMethodCache = vaultedPaymentMethodCache;
+        return this;
+    }
+
+    VaultedPaymentMethodCache getVaultedPaymentMethodCache() {
+        return vaultedPaymentMethodCache;
+    }
 }
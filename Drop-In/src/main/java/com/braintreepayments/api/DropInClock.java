@@ -0,0 +1,8 @@
+package com.braintreepayments.api;
+
+/**
+ * Source of the current time for Drop-in's caches and spans, so tests can control it.
+ */
+interface DropInClock {
+    long currentTimeMillis();
+}
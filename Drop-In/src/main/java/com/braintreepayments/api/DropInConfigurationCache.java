@@ -0,0 +1,152 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+import android.util.Base64;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists the most recent {@link Configuration} so Drop-in can render supported payment methods
+ * before a fresh configuration has been fetched. Only one snapshot is stored at a time; it is
+ * scoped to a fingerprint of the merchant authorization and is ignored for any other authorization.
+ */
+class DropInConfigurationCache {
+
+    private static final String CONFIGURATION_SNAPSHOT =
+            "com.braintreepayments.api.dropin.CONFIGURATION_SNAPSHOT";
+
+    private static final String FINGERPRINT_KEY = "fingerprint";
+    private static final String CONFIGURATION_KEY = "configuration";
+    private static final String GOOGLE_PAY_READY_KEY = "isReadyToGooglePay";
+    private static final String TIMESTAMP_KEY = "timestamp";
+
+    static final long MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private static volatile DropInConfigurationCache INSTANCE;
+
+    static DropInConfigurationCache getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (DropInConfigurationCache.class) {
+                // double check that instance was not created in another thread
+                if (INSTANCE == null) {
+                    INSTANCE = new DropInConfigurationCache(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private final BraintreeSharedPreferences braintreeSharedPreferences;
+    private final DropInClock clock;
+
+    private DropInConfigurationCache(Context context) {
+        this(BraintreeSharedPreferences.getInstance(context), System::currentTimeMillis);
+    }
+
+    @VisibleForTesting
+    DropInConfigurationCache(BraintreeSharedPreferences braintreeSharedPreferences, DropInClock clock) {
+        this.braintreeSharedPreferences = braintreeSharedPreferences;
+        this.clock = clock;
+    }
+
+    /**
+     * @param authorization the authorization Drop-in is using
+     * @return the stored snapshot or {@code null} if there is no snapshot for this authorization
+     * or it is older than {@link #MAX_AGE_MILLIS}
+     */
+    @Nullable
+    Snapshot get(Authorization authorization) {
+        String snapshotJson = braintreeSharedPreferences.getString(CONFIGURATION_SNAPSHOT, null);
+        if (snapshotJson == null) {
+            return null;
+        }
+
+        try {
+            JSONObject snapshot = new JSONObject(snapshotJson);
+            if (!fingerprint(authorization).equals(snapshot.getString(FINGERPRINT_KEY))) {
+                return null;
+            }
+
+            long age = clock.currentTimeMillis() - snapshot.getLong(TIMESTAMP_KEY);
+            if (age < 0 || age >= MAX_AGE_MILLIS) {
+                return null;
+            }
+
+            Configuration configuration =
+                    Configuration.fromJson(snapshot.getString(CONFIGURATION_KEY));
+            return new Snapshot(configuration, snapshot.optBoolean(GOOGLE_PAY_READY_KEY, false));
+        } catch (JSONException e) {
+            // ignore malformed snapshots; the next successful fetch replaces them
+            return null;
+        }
+    }
+
+    void put(Authorization authorization, Configuration configuration, boolean isReadyToGooglePay) {
+        try {
+            JSONObject snapshot = new JSONObject()
+                    .put(FINGERPRINT_KEY, fingerprint(authorization))
+                    .put(CONFIGURATION_KEY, configuration.toJson())
+                    .put(GOOGLE_PAY_READY_KEY, isReadyToGooglePay)
+                    .put(TIMESTAMP_KEY, clock.currentTimeMillis());
+            braintreeSharedPreferences.putString(CONFIGURATION_SNAPSHOT, snapshot.toString());
+        } catch (JSONException ignored) {
+            // the snapshot is an optimization; failing to store it is not an error
+        }
+    }
+
+    void clear() {
+        braintreeSharedPreferences.putString(CONFIGURATION_SNAPSHOT, null);
+    }
+
+    /**
+     * Client Tokens carry a new authorization fingerprint every time they are generated, so they
+     * are scoped by their merchant-specific configuration URL instead. Tokenization Keys are stable
+     * and are hashed as-is.
+     */
+    @VisibleForTesting
+    static String fingerprint(Authorization authorization) {
+        String source = (authorization instanceof ClientToken)
+                ? String.valueOf(authorization.getConfigUrl())
+                : authorization.toString();
+        return sha256(source);
+    }
+
+    static String sha256(String source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(source.getBytes(StandardCharsets.UTF_8));
+            return Base64.encodeToString(hash, Base64.NO_WRAP);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is required on every Android device
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static class Snapshot {
+
+        private final Configuration configuration;
+        private final boolean isReadyToGooglePay;
+
+        Snapshot(Configuration configuration, boolean isReadyToGooglePay) {
+            this.configuration = configuration;
+            this.isReadyToGooglePay = isReadyToGooglePay;
+        }
+
+        Configuration getConfiguration() {
+            return configuration;
+        }
+
+        boolean isReadyToGooglePay() {
+            return isReadyToGooglePay;
+        }
+    }
+}
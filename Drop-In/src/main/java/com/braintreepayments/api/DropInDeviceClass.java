@@ -0,0 +1,43 @@
+package com.braintreepayments.api;
+
+import android.app.ActivityManager;
+import android.content.Context;
+
+/**
+ * A coarse performance class of the device Drop-in ran on, derived from its memory and CPU
+ * cores, so that frame metrics from similar devices can be compared.
+ */
+public enum DropInDeviceClass {
+
+    /**
+     * A low RAM device, or a device with less than 2 GB of memory or at most 2 CPU cores.
+     */
+    LOW,
+
+    /**
+     * A device with less than 4 GB of memory or at most 4 CPU cores.
+     */
+    MEDIUM,
+
+    /**
+     * Any other device.
+     */
+    HIGH;
+
+    private static final long GIGABYTE = 1024L * 1024L * 1024L;
+
+    static DropInDeviceClass of(Context context) {
+        ActivityManager activityManager =
+                (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+        activityManager.getMemoryInfo(memoryInfo);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        if (activityManager.isLowRamDevice() || memoryInfo.totalMem < 2 * GIGABYTE || cores <= 2) {
+            return LOW;
+        } else if (memoryInfo.totalMem < 4 * GIGABYTE || cores <= 4) {
+            return MEDIUM;
+        }
+        return HIGH;
+    }
+}
@@ -0,0 +1,230 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.activity.OnBackPressedCallback;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentActivity;
+import androidx.fragment.app.FragmentManager;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.tracing.Trace;
+
+import com.braintreepayments.api.dropin.R;
+
+/**
+ * Runs Drop-in inside the merchant's activity instead of launching a {@link DropInActivity}. The
+ * bottom sheet and card entry screens are added as child fragments, requests are made with the
+ * {@link BraintreeClient} of the merchant's {@link DropInClient}, and results are delivered
+ * directly to its {@link DropInListener}.
+ * <p>
+ * Embedded Drop-in offers cards and vaulted cards, which complete without leaving the merchant's
+ * activity. Requests that offer payment methods which switch to another app or activity are
+ * launched with {@link DropInClient#launchDropIn(DropInRequest)} instead.
+ * <p>
+ * Use {@link DropInClient#showEmbeddedDropIn(DropInRequest, int)} to show this fragment.
+ */
+public class DropInEmbeddedFragment extends Fragment implements DropInViewPool.Owner,
+        DropInCheckoutController.Host {
+
+    static final String TAG = "com.braintreepayments.api.DropInEmbeddedFragment";
+
+    private static final String EXTRA_DROP_IN_REQUEST = "EXTRA_DROP_IN_REQUEST";
+    private static final String EXTRA_SESSION_ID = "EXTRA_SESSION_ID";
+
+    @VisibleForTesting
+    DropInViewModel dropInViewModel;
+
+    @VisibleForTesting
+    DropInInternalClient dropInInternalClient;
+
+    @VisibleForTesting
+    DropInClient dropInClient;
+
+    private DropInCheckoutController checkoutController;
+
+    @VisibleForTesting
+    AlertPresenter alertPresenter = new AlertPresenter();
+
+    // shared by the vaulted payment methods carousel and the vault manager
+    private final DropInViewPool viewPool = new DropInViewPool();
+
+    // card entry screens inflated while the bottom sheet is idle
+    private DropInViewCache viewCache;
+
+    static DropInEmbeddedFragment from(DropInRequest dropInRequest, String sessionId) {
+        // arguments are only parceled if the merchant's activity saves its state
+        Bundle args = new Bundle();
+        args.putParcelable(EXTRA_DROP_IN_REQUEST, dropInRequest);
+        args.putString(EXTRA_SESSION_ID, sessionId);
+
+        DropInEmbeddedFragment instance = new DropInEmbeddedFragment();
+        instance.setArguments(args);
+        return instance;
+    }
+
+    @NonNull
+    @Override
+    public LayoutInflater onGetLayoutInflater(@Nullable Bundle savedInstanceState) {
+        return super.onGetLayoutInflater(savedInstanceState)
+                .cloneInContext(getDropInContext());
+    }
+
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
+                             @Nullable Bundle savedInstanceState) {
+        return inflater.inflate(R.layout.bt_drop_in_activity, container, false);
+    }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        Trace.beginSection("DropInEmbeddedFragment.onViewCreated");
+        try {
+            super.onViewCreated(view, savedInstanceState);
+            setUp(view, savedInstanceState);
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    private void setUp(View view, @Nullable Bundle savedInstanceState) {
+        // set by the merchant's client; a recreated activity may not create one
+        dropInClient = new ViewModelProvider(this).get(DropInEmbeddedViewModel.class)
+                .getDropInClient();
+        if (dropInClient == null) {
+            removeSelf();
+            return;
+        }
+
+        Bundle args = requireArguments();
+        DropInRequest dropInRequest = args.getParcelable(EXTRA_DROP_IN_REQUEST);
+        String sessionId = args.getString(EXTRA_SESSION_ID);
+
+        if (dropInInternalClient == null) {
+            dropInInternalClient = dropInClient.createDropInInternalClient(dropInRequest);
+        }
+        checkoutController =
+                new DropInCheckoutController(this, sessionId, savedInstanceState != null);
+
+        dropInViewModel = new ViewModelProvider(this).get(DropInViewModel.class);
+        checkoutController.start(dropInRequest, dropInViewModel,
+                view.findViewById(R.id.fragment_container_view), savedInstanceState != null);
+
+        getChildFragmentManager().setFragmentResultListener(DropInEvent.REQUEST_KEY,
+                getViewLifecycleOwner(),
+                (requestKey, result) -> checkoutController.onDropInEvent(DropInEvent.fromBundle(result)));
+
+        requireActivity().getOnBackPressedDispatcher().addCallback(getViewLifecycleOwner(),
+                new OnBackPressedCallback(true) {
+                    @Override
+                    public void handleOnBackPressed() {
+                        dropInViewModel.setBottomSheetState(BottomSheetState.HIDE_REQUESTED);
+                    }
+                });
+
+        dropInViewModel.getBottomSheetState().observe(getViewLifecycleOwner(), bottomSheetState -> {
+            switch (bottomSheetState) {
+                case SHOWN:
+                    checkoutController.onBottomSheetShown();
+                    break;
+                case HIDDEN:
+                    checkoutController.onBottomSheetHidden();
+                    break;
+                default:
+                    // do nothing
+            }
+        });
+
+        checkoutController.showBottomSheetIfNecessary(false);
+    }
+
+    @Override
+    public void startPaymentFlow(DropInPaymentMethod paymentMethod) {
+        // only cards are offered by embedded Drop-in; other payment methods launch DropInActivity
+    }
+
+    @Override
+    public void onFinish(@Nullable DropInResult dropInResult, DropInExitTransition transition) {
+        if (dropInResult == null) {
+            dropInResult = new DropInResult();
+            dropInResult.setError(new UserCanceledException("User canceled DropIn."));
+        }
+        deliverResult(dropInResult);
+    }
+
+    @Override
+    public void onFinishWithError(Exception error) {
+        DropInResult errorResult = new DropInResult();
+        errorResult.setError(error);
+        deliverResult(errorResult);
+    }
+
+    private void deliverResult(DropInResult dropInResult) {
+        if (!isAdded()) {
+            // a result was already delivered
+            return;
+        }
+
+        removeSelf();
+        dropInClient.onDropInResult(dropInResult);
+    }
+
+    private void removeSelf() {
+        // results can arrive after the merchant's activity has saved its state
+        getParentFragmentManager()
+                .beginTransaction()
+                .remove(this)
+                .commitAllowingStateLoss();
+    }
+
+    @Override
+    public FragmentActivity getHostActivity() {
+        return requireActivity();
+    }
+
+    @Override
+    public Context getDropInContext() {
+        return new ContextThemeWrapper(requireContext(), R.style.bt_drop_in_activity_theme);
+    }
+
+    @Override
+    public FragmentManager getDropInFragmentManager() {
+        return getChildFragmentManager();
+    }
+
+    @Override
+    public DropInInternalClient getDropInInternalClient() {
+        return dropInInternalClient;
+    }
+
+    @Override
+    public AlertPresenter getAlertPresenter() {
+        return alertPresenter;
+    }
+
+    @Override
+    public boolean isDropInResumed() {
+        return isResumed();
+    }
+
+    @Override
+    public DropInViewPool getDropInViewPool() {
+        return viewPool;
+    }
+
+    @Override
+    public DropInViewCache getDropInViewCache() {
+        if (viewCache == null) {
+            viewCache = new DropInViewCache(getDropInContext());
+        }
+        return viewCache;
+    }
+}
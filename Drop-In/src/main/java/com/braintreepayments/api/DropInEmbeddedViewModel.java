@@ -0,0 +1,30 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+import androidx.lifecycle.ViewModel;
+
+/**
+ * Holds the {@link DropInClient} a {@link DropInEmbeddedFragment} makes its requests with and
+ * delivers its result to. The client sets itself when the fragment is attached to the client's
+ * activity and removes itself when its lifecycle is destroyed, so a fragment recreated with its
+ * activity is handed the client of the new activity.
+ */
+public class DropInEmbeddedViewModel extends ViewModel {
+
+    private DropInClient dropInClient;
+
+    @Nullable
+    DropInClient getDropInClient() {
+        return dropInClient;
+    }
+
+    void setDropInClient(DropInClient dropInClient) {
+        this.dropInClient = dropInClient;
+    }
+
+    void removeDropInClient(DropInClient dropInClient) {
+        if (this.dropInClient == dropInClient) {
+            this.dropInClient = null;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import android.os.Bundle;
 import android.os.Parcel;
 import android.os.Parcelable;
 
+import java.util.ArrayList;
+
 class DropInEvent {
 
     static final String REQUEST_KEY = "DROP_IN_EVENT_REQUEST_KEY";
@@ -40,6 +42,13 @@ class DropInEvent {
         return event;
     }
 
+    static DropInEvent createDeleteVaultedPaymentMethodNoncesEvent(ArrayList<PaymentMethodNonce> paymentMethodNoncesToDelete) {
+        DropInEvent event = new DropInEvent(DropInEventType.DELETE_VAULTED_PAYMENT_METHODS);
+        event.bundle.putParcelableArrayList(
+                DropInEventProperty.VAULTED_PAYMENT_METHODS.getBundleKey(), paymentMethodNoncesToDelete);
+        return event;
+    }
+
     static DropInEvent createVaultedPaymentMethodSelectedEvent(PaymentMethodNonce paymentMethodNonce) {
         DropInEvent event = new DropInEvent(DropInEventType.VAULTED_PAYMENT_METHOD_SELECTED);
         event.putParcelable(DropInEventProperty.VAULTED_PAYMENT_METHOD, paymentMethodNonce);
@@ -93,6 +102,10 @@ class DropInEvent {
         return bundle.getParcelable(property.getBundleKey());
     }
 
+    ArrayList<PaymentMethodNonce> getPaymentMethodNonces(DropInEventProperty property) {
+        return bundle.getParcelableArrayList(property.getBundleKey());
+    }
+
     Card getCard(DropInEventProperty property) {
         return bundle.getParcelable(property.getBundleKey());
     }
@@ -5,6 +5,7 @@ enum DropInEventProperty {
     CARD_NUMBER("com.braintreepayments.api.DropInEventProperty.CARD_NUMBER"),
     SUPPORTED_PAYMENT_METHOD("com.braintreepayments.api.DropInEventProperty.SUPPORTED_PAYMENT_METHOD"),
     VAULTED_PAYMENT_METHOD("com.braintreepayments.api.DropInEventProperty.VAULTED_PAYMENT_METHOD"),
+    VAULTED_PAYMENT_METHODS("com.braintreepayments.api.DropInEventProperty.VAULTED_PAYMENT_METHODS"),
     CARD("com.braintreepayments.api.DropInEventProperty.CARD");
 
     private final String bundleKey;
@@ -4,6 +4,7 @@ enum DropInEventType {
     ADD_CARD_SUBMIT,
     CARD_DETAILS_SUBMIT,
     DELETE_VAULTED_PAYMENT_METHOD,
+    DELETE_VAULTED_PAYMENT_METHODS,
     DISMISS_VAULT_MANAGER,
     EDIT_CARD_NUMBER,
     SEND_ANALYTICS,
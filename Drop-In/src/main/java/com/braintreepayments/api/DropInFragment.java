@@ -1,9 +1,20 @@
 package com.braintreepayments.api;
 
+import android.os.Bundle;
+import android.view.LayoutInflater;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 abstract class DropInFragment extends Fragment {
 
+    @NonNull
+    @Override
+    public LayoutInflater onGetLayoutInflater(@Nullable Bundle savedInstanceState) {
+        return DropInHost.getLayoutInflater(this, super.onGetLayoutInflater(savedInstanceState));
+    }
+
     protected void sendDropInEvent(DropInEvent event) {
         if (isAdded()) {
             getParentFragmentManager().setFragmentResult(DropInEvent.REQUEST_KEY, event.toBundle());
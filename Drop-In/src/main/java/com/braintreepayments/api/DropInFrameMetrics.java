@@ -0,0 +1,116 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A summary of the frames Drop-in rendered during one checkout session, reported to a
+ * {@link DropInFrameMetricsListener}. A frame is janky when it took noticeably longer than the
+ * display's refresh interval to render.
+ * <p>
+ * Janky frames are counted for each state Drop-in was in while they were rendered, keyed by
+ * {@code "<state>=<value>"}:
+ * <ul>
+ *     <li>{@code BottomSheetState}: the state of the bottom sheet, one of {@code SHOW_REQUESTED}
+ *     and {@code HIDE_REQUESTED} while it slides up or down, {@code SHOWN} and {@code HIDDEN}</li>
+ *     <li>{@code BottomSheetView}: the page shown in the bottom sheet, one of
+ *     {@code SUPPORTED_PAYMENT_METHODS} and {@code VAULT_MANAGER}</li>
+ *     <li>{@code Fragment}: the screen that is active, one of {@code BOTTOM_SHEET},
+ *     {@code ADD_CARD} and {@code CARD_DETAILS}</li>
+ *     <li>{@code Interaction=Keystroke}: frames rendered in response to the customer typing</li>
+ * </ul>
+ */
+public class DropInFrameMetrics {
+
+    static final String BOTTOM_SHEET_STATE = "BottomSheetState";
+    static final String BOTTOM_SHEET_VIEW = "BottomSheetView";
+    static final String FRAGMENT = "Fragment";
+    static final String INTERACTION = "Interaction";
+    static final String KEYSTROKE = "Keystroke";
+
+    private final DropInDeviceClass deviceClass;
+    private final Map<String, Integer> jankyFrameCounts = new HashMap<>();
+
+    private int frameCount;
+    private int jankyFrameCount;
+    private int sheetAnimationJankyFrameCount;
+    private int keystrokeJankyFrameCount;
+
+    DropInFrameMetrics(DropInDeviceClass deviceClass) {
+        this.deviceClass = deviceClass;
+    }
+
+    /**
+     * @param states the state of Drop-in while the frame was rendered, keyed by state name
+     */
+    synchronized void addFrame(boolean isJank, Map<String, String> states) {
+        frameCount++;
+        if (!isJank) {
+            return;
+        }
+
+        jankyFrameCount++;
+        for (Map.Entry<String, String> state : states.entrySet()) {
+            String key = state.getKey() + "=" + state.getValue();
+            Integer count = jankyFrameCounts.get(key);
+            jankyFrameCounts.put(key, (count == null) ? 1 : count + 1);
+        }
+
+        String bottomSheetState = states.get(BOTTOM_SHEET_STATE);
+        if (BottomSheetState.SHOW_REQUESTED.name().equals(bottomSheetState)
+                || BottomSheetState.HIDE_REQUESTED.name().equals(bottomSheetState)) {
+            sheetAnimationJankyFrameCount++;
+        }
+        if (KEYSTROKE.equals(states.get(INTERACTION))) {
+            keystrokeJankyFrameCount++;
+        }
+    }
+
+    /**
+     * @return the performance class of the device
+     */
+    @NonNull
+    public DropInDeviceClass getDeviceClass() {
+        return deviceClass;
+    }
+
+    /**
+     * @return the number of frames rendered
+     */
+    public synchronized int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return the number of janky frames rendered
+     */
+    public synchronized int getJankyFrameCount() {
+        return jankyFrameCount;
+    }
+
+    /**
+     * @return the number of janky frames rendered while the bottom sheet slid up or down
+     */
+    public synchronized int getSheetAnimationJankyFrameCount() {
+        return sheetAnimationJankyFrameCount;
+    }
+
+    /**
+     * @return the number of janky frames rendered in response to the customer typing, e.g.
+     * entering card details
+     */
+    public synchronized int getKeystrokeJankyFrameCount() {
+        return keystrokeJankyFrameCount;
+    }
+
+    /**
+     * @return the number of janky frames rendered in each state, keyed by
+     * {@code "<state>=<value>"}; states without janky frames are not included
+     */
+    @NonNull
+    public synchronized Map<String, Integer> getJankyFrameCounts() {
+        return new HashMap<>(jankyFrameCounts);
+    }
+}
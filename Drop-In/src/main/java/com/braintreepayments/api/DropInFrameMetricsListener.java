@@ -0,0 +1,22 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Implement this interface to receive a summary of the frames Drop-in rendered during each
+ * checkout session, for example to find how often customers on low end devices see dropped frames
+ * while the bottom sheet slides or while they type card details.
+ * <p>
+ * Summaries are reported on the main thread when Drop-in finishes.
+ *
+ * @see DropInClient#setFrameMetricsListener(DropInFrameMetricsListener)
+ */
+public interface DropInFrameMetricsListener {
+
+    /**
+     * Called when Drop-in finishes with the frames of the checkout session.
+     *
+     * @param frameMetrics a {@link DropInFrameMetrics} summarizing the session's frames
+     */
+    void onFrameMetrics(@NonNull DropInFrameMetrics frameMetrics);
+}
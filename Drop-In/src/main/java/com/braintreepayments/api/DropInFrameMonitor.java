@@ -0,0 +1,235 @@
+package com.braintreepayments.api;
+
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.View;
+import android.view.ViewTreeObserver;
+import android.widget.EditText;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentActivity;
+import androidx.fragment.app.FragmentManager;
+import androidx.metrics.performance.FrameData;
+import androidx.metrics.performance.JankStats;
+import androidx.metrics.performance.PerformanceMetricsState;
+import androidx.metrics.performance.StateInfo;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Records the frames of a {@link DropInActivity} with {@link JankStats} when a
+ * {@link DropInFrameMetricsListener} was set on the {@link DropInClient} that launched it, tagging
+ * each frame with the state Drop-in was in. Frames are added to the {@link DropInFrameMetrics} of
+ * the Braintree session id, so a session's summary survives configuration changes, and the
+ * summary is delivered when Drop-in finishes.
+ */
+class DropInFrameMonitor implements JankStats.OnFrameListener {
+
+    // listeners are held by their DropInClient, and a session's metrics go when its listener does
+    private static final DropInSessionReferences<DropInFrameMetricsListener> LISTENERS =
+            new DropInSessionReferences<>();
+    private static final Map<String, DropInFrameMetrics> SESSION_METRICS = new HashMap<>();
+
+    private final String sessionId;
+    private final DropInFrameMetricsListener listener;
+    private final DropInFrameMetrics metrics;
+
+    private JankStats jankStats;
+    private FragmentActivity activity;
+
+    private final FragmentManager.FragmentLifecycleCallbacks fragmentCallbacks =
+            new FragmentManager.FragmentLifecycleCallbacks() {
+                @Override
+                public void onFragmentResumed(@NonNull FragmentManager fragmentManager,
+                                              @NonNull Fragment fragment) {
+                    if (fragment.getTag() != null) {
+                        putState(activity.getWindow().getDecorView(),
+                                DropInFrameMetrics.FRAGMENT, fragment.getTag());
+                    }
+                }
+            };
+
+    // text fields that already report keystrokes
+    private final Set<View> keystrokeViews = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private final ViewTreeObserver.OnGlobalFocusChangeListener focusChangeListener =
+            (oldFocus, newFocus) -> {
+                if (newFocus instanceof EditText && keystrokeViews.add(newFocus)) {
+                    final EditText editText = (EditText) newFocus;
+                    editText.addTextChangedListener(new KeystrokeWatcher(editText));
+                }
+            };
+
+    @VisibleForTesting
+    DropInFrameMonitor(String sessionId, DropInFrameMetricsListener listener,
+                       DropInFrameMetrics metrics) {
+        this.sessionId = sessionId;
+        this.listener = listener;
+        this.metrics = metrics;
+    }
+
+    static synchronized void putListener(String sessionId, @Nullable DropInFrameMetricsListener listener) {
+        if (sessionId == null) {
+            return;
+        }
+
+        LISTENERS.put(sessionId, listener);
+        removeReleasedSessionMetrics();
+    }
+
+    @Nullable
+    static synchronized DropInFrameMetricsListener getListener(@Nullable String sessionId) {
+        return LISTENERS.get(sessionId);
+    }
+
+    /**
+     * Drops the metrics of sessions whose listener was removed or released with its client.
+     */
+    private static void removeReleasedSessionMetrics() {
+        Iterator<String> sessionIds = SESSION_METRICS.keySet().iterator();
+        while (sessionIds.hasNext()) {
+            if (LISTENERS.get(sessionIds.next()) == null) {
+                sessionIds.remove();
+            }
+        }
+    }
+
+    /**
+     * Starts recording the activity's frames when a listener is registered for the session id.
+     *
+     * @return the monitor recording the activity's frames, or {@code null} if frames are not
+     * monitored
+     */
+    @Nullable
+    static DropInFrameMonitor start(FragmentActivity activity, @Nullable String sessionId) {
+        DropInFrameMonitor monitor;
+        synchronized (DropInFrameMonitor.class) {
+            removeReleasedSessionMetrics();
+            DropInFrameMetricsListener listener = getListener(sessionId);
+            if (listener == null) {
+                return null;
+            }
+
+            DropInFrameMetrics metrics = SESSION_METRICS.get(sessionId);
+            if (metrics == null) {
+                metrics = new DropInFrameMetrics(DropInDeviceClass.of(activity));
+                SESSION_METRICS.put(sessionId, metrics);
+            }
+            monitor = new DropInFrameMonitor(sessionId, listener, metrics);
+        }
+
+        monitor.track(activity);
+        return monitor;
+    }
+
+    /**
+     * Tags the frames of a view's window with a state, or removes the state when the value is
+     * {@code null}. Does nothing when the window's frames are not monitored.
+     */
+    static void putState(View view, String key, @Nullable String value) {
+        PerformanceMetricsState state = PerformanceMetricsState.getHolderForHierarchy(view).getState();
+        if (state == null) {
+            return;
+        }
+
+        if (value != null) {
+            state.putState(key, value);
+        } else {
+            state.removeState(key);
+        }
+    }
+
+    private void track(FragmentActivity activity) {
+        this.activity = activity;
+        View decorView = activity.getWindow().getDecorView();
+        jankStats = JankStats.createAndTrack(activity.getWindow(), this);
+        decorView.getViewTreeObserver().addOnGlobalFocusChangeListener(focusChangeListener);
+        activity.getSupportFragmentManager()
+                .registerFragmentLifecycleCallbacks(fragmentCallbacks, false);
+    }
+
+    /**
+     * Stops recording frames. Frames recorded so far stay with the session.
+     */
+    void stop() {
+        if (jankStats != null) {
+            jankStats.setTrackingEnabled(false);
+            jankStats = null;
+        }
+        if (activity != null) {
+            activity.getWindow().getDecorView().getViewTreeObserver()
+                    .removeOnGlobalFocusChangeListener(focusChangeListener);
+            activity.getSupportFragmentManager()
+                    .unregisterFragmentLifecycleCallbacks(fragmentCallbacks);
+            activity = null;
+        }
+    }
+
+    /**
+     * Stops recording frames and delivers the session's summary to the listener. The next launch
+     * for the session id starts a new summary.
+     */
+    void deliverMetrics() {
+        stop();
+        synchronized (DropInFrameMonitor.class) {
+            if (SESSION_METRICS.get(sessionId) == metrics) {
+                SESSION_METRICS.remove(sessionId);
+            }
+        }
+        listener.onFrameMetrics(metrics);
+    }
+
+    @Override
+    public void onFrame(@NonNull FrameData volatileFrameData) {
+        if (!volatileFrameData.isJank()) {
+            // only janky frames are broken down by state, so other frames are just counted
+            metrics.addFrame(false, Collections.emptyMap());
+            return;
+        }
+
+        // frame data is reused for the next frame, so only its states are copied
+        Map<String, String> states = new HashMap<>();
+        for (StateInfo stateInfo : volatileFrameData.getStates()) {
+            states.put(stateInfo.getKey(), stateInfo.getValue());
+        }
+        metrics.addFrame(true, states);
+    }
+
+    static synchronized void clear() {
+        LISTENERS.clear();
+        SESSION_METRICS.clear();
+    }
+
+    private static class KeystrokeWatcher implements TextWatcher {
+
+        private final View view;
+
+        KeystrokeWatcher(View view) {
+            this.view = view;
+        }
+
+        @Override
+        public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+        @Override
+        public void onTextChanged(CharSequence s, int start, int before, int count) {
+            PerformanceMetricsState state =
+                    PerformanceMetricsState.getHolderForHierarchy(view).getState();
+            if (state != null) {
+                state.putSingleFrameState(DropInFrameMetrics.INTERACTION,
+                        DropInFrameMetrics.KEYSTROKE);
+            }
+        }
+
+        @Override
+        public void afterTextChanged(Editable s) {}
+    }
+}
@@ -0,0 +1,82 @@
+package com.braintreepayments.api;
+
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.ViewModelProvider;
+
+import com.braintreepayments.api.dropin.R;
+
+/**
+ * Resolves what the screens of a Drop-in instance share from the component hosting them: the
+ * {@link DropInActivity}, or a {@link DropInEmbeddedFragment} inside a merchant's activity. An
+ * embedded Drop-in must not share state with the merchant's activity, so screens look for an
+ * embedded host among their parent fragments before falling back to their activity.
+ */
+final class DropInHost {
+
+    private DropInHost() {}
+
+    /**
+     * @return the view model shared by the screens of the Drop-in instance the fragment belongs to
+     */
+    static DropInViewModel getViewModel(Fragment fragment) {
+        DropInEmbeddedFragment embeddedHost = findParent(fragment, DropInEmbeddedFragment.class);
+        if (embeddedHost != null) {
+            return new ViewModelProvider(embeddedHost).get(DropInViewModel.class);
+        }
+        return new ViewModelProvider(fragment.requireActivity()).get(DropInViewModel.class);
+    }
+
+    /**
+     * @return the lifecycle of the Drop-in instance the fragment belongs to; observers and back
+     * press callbacks scoped to it are removed when the instance goes away
+     */
+    static LifecycleOwner getLifecycleOwner(Fragment fragment) {
+        DropInEmbeddedFragment embeddedHost = findParent(fragment, DropInEmbeddedFragment.class);
+        if (embeddedHost != null) {
+            return embeddedHost;
+        }
+        return fragment.requireActivity();
+    }
+
+    /**
+     * Applies the Drop-in theme to the layout inflater of an embedded screen, which would otherwise
+     * inflate with the theme of the merchant's activity.
+     */
+    static LayoutInflater getLayoutInflater(Fragment fragment, LayoutInflater inflater) {
+        if (findParent(fragment, DropInEmbeddedFragment.class) == null) {
+            return inflater;
+        }
+        return inflater.cloneInContext(
+                new ContextThemeWrapper(inflater.getContext(), R.style.bt_drop_in_activity_theme));
+    }
+
+    /**
+     * @return the closest parent fragment, or else the activity, of the given type
+     */
+    @Nullable
+    static <T> T findOwner(Fragment fragment, Class<T> ownerClass) {
+        T owner = findParent(fragment, ownerClass);
+        if (owner != null) {
+            return owner;
+        }
+        Object activity = fragment.getActivity();
+        return ownerClass.isInstance(activity) ? ownerClass.cast(activity) : null;
+    }
+
+    @Nullable
+    private static <T> T findParent(Fragment fragment, Class<T> parentClass) {
+        Fragment parent = fragment.getParentFragment();
+        while (parent != null) {
+            if (parentClass.isInstance(parent)) {
+                return parentClass.cast(parent);
+            }
+            parent = parent.getParentFragment();
+        }
+        return null;
+    }
+}
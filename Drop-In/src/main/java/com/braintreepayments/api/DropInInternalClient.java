@@ -2,11 +2,14 @@ package com.braintreepayments.api;
 
 import android.content.Context;
 import android.content.Intent;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.TextUtils;
 
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import androidx.fragment.app.FragmentActivity;
+import androidx.tracing.Trace;
 
 import com.braintreepayments.cardform.utils.CardType;
 
@@ -14,11 +17,16 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 class DropInInternalClient {
 
     private static final String CARD_TYPE_UNION_PAY = "UnionPay";
 
+    private static final String CONFIGURATION_REQUEST_KEY = "configuration";
+    private static final String PAYMENT_METHODS_REQUEST_KEY = "payment-methods";
+    private static final String DEVICE_DATA_REQUEST_KEY = "device-data";
+
     @VisibleForTesting
     final BraintreeClient braintreeClient;
 
@@ -34,8 +42,16 @@ class DropInInternalClient {
     private final DataCollector dataCollector;
 
     private final DropInSharedPreferences dropInSharedPreferences;
+    private final DropInConfigurationCache configurationCache;
+    private final DeviceDataCache deviceDataCache;
+    private final DropInSpanRecorder spanRecorder;
+    private final Executor cacheExecutor;
+    private final Handler mainThreadHandler;
+
+    private DropInSpan threeDSecureChallengeSpan;
 
     private final PaymentMethodInspector paymentMethodInspector = new PaymentMethodInspector();
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
 
     private static DropInInternalClientParams createDefaultParams(Context context, String authorization, DropInRequest dropInRequest, String sessionId) {
 
@@ -51,25 +67,38 @@ class DropInInternalClient {
         );
 
         BraintreeClient braintreeClient = new BraintreeClient(braintreeOptions);
+        return createDefaultParams(context, braintreeClient, dropInRequest);
+    }
 
+    private static DropInInternalClientParams createDefaultParams(Context context, BraintreeClient braintreeClient, DropInRequest dropInRequest) {
         return new DropInInternalClientParams()
                 .dropInRequest(dropInRequest)
                 .braintreeClient(braintreeClient)
                 .threeDSecureClient(new ThreeDSecureClient(braintreeClient))
-                .paymentMethodClient(new PaymentMethodClient(braintreeClient))
+                .paymentMethodClient(new PaymentMethodClient(braintreeClient,
+                        VaultedPaymentMethodCache.getInstance(context.getApplicationContext()),
+                        PaymentMethodClient.VAULT_PARSE_EXECUTOR))
                 .payPalClient(new PayPalClient(braintreeClient))
                 .venmoClient(new VenmoClient(braintreeClient))
                 .cardClient(new CardClient(braintreeClient))
                 .unionPayClient(new UnionPayClient(braintreeClient))
                 .dataCollector(new DataCollector(braintreeClient))
                 .googlePayClient(new GooglePayClient(braintreeClient))
-                .dropInSharedPreferences(DropInSharedPreferences.getInstance(context.getApplicationContext()));
+                .dropInSharedPreferences(DropInSharedPreferences.getInstance(context.getApplicationContext()))
+                .configurationCache(DropInConfigurationCache.getInstance(context.getApplicationContext()))
+                .deviceDataCache(new DeviceDataCache())
+                .spanRecorder(new DropInSpanRecorder(DropInTracers.get(braintreeClient.getSessionId())))
+                .cacheExecutor(PaymentMethodClient.VAULT_PARSE_EXECUTOR);
     }
 
     DropInInternalClient(FragmentActivity activity, String authorization, String sessionId, DropInRequest dropInRequest) {
         this(createDefaultParams(activity, authorization, dropInRequest, sessionId));
     }
 
+    DropInInternalClient(Context context, BraintreeClient braintreeClient, DropInRequest dropInRequest) {
+        this(createDefaultParams(context, braintreeClient, dropInRequest));
+    }
+
     @VisibleForTesting
     DropInInternalClient(DropInInternalClientParams params) {
         this.dropInRequest = params.getDropInRequest();
@@ -83,60 +112,180 @@ class DropInInternalClient {
         this.unionPayClient = params.getUnionPayClient();
         this.dataCollector = params.getDataCollector();
         this.dropInSharedPreferences = params.getDropInSharedPreferences();
+        this.configurationCache = params.getConfigurationCache();
+        this.deviceDataCache = (params.getDeviceDataCache() != null)
+                ? params.getDeviceDataCache() : new DeviceDataCache();
+        this.spanRecorder = (params.getSpanRecorder() != null)
+                ? params.getSpanRecorder() : new DropInSpanRecorder(null);
+        this.cacheExecutor = params.getCacheExecutor();
+        this.mainThreadHandler = (cacheExecutor != null) ? new Handler(Looper.getMainLooper()) : null;
     }
 
     void getAuthorization(AuthorizationCallback callback) {
-        braintreeClient.getAuthorization(callback);
+        DropInSpan span = spanRecorder.start(DropInSpanPhase.AUTHORIZATION);
+        braintreeClient.getAuthorization((authorization, error) -> {
+            spanRecorder.end(span, error);
+            traceCallback("DropInInternalClient.onAuthorizationResult",
+                    () -> callback.onAuthorizationResult(authorization, error));
+        });
     }
 
+    /**
+     * Configuration is requested from several places while Drop-in starts; callers that overlap
+     * share a single request.
+     */
     void getConfiguration(ConfigurationCallback callback) {
-        braintreeClient.getConfiguration(callback);
+        requestCoalescer.<Configuration>execute(CONFIGURATION_REQUEST_KEY, requestCallback -> {
+            DropInSpan span = spanRecorder.start(DropInSpanPhase.CONFIGURATION);
+            braintreeClient.getConfiguration((configuration, error) -> {
+                endRequestSpan(span, CONFIGURATION_REQUEST_KEY, error);
+                traceCallback("DropInInternalClient.onConfigurationResult",
+                        () -> requestCallback.onResult(configuration, error));
+            });
+        }, callback::onResult);
+    }
+
+    /**
+     * The vault is refreshed from several Drop-in events that often overlap; callers that overlap
+     * share a single request and a single parse of its response.
+     */
+    private void fetchPaymentMethodNonces(GetPaymentMethodNoncesCallback callback) {
+        requestCoalescer.<List<PaymentMethodNonce>>execute(PAYMENT_METHODS_REQUEST_KEY, requestCallback -> {
+            DropInSpan span = spanRecorder.start(DropInSpanPhase.VAULT_FETCH);
+            paymentMethodClient.getPaymentMethodNonces((paymentMethodNonces, error) -> {
+                endRequestSpan(span, PAYMENT_METHODS_REQUEST_KEY, error);
+                traceCallback("DropInInternalClient.onPaymentMethodNoncesResult",
+                        () -> requestCallback.onResult(paymentMethodNonces, error));
+            });
+        }, callback::onResult);
+    }
+
+    /**
+     * Ends the span of a coalesced request, reporting how many callers it saved a request for.
+     */
+    private void endRequestSpan(DropInSpan span, String requestKey, @Nullable Exception error) {
+        span.setCoalescedRequestCount(requestCoalescer.getCoalescedRequestCount(requestKey));
+        spanRecorder.end(span, error);
+    }
+
+    private void isReadyToGooglePay(FragmentActivity activity, GooglePayIsReadyToPayCallback callback) {
+        DropInSpan span = spanRecorder.start(DropInSpanPhase.IS_READY_TO_PAY, DropInPaymentMethod.GOOGLE_PAY);
+        googlePayClient.isReadyToPay(activity, (isReadyToPay, error) -> {
+            spanRecorder.end(span, error);
+            traceCallback("DropInInternalClient.onIsReadyToPayResult",
+                    () -> callback.onResult(isReadyToPay, error));
+        });
+    }
+
+    /**
+     * Runs a callback hop in a trace section so its main thread time can be told apart from the
+     * latency of the request, which is traced as an async section by {@link DropInSpanRecorder}.
+     */
+    private static void traceCallback(String sectionName, Runnable callback) {
+        Trace.beginSection(sectionName);
+        try {
+            callback.run();
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    @VisibleForTesting
+    DropInSpanRecorder getSpanRecorder() {
+        return spanRecorder;
+    }
+
+    @VisibleForTesting
+    RequestCoalescer getRequestCoalescer() {
+        return requestCoalescer;
     }
 
     void sendAnalyticsEvent(String eventName) {
         braintreeClient.sendAnalyticsEvent(eventName);
     }
 
+    /**
+     * Starts collecting device data while the customer chooses a payment method so that it is
+     * ready by the time a nonce is produced. Errors are ignored; collection is retried when the
+     * device data is needed.
+     */
+    void prefetchDeviceData(FragmentActivity activity) {
+        collectDeviceData(activity, dropInRequest.hasUserLocationConsent(), (deviceData, error) -> {
+        });
+    }
+
+    /**
+     * Returns device data collected earlier in the session if it is still fresh, otherwise joins
+     * the collection already in flight or starts a new one.
+     */
     void collectDeviceData(
         FragmentActivity activity,
         boolean hasUserLocationConsent,
         DataCollectorCallback callback
     ) {
+        String cachedDeviceData = deviceDataCache.get(hasUserLocationConsent);
+        if (cachedDeviceData != null) {
+            callback.onResult(cachedDeviceData, null);
+            return;
+        }
+
         DataCollectorRequest request = new DataCollectorRequest(hasUserLocationConsent);
-        dataCollector.collectDeviceData(activity, request, callback);
+        final String requestKey = DEVICE_DATA_REQUEST_KEY + ":" + hasUserLocationConsent;
+        requestCoalescer.<String>execute(requestKey,
+                requestCallback -> {
+                    DropInSpan span = spanRecorder.start(DropInSpanPhase.DEVICE_DATA);
+                    dataCollector.collectDeviceData(activity, request, (deviceData, error) -> {
+                        endRequestSpan(span, requestKey, error);
+                        if (deviceData != null) {
+                            deviceDataCache.put(hasUserLocationConsent, deviceData);
+                        }
+                        traceCallback("DropInInternalClient.onDeviceDataResult",
+                                () -> requestCallback.onResult(deviceData, error));
+                    });
+                },
+                callback::onResult);
     }
 
     void performThreeDSecureVerification(final FragmentActivity activity, PaymentMethodNonce paymentMethodNonce, final DropInResultCallback callback) {
         final ThreeDSecureRequest threeDSecureRequest = dropInRequest.getThreeDSecureRequest();
         threeDSecureRequest.setNonce(paymentMethodNonce.getString());
 
+        final DropInPaymentMethod paymentMethod = paymentMethodInspector.getPaymentMethod(paymentMethodNonce);
+        DropInSpan lookupSpan = spanRecorder.start(DropInSpanPhase.THREE_D_SECURE_LOOKUP, paymentMethod);
         threeDSecureClient.performVerification(activity, threeDSecureRequest, (lookupResult, error) -> {
-            if (lookupResult != null) {
-                threeDSecureClient.continuePerformVerification(activity, threeDSecureRequest, lookupResult, (threeDSecureResult, continueError) -> {
-                    if (continueError != null) {
-                        callback.onResult(null, continueError);
-                    } else if (threeDSecureResult != null) {
-                        final DropInResult dropInResult = new DropInResult();
-                        dropInResult.setPaymentMethodNonce(threeDSecureResult.getTokenizedCard());
-                        collectDeviceData(activity, dropInRequest.hasUserLocationConsent(), (deviceData, dataCollectionError) -> {
-                            if (deviceData != null) {
-                                dropInResult.setDeviceData(deviceData);
-                                callback.onResult(dropInResult, null);
-                            } else {
-                                callback.onResult(null, dataCollectionError);
-                            }
-                        });
-                    }
-                });
-            } else {
-                callback.onResult(null, error);
-            }
+            traceCallback("DropInInternalClient.onThreeDSecureLookupResult", () -> {
+                spanRecorder.end(lookupSpan, error);
+                if (lookupResult != null) {
+                    // when a challenge is presented, the span ends once its result is delivered
+                    threeDSecureChallengeSpan =
+                            spanRecorder.start(DropInSpanPhase.THREE_D_SECURE_CHALLENGE, paymentMethod);
+                    threeDSecureClient.continuePerformVerification(activity, threeDSecureRequest, lookupResult, (threeDSecureResult, continueError) -> {
+                        endThreeDSecureChallengeSpan(continueError);
+                        if (continueError != null) {
+                            callback.onResult(null, continueError);
+                        } else if (threeDSecureResult != null) {
+                            final DropInResult dropInResult = new DropInResult();
+                            dropInResult.setPaymentMethodNonce(threeDSecureResult.getTokenizedCard());
+                            collectDeviceData(activity, dropInRequest.hasUserLocationConsent(), (deviceData, dataCollectionError) -> {
+                                if (deviceData != null) {
+                                    dropInResult.setDeviceData(deviceData);
+                                    callback.onResult(dropInResult, null);
+                                } else {
+                                    callback.onResult(null, dataCollectionError);
+                                }
+                            });
+                        }
+                    });
+                } else {
+                    callback.onResult(null, error);
+                }
+            });
         });
     }
 
     void shouldRequestThreeDSecureVerification(PaymentMethodNonce paymentMethodNonce, final ShouldRequestThreeDSecureVerification callback) {
         if (paymentMethodCanPerformThreeDSecureVerification(paymentMethodNonce)) {
-            braintreeClient.getConfiguration((configuration, error) -> {
+            getConfiguration((configuration, error) -> {
                 if (configuration == null) {
                     callback.onResult(false);
                     return;
@@ -176,8 +325,22 @@ class DropInInternalClient {
         paymentMethodClient.deletePaymentMethod(activity, paymentMethodNonce, callback);
     }
 
+    void deletePaymentMethods(List<PaymentMethodNonce> paymentMethodNonces, DeletePaymentMethodNoncesCallback callback) {
+        paymentMethodClient.deletePaymentMethods(paymentMethodNonces, callback);
+    }
+
     void tokenizeCard(Card card, CardTokenizeCallback callback) {
-        cardClient.tokenize(card, callback);
+        DropInSpan span = spanRecorder.start(DropInSpanPhase.CARD_TOKENIZATION);
+        cardClient.tokenize(card, (cardNonce, error) -> {
+            DropInPaymentMethod paymentMethod = null;
+            if (cardNonce != null) {
+                paymentMethod = paymentMethodInspector.getPaymentMethod(cardNonce);
+            }
+            spanRecorder.end(span, (error == null) ? DropInSpanOutcome.SUCCEEDED
+                    : DropInSpanRecorder.outcomeOf(error), paymentMethod);
+            traceCallback("DropInInternalClient.onCardTokenizeResult",
+                    () -> callback.onResult(cardNonce, error));
+        });
     }
 
     void fetchUnionPayCapabilities(String cardNumber, UnionPayFetchCapabilitiesCallback callback) {
@@ -208,6 +371,7 @@ class DropInInternalClient {
                     break;
                 case BraintreeRequestCodes.THREE_D_SECURE:
                     threeDSecureClient.onBrowserSwitchResult(browserSwitchResult, (threeDSecureResult, error) -> {
+                        endThreeDSecureChallengeSpan(error);
                         PaymentMethodNonce paymentMethodNonce = null;
                         if (threeDSecureResult != null) {
                             paymentMethodNonce = threeDSecureResult.getTokenizedCard();
@@ -234,6 +398,7 @@ class DropInInternalClient {
 
     void handleThreeDSecureActivityResult(final FragmentActivity activity, int resultCode, Intent data, final DropInResultCallback callback) {
         threeDSecureClient.onActivityResult(resultCode, data, (threeDSecureResult, error) -> {
+            endThreeDSecureChallengeSpan(error);
             PaymentMethodNonce paymentMethodNonce = null;
             if (threeDSecureResult != null) {
                 paymentMethodNonce = threeDSecureResult.getTokenizedCard();
@@ -273,6 +438,11 @@ class DropInInternalClient {
         });
     }
 
+    private void endThreeDSecureChallengeSpan(@Nullable Exception error) {
+        spanRecorder.end(threeDSecureChallengeSpan, error);
+        threeDSecureChallengeSpan = null;
+    }
+
     private boolean paymentMethodCanPerformThreeDSecureVerification(final PaymentMethodNonce paymentMethodNonce) {
         if (paymentMethodNonce instanceof CardNonce) {
             return true;
@@ -285,27 +455,6 @@ class DropInInternalClient {
         return false;
     }
 
-    void getSupportedPaymentMethods(final FragmentActivity activity, final GetSupportedPaymentMethodsCallback callback) {
-        braintreeClient.getConfiguration((configuration, error) -> {
-            if (error != null) {
-                callback.onResult(null, error);
-                return;
-            }
-
-            if (!dropInRequest.isGooglePayDisabled()) {
-                googlePayClient.isReadyToPay(activity, (isReadyToGooglePay, isReadyToPayError) -> {
-                    List<DropInPaymentMethod> availablePaymentMethods =
-                            filterSupportedPaymentMethods(activity, configuration, isReadyToGooglePay);
-                    callback.onResult(availablePaymentMethods, null);
-                });
-            } else {
-                List<DropInPaymentMethod> availablePaymentMethods =
-                        filterSupportedPaymentMethods(activity, configuration, false);
-                callback.onResult(availablePaymentMethods, null);
-            }
-        });
-    }
-
     private List<DropInPaymentMethod> filterSupportedPaymentMethods(Context context, Configuration configuration, boolean showGooglePay) {
         List<DropInPaymentMethod> availablePaymentMethods = new ArrayList<>();
 
@@ -337,40 +486,44 @@ class DropInInternalClient {
     }
 
     void getSupportedCardTypes(final GetSupportedCardTypesCallback callback) {
-        braintreeClient.getConfiguration((configuration, error) -> {
+        getConfiguration((configuration, error) -> {
             if (configuration != null) {
-                List<CardType> supportedCardTypes = new ArrayList<>();
-                for (String cardTypeAsString : configuration.getSupportedCardTypes()) {
-                    CardType cardType = paymentMethodInspector.getCardTypeFromString(cardTypeAsString);
-                    if (cardType != null) {
-                        supportedCardTypes.add(cardType);
-                    }
-                }
-
-                if (!configuration.isUnionPayEnabled()) {
-                    supportedCardTypes.remove(CardType.UNIONPAY);
-                }
-                callback.onResult(supportedCardTypes, null);
+                callback.onResult(filterSupportedCardTypes(configuration), null);
             } else {
                 callback.onResult(null, error);
             }
         });
     }
 
+    private List<CardType> filterSupportedCardTypes(Configuration configuration) {
+        List<CardType> supportedCardTypes = new ArrayList<>();
+        for (String cardTypeAsString : configuration.getSupportedCardTypes()) {
+            CardType cardType = paymentMethodInspector.getCardTypeFromString(cardTypeAsString);
+            if (cardType != null) {
+                supportedCardTypes.add(cardType);
+            }
+        }
+
+        if (!configuration.isUnionPayEnabled()) {
+            supportedCardTypes.remove(CardType.UNIONPAY);
+        }
+        return supportedCardTypes;
+    }
+
     void getVaultedPaymentMethods(final FragmentActivity activity, final GetPaymentMethodNoncesCallback callback) {
         // TODO: cache nonces in ViewModel and allow refresh of vaulted payment methods instead of having a refetch parameter
-        braintreeClient.getConfiguration((configuration, error) -> {
+        getConfiguration((configuration, error) -> {
             if (error != null) {
                 callback.onResult(null, error);
                 return;
             }
 
-            paymentMethodClient.getPaymentMethodNonces((paymentMethodNonces, getPaymentMethodNoncesError) -> {
+            fetchPaymentMethodNonces((paymentMethodNonces, getPaymentMethodNoncesError) -> {
                 if (getPaymentMethodNoncesError != null) {
                     callback.onResult(null, getPaymentMethodNoncesError);
                 } else if (paymentMethodNonces != null) {
                     if (!dropInRequest.isGooglePayDisabled()) {
-                        googlePayClient.isReadyToPay(activity, (isReadyToPay, isReadyToPayError) -> {
+                        isReadyToGooglePay(activity, (isReadyToPay, isReadyToPayError) -> {
                             AvailablePaymentMethodNonceList availablePaymentMethodNonceList =
                                     new AvailablePaymentMethodNonceList(configuration, paymentMethodNonces, dropInRequest, isReadyToPay);
                             callback.onResult(availablePaymentMethodNonceList.getItems(), null);
@@ -385,6 +538,129 @@ class DropInInternalClient {
         });
     }
 
+    void getDropInSession(final FragmentActivity activity, final DropInSessionCallback callback) {
+        getAuthorization((authorization, authorizationError) -> {
+            if (authorization == null) {
+                callback.onResult(null, authorizationError);
+                return;
+            }
+
+            // every request is routed using configuration, so it is fetched once up front; the
+            // remaining requests are independent of each other and are started together
+            getConfiguration((configuration, configurationError) -> {
+                if (configuration == null) {
+                    callback.onResult(null, configurationError);
+                    return;
+                }
+
+                final boolean hasClientToken = authorization instanceof ClientToken;
+                DropInSessionRequests requests = new DropInSessionRequests(completedRequests -> {
+                    traceCallback("DropInInternalClient.onDropInSessionRequestsComplete", () -> {
+                        Exception error = completedRequests.getError();
+                        if (error != null) {
+                            callback.onResult(null, error);
+                            return;
+                        }
+
+                        boolean isReadyToGooglePay = completedRequests.isReadyToGooglePay();
+                        List<PaymentMethodNonce> vaultedPaymentMethods = null;
+                        if (hasClientToken) {
+                            vaultedPaymentMethods = new AvailablePaymentMethodNonceList(configuration,
+                                    completedRequests.getPaymentMethodNonces(), dropInRequest,
+                                    isReadyToGooglePay).getItems();
+                        }
+
+                        if (configurationCache != null) {
+                            configurationCache.put(authorization, configuration, isReadyToGooglePay);
+                        }
+
+                        DropInSession dropInSession = new DropInSession(authorization, configuration,
+                                filterSupportedPaymentMethods(activity, configuration, isReadyToGooglePay),
+                                filterSupportedCardTypes(configuration), vaultedPaymentMethods);
+                        callback.onResult(dropInSession, null);
+                    });
+                });
+
+                if (hasClientToken) {
+                    fetchPaymentMethodNonces(requests.paymentMethodNoncesRequest());
+                }
+                if (!dropInRequest.isGooglePayDisabled()) {
+                    isReadyToGooglePay(activity, requests.isReadyToPayRequest());
+                }
+                requests.onAllRequestsStarted();
+            });
+        });
+    }
+
+    /**
+     * Builds a session from the configuration snapshot stored by the last successful
+     * {@link #getDropInSession(FragmentActivity, DropInSessionCallback)} call for the same
+     * authorization, along with the customer's cached vault if there is one. The session may be out
+     * of date and its vault carries no nonces; it is only meant to be displayed until a fresh
+     * session arrives.
+     */
+    void getCachedDropInSession(final FragmentActivity activity, final DropInSessionCallback callback) {
+        if (configurationCache == null) {
+            callback.onResult(null, null);
+            return;
+        }
+
+        getAuthorization((authorization, authorizationError) -> {
+            if (authorization == null) {
+                callback.onResult(null, null);
+                return;
+            }
+
+            // snapshots are decrypted and parsed on the cache executor when there is one
+            runOnCacheExecutor(() -> {
+                DropInConfigurationCache.Snapshot snapshot = configurationCache.get(authorization);
+                List<PaymentMethodNonce> cachedNonces = null;
+                if (snapshot != null && authorization instanceof ClientToken) {
+                    cachedNonces = paymentMethodClient.getCachedPaymentMethodNonces(authorization);
+                }
+
+                final List<PaymentMethodNonce> vaultedNonces = cachedNonces;
+                runOnMainThread(() -> {
+                    if (snapshot == null) {
+                        callback.onResult(null, null);
+                        return;
+                    }
+
+                    Configuration configuration = snapshot.getConfiguration();
+                    boolean isReadyToGooglePay =
+                            snapshot.isReadyToGooglePay() && !dropInRequest.isGooglePayDisabled();
+
+                    List<PaymentMethodNonce> vaultedPaymentMethods = null;
+                    if (vaultedNonces != null) {
+                        vaultedPaymentMethods = new AvailablePaymentMethodNonceList(configuration,
+                                vaultedNonces, dropInRequest, isReadyToGooglePay).getItems();
+                    }
+
+                    DropInSession dropInSession = new DropInSession(authorization, configuration,
+                            filterSupportedPaymentMethods(activity, configuration, isReadyToGooglePay),
+                            filterSupportedCardTypes(configuration), vaultedPaymentMethods);
+                    callback.onResult(dropInSession, null);
+                });
+            });
+        });
+    }
+
+    private void runOnCacheExecutor(Runnable runnable) {
+        if (cacheExecutor != null) {
+            cacheExecutor.execute(runnable);
+        } else {
+            runnable.run();
+        }
+    }
+
+    private void runOnMainThread(Runnable runnable) {
+        if (mainThreadHandler != null) {
+            mainThreadHandler.post(runnable);
+        } else {
+            runnable.run();
+        }
+    }
+
     void setLastUsedPaymentMethodType(PaymentMethodNonce paymentMethodNonce) {
         dropInSharedPreferences.setLastUsedPaymentMethod(paymentMethodNonce);
     }
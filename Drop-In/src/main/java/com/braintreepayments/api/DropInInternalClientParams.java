@@ -1,5 +1,7 @@
 package com.braintreepayments.api;
 
+import java.util.concurrent.Executor;
+
 class DropInInternalClientParams {
 
     private DropInRequest dropInRequest;
@@ -14,6 +16,10 @@ class DropInInternalClientParams {
     private DataCollector dataCollector;
     private ThreeDSecureClient threeDSecureClient;
     private DropInSharedPreferences dropInSharedPreferences;
+    private DropInConfigurationCache configurationCache;
+    private DeviceDataCache deviceDataCache;
+    private DropInSpanRecorder spanRecorder;
+    private Executor cacheExecutor;
 
     ThreeDSecureClient getThreeDSecureClient() {
         return threeDSecureClient;
@@ -113,4 +119,40 @@ class DropInInternalClientParams {
     DropInSharedPreferences getDropInSharedPreferences() {
         return dropInSharedPreferences;
     }
+
+    DropInInternalClientParams configurationCache(DropInConfigurationCache configurationCache) {
+        this.configurationCache = configurationCache;
+        return this;
+    }
+
+    DropInConfigurationCache getConfigurationCache() {
+        return configurationCache;
+    }
+
+    DropInInternalClientParams deviceDataCache(DeviceDataCache deviceDataCache) {
+        this.deviceDataCache = deviceDataCache;
+        return this;
+    }
+
+    DeviceDataCache getDeviceDataCache() {
+        return deviceDataCache;
+    }
+
+    DropInInternalClientParams spanRecorder(DropInSpanRecorder spanRecorder) {
+        this.spanRecorder = spanRecorder;
+        return this;
+    }
+
+    DropInSpanRecorder getSpanRecorder() {
+        return spanRecorder;
+    }
+
+    DropInInternalClientParams cacheExecutor(Executor cacheExecutor) {
+        this.cacheExecutor = cacheExecutor;
+        return this;
+    }
+
+    Executor getCacheExecutor() {
+        return cacheExecutor;
+    }
 }
@@ -34,6 +34,11 @@ class DropInLifecycleObserver implements DefaultLifecycleObserver {
                 dropInResult -> dropInClient.onDropInResult(dropInResult));
     }
 
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        dropInClient.onDestroy();
+    }
+
     void launch(DropInIntentData intentData) {
         activityLauncher.launch(intentData);
     }
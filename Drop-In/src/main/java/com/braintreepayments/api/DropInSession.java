@@ -0,0 +1,94 @@
+package com.braintreepayments.api;
+
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.braintreepayments.cardform.utils.CardType;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Everything Drop-in needs to render the bottom sheet, resolved ahead of time. A session is only
+ * valid for a limited time since vaulted payment method nonces and Google Pay readiness can go
+ * stale.
+ */
+class DropInSession {
+
+    static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final Authorization authorization;
+    private final Configuration configuration;
+    private final List<DropInPaymentMethod> supportedPaymentMethods;
+    private final List<CardType> supportedCardTypes;
+    private final List<PaymentMethodNonce> vaultedPaymentMethods;
+
+    private final long createdAt;
+    private final long ttlMillis;
+
+    DropInSession(
+            Authorization authorization,
+            Configuration configuration,
+            List<DropInPaymentMethod> supportedPaymentMethods,
+            List<CardType> supportedCardTypes,
+            @Nullable List<PaymentMethodNonce> vaultedPaymentMethods
+    ) {
+        this(authorization, configuration, supportedPaymentMethods, supportedCardTypes,
+                vaultedPaymentMethods, SystemClock.elapsedRealtime(), DEFAULT_TTL_MILLIS);
+    }
+
+    @VisibleForTesting
+    DropInSession(
+            Authorization authorization,
+            Configuration configuration,
+            List<DropInPaymentMethod> supportedPaymentMethods,
+            List<CardType> supportedCardTypes,
+            @Nullable List<PaymentMethodNonce> vaultedPaymentMethods,
+            long createdAt,
+            long ttlMillis
+    ) {
+        this.authorization = authorization;
+        this.configuration = configuration;
+        this.supportedPaymentMethods = supportedPaymentMethods;
+        this.supportedCardTypes = supportedCardTypes;
+        this.vaultedPaymentMethods = vaultedPaymentMethods;
+        this.createdAt = createdAt;
+        this.ttlMillis = ttlMillis;
+    }
+
+    Authorization getAuthorization() {
+        return authorization;
+    }
+
+    Configuration getConfiguration() {
+        return configuration;
+    }
+
+    List<DropInPaymentMethod> getSupportedPaymentMethods() {
+        return supportedPaymentMethods;
+    }
+
+    List<CardType> getSupportedCardTypes() {
+        return supportedCardTypes;
+    }
+
+    /**
+     * @return vaulted payment methods or {@code null} when the session was resolved with a
+     * Tokenization Key, since there is no customer to fetch payment methods for.
+     */
+    @Nullable
+    List<PaymentMethodNonce> getVaultedPaymentMethods() {
+        return vaultedPaymentMethods;
+    }
+
+    boolean isExpired() {
+        return isExpired(SystemClock.elapsedRealtime());
+    }
+
+    @VisibleForTesting
+    boolean isExpired(long now) {
+        return (now - createdAt) >= ttlMillis;
+    }
+}
@@ -0,0 +1,7 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+interface DropInSessionCallback {
+    void onResult(@Nullable DropInSession dropInSession, @Nullable Exception error);
+}
@@ -0,0 +1,75 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Maps Braintree session ids to objects owned by a {@link DropInClient}. Objects are referenced
+ * weakly, so an entry never outlives the client that registered it, even when the client has no
+ * lifecycle to remove it.
+ *
+ * @param <V> the type of object registered for a session id
+ */
+class DropInSessionReferences<V> {
+
+    private final Map<String, WeakReference<V>> references = new HashMap<>();
+
+    /**
+     * Registers an object for a session id, or removes the registration when the object is
+     * {@code null}. Entries whose object has been collected are removed at the same time.
+     */
+    synchronized void put(@Nullable String sessionId, @Nullable V value) {
+        if (sessionId == null) {
+            return;
+        }
+
+        removeCollected();
+        if (value != null) {
+            references.put(sessionId, new WeakReference<>(value));
+        } else {
+            references.remove(sessionId);
+        }
+    }
+
+    @Nullable
+    synchronized V get(@Nullable String sessionId) {
+        if (sessionId == null) {
+            return null;
+        }
+
+        WeakReference<V> reference = references.get(sessionId);
+        return (reference != null) ? reference.get() : null;
+    }
+
+    @Nullable
+    synchronized V remove(@Nullable String sessionId) {
+        if (sessionId == null) {
+            return null;
+        }
+
+        WeakReference<V> reference = references.remove(sessionId);
+        return (reference != null) ? reference.get() : null;
+    }
+
+    synchronized int size() {
+        removeCollected();
+        return references.size();
+    }
+
+    synchronized void clear() {
+        references.clear();
+    }
+
+    private void removeCollected() {
+        Iterator<WeakReference<V>> iterator = references.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().get() == null) {
+                iterator.remove();
+            }
+        }
+    }
+}
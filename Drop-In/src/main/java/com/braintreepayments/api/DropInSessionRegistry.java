@@ -0,0 +1,158 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.core.util.ObjectsCompat;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Shares one {@link BraintreeClient} per Drop-in session across the process, so a
+ * {@link DropInClient}, the {@link DropInActivity} it launches and the {@link DropInClient}
+ * recreated with its activity or fragment reuse the same client along with its configuration,
+ * authorization and HTTP state. Every other {@link DropInClient} starts a session of its own.
+ * <p>
+ * Clients are reference counted. A client whose last reference is released is kept until the
+ * main thread has finished its current message, which is long enough for an activity recreated
+ * after a configuration change to acquire it again.
+ */
+final class DropInSessionRegistry {
+
+    // the entry acquired for each session id
+    private static final Map<String, Entry> ENTRIES_BY_SESSION_ID = new HashMap<>();
+    // every entry until it is released, including entries replaced for their session id
+    private static final Map<BraintreeClient, Entry> ENTRIES_BY_CLIENT = new IdentityHashMap<>();
+
+    private static Handler mainThreadHandler;
+
+    private DropInSessionRegistry() {}
+
+    private static class Entry {
+
+        final BraintreeClient braintreeClient;
+        final String sessionId;
+        final String authorization;
+        final String customUrlScheme;
+
+        int referenceCount;
+
+        Entry(BraintreeClient braintreeClient, @Nullable String authorization,
+              @Nullable String customUrlScheme) {
+            this.braintreeClient = braintreeClient;
+            this.sessionId = braintreeClient.getSessionId();
+            this.authorization = authorization;
+            this.customUrlScheme = customUrlScheme;
+        }
+
+        boolean matches(@Nullable String authorization, @Nullable String customUrlScheme) {
+            // a client created with a ClientTokenProvider matches any client token it provided
+            boolean isSameAuthorization =
+                    this.authorization == null || this.authorization.equals(authorization);
+            return isSameAuthorization && ObjectsCompat.equals(this.customUrlScheme, customUrlScheme);
+        }
+    }
+
+    /**
+     * Acquires the client of a session, creating one for the session id if none is registered or
+     * the registered client was created for a different authorization or URL scheme.
+     *
+     * @param sessionId the session to acquire, or {@code null} to start a new session
+     */
+    static synchronized BraintreeClient acquire(Context context, String authorization,
+                                                @Nullable String sessionId,
+                                                @Nullable String customUrlScheme) {
+        Entry entry = (sessionId != null) ? ENTRIES_BY_SESSION_ID.get(sessionId) : null;
+        if (entry == null || !entry.matches(authorization, customUrlScheme)) {
+            entry = put(createBraintreeClient(context, authorization, sessionId, customUrlScheme),
+                    authorization, customUrlScheme);
+        }
+        entry.referenceCount++;
+        return entry.braintreeClient;
+    }
+
+    /**
+     * Registers a client that was created elsewhere, e.g. with a {@link ClientTokenProvider}, so
+     * its session can be acquired by session id. The caller holds the first reference.
+     */
+    static synchronized void register(BraintreeClient braintreeClient,
+                                      @Nullable String customUrlScheme) {
+        put(braintreeClient, null, customUrlScheme).referenceCount++;
+    }
+
+    /**
+     * Releases a reference to a client. Clients that were not acquired from the registry are
+     * ignored.
+     */
+    static synchronized void release(@Nullable BraintreeClient braintreeClient) {
+        if (braintreeClient == null) {
+            return;
+        }
+
+        final Entry entry = ENTRIES_BY_CLIENT.get(braintreeClient);
+        if (entry == null || entry.referenceCount == 0) {
+            return;
+        }
+
+        entry.referenceCount--;
+        if (entry.referenceCount == 0) {
+            getMainThreadHandler().post(() -> removeIfUnreferenced(entry));
+        }
+    }
+
+    @VisibleForTesting
+    static synchronized int size() {
+        return ENTRIES_BY_CLIENT.size();
+    }
+
+    static synchronized void clear() {
+        ENTRIES_BY_SESSION_ID.clear();
+        ENTRIES_BY_CLIENT.clear();
+    }
+
+    private static synchronized void removeIfUnreferenced(Entry entry) {
+        if (entry.referenceCount > 0) {
+            return;
+        }
+        ENTRIES_BY_CLIENT.remove(entry.braintreeClient);
+        if (ENTRIES_BY_SESSION_ID.get(entry.sessionId) == entry) {
+            ENTRIES_BY_SESSION_ID.remove(entry.sessionId);
+        }
+    }
+
+    private static Entry put(BraintreeClient braintreeClient, @Nullable String authorization,
+                             @Nullable String customUrlScheme) {
+        Entry entry = new Entry(braintreeClient, authorization, customUrlScheme);
+        ENTRIES_BY_SESSION_ID.put(entry.sessionId, entry);
+        ENTRIES_BY_CLIENT.put(braintreeClient, entry);
+        return entry;
+    }
+
+    private static BraintreeClient createBraintreeClient(Context context, String authorization,
+                                                         @Nullable String sessionId,
+                                                         @Nullable String customUrlScheme) {
+        // the registry outlives activities
+        BraintreeOptions braintreeOptions = new BraintreeOptions(
+                context.getApplicationContext(),
+                sessionId,
+                customUrlScheme,
+                null,
+                authorization,
+                null,
+                IntegrationType.DROP_IN
+        );
+        return new BraintreeClient(braintreeOptions);
+    }
+
+    private static Handler getMainThreadHandler() {
+        if (mainThreadHandler == null) {
+            mainThreadHandler = new Handler(Looper.getMainLooper());
+        }
+        return mainThreadHandler;
+    }
+}
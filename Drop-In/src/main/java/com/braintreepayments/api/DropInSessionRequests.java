@@ -0,0 +1,83 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Joins the independent requests Drop-in starts at the same time to build a {@link DropInSession}.
+ * The completion listener is notified once, after the slowest request has finished.
+ */
+class DropInSessionRequests {
+
+    interface OnCompleteListener {
+        void onComplete(DropInSessionRequests requests);
+    }
+
+    private final OnCompleteListener listener;
+
+    // one extra pending count is held until all requests have been started so that requests
+    // completing synchronously cannot trigger the listener early
+    private int pendingRequestCount = 1;
+
+    private List<PaymentMethodNonce> paymentMethodNonces;
+    private boolean isReadyToGooglePay;
+    private Exception error;
+
+    DropInSessionRequests(OnCompleteListener listener) {
+        this.listener = listener;
+    }
+
+    synchronized GetPaymentMethodNoncesCallback paymentMethodNoncesRequest() {
+        pendingRequestCount++;
+        return (paymentMethodNonceList, paymentMethodNoncesError) -> {
+            synchronized (DropInSessionRequests.this) {
+                paymentMethodNonces = paymentMethodNonceList;
+                if (paymentMethodNonceList == null && error == null) {
+                    error = paymentMethodNoncesError;
+                }
+            }
+            onRequestComplete();
+        };
+    }
+
+    synchronized GooglePayIsReadyToPayCallback isReadyToPayRequest() {
+        pendingRequestCount++;
+        return (isReadyToPay, isReadyToPayError) -> {
+            synchronized (DropInSessionRequests.this) {
+                // Google Pay is hidden when readiness cannot be determined
+                isReadyToGooglePay = isReadyToPay;
+            }
+            onRequestComplete();
+        };
+    }
+
+    void onAllRequestsStarted() {
+        onRequestComplete();
+    }
+
+    @Nullable
+    synchronized List<PaymentMethodNonce> getPaymentMethodNonces() {
+        return paymentMethodNonces;
+    }
+
+    synchronized boolean isReadyToGooglePay() {
+        return isReadyToGooglePay;
+    }
+
+    @Nullable
+    synchronized Exception getError() {
+        return error;
+    }
+
+    private void onRequestComplete() {
+        boolean isComplete;
+        synchronized (this) {
+            isComplete = (--pendingRequestCount == 0);
+        }
+
+        if (isComplete) {
+            listener.onComplete(this);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.braintreepayments.api;
+
+import android.os.Bundle;
+
+import androidx.annotation.Nullable;
+import androidx.savedstate.SavedStateRegistry;
+import androidx.savedstate.SavedStateRegistryOwner;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps the Braintree session id of a {@link DropInClient} in the saved state of the activity or
+ * fragment that created it. A client recreated with its owner continues the session of the
+ * client it replaces; every other client starts a session of its own.
+ */
+class DropInSessionState {
+
+    private static final String KEY = "com.braintreepayments.api.DropInClient.SESSION_ID";
+
+    // the clients created by each owner; a recreated owner creates its clients in the same order,
+    // so the number tells apart the saved state of its clients
+    private static final Map<SavedStateRegistryOwner, Integer> CLIENT_COUNTS = new WeakHashMap<>();
+
+    private final SavedStateRegistry savedStateRegistry;
+    private final String key;
+
+    private DropInSessionState(SavedStateRegistry savedStateRegistry, String key) {
+        this.savedStateRegistry = savedStateRegistry;
+        this.key = key;
+    }
+
+    /**
+     * @return the saved state of the next client created by the owner
+     */
+    static synchronized DropInSessionState of(SavedStateRegistryOwner owner) {
+        Integer clientCount = CLIENT_COUNTS.get(owner);
+        int index = (clientCount != null) ? clientCount : 0;
+        CLIENT_COUNTS.put(owner, index + 1);
+        return new DropInSessionState(owner.getSavedStateRegistry(), KEY + "." + index);
+    }
+
+    /**
+     * @return the session id the client had before its owner was recreated, or {@code null} if
+     * the client is new
+     */
+    @Nullable
+    String getRestoredSessionId() {
+        // state is only restored once the owner is created
+        if (!savedStateRegistry.isRestored()) {
+            return null;
+        }
+        Bundle state = savedStateRegistry.consumeRestoredStateForKey(key);
+        return (state != null) ? state.getString(KEY) : null;
+    }
+
+    /**
+     * Saves the client's session id with the state of its owner.
+     */
+    void save(final String sessionId) {
+        savedStateRegistry.registerSavedStateProvider(key, () -> {
+            Bundle state = new Bundle();
+            state.putString(KEY, sessionId);
+            return state;
+        });
+    }
+}
@@ -0,0 +1,108 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A timed phase of a Drop-in checkout reported to a {@link DropInTracer}. Times are measured
+ * with {@link android.os.SystemClock#elapsedRealtime()}.
+ */
+public class DropInSpan {
+
+    private final DropInSpanPhase phase;
+    private final long startTimeMillis;
+
+    private DropInPaymentMethod paymentMethod;
+    private DropInSpanOutcome outcome;
+    private long endTimeMillis = -1;
+    private int coalescedRequestCount;
+    private int traceCookie;
+
+    DropInSpan(DropInSpanPhase phase, @Nullable DropInPaymentMethod paymentMethod, long startTimeMillis) {
+        this.phase = phase;
+        this.paymentMethod = paymentMethod;
+        this.startTimeMillis = startTimeMillis;
+    }
+
+    void end(DropInSpanOutcome outcome, @Nullable DropInPaymentMethod paymentMethod, long endTimeMillis) {
+        this.outcome = outcome;
+        if (paymentMethod != null) {
+            this.paymentMethod = paymentMethod;
+        }
+        this.endTimeMillis = endTimeMillis;
+    }
+
+    void setCoalescedRequestCount(int coalescedRequestCount) {
+        this.coalescedRequestCount = coalescedRequestCount;
+    }
+
+    void setTraceCookie(int traceCookie) {
+        this.traceCookie = traceCookie;
+    }
+
+    int getTraceCookie() {
+        return traceCookie;
+    }
+
+    /**
+     * @return the phase this span measures
+     */
+    @NonNull
+    public DropInSpanPhase getPhase() {
+        return phase;
+    }
+
+    /**
+     * @return the payment method the phase was performed for, or {@code null} if the phase does
+     * not apply to a single payment method or it is not yet known
+     */
+    @Nullable
+    public DropInPaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    /**
+     * @return how the phase ended, or {@code null} if it has not ended
+     */
+    @Nullable
+    public DropInSpanOutcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return {@code true} if the phase has ended
+     */
+    public boolean isEnded() {
+        return outcome != null;
+    }
+
+    /**
+     * @return for {@link DropInSpanPhase#CONFIGURATION}, {@link DropInSpanPhase#VAULT_FETCH} and
+     * {@link DropInSpanPhase#DEVICE_DATA}, the number of callers that received the result of this
+     * request instead of starting a request of their own; 0 for other phases
+     */
+    public int getCoalescedRequestCount() {
+        return coalescedRequestCount;
+    }
+
+    /**
+     * @return the time the phase started, in milliseconds since boot
+     */
+    public long getStartTimeMillis() {
+        return startTimeMillis;
+    }
+
+    /**
+     * @return the time the phase ended, in milliseconds since boot, or -1 if it has not ended
+     */
+    public long getEndTimeMillis() {
+        return endTimeMillis;
+    }
+
+    /**
+     * @return the duration of the phase in milliseconds, or -1 if it has not ended
+     */
+    public long getDurationMillis() {
+        return isEnded() ? endTimeMillis - startTimeMillis : -1;
+    }
+}
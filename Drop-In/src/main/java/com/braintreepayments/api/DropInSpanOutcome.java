@@ -0,0 +1,22 @@
+package com.braintreepayments.api;
+
+/**
+ * How a {@link DropInSpan} ended.
+ */
+public enum DropInSpanOutcome {
+
+    /**
+     * The phase completed.
+     */
+    SUCCEEDED,
+
+    /**
+     * The phase ended with an error.
+     */
+    FAILED,
+
+    /**
+     * The phase was canceled, for example because the customer closed Drop-in.
+     */
+    CANCELED
+}
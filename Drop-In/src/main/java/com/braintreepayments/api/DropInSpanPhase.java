@@ -0,0 +1,67 @@
+package com.braintreepayments.api;
+
+/**
+ * The phases of a Drop-in checkout reported to a {@link DropInTracer}.
+ */
+public enum DropInSpanPhase {
+
+    /**
+     * From launching Drop-in until its bottom sheet has finished sliding up.
+     */
+    LAUNCH,
+
+    /**
+     * Fetching the client token or resolving the tokenization key.
+     */
+    AUTHORIZATION,
+
+    /**
+     * Fetching the merchant configuration from the Braintree gateway.
+     */
+    CONFIGURATION,
+
+    /**
+     * Fetching the customer's vaulted payment methods.
+     */
+    VAULT_FETCH,
+
+    /**
+     * Checking whether Google Pay is available on the device.
+     */
+    IS_READY_TO_PAY,
+
+    /**
+     * Sliding the bottom sheet in or out.
+     */
+    SHEET_ANIMATION,
+
+    /**
+     * Tokenizing a card entered by the customer.
+     */
+    CARD_TOKENIZATION,
+
+    /**
+     * From submitting card details until Drop-in returns a result or the gateway rejects the card.
+     */
+    CARD_CHECKOUT,
+
+    /**
+     * Performing the 3D Secure lookup.
+     */
+    THREE_D_SECURE_LOOKUP,
+
+    /**
+     * Presenting the 3D Secure challenge, if one is required, and receiving its result.
+     */
+    THREE_D_SECURE_CHALLENGE,
+
+    /**
+     * Collecting device data for fraud detection.
+     */
+    DEVICE_DATA,
+
+    /**
+     * Closing Drop-in and returning the result to the merchant app.
+     */
+    RESULT_DELIVERY
+}
@@ -0,0 +1,79 @@
+package com.braintreepayments.api;
+
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.tracing.Trace;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates {@link DropInSpan}s and reports them to a {@link DropInTracer}. When no tracer is set,
+ * spans are still created so call sites don't need to check, but nothing is reported.
+ * <p>
+ * Every span is also recorded as an async system trace section so that the latency of network
+ * requests and animations can be seen alongside main thread work in a system trace.
+ */
+class DropInSpanRecorder {
+
+    private static final AtomicInteger TRACE_COOKIE = new AtomicInteger();
+
+    private final DropInTracer tracer;
+    private final DropInClock clock;
+
+    DropInSpanRecorder(@Nullable DropInTracer tracer) {
+        this(tracer, SystemClock::elapsedRealtime);
+    }
+
+    @VisibleForTesting
+    DropInSpanRecorder(@Nullable DropInTracer tracer, DropInClock clock) {
+        this.tracer = tracer;
+        this.clock = clock;
+    }
+
+    DropInSpan start(DropInSpanPhase phase) {
+        return start(phase, null);
+    }
+
+    DropInSpan start(DropInSpanPhase phase, @Nullable DropInPaymentMethod paymentMethod) {
+        DropInSpan span = new DropInSpan(phase, paymentMethod, clock.currentTimeMillis());
+        span.setTraceCookie(TRACE_COOKIE.incrementAndGet());
+        Trace.beginAsyncSection(traceSectionName(phase), span.getTraceCookie());
+        if (tracer != null) {
+            tracer.onSpanStarted(span);
+        }
+        return span;
+    }
+
+    void end(@Nullable DropInSpan span, @Nullable Exception error) {
+        end(span, (error == null) ? DropInSpanOutcome.SUCCEEDED : outcomeOf(error), null);
+    }
+
+    /**
+     * Ends a span unless it has already ended, so a phase with several completion paths reports
+     * its end once.
+     *
+     * @param paymentMethod the payment method the phase produced, if it was not known at start
+     */
+    void end(@Nullable DropInSpan span, DropInSpanOutcome outcome, @Nullable DropInPaymentMethod paymentMethod) {
+        if (span == null || span.isEnded()) {
+            return;
+        }
+
+        span.end(outcome, paymentMethod, clock.currentTimeMillis());
+        Trace.endAsyncSection(traceSectionName(span.getPhase()), span.getTraceCookie());
+        if (tracer != null) {
+            tracer.onSpanEnded(span);
+        }
+    }
+
+    private static String traceSectionName(DropInSpanPhase phase) {
+        return "DropIn." + phase.name();
+    }
+
+    static DropInSpanOutcome outcomeOf(Exception error) {
+        return (error instanceof UserCanceledException)
+                ? DropInSpanOutcome.CANCELED : DropInSpanOutcome.FAILED;
+    }
+}
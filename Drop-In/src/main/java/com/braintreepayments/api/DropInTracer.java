@@ -0,0 +1,30 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Implement this interface to receive timing spans for each phase of a Drop-in checkout, for
+ * example to find which network request or animation contributes most to checkout latency.
+ * <p>
+ * Spans are reported on the main thread. Implementations should return quickly and must not
+ * block, since they run on Drop-in's critical path.
+ *
+ * @see DropInClient#setTracer(DropInTracer)
+ */
+public interface DropInTracer {
+
+    /**
+     * Called when a phase starts.
+     *
+     * @param span a {@link DropInSpan} whose outcome and end time are not yet known
+     */
+    void onSpanStarted(@NonNull DropInSpan span);
+
+    /**
+     * Called when a phase ends. The span is the same instance passed to
+     * {@link #onSpanStarted(DropInSpan)}.
+     *
+     * @param span a {@link DropInSpan} with its outcome and end time set
+     */
+    void onSpanEnded(@NonNull DropInSpan span);
+}
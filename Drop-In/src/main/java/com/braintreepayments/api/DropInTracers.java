@@ -0,0 +1,66 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands the {@link DropInTracer} set on a {@link DropInClient}, and the span started when Drop-in
+ * was launched, over to the {@link DropInActivity} launched for the same Braintree session id.
+ * <p>
+ * Tracers are only referenced weakly here; the {@link DropInClient} holds them, so they are
+ * released with the client even when it has no lifecycle. Launch spans are held until Drop-in
+ * takes them or the client that started them is destroyed.
+ */
+class DropInTracers {
+
+    private static final DropInSessionReferences<DropInTracer> TRACERS =
+            new DropInSessionReferences<>();
+    private static final Map<String, DropInSpan> LAUNCH_SPANS = new HashMap<>();
+
+    private DropInTracers() {}
+
+    static void put(String sessionId, @Nullable DropInTracer tracer) {
+        TRACERS.put(sessionId, tracer);
+    }
+
+    /**
+     * @param sessionId the Braintree session id Drop-in was launched with
+     * @return the tracer registered for the session id or {@code null} if none is registered
+     */
+    @Nullable
+    static DropInTracer get(@Nullable String sessionId) {
+        return TRACERS.get(sessionId);
+    }
+
+    static void putLaunchSpan(String sessionId, DropInSpan launchSpan) {
+        if (sessionId != null) {
+            synchronized (LAUNCH_SPANS) {
+                LAUNCH_SPANS.put(sessionId, launchSpan);
+            }
+        }
+    }
+
+    /**
+     * @param sessionId the Braintree session id Drop-in was launched with
+     * @return the {@link DropInSpanPhase#LAUNCH} span for the session id, which is removed so that
+     * it is only ended once, or {@code null} if none was started
+     */
+    @Nullable
+    static DropInSpan takeLaunchSpan(@Nullable String sessionId) {
+        if (sessionId == null) {
+            return null;
+        }
+        synchronized (LAUNCH_SPANS) {
+            return LAUNCH_SPANS.remove(sessionId);
+        }
+    }
+
+    static void clear() {
+        TRACERS.clear();
+        synchronized (LAUNCH_SPANS) {
+            LAUNCH_SPANS.clear();
+        }
+    }
+}
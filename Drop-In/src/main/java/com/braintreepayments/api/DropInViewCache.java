@@ -0,0 +1,197 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.AttributeSet;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.VisibleForTesting;
+import androidx.fragment.app.Fragment;
+import androidx.tracing.Trace;
+
+import com.braintreepayments.api.dropin.R;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds view hierarchies of one Drop-in activity that were inflated ahead of time on a background
+ * thread, so opening a screen does not inflate its layout on the main thread. Each layout is
+ * cached at most once, and a screen whose layout is not cached yet inflates it synchronously.
+ * <p>
+ * Only the inflation is moved off the main thread; fragments still bind and set up the views they
+ * take from the cache. Layouts are inflated without the factories of the activity's inflater:
+ * AppCompat's factory shares one view inflater across the activity and is not safe to use off the
+ * main thread. As with {@code AsyncLayoutInflater}, framework widgets in a preinflated layout are
+ * therefore not replaced with their AppCompat versions.
+ */
+class DropInViewCache {
+
+    private static final String TAG = "DropInViewCache";
+
+    interface Owner {
+        DropInViewCache getDropInViewCache();
+    }
+
+    static final int ADD_CARD = R.layout.bt_fragment_add_card;
+    static final int CARD_DETAILS = R.layout.bt_fragment_card_details;
+
+    /**
+     * Inflates layouts for Drop-in. The thread is only kept alive while layouts are being
+     * inflated.
+     */
+    static final Executor INFLATE_EXECUTOR = new ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>());
+
+    private final LayoutInflater inflater;
+    private final Executor inflateExecutor;
+    private final Handler mainThreadHandler;
+
+    private final Map<Integer, View> views = new HashMap<>();
+    private final Set<Integer> inflatingLayouts = new HashSet<>();
+
+    DropInViewCache(Context context) {
+        this(context, INFLATE_EXECUTOR);
+    }
+
+    @VisibleForTesting
+    DropInViewCache(Context context, Executor inflateExecutor) {
+        // cloning the activity's inflater would copy its AppCompat factory
+        this.inflater = new BackgroundLayoutInflater(new BackgroundInflationContext(context));
+        this.inflateExecutor = inflateExecutor;
+        this.mainThreadHandler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * @return the cache of the Drop-in instance hosting the fragment, or a cache of its own when the
+     * host does not share one
+     */
+    static DropInViewCache from(Fragment fragment) {
+        Owner owner = DropInHost.findOwner(fragment, Owner.class);
+        if (owner != null) {
+            return owner.getDropInViewCache();
+        }
+        return new DropInViewCache(fragment.requireContext());
+    }
+
+    /**
+     * Inflates a layout on a background thread and caches it, unless it is already cached or being
+     * inflated. A layout that cannot be inflated off the main thread is left to {@link #take}.
+     *
+     * @param parent the view group the layout will be added to; it supplies the layout params of
+     *               the layout's root view
+     */
+    void preinflate(final ViewGroup parent, @LayoutRes final int layout) {
+        if (views.containsKey(layout) || !inflatingLayouts.add(layout)) {
+            return;
+        }
+
+        inflateExecutor.execute(() -> {
+            View view = null;
+            Trace.beginSection("DropInViewCache.preinflate");
+            try {
+                view = inflater.inflate(layout, parent, false);
+            } catch (RuntimeException e) {
+                // the layout is inflated on the main thread when it is needed
+                Log.w(TAG, "Unable to inflate layout off the main thread", e);
+            } finally {
+                Trace.endSection();
+            }
+
+            final View inflatedView = view;
+            mainThreadHandler.post(() -> {
+                inflatingLayouts.remove(layout);
+                if (inflatedView != null) {
+                    views.put(layout, inflatedView);
+                }
+            });
+        });
+    }
+
+    /**
+     * Takes a layout from the cache, or inflates it when it is not cached.
+     */
+    View take(LayoutInflater inflater, @LayoutRes int layout, ViewGroup container) {
+        View view = views.remove(layout);
+        if (view != null) {
+            return view;
+        }
+        return inflater.inflate(layout, container, false);
+    }
+
+    @VisibleForTesting
+    boolean contains(@LayoutRes int layout) {
+        return views.containsKey(layout);
+    }
+
+    /**
+     * A layout inflater without factories, which creates framework widgets from their package.
+     */
+    private static class BackgroundLayoutInflater extends LayoutInflater {
+
+        private static final String[] CLASS_PREFIXES = {
+                "android.widget.",
+                "android.webkit.",
+                "android.app."
+        };
+
+        BackgroundLayoutInflater(Context context) {
+            super(context);
+        }
+
+        @Override
+        public LayoutInflater cloneInContext(Context newContext) {
+            return new BackgroundLayoutInflater(newContext);
+        }
+
+        @Override
+        protected View onCreateView(String name, AttributeSet attrs) throws ClassNotFoundException {
+            for (String prefix : CLASS_PREFIXES) {
+                try {
+                    View view = createView(name, prefix, attrs);
+                    if (view != null) {
+                        return view;
+                    }
+                } catch (ClassNotFoundException ignored) {
+                    // try the next package
+                }
+            }
+            return super.onCreateView(name, attrs);
+        }
+    }
+
+    /**
+     * The context of preinflated views. Custom views such as the card form inflate their children
+     * with the inflater of their context, so off the main thread it hands out the background
+     * inflater instead of the activity's; on the main thread it hands out the activity's.
+     */
+    private static class BackgroundInflationContext extends ContextWrapper {
+
+        private final LayoutInflater backgroundInflater;
+
+        BackgroundInflationContext(Context base) {
+            super(base);
+            backgroundInflater = new BackgroundLayoutInflater(this);
+        }
+
+        @Override
+        public Object getSystemService(String name) {
+            if (LAYOUT_INFLATER_SERVICE.equals(name) && Looper.myLooper() != Looper.getMainLooper()) {
+                return backgroundInflater;
+            }
+            return super.getSystemService(name);
+        }
+    }
+}
@@ -7,8 +7,10 @@ import androidx.lifecycle.ViewModel;
 import com.braintreepayments.cardform.utils.CardType;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class DropInViewModel extends ViewModel {
 
@@ -70,20 +72,26 @@ public class DropInViewModel extends ViewModel {
     }
 
     void removeVaultedPaymentMethodNonce(PaymentMethodNonce paymentMethodNonceToDelete) {
+        removeVaultedPaymentMethodNonces(Collections.singletonList(paymentMethodNonceToDelete));
+    }
+
+    void removeVaultedPaymentMethodNonces(List<PaymentMethodNonce> paymentMethodNoncesToDelete) {
         List<PaymentMethodNonce> currentPaymentMethods = vaultedPaymentMethods.getValue();
         if (currentPaymentMethods != null) {
-            List<PaymentMethodNonce> updatedPaymentMethods = new ArrayList<>(currentPaymentMethods);
-
-            // find nonce by string and remove it
-            Iterator<PaymentMethodNonce> iterator = updatedPaymentMethods.iterator();
-            while (iterator.hasNext()) {
-                PaymentMethodNonce nonce = iterator.next();
-                if (nonce.getString().equals(paymentMethodNonceToDelete.getString())) {
-                    iterator.remove();
-                    break;
+            Set<String> noncesToDelete = new HashSet<>();
+            for (PaymentMethodNonce paymentMethodNonce : paymentMethodNoncesToDelete) {
+                noncesToDelete.add(paymentMethodNonce.getString());
+            }
+
+            // find nonces by string and remove them without building the remaining nonces
+            List<VaultedPaymentMethodSummary> updatedSummaries = new ArrayList<>();
+            for (VaultedPaymentMethodSummary summary
+                    : VaultedPaymentMethodNonceList.of(currentPaymentMethods).getSummaries()) {
+                if (!noncesToDelete.remove(summary.getNonce())) {
+                    updatedSummaries.add(summary);
                 }
             }
-            vaultedPaymentMethods.setValue(updatedPaymentMethods);
+            vaultedPaymentMethods.setValue(new VaultedPaymentMethodNonceList(updatedSummaries));
         }
     }
 
@@ -0,0 +1,88 @@
+package com.braintreepayments.api;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+
+import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.braintreepayments.api.dropin.R;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Recycles vaulted payment method rows across the fragments of one Drop-in activity. Rows of the
+ * vault manager can be created ahead of time, while the main thread is idle, so the vault manager
+ * reuses them instead of inflating its rows as it opens, and rows of a closed vault manager are
+ * reused the next time it opens.
+ * <p>
+ * Adapters that share a pool must use distinct view types; the vaulted payment method adapters use
+ * the layout of their rows.
+ */
+class DropInViewPool extends RecyclerView.RecycledViewPool {
+
+    interface Owner {
+        DropInViewPool getDropInViewPool();
+    }
+
+    static final int VAULTED_PAYMENT_METHOD_CARD = R.layout.bt_vaulted_payment_method_card;
+    static final int VAULT_MANAGER_ROW = R.layout.bt_vault_manager_list_item;
+
+    // enough rows to fill the vault manager on a tall phone
+    static final int VAULT_MANAGER_ROWS = 8;
+    private static final int VAULTED_PAYMENT_METHOD_CARDS = 5;
+
+    private final Set<Integer> prepopulatingViewTypes = new HashSet<>();
+
+    DropInViewPool() {
+        setMaxRecycledViews(VAULTED_PAYMENT_METHOD_CARD, VAULTED_PAYMENT_METHOD_CARDS);
+        setMaxRecycledViews(VAULT_MANAGER_ROW, VAULT_MANAGER_ROWS);
+    }
+
+    /**
+     * @return the pool of the Drop-in instance hosting the fragment, or a pool of its own when the
+     * host does not share one
+     */
+    static DropInViewPool from(Fragment fragment) {
+        Owner owner = DropInHost.findOwner(fragment, Owner.class);
+        if (owner != null) {
+            return owner.getDropInViewPool();
+        }
+        return new DropInViewPool();
+    }
+
+    /**
+     * Creates view holders of a view type until the pool holds {@code count} of them. One view
+     * holder is created each time the main thread goes idle, so creating rows does not delay the
+     * frames of a running animation.
+     *
+     * @param parent a view group the rows are created for; it supplies their context and layout
+     *               params
+     * @param adapter the adapter that creates rows of the view type
+     */
+    void prepopulate(final RecyclerView parent, final RecyclerView.Adapter<?> adapter,
+                     final int viewType, final int count) {
+        if (getRecycledViewCount(viewType) >= count || !prepopulatingViewTypes.add(viewType)) {
+            return;
+        }
+
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                int recycledCount = getRecycledViewCount(viewType);
+                if (recycledCount < count) {
+                    putRecycledView(adapter.createViewHolder(parent, viewType));
+                }
+
+                // a pool that is full for the view type drops the view holder
+                int newRecycledCount = getRecycledViewCount(viewType);
+                boolean done = newRecycledCount >= count || newRecycledCount == recycledCount;
+                if (done) {
+                    prepopulatingViewTypes.remove(viewType);
+                }
+                return !done;
+            }
+        });
+    }
+}
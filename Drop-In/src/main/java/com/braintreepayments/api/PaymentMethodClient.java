@@ -3,6 +3,8 @@ package com.braintreepayments.api;
 import android.content.Context;
 import android.content.res.Resources;
 import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
 
 import androidx.annotation.Nullable;
 
@@ -12,26 +14,46 @@ import org.json.JSONObject;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Class used to retrieve a customer's payment methods.
  */
 public class PaymentMethodClient {
 
-    private static final String PAYMENT_METHOD_NONCE_COLLECTION_KEY = "paymentMethods";
-    private static final String PAYMENT_METHOD_TYPE_KEY = "type";
-
-    private static final String PAYMENT_METHOD_TYPE_CARD = "CreditCard";
-    private static final String PAYMENT_METHOD_TYPE_PAYPAL = "PayPalAccount";
-    private static final String PAYMENT_METHOD_TYPE_VENMO = "VenmoAccount";
-
     private static final String SINGLE_USE_TOKEN_ID = "singleUseTokenId";
     private static final String VARIABLES = "variables";
     private static final String INPUT = "input";
     private static final String CLIENT_SDK_META_DATA = "clientSdkMetadata";
 
+    private static final String DELETE_PAYMENT_METHOD_FIELD = "deletePaymentMethodFromSingleUseToken";
+    private static final String DELETE_PAYMENT_METHOD_INPUT_TYPE = "DeletePaymentMethodFromSingleUseTokenInput!";
+    private static final String DELETE_PAYMENT_METHODS_OPERATION = "DeletePaymentMethodsFromSingleUseTokens";
+    private static final String DELETE_ALIAS_PREFIX = "delete";
+
+    private static final String ERRORS_KEY = "errors";
+    private static final String MESSAGE_KEY = "message";
+    private static final String PATH_KEY = "path";
+
+    private static String deletePaymentMethodQuery;
+
+    /**
+     * Parses vault responses for Drop-in. The thread is only kept alive while vaults are being
+     * fetched.
+     */
+    static final Executor VAULT_PARSE_EXECUTOR = new ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>());
+
     private final BraintreeClient braintreeClient;
+    private final VaultedPaymentMethodCache vaultedPaymentMethodCache;
+    private final Executor parseExecutor;
+    private final Handler mainThreadHandler;
 
     /**
      * Creates a new instance of {@link PaymentMethodClient}
@@ -39,37 +61,74 @@ public class PaymentMethodClient {
      * @param braintreeClient a {@link BraintreeClient}
      */
     public PaymentMethodClient(BraintreeClient braintreeClient) {
+        this(braintreeClient, null);
+    }
+
+    PaymentMethodClient(BraintreeClient braintreeClient, @Nullable VaultedPaymentMethodCache vaultedPaymentMethodCache) {
+        this(braintreeClient, vaultedPaymentMethodCache, null);
+    }
+
+    /**
+     * @param parseExecutor parses vault responses, and with them the summaries each row displays,
+     *                      and caches those summaries off the main thread; results are still
+     *                      delivered on the main thread. Responses are parsed where they are
+     *                      received when {@code null}.
+     */
+    PaymentMethodClient(BraintreeClient braintreeClient, @Nullable VaultedPaymentMethodCache vaultedPaymentMethodCache, @Nullable Executor parseExecutor) {
         this.braintreeClient = braintreeClient;
+        this.vaultedPaymentMethodCache = vaultedPaymentMethodCache;
+        this.parseExecutor = parseExecutor;
+        this.mainThreadHandler = (parseExecutor != null) ? new Handler(Looper.getMainLooper()) : null;
     }
 
+    /**
+     * Vault entries are read with a streaming parser that skips unsupported payment methods
+     * without copying them.
+     */
     private static List<PaymentMethodNonce> parsePaymentMethodNonces(String jsonBody) throws JSONException {
-        JSONArray paymentMethods =
-                new JSONObject(jsonBody).getJSONArray(PAYMENT_METHOD_NONCE_COLLECTION_KEY);
-
-        List<PaymentMethodNonce> result = new ArrayList<>();
-        for (int i = 0; i < paymentMethods.length(); i++) {
-            JSONObject json = paymentMethods.getJSONObject(i);
-            PaymentMethodNonce paymentMethodNonce = parseVaultSupportedPaymentMethodNonce(json);
-            if (paymentMethodNonce != null) {
-                result.add(paymentMethodNonce);
+        return VaultedPaymentMethodNonceList.parse(jsonBody);
+    }
+
+    /**
+     * Parses a vault response on the parse executor when there is one, delivering the result on the
+     * main thread.
+     *
+     * @param customerKey the key to cache the parsed vault under, or {@code null} to not cache it
+     */
+    private void parsePaymentMethodNonces(final String jsonBody, @Nullable final String customerKey,
+                                          final GetPaymentMethodNoncesCallback callback) {
+        runOnParseExecutor(() -> {
+            List<PaymentMethodNonce> paymentMethodNonces = null;
+            JSONException parseError = null;
+            try {
+                paymentMethodNonces = parsePaymentMethodNonces(jsonBody);
+                if (customerKey != null) {
+                    // the cached summaries are encrypted off the main thread too
+                    vaultedPaymentMethodCache.put(customerKey, paymentMethodNonces);
+                }
+            } catch (JSONException e) {
+                parseError = e;
             }
-        }
 
-        return result;
+            final List<PaymentMethodNonce> result = paymentMethodNonces;
+            final JSONException error = parseError;
+            runOnMainThread(() -> callback.onResult(result, error));
+        });
+    }
+
+    private void runOnParseExecutor(Runnable task) {
+        if (parseExecutor != null) {
+            parseExecutor.execute(task);
+        } else {
+            task.run();
+        }
     }
 
-    private static PaymentMethodNonce parseVaultSupportedPaymentMethodNonce(JSONObject json) throws JSONException {
-        // NOTE: Since 3.x, Card, PayPal, Venmo, and Visa Checkout were the only payment methods supported by the vault manager
-        String type = json.getString(PAYMENT_METHOD_TYPE_KEY);
-        switch (type) {
-            case PAYMENT_METHOD_TYPE_CARD:
-                return CardNonce.fromJSON(json);
-            case PAYMENT_METHOD_TYPE_PAYPAL:
-                return PayPalAccountNonce.fromJSON(json);
-            case PAYMENT_METHOD_TYPE_VENMO:
-                return VenmoAccountNonce.fromJSON(json);
-            default:
-                return null;
+    private void runOnMainThread(Runnable task) {
+        if (mainThreadHandler != null) {
+            mainThreadHandler.post(task);
+        } else {
+            task.run();
         }
     }
 
@@ -81,30 +140,71 @@ public class PaymentMethodClient {
      * @param callback a {@link GetPaymentMethodNoncesCallback} to handle results
      */
     public void getPaymentMethodNonces(boolean defaultFirst, final GetPaymentMethodNoncesCallback callback) {
+        sendPaymentMethodNoncesGET(defaultFirst, (responseBody, httpError) ->
+                onPaymentMethodsResponse(responseBody, httpError, null, callback));
+    }
+
+    private void onPaymentMethodsResponse(@Nullable String responseBody,
+                                          @Nullable Exception httpError,
+                                          @Nullable String customerKey,
+                                          GetPaymentMethodNoncesCallback callback) {
+        if (responseBody != null) {
+            parsePaymentMethodNonces(responseBody, customerKey, (paymentMethodNonces, parseError) -> {
+                callback.onResult(paymentMethodNonces, parseError);
+                braintreeClient.sendAnalyticsEvent((paymentMethodNonces != null)
+                        ? "get-payment-methods.succeeded" : "get-payment-methods.failed");
+            });
+        } else {
+            callback.onResult(null, httpError);
+            braintreeClient.sendAnalyticsEvent("get-payment-methods.failed");
+        }
+    }
+
+    private void sendPaymentMethodNoncesGET(boolean defaultFirst, HttpResponseCallback callback) {
         final Uri uri = Uri.parse(ApiClient.versionedPath(ApiClient.PAYMENT_METHOD_ENDPOINT))
                 .buildUpon()
                 .appendQueryParameter("default_first", String.valueOf(defaultFirst))
                 .appendQueryParameter("session_id", braintreeClient.getSessionId())
                 .build();
+        braintreeClient.sendGET(uri.toString(), callback);
+    }
 
-        braintreeClient.sendGET(uri.toString(), (responseBody, httpError) -> {
-            if (responseBody != null) {
-                try {
-                    callback.onResult(parsePaymentMethodNonces(responseBody), null);
-                    braintreeClient.sendAnalyticsEvent("get-payment-methods.succeeded");
-                } catch (JSONException e) {
-                    callback.onResult(null, e);
-                    braintreeClient.sendAnalyticsEvent("get-payment-methods.failed");
-                }
-            } else {
-                callback.onResult(null, httpError);
-                braintreeClient.sendAnalyticsEvent("get-payment-methods.failed");
+    /**
+     * Retrieves the customer's vault for Drop-in, caching what each of its payment methods displays
+     * so the next session can show the vault while it is fetched again.
+     */
+    void getPaymentMethodNonces(final GetPaymentMethodNoncesCallback callback) {
+        if (vaultedPaymentMethodCache == null) {
+            getPaymentMethodNonces(false, callback);
+            return;
+        }
+
+        braintreeClient.getAuthorization((authorization, authorizationError) -> {
+            String customerKey = (authorization != null)
+                    ? VaultedPaymentMethodCache.customerKey(authorization) : null;
+            if (customerKey == null) {
+                getPaymentMethodNonces(false, callback);
+                return;
             }
+
+            sendPaymentMethodNoncesGET(false, (responseBody, httpError) ->
+                    onPaymentMethodsResponse(responseBody, httpError, customerKey, callback));
         });
     }
 
-    void getPaymentMethodNonces(GetPaymentMethodNoncesCallback callback) {
-        getPaymentMethodNonces(false, callback);
+    /**
+     * @return what the customer's vault displayed when it was last fetched, or {@code null} if
+     * nothing is cached for the customer the authorization belongs to. The list carries no nonces,
+     * so its payment methods can't be selected.
+     */
+    @Nullable
+    List<PaymentMethodNonce> getCachedPaymentMethodNonces(Authorization authorization) {
+        if (vaultedPaymentMethodCache == null) {
+            return null;
+        }
+
+        String customerKey = VaultedPaymentMethodCache.customerKey(authorization);
+        return (customerKey != null) ? vaultedPaymentMethodCache.get(customerKey) : null;
     }
 
     /**
@@ -140,8 +240,7 @@ public class PaymentMethodClient {
                             .integration(braintreeClient.getIntegrationType())
                             .build());
 
-                    base.put(GraphQLConstants.Keys.QUERY, GraphQLQueryHelper.getQuery(
-                            context, R.raw.delete_payment_method_mutation));
+                    base.put(GraphQLConstants.Keys.QUERY, getDeletePaymentMethodQuery(context));
                     input.put(SINGLE_USE_TOKEN_ID, paymentMethodNonce.getString());
                     variables.put(INPUT, input);
                     base.put(VARIABLES, variables);
@@ -150,10 +249,15 @@ public class PaymentMethodClient {
                 } catch (Resources.NotFoundException | IOException | JSONException e) {
                     Exception graphQLError = new BraintreeException("Unable to read GraphQL query");
                     callback.onResult(null, graphQLError);
+                    return;
                 }
 
                 braintreeClient.sendGraphQLPOST(base.toString(), (responseBody, httpError) -> {
                     if (responseBody != null) {
+                        if (vaultedPaymentMethodCache != null) {
+                            // the cached vault still contains the deleted payment method
+                            vaultedPaymentMethodCache.clear();
+                        }
                         callback.onResult(paymentMethodNonce, null);
                         braintreeClient.sendAnalyticsEvent("delete-payment-methods.succeeded");
                     } else {
@@ -166,4 +270,154 @@ public class PaymentMethodClient {
             }
         });
     }
+
+    /**
+     * Deletes several payment methods for the user whose ID was used to generate the
+     * {@link ClientToken} used to instantiate the {@link BraintreeClient}. All payment methods are
+     * deleted in a single GraphQL request and the outcome is reported for each payment method.
+     *
+     * @param paymentMethodNonces the {@link PaymentMethodNonce}s that reference vaulted payment
+     *                            methods to be deleted
+     * @param callback a {@link DeletePaymentMethodNoncesCallback} to handle results
+     */
+    public void deletePaymentMethods(final List<PaymentMethodNonce> paymentMethodNonces, final DeletePaymentMethodNoncesCallback callback) {
+        final List<PaymentMethodNonce> noncesToDelete = new ArrayList<>(paymentMethodNonces);
+        if (noncesToDelete.isEmpty()) {
+            callback.onResult(new DeletePaymentMethodNoncesResult(), null);
+            return;
+        }
+
+        braintreeClient.getAuthorization((authorization, authorizationError) -> {
+            if (!(authorization instanceof ClientToken)) {
+                Exception clientTokenRequiredError =
+                        new BraintreeException("A client token with a customer id must be used to delete a payment method nonce.");
+                callback.onResult(null, clientTokenRequiredError);
+                return;
+            }
+
+            final JSONObject base = new JSONObject();
+            JSONObject variables = new JSONObject();
+            StringBuilder declarations = new StringBuilder();
+            StringBuilder selections = new StringBuilder();
+
+            try {
+                base.put(CLIENT_SDK_META_DATA, new MetadataBuilder()
+                        .sessionId(braintreeClient.getSessionId())
+                        .source("client")
+                        .integration(braintreeClient.getIntegrationType())
+                        .build());
+
+                for (int i = 0; i < noncesToDelete.size(); i++) {
+                    String alias = DELETE_ALIAS_PREFIX + i;
+                    String inputVariable = INPUT + i;
+
+                    if (i > 0) {
+                        declarations.append(", ");
+                    }
+                    declarations.append('$').append(inputVariable).append(": ")
+                            .append(DELETE_PAYMENT_METHOD_INPUT_TYPE);
+                    selections.append("  ").append(alias).append(": ")
+                            .append(DELETE_PAYMENT_METHOD_FIELD).append("(input: $")
+                            .append(inputVariable).append(") { clientMutationId }\n");
+
+                    JSONObject input = new JSONObject();
+                    input.put(SINGLE_USE_TOKEN_ID, noncesToDelete.get(i).getString());
+                    variables.put(inputVariable, input);
+                }
+
+                base.put(GraphQLConstants.Keys.QUERY, "mutation " + DELETE_PAYMENT_METHODS_OPERATION
+                        + "(" + declarations + ") {\n" + selections + "}");
+                base.put(VARIABLES, variables);
+                base.put(GraphQLConstants.Keys.OPERATION_NAME, DELETE_PAYMENT_METHODS_OPERATION);
+            } catch (JSONException e) {
+                callback.onResult(null, new BraintreeException("Unable to build GraphQL query"));
+                return;
+            }
+
+            braintreeClient.sendGraphQLPOST(base.toString(), (responseBody, httpError) -> {
+                DeletePaymentMethodNoncesResult result =
+                        parseDeletePaymentMethodsResponse(noncesToDelete, responseBody, httpError);
+
+                if (!result.getDeletedPaymentMethodNonces().isEmpty()
+                        && vaultedPaymentMethodCache != null) {
+                    // the cached vault still contains the deleted payment methods
+                    vaultedPaymentMethodCache.clear();
+                }
+                callback.onResult(result, null);
+
+                if (result.getFailedPaymentMethodNonces().isEmpty()) {
+                    braintreeClient.sendAnalyticsEvent("delete-payment-methods.succeeded");
+                } else {
+                    braintreeClient.sendAnalyticsEvent("delete-payment-methods.failed");
+                }
+            });
+        });
+    }
+
+    /**
+     * A GraphQL response reports errors for individual aliases in its {@code errors} array; aliases
+     * without an error were deleted. Errors that cannot be attributed to an alias fail every
+     * payment method in the request.
+     */
+    private static DeletePaymentMethodNoncesResult parseDeletePaymentMethodsResponse(
+            List<PaymentMethodNonce> paymentMethodNonces, @Nullable String responseBody,
+            @Nullable Exception httpError) {
+        String body = responseBody;
+        if (body == null && httpError instanceof ErrorWithResponse) {
+            body = ((ErrorWithResponse) httpError).getErrorResponse();
+        }
+
+        Map<String, Exception> errorsByAlias = new HashMap<>();
+        Exception requestError = null;
+        if (body != null) {
+            try {
+                JSONArray errors = new JSONObject(body).optJSONArray(ERRORS_KEY);
+                for (int i = 0; errors != null && i < errors.length(); i++) {
+                    JSONObject error = errors.getJSONObject(i);
+                    Exception deleteError = new BraintreeException(
+                            error.optString(MESSAGE_KEY, "Unable to delete payment method"));
+
+                    JSONArray path = error.optJSONArray(PATH_KEY);
+                    String alias = (path != null) ? path.optString(0, null) : null;
+                    if (alias != null) {
+                        errorsByAlias.put(alias, deleteError);
+                    } else {
+                        requestError = deleteError;
+                    }
+                }
+            } catch (JSONException ignored) {
+                // a response without a JSON body has no per-alias errors
+            }
+        }
+
+        if (responseBody == null && errorsByAlias.isEmpty() && requestError == null) {
+            requestError = httpError;
+        }
+
+        DeletePaymentMethodNoncesResult result = new DeletePaymentMethodNoncesResult();
+        for (int i = 0; i < paymentMethodNonces.size(); i++) {
+            PaymentMethodNonce paymentMethodNonce = paymentMethodNonces.get(i);
+            Exception error = errorsByAlias.get(DELETE_ALIAS_PREFIX + i);
+            if (error == null) {
+                error = requestError;
+            }
+
+            if (error == null) {
+                result.addDeletedPaymentMethodNonce(paymentMethodNonce);
+            } else {
+                result.addFailedPaymentMethodNonce(
+                        new PaymentMethodDeleteException(paymentMethodNonce, error));
+            }
+        }
+        return result;
+    }
+
+    private static synchronized String getDeletePaymentMethodQuery(Context context) throws IOException {
+        // the query is bundled with the SDK, so it only needs to be read once per process
+        if (deletePaymentMethodQuery == null) {
+            deletePaymentMethodQuery =
+                    GraphQLQueryHelper.getQuery(context, R.raw.delete_payment_method_mutation);
+        }
+        return deletePaymentMethodQuery;
+    }
 }
@@ -33,7 +33,13 @@ class PaymentMethodInspector {
     }
 
     DropInPaymentMethod getPaymentMethod(PaymentMethodNonce paymentMethodNonce) {
-        String canonicalName = getPaymentMethodCanonicalName(paymentMethodNonce);
+        return getPaymentMethodFromCanonicalName(getPaymentMethodCanonicalName(paymentMethodNonce));
+    }
+
+    /**
+     * @param canonicalName a card type as returned by the vault, or the name of a wallet
+     */
+    DropInPaymentMethod getPaymentMethodFromCanonicalName(String canonicalName) {
         if (canonicalName != null) {
             switch (canonicalName) {
                 case PAYMENT_METHOD_AMEX:
@@ -69,6 +75,19 @@ class PaymentMethodInspector {
         return null;
     }
 
+    DropInPaymentMethod getPaymentMethodForVaultType(String vaultType, String cardType) {
+        switch (vaultType) {
+            case VaultedPaymentMethodSummary.TYPE_PAYPAL:
+                return DropInPaymentMethod.PAYPAL;
+            case VaultedPaymentMethodSummary.TYPE_VENMO:
+                return DropInPaymentMethod.VENMO;
+            case VaultedPaymentMethodSummary.TYPE_GOOGLE_PAY:
+                return DropInPaymentMethod.GOOGLE_PAY;
+            default:
+                return getPaymentMethodFromCanonicalName(cardType);
+        }
+    }
+
     private String getPaymentMethodCanonicalName(PaymentMethodNonce paymentMethodNonce) {
         if (paymentMethodNonce instanceof CardNonce) {
             return ((CardNonce) paymentMethodNonce).getCardType();
@@ -5,22 +5,20 @@ import android.util.AttributeSet;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.ImageView;
-import android.widget.LinearLayout;
+import android.widget.RelativeLayout;
 import android.widget.TextView;
 
 import com.braintreepayments.api.dropin.R;
 
-class PaymentMethodItemView extends LinearLayout {
+class PaymentMethodItemView extends RelativeLayout {
 
     private ImageView icon;
     private TextView title;
     private TextView description;
     private View deleteIcon;
-    private PaymentMethodNonce paymentMethodNonce;
+    private VaultedPaymentMethodSummary summary;
     private View divider;
 
-    private final PaymentMethodInspector nonceInspector = new PaymentMethodInspector();
-
     public PaymentMethodItemView(Context context) {
         super(context);
         init();
@@ -41,7 +39,9 @@ class PaymentMethodItemView extends LinearLayout {
             return;
         }
 
-        setOrientation(VERTICAL);
+        setBackgroundResource(R.drawable.bt_vault_manager_list_item_bg);
+        setPaddingRelative(getResources().getDimensionPixelSize(R.dimen.bt_payment_method_card_margin),
+                0, 0, 0);
 
         LayoutInflater.from(getContext()).inflate(R.layout.bt_vault_manager_list_item, this);
 
@@ -53,10 +53,13 @@ class PaymentMethodItemView extends LinearLayout {
     }
 
     public void setPaymentMethod(PaymentMethodNonce paymentMethodNonce, boolean usedInList) {
-        this.paymentMethodNonce = paymentMethodNonce;
+        setPaymentMethod(new VaultedPaymentMethodSummary(paymentMethodNonce), usedInList);
+    }
+
+    void setPaymentMethod(VaultedPaymentMethodSummary summary, boolean usedInList) {
+        this.summary = summary;
 
-        DropInPaymentMethod paymentMethodType =
-            nonceInspector.getPaymentMethod(paymentMethodNonce);
+        DropInPaymentMethod paymentMethodType = summary.getPaymentMethod();
 
         if (usedInList) {
             icon.setImageResource(paymentMethodType.getDrawable());
@@ -69,19 +72,27 @@ class PaymentMethodItemView extends LinearLayout {
         }
 
         title.setText(paymentMethodType.getLocalizedName());
-        description.setText(nonceInspector.getPaymentMethodDescription(paymentMethodNonce));
+        description.setText(summary.getDescription());
     }
 
     public void setOnDeleteIconClick(OnClickListener clickListener) {
         deleteIcon.setOnClickListener(clickListener);
         String deleteString = getContext().getString(R.string.bt_delete);
-        String paymentType = nonceInspector.getPaymentMethod(paymentMethodNonce).name();
-        String paymentDescription = nonceInspector.getPaymentMethodDescription(paymentMethodNonce);
+        String paymentType = summary.getPaymentMethod().name();
+        String paymentDescription = summary.getDescription();
         String contentDescription = String.format("%s %s %s", deleteString, paymentType, paymentDescription);
         deleteIcon.setContentDescription(contentDescription);
     }
 
+    /**
+     * Replaces the payment method of a row that displays the same, e.g. after a refetch of the vault
+     * minted a new nonce for it, without redrawing the row.
+     */
+    void updatePaymentMethod(VaultedPaymentMethodSummary summary) {
+        this.summary = summary;
+    }
+
     public PaymentMethodNonce getPaymentMethodNonce() {
-        return paymentMethodNonce;
+        return summary.getPaymentMethodNonce();
     }
 }
@@ -0,0 +1,46 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands a {@link DropInSession} prepared by {@link DropInClient} over to the
+ * {@link DropInActivity} launched for the same Braintree session id.
+ */
+class PreparedDropInSessions {
+
+    private static final Map<String, DropInSession> SESSIONS = new HashMap<>();
+
+    private PreparedDropInSessions() {}
+
+    static synchronized void put(String sessionId, DropInSession dropInSession) {
+        if (sessionId != null && dropInSession != null) {
+            SESSIONS.put(sessionId, dropInSession);
+        }
+    }
+
+    /**
+     * Remove and return the session prepared for a given session id.
+     *
+     * @param sessionId the Braintree session id Drop-in was launched with
+     * @return the prepared session or {@code null} if none exists or it has expired
+     */
+    @Nullable
+    static synchronized DropInSession take(@Nullable String sessionId) {
+        if (sessionId == null) {
+            return null;
+        }
+
+        DropInSession dropInSession = SESSIONS.remove(sessionId);
+        if (dropInSession != null && !dropInSession.isExpired()) {
+            return dropInSession;
+        }
+        return null;
+    }
+
+    static synchronized void clear() {
+        SESSIONS.clear();
+    }
+}
@@ -0,0 +1,91 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shares a single in-flight request between concurrent callers of the same logical fetch.
+ * <p>
+ * The first caller for a key starts the request; callers that arrive before it completes are
+ * queued and receive the same result, so the response is only fetched and parsed once. Once the
+ * result has been delivered the key is free again and the next caller starts a new request.
+ */
+class RequestCoalescer {
+
+    interface ResultCallback<T> {
+        void onResult(@Nullable T result, @Nullable Exception error);
+    }
+
+    interface Request<T> {
+        void start(ResultCallback<T> callback);
+    }
+
+    private final Map<String, List<ResultCallback<?>>> inFlightRequests = new HashMap<>();
+
+    private int startedRequestCount;
+    private int coalescedRequestCount;
+
+    /**
+     * @param key identifies the logical fetch; requests with the same key must produce the same
+     *            result
+     * @param request starts the fetch; only invoked when no request for {@code key} is in flight
+     * @param callback receives the result of the shared request
+     */
+    <T> void execute(final String key, Request<T> request, ResultCallback<T> callback) {
+        synchronized (this) {
+            List<ResultCallback<?>> waitingCallbacks = inFlightRequests.get(key);
+            if (waitingCallbacks != null) {
+                waitingCallbacks.add(callback);
+                coalescedRequestCount++;
+                return;
+            }
+
+            waitingCallbacks = new ArrayList<>();
+            waitingCallbacks.add(callback);
+            inFlightRequests.put(key, waitingCallbacks);
+            startedRequestCount++;
+        }
+
+        request.start((result, error) -> {
+            List<ResultCallback<?>> callbacks;
+            synchronized (RequestCoalescer.this) {
+                // remove the key first so callbacks that fetch again start a new request
+                callbacks = inFlightRequests.remove(key);
+            }
+
+            if (callbacks != null) {
+                for (ResultCallback<?> waitingCallback : callbacks) {
+                    //noinspection unchecked
+                    ((ResultCallback<T>) waitingCallback).onResult(result, error);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the number of callers sharing the in-flight request for {@code key}, not counting
+     * the caller that started it, or 0 if no request for {@code key} is in flight
+     */
+    synchronized int getCoalescedRequestCount(String key) {
+        List<ResultCallback<?>> waitingCallbacks = inFlightRequests.get(key);
+        return (waitingCallbacks != null) ? waitingCallbacks.size() - 1 : 0;
+    }
+
+    /**
+     * @return the number of requests that were started
+     */
+    synchronized int getStartedRequestCount() {
+        return startedRequestCount;
+    }
+
+    /**
+     * @return the number of callers that shared an in-flight request instead of starting their own
+     */
+    synchronized int getCoalescedRequestCount() {
+        return coalescedRequestCount;
+    }
+}
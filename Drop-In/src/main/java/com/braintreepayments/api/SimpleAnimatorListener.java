@@ -1,25 +0,0 @@
-package com.braintreepayments.api;
-
-import android.animation.Animator;
-
-/**
- * AnimatorListner with no-op default behavior.
- */
-class SimpleAnimatorListener implements Animator.AnimatorListener {
-
-    @Override
-    public void onAnimationStart(Animator animation) {
-    }
-
-    @Override
-    public void onAnimationEnd(Animator animation) {
-    }
-
-    @Override
-    public void onAnimationCancel(Animator animation) {
-    }
-
-    @Override
-    public void onAnimationRepeat(Animator animation) {
-    }
-}
@@ -5,20 +5,34 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 
 import com.braintreepayments.api.dropin.R;
 
-import java.util.List;
+class SupportedPaymentMethodsAdapter extends ListAdapter<DropInPaymentMethod, SupportedPaymentMethodViewHolder> {
 
-class SupportedPaymentMethodsAdapter extends RecyclerView.Adapter<SupportedPaymentMethodViewHolder> {
+    private static final DiffUtil.ItemCallback<DropInPaymentMethod> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<DropInPaymentMethod>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull DropInPaymentMethod oldItem,
+                                               @NonNull DropInPaymentMethod newItem) {
+                    return oldItem == newItem;
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull DropInPaymentMethod oldItem,
+                                                  @NonNull DropInPaymentMethod newItem) {
+                    return oldItem == newItem;
+                }
+            };
 
-    private final List<DropInPaymentMethod> supportedPaymentMethods;
     private final SupportedPaymentMethodSelectedListener listener;
 
-    SupportedPaymentMethodsAdapter(List<DropInPaymentMethod> supportedPaymentMethods, SupportedPaymentMethodSelectedListener listener) {
+    SupportedPaymentMethodsAdapter(SupportedPaymentMethodSelectedListener listener) {
+        super(DIFF_CALLBACK);
         this.listener = listener;
-        this.supportedPaymentMethods = supportedPaymentMethods;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -32,13 +46,14 @@ class SupportedPaymentMethodsAdapter extends RecyclerView.Adapter<SupportedPayme
 
     @Override
     public void onBindViewHolder(@NonNull SupportedPaymentMethodViewHolder holder, int position) {
-        final DropInPaymentMethod paymentMethodType = supportedPaymentMethods.get(position);
+        final DropInPaymentMethod paymentMethodType = getItem(position);
         holder.bind(paymentMethodType);
         holder.setOnClickListener(v -> listener.onPaymentMethodSelected(paymentMethodType));
     }
 
     @Override
-    public int getItemCount() {
-        return supportedPaymentMethods.size();
+    public long getItemId(int position) {
+        // each payment method appears at most once
+        return getItem(position).ordinal();
     }
 }
@@ -1,5 +1,6 @@
 package com.braintreepayments.api;
 
+import android.content.Context;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -9,11 +10,11 @@ import android.widget.TextView;
 
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
-import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.DividerItemDecoration;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.LinearSnapHelper;
 import androidx.recyclerview.widget.RecyclerView;
+import androidx.tracing.Trace;
 
 import com.braintreepayments.api.dropin.R;
 
@@ -42,6 +43,15 @@ public class SupportedPaymentMethodsFragment extends DropInFragment implements S
     private View vaultedPaymentMethodsContainer;
     private Button vaultManagerButton;
 
+    private SupportedPaymentMethodsAdapter supportedPaymentMethodsAdapter;
+    private VaultedPaymentMethodsAdapter vaultedPaymentMethodsAdapter;
+
+    private DropInViewPool viewPool;
+    // creates vault manager rows ahead of time; it never displays a vault
+    private VaultManagerPaymentMethodsAdapter vaultManagerRowFactory;
+    // a vertical list like the vault manager's that rows are created for; it is never attached
+    private RecyclerView vaultManagerRowParent;
+
     private DropInRequest dropInRequest;
 
     @VisibleForTesting
@@ -82,11 +92,21 @@ public class SupportedPaymentMethodsFragment extends DropInFragment implements S
                 requireActivity(), supportedPaymentMethodsLayoutManager.getOrientation());
         supportedPaymentMethodsView.addItemDecoration(dividerItemDecoration);
 
-        vaultedPaymentMethodsView.setLayoutManager(new LinearLayoutManager(requireActivity(),
-                LinearLayoutManager.HORIZONTAL, false));
+        // adapters live as long as the view so updates are diffed against the rows on screen
+        supportedPaymentMethodsAdapter = new SupportedPaymentMethodsAdapter(this);
+        supportedPaymentMethodsView.setAdapter(supportedPaymentMethodsAdapter);
+
+        LinearLayoutManager vaultedPaymentMethodsLayoutManager = new LinearLayoutManager(
+                requireActivity(), LinearLayoutManager.HORIZONTAL, false);
+        vaultedPaymentMethodsLayoutManager.setRecycleChildrenOnDetach(true);
+        vaultedPaymentMethodsView.setLayoutManager(vaultedPaymentMethodsLayoutManager);
+        viewPool = DropInViewPool.from(this);
+        vaultedPaymentMethodsView.setRecycledViewPool(viewPool);
         new LinearSnapHelper().attachToRecyclerView(vaultedPaymentMethodsView);
+        vaultedPaymentMethodsAdapter = new VaultedPaymentMethodsAdapter(this);
+        vaultedPaymentMethodsView.setAdapter(vaultedPaymentMethodsAdapter);
 
-        dropInViewModel = new ViewModelProvider(requireActivity()).get(DropInViewModel.class);
+        dropInViewModel = DropInHost.getViewModel(this);
         if (hasSupportedPaymentMethods()) {
             setViewState(ViewState.SHOW_PAYMENT_METHODS);
         } else {
@@ -146,6 +166,15 @@ public class SupportedPaymentMethodsFragment extends DropInFragment implements S
     }
 
     private void refreshView() {
+        Trace.beginSection("SupportedPaymentMethodsFragment.refreshView");
+        try {
+            showViewState();
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    private void showViewState() {
         // TODO: consider extracting a presenter
         switch (viewState) {
             case LOADING:
@@ -175,9 +204,7 @@ public class SupportedPaymentMethodsFragment extends DropInFragment implements S
     private void showSupportedPaymentMethods() {
         List<DropInPaymentMethod> availablePaymentMethods =
                 dropInViewModel.getSupportedPaymentMethods().getValue();
-        SupportedPaymentMethodsAdapter adapter =
-                new SupportedPaymentMethodsAdapter(availablePaymentMethods, this);
-        supportedPaymentMethodsView.setAdapter(adapter);
+        supportedPaymentMethodsAdapter.submitList(availablePaymentMethods);
     }
 
     @Override
@@ -212,13 +239,15 @@ public class SupportedPaymentMethodsFragment extends DropInFragment implements S
             supportedPaymentMethodsHeader.setText(R.string.bt_other);
             vaultedPaymentMethodsContainer.setVisibility(View.VISIBLE);
 
-            VaultedPaymentMethodsAdapter vaultedPaymentMethodsAdapter =
-                    new VaultedPaymentMethodsAdapter(paymentMethodNonces, this);
-
-            vaultedPaymentMethodsView.setAdapter(vaultedPaymentMethodsAdapter);
+            vaultedPaymentMethodsAdapter.submitPaymentMethodNonces(paymentMethodNonces);
 
-            if (dropInRequest.isVaultManagerEnabled()) {
+            // a cached vault can't be edited until it has been fetched
+            if (dropInRequest.isVaultManagerEnabled()
+                    && VaultedPaymentMethodNonceList.of(paymentMethodNonces).hasPaymentMethodNonces()) {
                 vaultManagerButton.setVisibility(View.VISIBLE);
+                prepopulateVaultManagerRows(paymentMethodNonces.size());
+            } else {
+                vaultManagerButton.setVisibility(View.GONE);
             }
 
         } else {
@@ -227,10 +256,28 @@ public class SupportedPaymentMethodsFragment extends DropInFragment implements S
         }
     }
 
+    /**
+     * Creates vault manager rows while the bottom sheet animates and the customer looks at the
+     * carousel, so the vault manager does not inflate them as it opens.
+     */
+    private void prepopulateVaultManagerRows(int vaultSize) {
+        if (vaultManagerRowFactory == null) {
+            vaultManagerRowFactory = new VaultManagerPaymentMethodsAdapter(null);
+            Context context = vaultedPaymentMethodsView.getContext();
+            vaultManagerRowParent = new RecyclerView(context);
+            vaultManagerRowParent.setLayoutManager(
+                    new LinearLayoutManager(context, RecyclerView.VERTICAL, false));
+        }
+        viewPool.prepopulate(vaultManagerRowParent, vaultManagerRowFactory,
+                DropInViewPool.VAULT_MANAGER_ROW,
+                Math.min(vaultSize, DropInViewPool.VAULT_MANAGER_ROWS));
+    }
+
     private static boolean containsCardNonce(@Nullable List<PaymentMethodNonce> paymentMethodNonces) {
         if (paymentMethodNonces != null) {
-            for (PaymentMethodNonce nonce : paymentMethodNonces) {
-                if (nonce instanceof CardNonce) {
+            for (VaultedPaymentMethodSummary summary
+                    : VaultedPaymentMethodNonceList.of(paymentMethodNonces).getSummaries()) {
+                if (VaultedPaymentMethodSummary.TYPE_CARD.equals(summary.getType())) {
                     return true;
                 }
             }
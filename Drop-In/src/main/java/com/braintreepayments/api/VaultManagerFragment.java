@@ -6,17 +6,19 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.VisibleForTesting;
-import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.braintreepayments.api.dropin.R;
 
+import java.util.ArrayList;
 import java.util.List;
 
-public class VaultManagerFragment extends DropInFragment implements View.OnClickListener {
+public class VaultManagerFragment extends DropInFragment implements View.OnClickListener,
+        VaultManagerPaymentMethodsAdapter.OnSelectionChangedListener {
 
     private RecyclerView vaultManagerView;
+    private View deleteSelectedButton;
 
     @VisibleForTesting
     VaultManagerPaymentMethodsAdapter adapter;
@@ -31,9 +33,25 @@ public class VaultManagerFragment extends DropInFragment implements View.OnClick
         View view = inflater.inflate(R.layout.bt_fragment_vault_manager, container, false);
 
         vaultManagerView = view.findViewById(R.id.bt_vault_manager_list);
-        vaultManagerView.setLayoutManager(new LinearLayoutManager(
-                requireActivity(), RecyclerView.VERTICAL, false));
-        dropInViewModel = new ViewModelProvider(requireActivity()).get(DropInViewModel.class);
+        LinearLayoutManager layoutManager =
+                new LinearLayoutManager(requireActivity(), RecyclerView.VERTICAL, false);
+        // rows go back to the shared pool when the vault manager closes, for the next time it opens
+        layoutManager.setRecycleChildrenOnDetach(true);
+        vaultManagerView.setLayoutManager(layoutManager);
+        vaultManagerView.setRecycledViewPool(DropInViewPool.from(this));
+        // the adapter lives as long as the view so a refresh or delete only rebinds changed rows
+        adapter = new VaultManagerPaymentMethodsAdapter(this, this);
+        vaultManagerView.setAdapter(adapter);
+        dropInViewModel = DropInHost.getViewModel(this);
+
+        deleteSelectedButton = view.findViewById(R.id.bt_vault_manager_delete_selected);
+        deleteSelectedButton.setOnClickListener(v -> {
+            ArrayList<PaymentMethodNonce> selectedPaymentMethodNonces =
+                    adapter.getSelectedPaymentMethodNonces();
+            adapter.clearSelection();
+            sendDropInEvent(DropInEvent.createDeleteVaultedPaymentMethodNoncesEvent(
+                    selectedPaymentMethodNonces));
+        });
 
         dropInViewModel.getVaultedPaymentMethods().observe(getViewLifecycleOwner(), this::showVaultedPaymentMethods);
 
@@ -56,8 +74,12 @@ public class VaultManagerFragment extends DropInFragment implements View.OnClick
         }
     }
 
+    @Override
+    public void onSelectionChanged(int selectedCount) {
+        deleteSelectedButton.setVisibility(selectedCount > 0 ? View.VISIBLE : View.GONE);
+    }
+
     private void showVaultedPaymentMethods(List<PaymentMethodNonce> vaultedPaymentMethodNonces) {
-        adapter = new VaultManagerPaymentMethodsAdapter(this, vaultedPaymentMethodNonces);
-        vaultManagerView.setAdapter(adapter);
+        adapter.submitPaymentMethodNonces(vaultedPaymentMethodNonces);
     }
 }
\ No newline at end of file
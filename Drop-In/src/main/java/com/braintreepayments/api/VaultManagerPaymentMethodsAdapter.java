@@ -4,19 +4,62 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 
-
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+
+class VaultManagerPaymentMethodsAdapter extends VaultedPaymentMethodListAdapter<VaultManagerPaymentMethodsAdapter.ViewHolder> {
+
+    interface OnSelectionChangedListener {
+        void onSelectionChanged(int selectedCount);
+    }
 
-class VaultManagerPaymentMethodsAdapter extends RecyclerView.Adapter<VaultManagerPaymentMethodsAdapter.ViewHolder> {
-    private final List<PaymentMethodNonce> vaultedPaymentMethodNonces;
     private final View.OnClickListener clickListener;
+    private final OnSelectionChangedListener selectionListener;
+
+    // selected payment methods keyed by item key, in the order they were selected
+    private final Map<String, VaultedPaymentMethodSummary> selectedSummaries = new LinkedHashMap<>();
+
+    VaultManagerPaymentMethodsAdapter(View.OnClickListener clickListener) {
+        this(clickListener, null);
+    }
 
-    VaultManagerPaymentMethodsAdapter(View.OnClickListener clickListener, List<PaymentMethodNonce> vaultedPaymentMethodNonces) {
+    VaultManagerPaymentMethodsAdapter(View.OnClickListener clickListener,
+                                      @Nullable OnSelectionChangedListener selectionListener) {
         this.clickListener = clickListener;
-        this.vaultedPaymentMethodNonces = vaultedPaymentMethodNonces;
+        this.selectionListener = selectionListener;
+    }
+
+    /**
+     * Displays a customer's vault and keeps the selection of payment methods that are still in it.
+     */
+    @Override
+    void submitPaymentMethodNonces(List<PaymentMethodNonce> paymentMethodNonces) {
+        VaultedPaymentMethodNonceList vault = VaultedPaymentMethodNonceList.of(paymentMethodNonces);
+        List<VaultedPaymentMethodSummary> summaries = vault.getSummaries();
+        List<String> itemKeys = itemKeysOf(summaries);
+        selectedSummaries.keySet().retainAll(new HashSet<>(itemKeys));
+        // selected payment methods that are still in the vault now carry the nonces of this fetch
+        for (int i = 0; i < summaries.size(); i++) {
+            if (selectedSummaries.containsKey(itemKeys.get(i))) {
+                selectedSummaries.put(itemKeys.get(i), summaries.get(i));
+            }
+        }
+
+        super.submitPaymentMethodNonces(vault);
+        if (selectionListener != null) {
+            selectionListener.onSelectionChanged(selectedSummaries.size());
+        }
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return DropInViewPool.VAULT_MANAGER_ROW;
     }
 
     @NonNull
@@ -27,24 +70,66 @@ class VaultManagerPaymentMethodsAdapter extends RecyclerView.Adapter<VaultManage
 
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
-        final PaymentMethodNonce paymentMethodNonce = vaultedPaymentMethodNonces.get(position);
+        final VaultedPaymentMethodSummary summary = getItem(position);
         final PaymentMethodItemView paymentMethodItemView = ((PaymentMethodItemView)holder.itemView);
 
-        paymentMethodItemView.setPaymentMethod(paymentMethodNonce, true);
+        paymentMethodItemView.setPaymentMethod(summary, true);
+        paymentMethodItemView.setActivated(selectedSummaries.containsKey(getItemKey(position)));
         paymentMethodItemView.setOnDeleteIconClick(v -> {
-            if (clickListener != null) {
+            VaultedPaymentMethodSummary boundSummary = getBoundSummary(holder);
+            if (clickListener != null && boundSummary != null) {
+                paymentMethodItemView.updatePaymentMethod(boundSummary);
                 clickListener.onClick(paymentMethodItemView);
             }
         });
+
+        if (selectionListener != null) {
+            // a long press starts selecting payment methods; taps then toggle the selection
+            paymentMethodItemView.setOnLongClickListener(v -> {
+                toggleSelection(holder);
+                return true;
+            });
+            paymentMethodItemView.setOnClickListener(v -> {
+                if (!selectedSummaries.isEmpty()) {
+                    toggleSelection(holder);
+                }
+            });
+        }
     }
 
-    @Override
-    public int getItemCount() {
-        return vaultedPaymentMethodNonces.size();
+    private void toggleSelection(ViewHolder holder) {
+        int position = holder.getBindingAdapterPosition();
+        if (position == RecyclerView.NO_POSITION) {
+            return;
+        }
+
+        String itemKey = getItemKey(position);
+        if (selectedSummaries.remove(itemKey) == null) {
+            selectedSummaries.put(itemKey, getItem(position));
+        }
+        notifyItemChanged(position);
+        selectionListener.onSelectionChanged(selectedSummaries.size());
     }
 
-    ArrayList<PaymentMethodNonce> getPaymentMethodNonces() {
-        return new ArrayList<>(vaultedPaymentMethodNonces);
+    /**
+     * @return the selected payment methods, in the order they were selected
+     */
+    ArrayList<PaymentMethodNonce> getSelectedPaymentMethodNonces() {
+        ArrayList<PaymentMethodNonce> selectedPaymentMethodNonces = new ArrayList<>();
+        for (VaultedPaymentMethodSummary summary : selectedSummaries.values()) {
+            selectedPaymentMethodNonces.add(summary.getPaymentMethodNonce());
+        }
+        return selectedPaymentMethodNonces;
+    }
+
+    void clearSelection() {
+        if (!selectedSummaries.isEmpty()) {
+            selectedSummaries.clear();
+            notifyItemRangeChanged(0, getItemCount());
+            if (selectionListener != null) {
+                selectionListener.onSelectionChanged(0);
+            }
+        }
     }
 
     static class ViewHolder extends RecyclerView.ViewHolder {
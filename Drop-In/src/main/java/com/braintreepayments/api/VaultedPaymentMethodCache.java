@@ -0,0 +1,260 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+import android.net.Uri;
+import android.text.TextUtils;
+import android.util.Base64;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches what the vaulted payment methods of a single customer display, so returning customers see
+ * their vault immediately while it is fetched.
+ * <p>
+ * Vaulted nonces are single use, so they are never cached: a cached vault can be displayed but not
+ * selected until a fetch has replaced it. The summaries are kept in memory and persisted encrypted
+ * with a Keystore key when the device supports it.
+ */
+class VaultedPaymentMethodCache {
+
+    private static final String VAULT_SNAPSHOT =
+            "com.braintreepayments.api.dropin.VAULTED_PAYMENT_METHODS";
+
+    private static final String CUSTOMER_KEY = "customer";
+    private static final String PAYMENT_METHODS_KEY = "paymentMethods";
+    private static final String TIMESTAMP_KEY = "timestamp";
+
+    private static final String TYPE_KEY = "type";
+    private static final String PAYMENT_METHOD_KEY = "paymentMethod";
+    private static final String DESCRIPTION_KEY = "description";
+    private static final String DEFAULT_KEY = "default";
+
+    private static final String CUSTOMER_ID_CLAIM = "customer_id";
+
+    // a cached vault is only displayed for an hour so it rarely shows payment methods removed since
+    static final long MAX_AGE_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static volatile VaultedPaymentMethodCache INSTANCE;
+
+    static VaultedPaymentMethodCache getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (VaultedPaymentMethodCache.class) {
+                // double check that instance was not created in another thread
+                if (INSTANCE == null) {
+                    INSTANCE = new VaultedPaymentMethodCache(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private final BraintreeSharedPreferences braintreeSharedPreferences;
+    private final VaultedPaymentMethodCipher cipher;
+    private final DropInClock clock;
+
+    private Entry memoryEntry;
+
+    private VaultedPaymentMethodCache(Context context) {
+        this(BraintreeSharedPreferences.getInstance(context), new VaultedPaymentMethodCipher(),
+                System::currentTimeMillis);
+    }
+
+    @VisibleForTesting
+    VaultedPaymentMethodCache(
+            BraintreeSharedPreferences braintreeSharedPreferences,
+            VaultedPaymentMethodCipher cipher,
+            DropInClock clock
+    ) {
+        this.braintreeSharedPreferences = braintreeSharedPreferences;
+        this.cipher = cipher;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the cached vault for a customer, without nonces, or {@code null} if there is none or
+     * it has expired
+     */
+    @Nullable
+    synchronized VaultedPaymentMethodNonceList get(String customerKey) {
+        if (memoryEntry == null || !memoryEntry.customerKey.equals(customerKey)) {
+            memoryEntry = readPersistedEntry(customerKey);
+        }
+
+        if (memoryEntry != null && isExpired(memoryEntry)) {
+            clear();
+        }
+        return (memoryEntry != null) ? memoryEntry.paymentMethods : null;
+    }
+
+    /**
+     * Caches what a freshly fetched vault displays; its nonces are dropped.
+     */
+    synchronized void put(String customerKey, List<PaymentMethodNonce> paymentMethodNonces) {
+        List<VaultedPaymentMethodSummary> summaries = new ArrayList<>();
+        JSONArray summariesJson = new JSONArray();
+        try {
+            for (VaultedPaymentMethodSummary summary
+                    : VaultedPaymentMethodNonceList.of(paymentMethodNonces).getSummaries()) {
+                summaries.add(summary.withoutPaymentMethodNonce());
+                summariesJson.put(toJson(summary));
+            }
+        } catch (JSONException e) {
+            clear();
+            return;
+        }
+
+        long timestamp = clock.currentTimeMillis();
+        memoryEntry = new Entry(customerKey, new VaultedPaymentMethodNonceList(summaries), timestamp);
+
+        String encryptedPaymentMethods = cipher.encrypt(summariesJson.toString());
+        if (encryptedPaymentMethods == null) {
+            // never fall back to persisting payment methods in plain text
+            braintreeSharedPreferences.putString(VAULT_SNAPSHOT, null);
+            return;
+        }
+
+        try {
+            JSONObject snapshot = new JSONObject()
+                    .put(CUSTOMER_KEY, customerKey)
+                    .put(PAYMENT_METHODS_KEY, encryptedPaymentMethods)
+                    .put(TIMESTAMP_KEY, timestamp);
+            braintreeSharedPreferences.putString(VAULT_SNAPSHOT, snapshot.toString());
+        } catch (JSONException ignored) {
+            // the in-memory entry is still usable
+        }
+    }
+
+    synchronized void clear() {
+        memoryEntry = null;
+        braintreeSharedPreferences.putString(VAULT_SNAPSHOT, null);
+    }
+
+    @Nullable
+    private Entry readPersistedEntry(String customerKey) {
+        String snapshotJson = braintreeSharedPreferences.getString(VAULT_SNAPSHOT, null);
+        if (snapshotJson == null) {
+            return null;
+        }
+
+        try {
+            JSONObject snapshot = new JSONObject(snapshotJson);
+            if (!customerKey.equals(snapshot.getString(CUSTOMER_KEY))) {
+                return null;
+            }
+
+            String paymentMethodsJson = cipher.decrypt(snapshot.getString(PAYMENT_METHODS_KEY));
+            if (paymentMethodsJson == null) {
+                return null;
+            }
+
+            JSONArray summariesJson = new JSONArray(paymentMethodsJson);
+            List<VaultedPaymentMethodSummary> summaries = new ArrayList<>();
+            for (int i = 0; i < summariesJson.length(); i++) {
+                summaries.add(fromJson(summariesJson.getJSONObject(i)));
+            }
+            return new Entry(customerKey, new VaultedPaymentMethodNonceList(summaries),
+                    snapshot.getLong(TIMESTAMP_KEY));
+        } catch (JSONException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static JSONObject toJson(VaultedPaymentMethodSummary summary) throws JSONException {
+        DropInPaymentMethod paymentMethod = summary.getPaymentMethod();
+        return new JSONObject()
+                .put(TYPE_KEY, summary.getType())
+                .put(PAYMENT_METHOD_KEY, (paymentMethod != null) ? paymentMethod.name() : null)
+                .put(DESCRIPTION_KEY, summary.getDescription())
+                .put(DEFAULT_KEY, summary.isDefault());
+    }
+
+    private static VaultedPaymentMethodSummary fromJson(JSONObject json) {
+        String paymentMethod = optString(json, PAYMENT_METHOD_KEY);
+        return new VaultedPaymentMethodSummary(null, optString(json, TYPE_KEY), null,
+                json.optBoolean(DEFAULT_KEY),
+                (paymentMethod != null) ? DropInPaymentMethod.valueOf(paymentMethod) : null,
+                optString(json, DESCRIPTION_KEY));
+    }
+
+    @Nullable
+    private static String optString(JSONObject json, String name) {
+        return json.isNull(name) ? null : json.optString(name);
+    }
+
+    private boolean isExpired(Entry entry) {
+        long age = clock.currentTimeMillis() - entry.timestamp;
+        return age < 0 || age >= MAX_AGE_MILLIS;
+    }
+
+    /**
+     * Vault contents belong to a customer, so entries are keyed by the customer id the Client
+     * Token's authorization fingerprint was issued for, together with the merchant configuration
+     * URL. Fingerprints that do not name a customer scope the entry to the Client Token itself.
+     *
+     * @return a hashed key or {@code null} if the authorization is not tied to a customer
+     */
+    @Nullable
+    static String customerKey(Authorization authorization) {
+        if (!(authorization instanceof ClientToken)) {
+            return null;
+        }
+
+        String authorizationFingerprint = authorization.getBearer();
+        if (TextUtils.isEmpty(authorizationFingerprint)) {
+            return null;
+        }
+
+        String customerId = parseCustomerId(authorizationFingerprint);
+        String scope = TextUtils.isEmpty(customerId)
+                ? "fingerprint:" + authorizationFingerprint : "customer:" + customerId;
+        return DropInConfigurationCache.sha256(authorization.getConfigUrl() + "|" + scope);
+    }
+
+    @Nullable
+    private static String parseCustomerId(String authorizationFingerprint) {
+        // a JWT carries the customer id in the options claim of its payload
+        String[] jwtParts = authorizationFingerprint.split("\\.");
+        if (jwtParts.length == 3) {
+            try {
+                byte[] payload = Base64.decode(jwtParts[1],
+                        Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP);
+                JSONObject claims = new JSONObject(new String(payload, StandardCharsets.UTF_8));
+                JSONObject options = claims.optJSONObject("options");
+                return (options != null) ? options.optString(CUSTOMER_ID_CLAIM, null) : null;
+            } catch (IllegalArgumentException | JSONException e) {
+                return null;
+            }
+        }
+
+        // legacy fingerprints are a signature followed by a query string of their claims
+        int claimsStart = authorizationFingerprint.indexOf('|');
+        if (claimsStart < 0) {
+            return null;
+        }
+        String claims = authorizationFingerprint.substring(claimsStart + 1);
+        return Uri.parse("?" + claims).getQueryParameter(CUSTOMER_ID_CLAIM);
+    }
+
+    private static class Entry {
+
+        private final String customerKey;
+        private final VaultedPaymentMethodNonceList paymentMethods;
+        private final long timestamp;
+
+        Entry(String customerKey, VaultedPaymentMethodNonceList paymentMethods, long timestamp) {
+            this.customerKey = customerKey;
+            this.paymentMethods = paymentMethods;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.braintreepayments.api;
+
+import android.os.Build;
+import android.security.keystore.KeyGenParameterSpec;
+import android.security.keystore.KeyProperties;
+import android.util.Base64;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Encrypts cached vault responses with an AES-GCM key held in the Android Keystore. The key never
+ * leaves the Keystore, so cached payment methods cannot be read from a copy of app storage.
+ */
+class VaultedPaymentMethodCipher {
+
+    private static final String KEYSTORE_PROVIDER = "AndroidKeyStore";
+    private static final String KEY_ALIAS = "com.braintreepayments.api.dropin.VAULT_CACHE_KEY";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final int GCM_TAG_LENGTH_BITS = 128;
+
+    /**
+     * @return Base64 encoded IV and ciphertext or {@code null} if encryption failed
+     */
+    @Nullable
+    String encrypt(String plainText) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return null;
+        }
+
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, getOrCreateKey());
+
+            byte[] iv = cipher.getIV();
+            byte[] cipherText = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
+
+            ByteBuffer buffer = ByteBuffer.allocate(1 + iv.length + cipherText.length);
+            buffer.put((byte) iv.length);
+            buffer.put(iv);
+            buffer.put(cipherText);
+            return Base64.encodeToString(buffer.array(), Base64.NO_WRAP);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the decrypted text or {@code null} if the value could not be decrypted, for
+     * example because the Keystore key was removed
+     */
+    @Nullable
+    String decrypt(String encoded) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return null;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.decode(encoded, Base64.NO_WRAP));
+            byte[] iv = new byte[buffer.get()];
+            buffer.get(iv);
+            byte[] cipherText = new byte[buffer.remaining()];
+            buffer.get(cipherText);
+
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, getOrCreateKey(),
+                    new GCMParameterSpec(GCM_TAG_LENGTH_BITS, iv));
+            return new String(cipher.doFinal(cipherText), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @RequiresApi(Build.VERSION_CODES.M)
+    private SecretKey getOrCreateKey() throws GeneralSecurityException {
+        try {
+            KeyStore keyStore = KeyStore.getInstance(KEYSTORE_PROVIDER);
+            keyStore.load(null);
+            if (keyStore.containsAlias(KEY_ALIAS)) {
+                return (SecretKey) keyStore.getKey(KEY_ALIAS, null);
+            }
+        } catch (IOException e) {
+            throw new GeneralSecurityException(e);
+        }
+
+        KeyGenerator keyGenerator =
+                KeyGenerator.getInstance(KeyProperties.KEY_ALGORITHM_AES, KEYSTORE_PROVIDER);
+        keyGenerator.init(new KeyGenParameterSpec.Builder(KEY_ALIAS,
+                KeyProperties.PURPOSE_ENCRYPT | KeyProperties.PURPOSE_DECRYPT)
+                .setBlockModes(KeyProperties.BLOCK_MODE_GCM)
+                .setEncryptionPaddings(KeyProperties.ENCRYPTION_PADDING_NONE)
+                .build());
+        return keyGenerator.generateKey();
+    }
+}
@@ -0,0 +1,128 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Displays a customer's vault.
+ * <p>
+ * Each new vault is diffed against the rows on screen on a background thread, and rows have stable
+ * ids derived from what they display rather than from their nonces, which the gateway mints anew on
+ * every fetch, so a refresh or a delete only rebinds the rows that changed and the list keeps its
+ * scroll position. Because unchanged rows aren't rebound, click handlers look up the row's current
+ * {@link VaultedPaymentMethodSummary} when they are invoked.
+ */
+abstract class VaultedPaymentMethodListAdapter<VH extends RecyclerView.ViewHolder>
+        extends ListAdapter<VaultedPaymentMethodSummary, VH> {
+
+    private static final DiffUtil.ItemCallback<VaultedPaymentMethodSummary> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<VaultedPaymentMethodSummary>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull VaultedPaymentMethodSummary oldItem,
+                                               @NonNull VaultedPaymentMethodSummary newItem) {
+                    return oldItem.getDisplayKey().equals(newItem.getDisplayKey());
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull VaultedPaymentMethodSummary oldItem,
+                                                  @NonNull VaultedPaymentMethodSummary newItem) {
+                    return oldItem.equals(newItem);
+                }
+            };
+
+    // item ids are assigned on first sight and never reused, so that no two rows can share one
+    private final Map<String, Long> itemIds = new HashMap<>();
+    private long nextItemId;
+
+    private List<VaultedPaymentMethodSummary> keyedList;
+    private List<String> itemKeys;
+
+    private VaultedPaymentMethodNonceList paymentMethodNonces;
+
+    VaultedPaymentMethodListAdapter() {
+        super(DIFF_CALLBACK);
+        setHasStableIds(true);
+    }
+
+    void submitPaymentMethodNonces(List<PaymentMethodNonce> paymentMethodNonces) {
+        this.paymentMethodNonces = VaultedPaymentMethodNonceList.of(paymentMethodNonces);
+        submitList(this.paymentMethodNonces.getSummaries());
+    }
+
+    ArrayList<PaymentMethodNonce> getPaymentMethodNonces() {
+        if (paymentMethodNonces == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(paymentMethodNonces);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String itemKey = getItemKey(position);
+        Long itemId = itemIds.get(itemKey);
+        if (itemId == null) {
+            itemId = nextItemId++;
+            itemIds.put(itemKey, itemId);
+        }
+        return itemId;
+    }
+
+    /**
+     * @return a key for the row at {@code position} that stays the same across fetches of the vault
+     */
+    String getItemKey(int position) {
+        List<VaultedPaymentMethodSummary> currentList = getCurrentList();
+        if (keyedList != currentList) {
+            keyedList = currentList;
+            itemKeys = itemKeysOf(currentList);
+        }
+        return itemKeys.get(position);
+    }
+
+    /**
+     * @return the current summary of the row for a view holder, or null if it is no longer listed
+     */
+    VaultedPaymentMethodSummary getBoundSummary(RecyclerView.ViewHolder holder) {
+        int position = holder.getBindingAdapterPosition();
+        if (position == RecyclerView.NO_POSITION) {
+            return null;
+        }
+        return getItem(position);
+    }
+
+    @Override
+    public void onCurrentListChanged(@NonNull List<VaultedPaymentMethodSummary> previousList,
+                                     @NonNull List<VaultedPaymentMethodSummary> currentList) {
+        // forget the ids of rows that left the list, e.g. deleted payment methods
+        itemIds.keySet().retainAll(new HashSet<>(itemKeysOf(currentList)));
+    }
+
+    /**
+     * Payment methods that display the same, e.g. two cards with the same last four, are told apart
+     * by their order among each other.
+     */
+    static List<String> itemKeysOf(List<VaultedPaymentMethodSummary> summaries) {
+        List<String> itemKeys = new ArrayList<>(summaries.size());
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (VaultedPaymentMethodSummary summary : summaries) {
+            String displayKey = summary.getDisplayKey();
+            Integer occurrence = occurrences.get(displayKey);
+            occurrence = (occurrence == null) ? 0 : occurrence + 1;
+            occurrences.put(displayKey, occurrence);
+            itemKeys.add(displayKey + "#" + occurrence);
+        }
+        return itemKeys;
+    }
+
+    int getItemIdCount() {
+        return itemIds.size();
+    }
+}
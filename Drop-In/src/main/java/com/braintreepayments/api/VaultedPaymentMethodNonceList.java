@@ -0,0 +1,437 @@
+package com.braintreepayments.api;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A list of vaulted payment methods read from a payment methods response with a streaming
+ * parser. Only the fields each row displays are read; vault entries of types that Drop-in does
+ * not support are skipped. A nonce is built from its vault entry the first time it is accessed,
+ * e.g. when the customer selects it, and entries are checked for the fields their nonces are
+ * built from while the response is read, so a malformed entry fails the parse instead.
+ * <p>
+ * Code that only needs to display or filter the list should use {@link #getSummaries()}, which
+ * does not build any nonces.
+ */
+class VaultedPaymentMethodNonceList extends AbstractList<PaymentMethodNonce> {
+
+    private static final String PAYMENT_METHOD_NONCE_COLLECTION_KEY = "paymentMethods";
+    private static final String TYPE_KEY = "type";
+    private static final String NONCE_KEY = "nonce";
+    private static final String DEFAULT_KEY = "default";
+    private static final String DETAILS_KEY = "details";
+    private static final String CARD_TYPE_KEY = "cardType";
+    private static final String LAST_TWO_KEY = "lastTwo";
+    private static final String LAST_FOUR_KEY = "lastFour";
+    private static final String EMAIL_KEY = "email";
+    private static final String USERNAME_KEY = "username";
+    private static final String PAYER_INFO_KEY = "payerInfo";
+
+    private static final PaymentMethodInspector NONCE_INSPECTOR = new PaymentMethodInspector();
+
+    private final List<VaultedPaymentMethodSummary> summaries;
+
+    VaultedPaymentMethodNonceList(List<VaultedPaymentMethodSummary> summaries) {
+        this.summaries = Collections.unmodifiableList(new ArrayList<>(summaries));
+    }
+
+    /**
+     * @return the list itself if it was read from a response, otherwise a list wrapping the nonces
+     */
+    static VaultedPaymentMethodNonceList of(List<PaymentMethodNonce> paymentMethodNonces) {
+        if (paymentMethodNonces instanceof VaultedPaymentMethodNonceList) {
+            return (VaultedPaymentMethodNonceList) paymentMethodNonces;
+        }
+
+        List<VaultedPaymentMethodSummary> summaries = new ArrayList<>();
+        for (PaymentMethodNonce paymentMethodNonce : paymentMethodNonces) {
+            summaries.add(new VaultedPaymentMethodSummary(paymentMethodNonce));
+        }
+        return new VaultedPaymentMethodNonceList(summaries);
+    }
+
+    /**
+     * Reads the vault entries of a payment methods response. Since 3.x, Card, PayPal and Venmo
+     * are the only payment methods supported by the vault manager; all other entries are skipped.
+     *
+     * @param jsonBody the body of a payment methods response
+     * @throws JSONException if the response or one of its supported entries is malformed
+     */
+    static VaultedPaymentMethodNonceList parse(String jsonBody) throws JSONException {
+        JsonReader reader = new JsonReader(new StringReader(jsonBody));
+        try {
+            List<VaultedPaymentMethodSummary> summaries = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (PAYMENT_METHOD_NONCE_COLLECTION_KEY.equals(name) && summaries == null
+                        && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    summaries = readPaymentMethods(reader, jsonBody);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (summaries == null) {
+                throw new JSONException("No value for " + PAYMENT_METHOD_NONCE_COLLECTION_KEY);
+            }
+            return new VaultedPaymentMethodNonceList(summaries);
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new JSONException(e.getMessage());
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException ignored) {
+                // reading from a string never fails to close
+            }
+        }
+    }
+
+    private static List<VaultedPaymentMethodSummary> readPaymentMethods(JsonReader reader, String jsonBody) throws IOException, JSONException {
+        List<VaultedPaymentMethodSummary> summaries = new ArrayList<>();
+        reader.beginArray();
+        for (int entryIndex = 0; reader.hasNext(); entryIndex++) {
+            VaultedPaymentMethodSummary summary = readPaymentMethod(reader, jsonBody, entryIndex);
+            if (summary != null) {
+                summaries.add(summary);
+            }
+        }
+        reader.endArray();
+        return summaries;
+    }
+
+    /**
+     * Reads the fields of a single vault entry that its row displays, checking that the entry has
+     * the fields its nonce is built from.
+     *
+     * @return a summary of the entry or {@code null} if its type is not supported
+     * @throws JSONException if the entry cannot be built into a nonce
+     */
+    @Nullable
+    private static VaultedPaymentMethodSummary readPaymentMethod(JsonReader reader, String jsonBody, int entryIndex) throws IOException, JSONException {
+        Details details = null;
+        String type = null;
+        String nonce = null;
+        boolean isDefault = false;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (type != null && !isSupportedType(type)) {
+                reader.skipValue();
+            } else if (TYPE_KEY.equals(name)) {
+                type = reader.nextString();
+            } else if (NONCE_KEY.equals(name) && reader.peek() == JsonToken.STRING) {
+                nonce = reader.nextString();
+            } else if (DEFAULT_KEY.equals(name) && reader.peek() == JsonToken.BOOLEAN) {
+                isDefault = reader.nextBoolean();
+            } else if (DETAILS_KEY.equals(name) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                details = readDetails(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (type == null) {
+            throw new JSONException("No value for " + TYPE_KEY);
+        }
+        if (!isSupportedType(type)) {
+            return null;
+        }
+        if (nonce == null) {
+            throw new JSONException("No value for " + NONCE_KEY);
+        }
+        if (details == null) {
+            throw new JSONException("No value for " + DETAILS_KEY);
+        }
+        details.checkBuildable(type);
+
+        DropInPaymentMethod paymentMethod =
+                NONCE_INSPECTOR.getPaymentMethodForVaultType(type, details.cardType);
+        return new VaultEntrySummary(jsonBody, entryIndex, type, nonce, isDefault, paymentMethod,
+                details.getDescription(type));
+    }
+
+    private static Details readDetails(JsonReader reader) throws IOException {
+        Details details = new Details();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.STRING && isDetailsKey(name)) {
+                details.put(name, reader.nextString());
+            } else if (PAYER_INFO_KEY.equals(name) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (EMAIL_KEY.equals(reader.nextName()) && reader.peek() == JsonToken.STRING) {
+                        details.payerInfoEmail = reader.nextString();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return details;
+    }
+
+    /**
+     * Builds the nonce of a vault entry, reading only that entry of the response into a
+     * {@link JSONObject}.
+     */
+    private static PaymentMethodNonce buildPaymentMethodNonce(String jsonBody, int entryIndex, String type) throws JSONException {
+        JsonReader reader = new JsonReader(new StringReader(jsonBody));
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (PAYMENT_METHOD_NONCE_COLLECTION_KEY.equals(reader.nextName())
+                        && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    reader.beginArray();
+                    for (int i = 0; i < entryIndex; i++) {
+                        reader.skipValue();
+                    }
+                    return buildPaymentMethodNonce(type, (JSONObject) readValue(reader));
+                }
+                reader.skipValue();
+            }
+            throw new JSONException("No value for " + PAYMENT_METHOD_NONCE_COLLECTION_KEY);
+        } catch (IOException | IllegalStateException | ClassCastException | NumberFormatException e) {
+            throw new JSONException(e.getMessage());
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException ignored) {
+                // reading from a string never fails to close
+            }
+        }
+    }
+
+    private static PaymentMethodNonce buildPaymentMethodNonce(String type, JSONObject json) throws JSONException {
+        switch (type) {
+            case VaultedPaymentMethodSummary.TYPE_CARD:
+                return CardNonce.fromJSON(json);
+            case VaultedPaymentMethodSummary.TYPE_PAYPAL:
+                return PayPalAccountNonce.fromJSON(json);
+            case VaultedPaymentMethodSummary.TYPE_VENMO:
+                return VenmoAccountNonce.fromJSON(json);
+            default:
+                throw new JSONException("Unsupported vaulted payment method type " + type);
+        }
+    }
+
+    private static Object readValue(JsonReader reader) throws IOException, JSONException {
+        switch (reader.peek()) {
+            case BEGIN_ARRAY:
+                JSONArray array = new JSONArray();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    array.put(readValue(reader));
+                }
+                reader.endArray();
+                return array;
+            case BEGIN_OBJECT:
+                JSONObject object = new JSONObject();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    object.put(reader.nextName(), readValue(reader));
+                }
+                reader.endObject();
+                return object;
+            case NUMBER:
+                String number = reader.nextString();
+                try {
+                    return Long.parseLong(number);
+                } catch (NumberFormatException e) {
+                    return Double.parseDouble(number);
+                }
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NULL:
+                reader.nextNull();
+                return JSONObject.NULL;
+            default:
+                return reader.nextString();
+        }
+    }
+
+    private static boolean isSupportedType(String type) {
+        switch (type) {
+            case VaultedPaymentMethodSummary.TYPE_CARD:
+            case VaultedPaymentMethodSummary.TYPE_PAYPAL:
+            case VaultedPaymentMethodSummary.TYPE_VENMO:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isDetailsKey(String name) {
+        return CARD_TYPE_KEY.equals(name) || LAST_TWO_KEY.equals(name) || LAST_FOUR_KEY.equals(name)
+                || EMAIL_KEY.equals(name) || USERNAME_KEY.equals(name);
+    }
+
+    /**
+     * Builds the nonce at {@code index} if it has not been built yet.
+     *
+     * @return the nonce at {@code index} or {@code null} if the list was read from
+     * {@link VaultedPaymentMethodCache}
+     */
+    @Override
+    public PaymentMethodNonce get(int index) {
+        return summaries.get(index).getPaymentMethodNonce();
+    }
+
+    @Override
+    public int size() {
+        return summaries.size();
+    }
+
+    VaultedPaymentMethodSummary getSummary(int index) {
+        return summaries.get(index);
+    }
+
+    List<VaultedPaymentMethodSummary> getSummaries() {
+        return summaries;
+    }
+
+    /**
+     * @return {@code false} if the list was read from {@link VaultedPaymentMethodCache} and its
+     * payment methods can only be displayed
+     */
+    boolean hasPaymentMethodNonces() {
+        for (VaultedPaymentMethodSummary summary : summaries) {
+            if (!summary.hasPaymentMethodNonce()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lists are compared by the payment methods they display, so two fetches of the same vault
+     * are equal even though the gateway minted new nonces for the second one.
+     */
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (o instanceof VaultedPaymentMethodNonceList) {
+            return summaries.equals(((VaultedPaymentMethodNonceList) o).summaries);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return summaries.hashCode();
+    }
+
+    /**
+     * A summary that builds its nonce from its entry in the response it was read from.
+     */
+    private static class VaultEntrySummary extends VaultedPaymentMethodSummary {
+
+        private final String jsonBody;
+        private final int entryIndex;
+
+        VaultEntrySummary(String jsonBody, int entryIndex, String type, String nonce,
+                          boolean isDefault, @Nullable DropInPaymentMethod paymentMethod,
+                          String description) {
+            super(null, type, nonce, isDefault, paymentMethod, description);
+            this.jsonBody = jsonBody;
+            this.entryIndex = entryIndex;
+        }
+
+        @Nullable
+        @Override
+        PaymentMethodNonce buildPaymentMethodNonce() {
+            try {
+                return VaultedPaymentMethodNonceList.buildPaymentMethodNonce(jsonBody, entryIndex, getType());
+            } catch (JSONException e) {
+                // the entry was checked while the response was read
+                return null;
+            }
+        }
+    }
+
+    private static class Details {
+
+        private String cardType;
+        private String lastTwo;
+        private String lastFour;
+        private String email;
+        private String username;
+        private String payerInfoEmail;
+
+        void put(String name, String value) {
+            switch (name) {
+                case CARD_TYPE_KEY:
+                    cardType = value;
+                    break;
+                case LAST_TWO_KEY:
+                    lastTwo = value;
+                    break;
+                case LAST_FOUR_KEY:
+                    lastFour = value;
+                    break;
+                case EMAIL_KEY:
+                    email = value;
+                    break;
+                case USERNAME_KEY:
+                    username = value;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * Checks the details that building a nonce of the type requires, so that a malformed
+         * entry fails the parse rather than a later selection.
+         */
+        void checkBuildable(String type) throws JSONException {
+            if (VaultedPaymentMethodSummary.TYPE_CARD.equals(type)) {
+                requireValue(cardType, CARD_TYPE_KEY);
+                requireValue(lastTwo, LAST_TWO_KEY);
+                requireValue(lastFour, LAST_FOUR_KEY);
+            } else if (VaultedPaymentMethodSummary.TYPE_VENMO.equals(type)) {
+                requireValue(username, USERNAME_KEY);
+            }
+        }
+
+        private static void requireValue(@Nullable String value, String name) throws JSONException {
+            if (value == null) {
+                throw new JSONException("No value for " + name);
+            }
+        }
+
+        String getDescription(String type) {
+            switch (type) {
+                case VaultedPaymentMethodSummary.TYPE_CARD:
+                    return lastFour;
+                case VaultedPaymentMethodSummary.TYPE_PAYPAL:
+                    return (email != null) ? email : payerInfoEmail;
+                case VaultedPaymentMethodSummary.TYPE_VENMO:
+                    return username;
+                default:
+                    return "";
+            }
+        }
+    }
+}
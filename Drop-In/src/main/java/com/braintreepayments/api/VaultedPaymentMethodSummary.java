@@ -0,0 +1,157 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+import androidx.core.util.ObjectsCompat;
+
+/**
+ * The fields of a vaulted payment method needed to display it in a list, together with the
+ * {@link PaymentMethodNonce} built from its vault entry once it is needed. Summaries are equal
+ * when they display the same payment method.
+ * <p>
+ * Summaries read from {@link VaultedPaymentMethodCache} carry no nonce, since vaulted nonces are
+ * single use; they can be displayed but not selected.
+ */
+class VaultedPaymentMethodSummary {
+
+    static final String TYPE_CARD = "CreditCard";
+    static final String TYPE_PAYPAL = "PayPalAccount";
+    static final String TYPE_VENMO = "VenmoAccount";
+    static final String TYPE_GOOGLE_PAY = "AndroidPayCard";
+
+    private static final PaymentMethodInspector NONCE_INSPECTOR = new PaymentMethodInspector();
+
+    private final String type;
+    private final String nonce;
+    private final boolean isDefault;
+    private final DropInPaymentMethod paymentMethod;
+    private final String description;
+
+    private volatile PaymentMethodNonce paymentMethodNonce;
+
+    VaultedPaymentMethodSummary(@Nullable PaymentMethodNonce paymentMethodNonce, String type, @Nullable String nonce,
+                                boolean isDefault, @Nullable DropInPaymentMethod paymentMethod,
+                                String description) {
+        this.paymentMethodNonce = paymentMethodNonce;
+        this.type = type;
+        this.nonce = nonce;
+        this.isDefault = isDefault;
+        this.paymentMethod = paymentMethod;
+        this.description = description;
+    }
+
+    /**
+     * Wraps a nonce that has already been built, for example one returned by the merchant's own
+     * {@link PaymentMethodClient}.
+     */
+    VaultedPaymentMethodSummary(PaymentMethodNonce paymentMethodNonce) {
+        this(paymentMethodNonce, typeOf(paymentMethodNonce), paymentMethodNonce.getString(),
+                paymentMethodNonce.isDefault(), NONCE_INSPECTOR.getPaymentMethod(paymentMethodNonce),
+                NONCE_INSPECTOR.getPaymentMethodDescription(paymentMethodNonce));
+    }
+
+    /**
+     * @return the vault type of the payment method, for example {@link #TYPE_CARD}
+     */
+    String getType() {
+        return type;
+    }
+
+    @Nullable
+    String getNonce() {
+        return nonce;
+    }
+
+    boolean isDefault() {
+        return isDefault;
+    }
+
+    @Nullable
+    DropInPaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    /**
+     * Builds the nonce of the payment method the first time it is accessed.
+     *
+     * @return the nonce of the payment method or {@code null} if the summary was cached
+     */
+    @Nullable
+    PaymentMethodNonce getPaymentMethodNonce() {
+        if (paymentMethodNonce == null && nonce != null) {
+            paymentMethodNonce = buildPaymentMethodNonce();
+        }
+        return paymentMethodNonce;
+    }
+
+    /**
+     * Builds the nonce of a summary that was read without one.
+     */
+    @Nullable
+    PaymentMethodNonce buildPaymentMethodNonce() {
+        return null;
+    }
+
+    boolean hasPaymentMethodNonce() {
+        return paymentMethodNonce != null || nonce != null;
+    }
+
+    /**
+     * @return a summary that displays the same payment method but can't be selected
+     */
+    VaultedPaymentMethodSummary withoutPaymentMethodNonce() {
+        return new VaultedPaymentMethodSummary(null, type, null, isDefault, paymentMethod, description);
+    }
+
+    /**
+     * The gateway mints new nonces every time the vault is fetched, so a payment method is
+     * identified across fetches by the fields it is displayed with instead.
+     *
+     * @return a key that stays the same across fetches of the vault
+     */
+    String getDisplayKey() {
+        return type + "|" + paymentMethod + "|" + description + "|" + isDefault;
+    }
+
+    @Nullable
+    private static String typeOf(PaymentMethodNonce paymentMethodNonce) {
+        if (paymentMethodNonce instanceof CardNonce) {
+            return TYPE_CARD;
+        } else if (paymentMethodNonce instanceof PayPalAccountNonce) {
+            return TYPE_PAYPAL;
+        } else if (paymentMethodNonce instanceof VenmoAccountNonce) {
+            return TYPE_VENMO;
+        } else if (paymentMethodNonce instanceof GooglePayCardNonce) {
+            return TYPE_GOOGLE_PAY;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof VaultedPaymentMethodSummary)) {
+            return false;
+        }
+
+        // summaries are compared by what they display, so two fetches of the same vault are
+        // equal even though their nonces are different; a cached vault is never equal to a
+        // fetched one, so that a fetch always replaces it
+        VaultedPaymentMethodSummary other = (VaultedPaymentMethodSummary) o;
+        return hasPaymentMethodNonce() == other.hasPaymentMethodNonce()
+                && isDefault == other.isDefault
+                && paymentMethod == other.paymentMethod
+                && ObjectsCompat.equals(type, other.type)
+                && ObjectsCompat.equals(description, other.description);
+    }
+
+    @Override
+    public int hashCode() {
+        return ObjectsCompat.hash(type, paymentMethod, description, isDefault, hasPaymentMethodNonce());
+    }
+}
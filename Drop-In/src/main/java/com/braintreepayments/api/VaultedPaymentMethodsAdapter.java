@@ -5,20 +5,20 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.RecyclerView;
-
-import java.util.List;
 
 import com.braintreepayments.api.dropin.R;
 
-class VaultedPaymentMethodsAdapter extends RecyclerView.Adapter<VaultedPaymentMethodViewHolder> {
+class VaultedPaymentMethodsAdapter extends VaultedPaymentMethodListAdapter<VaultedPaymentMethodViewHolder> {
 
-    private final List<PaymentMethodNonce> paymentMethodNonces;
     private final VaultedPaymentMethodSelectedListener listener;
 
-    VaultedPaymentMethodsAdapter(List<PaymentMethodNonce> paymentMethodNonces, VaultedPaymentMethodSelectedListener listener) {
+    VaultedPaymentMethodsAdapter(VaultedPaymentMethodSelectedListener listener) {
         this.listener = listener;
-        this.paymentMethodNonces = paymentMethodNonces;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return DropInViewPool.VAULTED_PAYMENT_METHOD_CARD;
     }
 
     @NonNull
@@ -32,13 +32,15 @@ class VaultedPaymentMethodsAdapter extends RecyclerView.Adapter<VaultedPaymentMe
 
     @Override
     public void onBindViewHolder(@NonNull VaultedPaymentMethodViewHolder holder, int position) {
-        final PaymentMethodNonce paymentMethodNonce = paymentMethodNonces.get(position);
-        holder.bind(paymentMethodNonce);
-        holder.setOnClickListener(v -> listener.onVaultedPaymentMethodSelected(paymentMethodNonce));
-    }
-
-    @Override
-    public int getItemCount() {
-        return paymentMethodNonces.size();
+        holder.bind(getItem(position));
+        holder.setOnClickListener(v -> {
+            VaultedPaymentMethodSummary summary = getBoundSummary(holder);
+            // cached rows carry no nonce and are only displayed until the vault has been fetched
+            PaymentMethodNonce paymentMethodNonce =
+                    (summary != null) ? summary.getPaymentMethodNonce() : null;
+            if (paymentMethodNonce != null) {
+                listener.onVaultedPaymentMethodSelected(paymentMethodNonce);
+            }
+        });
     }
 }
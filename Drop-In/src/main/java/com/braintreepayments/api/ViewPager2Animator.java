@@ -1,12 +1,23 @@
 package com.braintreepayments.api;
 
-import android.animation.Animator;
-import android.animation.ValueAnimator;
+import android.view.View;
+import android.view.ViewPropertyAnimator;
 import android.view.animation.AccelerateDecelerateInterpolator;
 
 import androidx.annotation.Nullable;
+import androidx.core.view.OneShotPreDrawListener;
+import androidx.recyclerview.widget.RecyclerView;
 import androidx.viewpager2.widget.ViewPager2;
 
+/**
+ * Moves a {@link ViewPager2} to another page by animating the horizontal translation of the
+ * current and target pages. Each frame only updates view properties, drawn from hardware layers,
+ * so the transition needs no layout or measure passes; the pager is laid out once, when the
+ * animation ends and its current item is updated.
+ * <p>
+ * The pager must keep the target page laid out next to the current page, e.g. with an offscreen
+ * page limit of 1.
+ */
 class ViewPager2Animator {
 
     private final int animationDuration;
@@ -19,45 +30,62 @@ class ViewPager2Animator {
         animateToPosition(viewPager, position, null);
     }
 
-    void animateToPosition(final ViewPager2 viewPager, int position, @Nullable final AnimationCompleteCallback callback) {
-        int itemWidth = viewPager.getWidth();
-        int currentPosition = viewPager.getCurrentItem();
-        int dx = itemWidth * (position - currentPosition);
-
-        ValueAnimator dragAnimator = ValueAnimator.ofInt(0, dx);
-        dragAnimator.addUpdateListener(new IncrementalAnimatorUpdateListener() {
-            @Override
-            void onAnimationUpdate(ValueAnimator valueAnimator, int increment) {
-                float value = (float) (-1 * increment);
-                viewPager.fakeDragBy(value);
-            }
-        });
+    void animateToPosition(final ViewPager2 viewPager, final int position, @Nullable final AnimationCompleteCallback callback) {
+        // a page that was just added is laid out before the next frame is drawn
+        OneShotPreDrawListener.add(viewPager, () -> startAnimation(viewPager, position, callback));
+    }
 
-        dragAnimator.addListener(new Animator.AnimatorListener() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                viewPager.beginFakeDrag();
-            }
+    private void startAnimation(final ViewPager2 viewPager, final int position, @Nullable final AnimationCompleteCallback callback) {
+        final View currentPage = findPage(viewPager, viewPager.getCurrentItem());
+        final View targetPage = findPage(viewPager, position);
+        if (currentPage == null || targetPage == null || currentPage == targetPage) {
+            onAnimationEnd(viewPager, position, callback);
+            return;
+        }
 
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                viewPager.endFakeDrag();
-                viewPager.post(() -> {
-                    if (callback != null) {
-                        callback.onAnimationComplete();
-                    }
-                });
-            }
+        // the direction is taken from the pages themselves so right-to-left layouts also work
+        float dx = currentPage.getLeft() - targetPage.getLeft();
+        animatePage(currentPage, dx).start();
+        animatePage(targetPage, dx)
+                .withEndAction(() -> {
+                    onAnimationEnd(viewPager, position, callback);
+                    // pages keep their translation until the pager has moved, so no frame shows
+                    // the previous page
+                    OneShotPreDrawListener.add(viewPager, () -> {
+                        currentPage.setTranslationX(0);
+                        targetPage.setTranslationX(0);
+                    });
+                })
+                .start();
+    }
 
-            @Override
-            public void onAnimationCancel(Animator animation) {}
+    private ViewPropertyAnimator animatePage(View page, float dx) {
+        return page.animate()
+                .translationX(dx)
+                .setInterpolator(new AccelerateDecelerateInterpolator())
+                .setDuration(animationDuration)
+                .withLayer();
+    }
 
-            @Override
-            public void onAnimationRepeat(Animator animation) {}
+    private static void onAnimationEnd(final ViewPager2 viewPager, int position, @Nullable final AnimationCompleteCallback callback) {
+        viewPager.setCurrentItem(position, false);
+        viewPager.post(() -> {
+            if (callback != null) {
+                callback.onAnimationComplete();
+            }
         });
+    }
 
-        dragAnimator.setInterpolator(new AccelerateDecelerateInterpolator());
-        dragAnimator.setDuration(animationDuration);
-        dragAnimator.start();
+    @Nullable
+    private static View findPage(ViewPager2 viewPager, int position) {
+        // ViewPager2 lays its pages out in a RecyclerView, its only child
+        View pages = viewPager.getChildAt(0);
+        if (pages instanceof RecyclerView) {
+            RecyclerView.LayoutManager layoutManager = ((RecyclerView) pages).getLayoutManager();
+            if (layoutManager != null) {
+                return layoutManager.findViewByPosition(position);
+            }
+        }
+        return null;
     }
 }
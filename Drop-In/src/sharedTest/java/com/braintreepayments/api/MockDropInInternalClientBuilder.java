@@ -3,6 +3,7 @@ package com.braintreepayments.api;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -25,11 +26,11 @@ public class MockDropInInternalClientBuilder {
     private Exception getVaultedPaymentMethodsError;
     private Authorization authorization;
     private Configuration configuration;
-    private List<DropInPaymentMethod> supportedPaymentMethods;
-    private Exception getSupportedPaymentMethodsError;
     private String deviceDataSuccess;
     private PaymentMethodNonce deletedNonce;
     private Exception deletePaymentMethodNonceError;
+    private DeletePaymentMethodNoncesResult deletePaymentMethodsResult;
+    private Exception deletePaymentMethodsError;
     private CardNonce cardTokenizeSuccess;
     private Exception cardTokenizeError;
     private Exception payPalError;
@@ -48,6 +49,9 @@ public class MockDropInInternalClientBuilder {
     private Exception getSupportedCardTypesError;
     private Exception deviceDataError;
     private Exception authorizationError;
+    private DropInSession dropInSessionSuccess;
+    private Exception dropInSessionError;
+    private DropInSession cachedDropInSession;
 
     MockDropInInternalClientBuilder shouldPerformThreeDSecureVerification(boolean shouldPerformThreeDSecureVerification) {
         this.shouldPerformThreeDSecureVerification = shouldPerformThreeDSecureVerification;
@@ -84,16 +88,6 @@ public class MockDropInInternalClientBuilder {
         return this;
     }
 
-    MockDropInInternalClientBuilder getSupportedPaymentMethodsSuccess(List<DropInPaymentMethod> supportedPaymentMethods) {
-        this.supportedPaymentMethods = supportedPaymentMethods;
-        return this;
-    }
-
-    MockDropInInternalClientBuilder getSupportedPaymentMethodsError(Exception error) {
-        this.getSupportedPaymentMethodsError = error;
-        return this;
-    }
-
     MockDropInInternalClientBuilder getSupportedCardTypesSuccess(List<CardType> supportedCardTypes) {
         this.getSupportedCardTypesSuccess = supportedCardTypes;
         return this;
@@ -124,6 +118,16 @@ public class MockDropInInternalClientBuilder {
         return this;
     }
 
+    MockDropInInternalClientBuilder deletePaymentMethodsResult(DeletePaymentMethodNoncesResult result) {
+        this.deletePaymentMethodsResult = result;
+        return this;
+    }
+
+    MockDropInInternalClientBuilder deletePaymentMethodsError(Exception error) {
+        this.deletePaymentMethodsError = error;
+        return this;
+    }
+
     MockDropInInternalClientBuilder cardTokenizeSuccess(CardNonce cardNonce) {
         this.cardTokenizeSuccess = cardNonce;
         return this;
@@ -174,6 +178,21 @@ public class MockDropInInternalClientBuilder {
         return this;
     }
 
+    MockDropInInternalClientBuilder getDropInSessionSuccess(DropInSession dropInSession) {
+        this.dropInSessionSuccess = dropInSession;
+        return this;
+    }
+
+    MockDropInInternalClientBuilder getDropInSessionError(Exception error) {
+        this.dropInSessionError = error;
+        return this;
+    }
+
+    MockDropInInternalClientBuilder getCachedDropInSessionSuccess(DropInSession dropInSession) {
+        this.cachedDropInSession = dropInSession;
+        return this;
+    }
+
     MockDropInInternalClientBuilder handleActivityResultError(Exception error) {
         this.handleActivityResultError = error;
         return this;
@@ -233,15 +252,20 @@ public class MockDropInInternalClientBuilder {
         }).when(dropInClient).getConfiguration(any(ConfigurationCallback.class));
 
         doAnswer((Answer<Void>) invocation -> {
-            GetSupportedPaymentMethodsCallback callback = (GetSupportedPaymentMethodsCallback) invocation.getArguments()[1];
-            if (supportedPaymentMethods != null) {
-                callback.onResult(supportedPaymentMethods, null);
-            } else if (getSupportedPaymentMethodsError != null) {
-                callback.onResult(null, getSupportedPaymentMethodsError);
+            DropInSessionCallback callback = (DropInSessionCallback) invocation.getArguments()[1];
+            if (dropInSessionSuccess != null) {
+                callback.onResult(dropInSessionSuccess, null);
+            } else if (dropInSessionError != null) {
+                callback.onResult(null, dropInSessionError);
             }
             return null;
-        }).when(dropInClient).getSupportedPaymentMethods(any(FragmentActivity.class), any(GetSupportedPaymentMethodsCallback.class));
+        }).when(dropInClient).getDropInSession(any(FragmentActivity.class), any(DropInSessionCallback.class));
 
+        doAnswer((Answer<Void>) invocation -> {
+            DropInSessionCallback callback = (DropInSessionCallback) invocation.getArguments()[1];
+            callback.onResult(cachedDropInSession, null);
+            return null;
+        }).when(dropInClient).getCachedDropInSession(any(FragmentActivity.class), any(DropInSessionCallback.class));
 
         doAnswer((Answer<Void>) invocation -> {
             GetSupportedCardTypesCallback callback = (GetSupportedCardTypesCallback) invocation.getArguments()[0];
@@ -273,6 +297,16 @@ public class MockDropInInternalClientBuilder {
             return null;
         }).when(dropInClient).deletePaymentMethod(any(FragmentActivity.class), any(PaymentMethodNonce.class), any(DeletePaymentMethodNonceCallback.class));
 
+        doAnswer((Answer<Void>) invocation -> {
+            DeletePaymentMethodNoncesCallback callback = (DeletePaymentMethodNoncesCallback) invocation.getArguments()[1];
+            if (deletePaymentMethodsResult != null) {
+                callback.onResult(deletePaymentMethodsResult, null);
+            } else if (deletePaymentMethodsError != null) {
+                callback.onResult(null, deletePaymentMethodsError);
+            }
+            return null;
+        }).when(dropInClient).deletePaymentMethods(anyList(), any(DeletePaymentMethodNoncesCallback.class));
+
         doAnswer((Answer<Void>) invocation -> {
             CardTokenizeCallback callback = (CardTokenizeCallback) invocation.getArguments()[1];
             if (cardTokenizeSuccess != null) {
@@ -0,0 +1,241 @@
+package com.braintreepayments.api;
+
+import static android.app.Activity.RESULT_CANCELED;
+import static android.app.Activity.RESULT_OK;
+import static android.os.Looper.getMainLooper;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+
+import androidx.fragment.app.Fragment;
+
+import com.braintreepayments.cardform.utils.CardType;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.robolectric.android.controller.ActivityController;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A scripted checkout that {@link CheckoutScenarioRunner} replays into {@link DropInActivity}.
+ * <p>
+ * Every scenario runs against the same mocked {@link DropInInternalClient}: a client token
+ * customer with one vaulted Visa card who can pay with a card or PayPal. Steps deliver
+ * {@link DropInEvent}s the way Drop-in's fragments do and let the bottom sheet animations run on
+ * the paused main looper.
+ */
+class CheckoutScenario {
+
+    interface Step {
+        void run(Session session);
+    }
+
+    /**
+     * The activity under test and the client whose calls are counted.
+     */
+    static class Session {
+
+        final ActivityController<DropInActivity> controller;
+        final DropInActivity activity;
+        final DropInInternalClient dropInClient;
+
+        Session(ActivityController<DropInActivity> controller, DropInInternalClient dropInClient) {
+            this.controller = controller;
+            this.activity = controller.get();
+            this.dropInClient = dropInClient;
+        }
+    }
+
+    private static final long BOTTOM_SHEET_ANIMATION_MILLIS = 1000;
+
+    private final String name;
+    private final int expectedResultCode;
+    private final List<Step> steps;
+
+    private CheckoutScenario(String name, int expectedResultCode, Step... steps) {
+        this.name = name;
+        this.expectedResultCode = expectedResultCode;
+        this.steps = Arrays.asList(steps);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getExpectedResultCode() {
+        return expectedResultCode;
+    }
+
+    List<Step> getSteps() {
+        return steps;
+    }
+
+    static CheckoutScenario selectVaultedCard() {
+        return new CheckoutScenario("selectVaultedCard", RESULT_OK,
+                showBottomSheet(),
+                sendBottomSheetEvent(
+                        DropInEvent.createVaultedPaymentMethodSelectedEvent(vaultedCard())),
+                awaitBottomSheetHidden());
+    }
+
+    static CheckoutScenario addCard() {
+        return new CheckoutScenario("addCard", RESULT_OK,
+                showBottomSheet(),
+                sendBottomSheetEvent(DropInEvent.createSupportedPaymentMethodSelectedEvent(
+                        DropInPaymentMethod.UNKNOWN)),
+                sendEvent(DropInEvent.createAddCardSubmitEvent("4111111111111111")),
+                sendEvent(DropInEvent.createCardDetailsSubmitEvent(new Card())),
+                awaitBottomSheetHidden());
+    }
+
+    static CheckoutScenario cancelPayPal() {
+        return new CheckoutScenario("cancelPayPal", RESULT_CANCELED,
+                showBottomSheet(),
+                sendBottomSheetEvent(DropInEvent.createSupportedPaymentMethodSelectedEvent(
+                        DropInPaymentMethod.PAYPAL)),
+                returnFromBrowserSwitch(new UserCanceledException("User canceled PayPal.")),
+                dismiss());
+    }
+
+    static CheckoutScenario deleteFromVault() {
+        return new CheckoutScenario("deleteFromVault", RESULT_CANCELED,
+                showBottomSheet(),
+                sendBottomSheetEvent(new DropInEvent(DropInEventType.SHOW_VAULT_MANAGER)),
+                confirmDeletions(),
+                sendBottomSheetEvent(
+                        DropInEvent.createDeleteVaultedPaymentMethodNonceEvent(vaultedCard())),
+                dismiss());
+    }
+
+    static MockDropInInternalClientBuilder createClientBuilder() throws JSONException {
+        Authorization authorization = Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN);
+        Configuration configuration =
+                Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL);
+        List<DropInPaymentMethod> supportedPaymentMethods =
+                Arrays.asList(DropInPaymentMethod.UNKNOWN, DropInPaymentMethod.PAYPAL);
+        List<CardType> supportedCardTypes = Collections.singletonList(CardType.VISA);
+        List<PaymentMethodNonce> vaultedPaymentMethods =
+                Collections.singletonList(vaultedCard());
+
+        return new MockDropInInternalClientBuilder()
+                .authorizationSuccess(authorization)
+                .getConfigurationSuccess(configuration)
+                .getDropInSessionSuccess(new DropInSession(authorization, configuration,
+                        supportedPaymentMethods, supportedCardTypes, vaultedPaymentMethods))
+                .getSupportedCardTypesSuccess(supportedCardTypes)
+                .getVaultedPaymentMethodsSuccess(vaultedPaymentMethods)
+                .collectDeviceDataSuccess("device-data")
+                .cardTokenizeSuccess(CardNonce.fromJSON(
+                        new JSONObject(Fixtures.VISA_CREDIT_CARD_RESPONSE)))
+                .deletePaymentMethodSuccess(vaultedPaymentMethods.get(0));
+    }
+
+    private static CardNonce vaultedCard() {
+        try {
+            return CardNonce.fromJSON(new JSONObject(Fixtures.VISA_CREDIT_CARD_RESPONSE));
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Lets the bottom sheet slide up, and reports it shown if the animation could not run.
+     */
+    private static Step showBottomSheet() {
+        return session -> {
+            idleFor(BOTTOM_SHEET_ANIMATION_MILLIS);
+            DropInViewModel viewModel = session.activity.dropInViewModel;
+            if (viewModel.getBottomSheetState().getValue() != BottomSheetState.SHOWN) {
+                viewModel.setBottomSheetState(BottomSheetState.SHOWN);
+            }
+        };
+    }
+
+    /**
+     * Lets a requested slide down finish, and reports it hidden if the animation could not run.
+     */
+    private static Step awaitBottomSheetHidden() {
+        return session -> {
+            idleFor(BOTTOM_SHEET_ANIMATION_MILLIS);
+            DropInViewModel viewModel = session.activity.dropInViewModel;
+            if (viewModel.getBottomSheetState().getValue() == BottomSheetState.HIDE_REQUESTED) {
+                viewModel.setBottomSheetState(BottomSheetState.HIDDEN);
+            }
+        };
+    }
+
+    /**
+     * Closes Drop-in the way a back press on the payment method list does.
+     */
+    private static Step dismiss() {
+        Step awaitBottomSheetHidden = awaitBottomSheetHidden();
+        return session -> {
+            session.activity.dropInViewModel.setBottomSheetState(BottomSheetState.HIDE_REQUESTED);
+            awaitBottomSheetHidden.run(session);
+        };
+    }
+
+    /**
+     * Delivers an event to the activity, as the card entry fragments do.
+     */
+    private static Step sendEvent(DropInEvent event) {
+        return session -> session.activity.getSupportFragmentManager()
+                .setFragmentResult(DropInEvent.REQUEST_KEY, event.toBundle());
+    }
+
+    /**
+     * Delivers an event to the bottom sheet, as its pages do, which passes it on to the activity.
+     */
+    private static Step sendBottomSheetEvent(DropInEvent event) {
+        return session -> {
+            for (Fragment fragment : session.activity.getSupportFragmentManager().getFragments()) {
+                if (fragment instanceof BottomSheetFragment) {
+                    fragment.getChildFragmentManager()
+                            .setFragmentResult(DropInEvent.REQUEST_KEY, event.toBundle());
+                    return;
+                }
+            }
+            throw new IllegalStateException("The bottom sheet is not displayed");
+        };
+    }
+
+    /**
+     * Brings the activity back to the foreground with a browser switch result.
+     */
+    private static Step returnFromBrowserSwitch(Exception error) {
+        return session -> {
+            doAnswer(invocation -> {
+                DropInResultCallback callback = (DropInResultCallback) invocation.getArguments()[1];
+                callback.onResult(null, error);
+                return null;
+            }).when(session.dropInClient).deliverBrowserSwitchResult(
+                    any(DropInActivity.class), any(DropInResultCallback.class));
+            session.controller.pause().resume();
+        };
+    }
+
+    private static Step confirmDeletions() {
+        return session -> {
+            AlertPresenter alertPresenter = mock(AlertPresenter.class);
+            doAnswer(invocation -> {
+                DialogInteractionCallback callback =
+                        (DialogInteractionCallback) invocation.getArguments()[2];
+                callback.onDialogInteraction(DialogInteraction.POSITIVE);
+                return null;
+            }).when(alertPresenter).showConfirmNonceDeletionDialog(any(Context.class),
+                    any(PaymentMethodNonce.class), any(DialogInteractionCallback.class));
+            session.activity.alertPresenter = alertPresenter;
+        };
+    }
+
+    private static void idleFor(long millis) {
+        shadowOf(getMainLooper()).idleFor(Duration.ofMillis(millis));
+    }
+}
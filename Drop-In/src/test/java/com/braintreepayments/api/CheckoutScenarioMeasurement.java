@@ -0,0 +1,116 @@
+package com.braintreepayments.api;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * What a {@link CheckoutScenario} cost: main thread time, bytes allocated on the main thread and
+ * network calls by {@link DropInInternalClient} method.
+ * <p>
+ * A time or allocation of {@code -1} was not measured, e.g. in a baseline that only records
+ * network calls.
+ */
+class CheckoutScenarioMeasurement {
+
+    private static final String MAIN_THREAD_MILLIS_KEY = "mainThreadMillis";
+    private static final String ALLOCATED_BYTES_KEY = "allocatedBytes";
+    private static final String NETWORK_CALLS_KEY = "networkCalls";
+
+    private final long mainThreadMillis;
+    private final long allocatedBytes;
+    private final Map<String, Integer> networkCalls;
+
+    CheckoutScenarioMeasurement(long mainThreadMillis, long allocatedBytes,
+                                Map<String, Integer> networkCalls) {
+        this.mainThreadMillis = mainThreadMillis;
+        this.allocatedBytes = allocatedBytes;
+        this.networkCalls = Collections.unmodifiableMap(new TreeMap<>(networkCalls));
+    }
+
+    long getMainThreadMillis() {
+        return mainThreadMillis;
+    }
+
+    long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    Map<String, Integer> getNetworkCalls() {
+        return networkCalls;
+    }
+
+    int getNetworkCallCount(String method) {
+        Integer count = networkCalls.get(method);
+        return count == null ? 0 : count;
+    }
+
+    int getTotalNetworkCallCount() {
+        int total = 0;
+        for (int count : networkCalls.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Takes the median time and allocation of runs of the same scenario. Network calls don't vary
+     * between runs, so those of the last run are kept.
+     */
+    static CheckoutScenarioMeasurement median(List<CheckoutScenarioMeasurement> measurements) {
+        List<Long> mainThreadMillis = new ArrayList<>();
+        List<Long> allocatedBytes = new ArrayList<>();
+        for (CheckoutScenarioMeasurement measurement : measurements) {
+            mainThreadMillis.add(measurement.mainThreadMillis);
+            allocatedBytes.add(measurement.allocatedBytes);
+        }
+        Collections.sort(mainThreadMillis);
+        Collections.sort(allocatedBytes);
+
+        int middle = measurements.size() / 2;
+        return new CheckoutScenarioMeasurement(mainThreadMillis.get(middle),
+                allocatedBytes.get(middle), measurements.get(measurements.size() - 1).networkCalls);
+    }
+
+    static CheckoutScenarioMeasurement fromJSON(JSONObject json) throws JSONException {
+        Map<String, Integer> networkCalls = new TreeMap<>();
+        JSONObject networkCallsJson = json.getJSONObject(NETWORK_CALLS_KEY);
+        Iterator<String> methods = networkCallsJson.keys();
+        while (methods.hasNext()) {
+            String method = methods.next();
+            networkCalls.put(method, networkCallsJson.getInt(method));
+        }
+
+        return new CheckoutScenarioMeasurement(json.optLong(MAIN_THREAD_MILLIS_KEY, -1),
+                json.optLong(ALLOCATED_BYTES_KEY, -1), networkCalls);
+    }
+
+    JSONObject toJSON() throws JSONException {
+        JSONObject json = new JSONObject();
+        if (mainThreadMillis >= 0) {
+            json.put(MAIN_THREAD_MILLIS_KEY, mainThreadMillis);
+        }
+        if (allocatedBytes >= 0) {
+            json.put(ALLOCATED_BYTES_KEY, allocatedBytes);
+        }
+
+        JSONObject networkCallsJson = new JSONObject();
+        for (Map.Entry<String, Integer> networkCall : networkCalls.entrySet()) {
+            networkCallsJson.put(networkCall.getKey(), networkCall.getValue());
+        }
+        json.put(NETWORK_CALLS_KEY, networkCallsJson);
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("main thread: %d ms, allocated: %d bytes, network calls: %s",
+                mainThreadMillis, allocatedBytes, networkCalls);
+    }
+}
@@ -0,0 +1,126 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Fails the build when a {@link CheckoutScenario} makes more network calls than its checked-in
+ * baseline allows, or takes noticeably more main thread time or allocations than were recorded.
+ * <p>
+ * Run the unit tests with {@code -PrecordCheckoutScenarioBaseline} to record new baselines into
+ * {@code src/test/resources/checkout-scenario-baseline.json} instead of comparing against them.
+ * A baseline without main thread time, or without allocations on a JVM that measures them, fails
+ * until it is recorded.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CheckoutScenarioRegressionTest {
+
+    private static final String RECORD_PROPERTY = "recordCheckoutScenarioBaseline";
+    private static final String BASELINE_PROPERTY = "checkoutScenarioBaseline";
+    private static final String DEFAULT_BASELINE_PATH =
+            "src/test/resources/checkout-scenario-baseline.json";
+
+    private static final double MAIN_THREAD_TIME_TOLERANCE = 0.5;
+    private static final long MAIN_THREAD_TIME_SLACK_MILLIS = 10;
+    private static final double ALLOCATION_TOLERANCE = 0.2;
+
+    private CheckoutScenarioRunner runner;
+
+    @Before
+    public void beforeEach() {
+        runner = new CheckoutScenarioRunner();
+    }
+
+    @Test
+    public void selectVaultedCard_staysWithinBaseline() throws Exception {
+        assertWithinBaseline(CheckoutScenario.selectVaultedCard());
+    }
+
+    @Test
+    public void addCard_staysWithinBaseline() throws Exception {
+        assertWithinBaseline(CheckoutScenario.addCard());
+    }
+
+    @Test
+    public void cancelPayPal_staysWithinBaseline() throws Exception {
+        assertWithinBaseline(CheckoutScenario.cancelPayPal());
+    }
+
+    @Test
+    public void deleteFromVault_staysWithinBaseline() throws Exception {
+        assertWithinBaseline(CheckoutScenario.deleteFromVault());
+    }
+
+    private void assertWithinBaseline(CheckoutScenario scenario) throws Exception {
+        String name = scenario.getName();
+        CheckoutScenarioMeasurement measurement = runner.run(scenario);
+
+        File baselineFile = new File(System.getProperty(BASELINE_PROPERTY, DEFAULT_BASELINE_PATH));
+        if (Boolean.getBoolean(RECORD_PROPERTY)) {
+            recordBaseline(baselineFile, name, measurement);
+            return;
+        }
+
+        JSONObject baselines = readBaselines(baselineFile);
+        assertTrue("No baseline for " + name + "; record one with -P" + RECORD_PROPERTY,
+                baselines.has(name));
+        CheckoutScenarioMeasurement baseline =
+                CheckoutScenarioMeasurement.fromJSON(baselines.getJSONObject(name));
+
+        for (String method : CheckoutScenarioRunner.NETWORK_METHODS) {
+            int calls = measurement.getNetworkCallCount(method);
+            int allowedCalls = baseline.getNetworkCallCount(method);
+            if (calls > allowedCalls) {
+                fail(String.format("%s called %s %d times but its baseline allows %d\n"
+                                + "measured: %s\nbaseline: %s",
+                        name, method, calls, allowedCalls, measurement, baseline));
+            }
+        }
+
+        assertTrue("No main thread time in the baseline for " + name + "; record it with -P"
+                + RECORD_PROPERTY, baseline.getMainThreadMillis() >= 0);
+        long allowedMillis = (long) (baseline.getMainThreadMillis()
+                * (1 + MAIN_THREAD_TIME_TOLERANCE)) + MAIN_THREAD_TIME_SLACK_MILLIS;
+        assertTrue(String.format("%s took %d ms on the main thread but its baseline allows %d ms",
+                name, measurement.getMainThreadMillis(), allowedMillis),
+                measurement.getMainThreadMillis() <= allowedMillis);
+
+        if (measurement.getAllocatedBytes() >= 0) {
+            assertTrue("No allocations in the baseline for " + name + "; record them with -P"
+                    + RECORD_PROPERTY, baseline.getAllocatedBytes() >= 0);
+            long allowedBytes =
+                    (long) (baseline.getAllocatedBytes() * (1 + ALLOCATION_TOLERANCE));
+            assertTrue(String.format("%s allocated %d bytes on the main thread but its baseline"
+                            + " allows %d bytes", name, measurement.getAllocatedBytes(), allowedBytes),
+                    measurement.getAllocatedBytes() <= allowedBytes);
+        }
+    }
+
+    private static JSONObject readBaselines(File baselineFile) throws IOException, JSONException {
+        if (!baselineFile.exists()) {
+            return new JSONObject();
+        }
+        byte[] json = Files.readAllBytes(baselineFile.toPath());
+        return new JSONObject(new String(json, StandardCharsets.UTF_8));
+    }
+
+    private static synchronized void recordBaseline(File baselineFile, String name,
+            CheckoutScenarioMeasurement measurement) throws IOException, JSONException {
+        JSONObject baselines = readBaselines(baselineFile);
+        baselines.put(name, measurement.toJSON());
+        String json = baselines.toString(2) + "\n";
+        Files.write(baselineFile.toPath(), json.getBytes(StandardCharsets.UTF_8));
+    }
+}
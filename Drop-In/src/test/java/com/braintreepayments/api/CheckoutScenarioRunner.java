@@ -0,0 +1,139 @@
+package com.braintreepayments.api;
+
+import static android.os.Looper.getMainLooper;
+import static org.mockito.Mockito.mockingDetails;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Intent;
+import android.os.Bundle;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.mockito.invocation.Invocation;
+import org.robolectric.Robolectric;
+import org.robolectric.android.controller.ActivityController;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Replays a {@link CheckoutScenario} into {@link DropInActivity} and measures the main thread
+ * time, the bytes allocated on the main thread and the network calls made through
+ * {@link DropInInternalClient}.
+ * <p>
+ * Robolectric runs the activity on the test thread, so main thread time is the CPU time of the
+ * test thread from the creation of the activity to the end of the last step. A scenario is run a
+ * few times to warm up the JVM before the median of the measured runs is reported.
+ */
+class CheckoutScenarioRunner {
+
+    /**
+     * {@link DropInInternalClient} methods that make a request to the gateway or wait on one.
+     */
+    static final Set<String> NETWORK_METHODS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "collectDeviceData",
+            "deletePaymentMethod",
+            "deletePaymentMethods",
+            "getConfiguration",
+            "getDropInSession",
+            "getSupportedCardTypes",
+            "getVaultedPaymentMethods",
+            "performThreeDSecureVerification",
+            "prefetchDeviceData",
+            "requestGooglePayPayment",
+            "tokenizeCard",
+            "tokenizePayPalRequest",
+            "tokenizeVenmoAccount"
+    )));
+
+    private static final int WARM_UP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    CheckoutScenarioMeasurement run(CheckoutScenario scenario) throws Exception {
+        for (int i = 0; i < WARM_UP_RUNS; i++) {
+            runOnce(scenario);
+        }
+
+        List<CheckoutScenarioMeasurement> measurements = new ArrayList<>();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            measurements.add(runOnce(scenario));
+        }
+        return CheckoutScenarioMeasurement.median(measurements);
+    }
+
+    private CheckoutScenarioMeasurement runOnce(CheckoutScenario scenario) throws Exception {
+        DropInInternalClient dropInClient = CheckoutScenario.createClientBuilder().build();
+
+        Bundle dropInRequestBundle = new Bundle();
+        dropInRequestBundle.putParcelable(
+                DropInClient.EXTRA_CHECKOUT_REQUEST, new DropInRequest(true));
+        Intent intent = new Intent(ApplicationProvider.getApplicationContext(), DropInActivity.class)
+                .putExtra(DropInClient.EXTRA_CHECKOUT_REQUEST_BUNDLE, dropInRequestBundle);
+
+        ActivityController<DropInActivity> controller =
+                Robolectric.buildActivity(DropInActivity.class, intent);
+        DropInActivity activity = controller.get();
+        activity.dropInInternalClient = dropInClient;
+        CheckoutScenario.Session session = new CheckoutScenario.Session(controller, dropInClient);
+
+        long startCpuTimeNanos = threadMXBean.getCurrentThreadCpuTime();
+        long startAllocatedBytes = currentThreadAllocatedBytes();
+
+        controller.setup();
+        shadowOf(getMainLooper()).idle();
+        for (CheckoutScenario.Step step : scenario.getSteps()) {
+            step.run(session);
+            shadowOf(getMainLooper()).idle();
+        }
+
+        long mainThreadNanos = threadMXBean.getCurrentThreadCpuTime() - startCpuTimeNanos;
+        long allocatedBytes = currentThreadAllocatedBytes() - startAllocatedBytes;
+
+        int resultCode = shadowOf(activity).getResultCode();
+        boolean finished = activity.isFinishing();
+        controller.pause().stop().destroy();
+
+        if (!finished || resultCode != scenario.getExpectedResultCode()) {
+            throw new AssertionError(String.format("%s did not finish Drop-in with result code %d;"
+                            + " finished: %b, result code: %d", scenario.getName(),
+                    scenario.getExpectedResultCode(), finished, resultCode));
+        }
+
+        return new CheckoutScenarioMeasurement(mainThreadNanos / 1_000_000,
+                startAllocatedBytes < 0 ? -1 : allocatedBytes, countNetworkCalls(dropInClient));
+    }
+
+    /**
+     * @return the bytes allocated by the current thread, or {@code -1} if the JVM does not track
+     * allocations per thread
+     */
+    private long currentThreadAllocatedBytes() {
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static Map<String, Integer> countNetworkCalls(DropInInternalClient dropInClient) {
+        Map<String, Integer> networkCalls = new TreeMap<>();
+        for (Invocation invocation : mockingDetails(dropInClient).getInvocations()) {
+            String method = invocation.getMethod().getName();
+            if (NETWORK_METHODS.contains(method)) {
+                Integer count = networkCalls.get(method);
+                networkCalls.put(method, count == null ? 1 : count + 1);
+            }
+        }
+        return networkCalls;
+    }
+}
@@ -0,0 +1,53 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeviceDataCacheUnitTest {
+
+    private long now;
+
+    private DeviceDataCache sut;
+
+    @Before
+    public void beforeEach() {
+        now = 1000;
+        sut = new DeviceDataCache(() -> now);
+    }
+
+    @Test
+    public void get_whenEmpty_returnsNull() {
+        assertNull(sut.get(true));
+    }
+
+    @Test
+    public void get_afterPut_returnsDeviceData() {
+        sut.put(true, "device data");
+        assertEquals("device data", sut.get(true));
+    }
+
+    @Test
+    public void get_withDifferentLocationConsent_returnsNull() {
+        sut.put(true, "device data");
+        assertNull(sut.get(false));
+    }
+
+    @Test
+    public void get_whenDeviceDataIsExpired_returnsNull() {
+        sut.put(true, "device data");
+
+        now += DeviceDataCache.MAX_AGE_MILLIS;
+        assertNull(sut.get(true));
+    }
+
+    @Test
+    public void get_whenClockMovesBackwards_returnsNull() {
+        sut.put(true, "device data");
+
+        now -= 1;
+        assertNull(sut.get(true));
+    }
+}
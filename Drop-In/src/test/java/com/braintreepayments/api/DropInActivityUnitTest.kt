@@ -6,6 +6,7 @@ import android.content.Context
 import android.content.Intent
 import android.net.Uri
 import android.os.Bundle
+import androidx.fragment.app.FragmentActivity
 import androidx.test.platform.app.InstrumentationRegistry
 import com.braintreepayments.api.DropInClient.EXTRA_CHECKOUT_REQUEST
 import com.braintreepayments.cardform.utils.CardType
@@ -16,6 +17,7 @@ import org.junit.Before
 import org.junit.Ignore
 import org.junit.Test
 import org.junit.runner.RunWith
+import org.mockito.ArgumentCaptor
 import org.mockito.ArgumentMatchers.any
 import org.mockito.ArgumentMatchers.same
 import org.mockito.Mockito.*
@@ -122,6 +124,19 @@ class DropInActivityUnitTest {
         assertEquals(error, activity.dropInViewModel.userCanceledError.value)
     }
 
+    @Test
+    fun onResume_whenBrowserSwitchReturnsUserCanceledException_doesNotRefetchVaultedPaymentMethods() {
+        val dropInClient = MockDropInInternalClientBuilder()
+            .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+            .deliverBrowseSwitchResultError(UserCanceledException("User canceled PayPal."))
+            .build()
+
+        setupDropInActivity(dropInClient, dropInRequest)
+
+        verify(dropInClient, never()).getVaultedPaymentMethods(
+            any(FragmentActivity::class.java), any(GetPaymentMethodNoncesCallback::class.java))
+    }
+
     @Test
     fun onResume_whenBrowserSwitchError_forwardsError() {
         val error = Exception("A 3DS error")
@@ -465,7 +480,6 @@ class DropInActivityUnitTest {
             .shouldPerformThreeDSecureVerification(false)
             .authorizationSuccess(authorization)
             .getConfigurationSuccess(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL))
-            .getSupportedPaymentMethodsSuccess(ArrayList())
             .build()
         setupDropInActivity(dropInClient, dropInRequest)
         val shadowActivity = shadowOf(activity)
@@ -546,7 +560,7 @@ class DropInActivityUnitTest {
             .authorizationSuccess(authorization)
             .build()
         setupDropInActivity(dropInClient, dropInRequest)
-        activity.removePaymentMethodNonce(cardNonce)
+        activity.checkoutController.removePaymentMethodNonce(cardNonce)
 
         verify(dropInClient).sendAnalyticsEvent("manager.delete.succeeded")
     }
@@ -560,7 +574,7 @@ class DropInActivityUnitTest {
             .build()
 
         setupDropInActivity(dropInClient, dropInRequest)
-        activity.removePaymentMethodNonce(cardNonce)
+        activity.checkoutController.removePaymentMethodNonce(cardNonce)
 
         verify(dropInClient).sendAnalyticsEvent("manager.delete.failed")
     }
@@ -574,7 +588,7 @@ class DropInActivityUnitTest {
             .build()
 
         setupDropInActivity(dropInClient, dropInRequest)
-        activity.removePaymentMethodNonce(cardNonce)
+        activity.checkoutController.removePaymentMethodNonce(cardNonce)
 
         verify(dropInClient).sendAnalyticsEvent("manager.unknown.failed")
     }
@@ -589,7 +603,7 @@ class DropInActivityUnitTest {
         setupDropInActivity(dropInClient, dropInRequest)
         val shadowActivity = shadowOf(activity)
 
-        activity.removePaymentMethodNonce(mock(PaymentMethodNonce::class.java))
+        activity.checkoutController.removePaymentMethodNonce(mock(PaymentMethodNonce::class.java))
 
         assertTrue(activity.isFinishing)
         assertEquals(RESULT_FIRST_USER, shadowActivity.resultCode)
@@ -598,6 +612,44 @@ class DropInActivityUnitTest {
         assertSame(error, actualError)
     }
 
+    @Test
+    fun removePaymentMethodNonces_whenSomeNoncesFail_sendsAnalyticsEvents() {
+        val deletedNonce = mock(CardNonce::class.java)
+        val failedNonce = mock(CardNonce::class.java)
+        val result = DeletePaymentMethodNoncesResult()
+        result.addDeletedPaymentMethodNonce(deletedNonce)
+        result.addFailedPaymentMethodNonce(PaymentMethodDeleteException(failedNonce, Exception("error")))
+
+        val dropInClient = MockDropInInternalClientBuilder()
+            .deletePaymentMethodsResult(result)
+            .authorizationSuccess(authorization)
+            .build()
+        setupDropInActivity(dropInClient, dropInRequest)
+        activity.checkoutController.removePaymentMethodNonces(listOf(deletedNonce, failedNonce))
+
+        verify(dropInClient).deletePaymentMethods(eq(listOf(deletedNonce, failedNonce)), any())
+        verify(dropInClient).sendAnalyticsEvent("manager.delete.succeeded")
+        verify(dropInClient).sendAnalyticsEvent("manager.delete.failed")
+    }
+
+    @Test
+    fun removePaymentMethodNonces_onError_finishesWithError() {
+        val error = Exception("error")
+        val dropInClient = MockDropInInternalClientBuilder()
+            .authorizationSuccess(authorization)
+            .deletePaymentMethodsError(error)
+            .build()
+        setupDropInActivity(dropInClient, dropInRequest)
+        val shadowActivity = shadowOf(activity)
+
+        activity.checkoutController.removePaymentMethodNonces(listOf(mock(PaymentMethodNonce::class.java)))
+
+        assertTrue(activity.isFinishing)
+        val actualError = shadowActivity.resultIntent
+            .getSerializableExtra(DropInResult.EXTRA_ERROR) as Exception
+        assertSame(error, actualError)
+    }
+
     // endregion
 
     // region Supported Payment Method Selected Event
@@ -607,7 +659,6 @@ class DropInActivityUnitTest {
         val dropInClient = MockDropInInternalClientBuilder()
             .authorizationSuccess(authorization)
             .getConfigurationSuccess(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL))
-            .getSupportedPaymentMethodsSuccess(ArrayList())
             .build()
         setupDropInActivity(dropInClient, dropInRequest)
 
@@ -647,7 +698,6 @@ class DropInActivityUnitTest {
         val dropInClient = MockDropInInternalClientBuilder()
             .authorizationSuccess(authorization)
             .getConfigurationSuccess(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL))
-            .getSupportedPaymentMethodsSuccess(ArrayList())
             .build()
         setupDropInActivity(dropInClient, dropInRequest)
 
@@ -687,7 +737,6 @@ class DropInActivityUnitTest {
         val dropInClient = MockDropInInternalClientBuilder()
             .authorizationSuccess(authorization)
             .getConfigurationSuccess(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL))
-            .getSupportedPaymentMethodsSuccess(ArrayList())
             .build()
         setupDropInActivity(dropInClient, dropInRequest)
 
@@ -706,7 +755,6 @@ class DropInActivityUnitTest {
         val dropInClient = MockDropInInternalClientBuilder()
             .authorizationSuccess(authorization)
             .getConfigurationSuccess(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL))
-            .getSupportedPaymentMethodsSuccess(ArrayList())
             .build()
         setupDropInActivity(dropInClient, dropInRequest)
         activityController.pause()
@@ -747,7 +795,6 @@ class DropInActivityUnitTest {
         val dropInClient = MockDropInInternalClientBuilder()
             .authorizationSuccess(authorization)
             .getConfigurationSuccess(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL))
-            .getSupportedPaymentMethodsSuccess(ArrayList())
             .build()
         setupDropInActivity(dropInClient, dropInRequest)
         activity.dropInViewModel.setCardTokenizationError(Exception("card tokenization error"))
@@ -803,7 +850,7 @@ class DropInActivityUnitTest {
         val error = Exception("error")
         val dropInClient = MockDropInInternalClientBuilder()
             .authorizationSuccess(authorization)
-            .getSupportedPaymentMethodsError(error)
+            .getSupportedCardTypesError(error)
             .build()
         setupDropInActivity(dropInClient, dropInRequest)
         val shadowActivity = shadowOf(activity)
@@ -828,7 +875,6 @@ class DropInActivityUnitTest {
         val dropInClient = MockDropInInternalClientBuilder()
             .authorizationSuccess(authorization)
             .getConfigurationSuccess(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY_AND_CARD_AND_PAYPAL))
-            .getSupportedPaymentMethodsSuccess(ArrayList())
             .build()
         setupDropInActivity(dropInClient, dropInRequest)
 
@@ -1053,27 +1099,104 @@ class DropInActivityUnitTest {
     }
 
     @Test
-    fun onDidShowBottomSheet_whenClientTokenPresent_onGetVaultedPaymentMethodsSuccess_setsVaultedPaymentsInViewModel() {
+    fun onDidShowBottomSheet_onGetDropInSessionSuccess_setsSessionInViewModel() {
+        val supportedPaymentMethods = listOf(DropInPaymentMethod.PAYPAL)
+        val supportedCardTypes = listOf(CardType.VISA)
         val vaultedPaymentMethods = ArrayList<PaymentMethodNonce>()
+        val dropInSession = DropInSession(
+            Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN),
+            mock(Configuration::class.java),
+            supportedPaymentMethods,
+            supportedCardTypes,
+            vaultedPaymentMethods
+        )
         val dropInClient = MockDropInInternalClientBuilder()
             .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
-            .getSupportedPaymentMethodsSuccess(ArrayList())
-            .getVaultedPaymentMethodsSuccess(vaultedPaymentMethods)
+            .getDropInSessionSuccess(dropInSession)
             .build()
         setupDropInActivity(dropInClient, dropInRequest)
 
         activity.dropInViewModel.setBottomSheetState(BottomSheetState.SHOWN)
 
+        assertSame(supportedPaymentMethods, activity.dropInViewModel.supportedPaymentMethods.value)
+        assertSame(supportedCardTypes, activity.dropInViewModel.supportedCardTypes.value)
         assertSame(vaultedPaymentMethods, activity.dropInViewModel.vaultedPaymentMethods.value)
     }
 
     @Test
-    fun onDidShowBottomSheet_whenClientTokenPresent_onGetVaultedPaymentMethodsError_finishesWithError() {
+    fun onCreate_withCachedSession_setsSupportedPaymentMethodsBeforeBottomSheetIsShown() {
+        val supportedPaymentMethods = listOf(DropInPaymentMethod.PAYPAL, DropInPaymentMethod.UNKNOWN)
+        val cachedSession = DropInSession(
+            Authorization.fromString(Fixtures.TOKENIZATION_KEY),
+            mock(Configuration::class.java),
+            supportedPaymentMethods,
+            listOf(CardType.VISA),
+            null
+        )
+        val dropInClient = MockDropInInternalClientBuilder()
+            .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+            .getCachedDropInSessionSuccess(cachedSession)
+            .build()
+        setupDropInActivity(dropInClient, dropInRequest)
+
+        assertSame(supportedPaymentMethods, activity.dropInViewModel.supportedPaymentMethods.value)
+    }
+
+    @Test
+    fun onDidShowBottomSheet_whenSessionMatchesCachedSession_doesNotReRender() {
+        val cachedPaymentMethods = listOf(DropInPaymentMethod.PAYPAL)
+        val cachedSession = DropInSession(
+            Authorization.fromString(Fixtures.TOKENIZATION_KEY),
+            mock(Configuration::class.java),
+            cachedPaymentMethods,
+            listOf(CardType.VISA),
+            null
+        )
+        val dropInSession = DropInSession(
+            Authorization.fromString(Fixtures.TOKENIZATION_KEY),
+            mock(Configuration::class.java),
+            listOf(DropInPaymentMethod.PAYPAL),
+            listOf(CardType.VISA),
+            null
+        )
+        val dropInClient = MockDropInInternalClientBuilder()
+            .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+            .getCachedDropInSessionSuccess(cachedSession)
+            .getDropInSessionSuccess(dropInSession)
+            .build()
+        setupDropInActivity(dropInClient, dropInRequest)
+
+        activity.dropInViewModel.setBottomSheetState(BottomSheetState.SHOWN)
+
+        assertSame(cachedPaymentMethods, activity.dropInViewModel.supportedPaymentMethods.value)
+    }
+
+    @Test
+    fun onDidShowBottomSheet_withTokenizationKeySession_doesNotSetVaultedPaymentMethods() {
+        val dropInSession = DropInSession(
+            Authorization.fromString(Fixtures.TOKENIZATION_KEY),
+            mock(Configuration::class.java),
+            ArrayList(),
+            ArrayList(),
+            null
+        )
+        val dropInClient = MockDropInInternalClientBuilder()
+            .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+            .getDropInSessionSuccess(dropInSession)
+            .build()
+        setupDropInActivity(dropInClient, dropInRequest)
+
+        activity.dropInViewModel.setBottomSheetState(BottomSheetState.SHOWN)
+
+        assertNull(activity.dropInViewModel.vaultedPaymentMethods.value)
+    }
+
+    @Test
+    fun onDidShowBottomSheet_onGetDropInSessionError_finishesWithError() {
         val error = Exception("error")
         val dropInClient = MockDropInInternalClientBuilder()
             .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
-            .getSupportedPaymentMethodsSuccess(ArrayList())
-            .getVaultedPaymentMethodsError(error)
+            .getDropInSessionError(error)
             .build()
         setupDropInActivity(dropInClient, dropInRequest)
         val shadowActivity = shadowOf(activity)
@@ -1087,6 +1210,105 @@ class DropInActivityUnitTest {
         assertSame(error, actualError)
     }
 
+    @Test
+    fun onDidShowBottomSheet_withPreparedSession_usesPreparedPaymentMethods() {
+        val supportedPaymentMethods = listOf(DropInPaymentMethod.PAYPAL)
+        val vaultedPaymentMethods = ArrayList<PaymentMethodNonce>()
+        val dropInSession = DropInSession(
+            Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN),
+            mock(Configuration::class.java),
+            supportedPaymentMethods,
+            ArrayList(),
+            vaultedPaymentMethods
+        )
+        PreparedDropInSessions.put("prepared-session-id", dropInSession)
+
+        val dropInClient = MockDropInInternalClientBuilder()
+            .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+            .build()
+        setupDropInActivity(dropInClient, dropInRequest, "prepared-session-id")
+
+        activity.dropInViewModel.setBottomSheetState(BottomSheetState.SHOWN)
+
+        assertSame(supportedPaymentMethods, activity.dropInViewModel.supportedPaymentMethods.value)
+        assertSame(vaultedPaymentMethods, activity.dropInViewModel.vaultedPaymentMethods.value)
+        verify(dropInClient, never()).getVaultedPaymentMethods(
+            any(FragmentActivity::class.java), any(GetPaymentMethodNoncesCallback::class.java))
+    }
+
+    @Test
+    fun bottomSheetStateChanges_reportSheetAnimationAndResultDeliverySpans() {
+        val tracer = mock(DropInTracer::class.java)
+        DropInTracers.put("traced-session-id", tracer)
+        val dropInClient = MockDropInInternalClientBuilder()
+            .authorizationSuccess(authorization)
+            .build()
+        setupDropInActivity(dropInClient, dropInRequest, "traced-session-id")
+
+        activity.dropInViewModel.setBottomSheetState(BottomSheetState.SHOWN)
+        activity.dropInViewModel.setBottomSheetState(BottomSheetState.HIDDEN)
+
+        val captor = ArgumentCaptor.forClass(DropInSpan::class.java)
+        verify(tracer, times(2)).onSpanEnded(captor.capture())
+        val spans = captor.allValues
+        assertEquals(DropInSpanPhase.SHEET_ANIMATION, spans[0].phase)
+        assertEquals(DropInSpanOutcome.SUCCEEDED, spans[0].outcome)
+        assertEquals(DropInSpanPhase.RESULT_DELIVERY, spans[1].phase)
+        assertEquals(DropInSpanOutcome.CANCELED, spans[1].outcome)
+        DropInTracers.clear()
+    }
+
+    @Test
+    fun onBottomSheetShown_endsLaunchSpanHandedOffByDropInClient() {
+        val tracer = mock(DropInTracer::class.java)
+        DropInTracers.put("traced-session-id", tracer)
+        val launchSpan = DropInSpanRecorder(tracer).start(DropInSpanPhase.LAUNCH)
+        DropInTracers.putLaunchSpan("traced-session-id", launchSpan)
+        val dropInClient = MockDropInInternalClientBuilder()
+            .authorizationSuccess(authorization)
+            .build()
+        setupDropInActivity(dropInClient, dropInRequest, "traced-session-id")
+
+        activity.dropInViewModel.setBottomSheetState(BottomSheetState.SHOWN)
+
+        assertTrue(launchSpan.isEnded)
+        assertEquals(DropInSpanOutcome.SUCCEEDED, launchSpan.outcome)
+        assertNull(DropInTracers.takeLaunchSpan("traced-session-id"))
+        DropInTracers.clear()
+    }
+
+    @Test
+    fun onCardDetailsSubmitEvent_onError_whenErrorWithResponse_reportsFailedCardCheckoutSpan() {
+        val tracer = mock(DropInTracer::class.java)
+        DropInTracers.put("traced-session-id", tracer)
+        val dropInClient = MockDropInInternalClientBuilder()
+            .authorizationSuccess(authorization)
+            .cardTokenizeError(ErrorWithResponse.fromJson(Fixtures.CREDIT_CARD_ERROR_RESPONSE))
+            .build()
+        setupDropInActivity(dropInClient, dropInRequest, "traced-session-id")
+
+        val event = DropInEvent.createCardDetailsSubmitEvent(Card())
+        activity.supportFragmentManager.setFragmentResult(DropInEvent.REQUEST_KEY, event.toBundle())
+
+        val captor = ArgumentCaptor.forClass(DropInSpan::class.java)
+        verify(tracer).onSpanEnded(captor.capture())
+        assertEquals(DropInSpanPhase.CARD_CHECKOUT, captor.value.phase)
+        assertEquals(DropInSpanOutcome.FAILED, captor.value.outcome)
+        DropInTracers.clear()
+    }
+
+    @Test
+    fun onDidShowBottomSheet_prefetchesDeviceData() {
+        val dropInClient = MockDropInInternalClientBuilder()
+            .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+            .build()
+        setupDropInActivity(dropInClient, dropInRequest)
+
+        activity.dropInViewModel.setBottomSheetState(BottomSheetState.SHOWN)
+
+        verify(dropInClient).prefetchDeviceData(same(activity))
+    }
+
     // endregion
 
     // region Errors
@@ -1165,12 +1387,17 @@ class DropInActivityUnitTest {
         activityController.create()
     }
 
-    private fun setupDropInActivity(dropInClient: DropInInternalClient, dropInRequest: DropInRequest) {
+    private fun setupDropInActivity(
+        dropInClient: DropInInternalClient,
+        dropInRequest: DropInRequest,
+        sessionId: String? = null
+    ) {
         val context = InstrumentationRegistry.getInstrumentation().targetContext
         val dropInRequestBundle = Bundle()
         dropInRequestBundle.putParcelable(EXTRA_CHECKOUT_REQUEST, dropInRequest)
         val intent = Intent(context, DropInActivity::class.java)
         intent.putExtra(DropInClient.EXTRA_CHECKOUT_REQUEST_BUNDLE, dropInRequestBundle)
+        intent.putExtra(DropInClient.EXTRA_SESSION_ID, sessionId)
 
         activityController = buildActivity(DropInActivity::class.java, intent)
         activity = activityController.get()
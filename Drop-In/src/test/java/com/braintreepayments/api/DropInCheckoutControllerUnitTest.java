@@ -0,0 +1,69 @@
+package com.braintreepayments.api;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class DropInCheckoutControllerUnitTest {
+
+    private DropInCheckoutController.Host host;
+    private DropInInternalClient dropInInternalClient;
+    private DropInCheckoutController sut;
+
+    @Before
+    public void beforeEach() {
+        host = mock(DropInCheckoutController.Host.class);
+        dropInInternalClient = mock(DropInInternalClient.class);
+        when(host.getDropInInternalClient()).thenReturn(dropInInternalClient);
+
+        sut = new DropInCheckoutController(host, null, true);
+        sut.start(new DropInRequest(), new DropInViewModel(), mock(View.class), true);
+    }
+
+    @Test
+    public void onDropInEvent_whenPayPalSelected_startsPaymentFlowOfHost() {
+        when(host.isDropInResumed()).thenReturn(true);
+
+        sut.onDropInEvent(
+                DropInEvent.createSupportedPaymentMethodSelectedEvent(DropInPaymentMethod.PAYPAL));
+
+        verify(host).startPaymentFlow(DropInPaymentMethod.PAYPAL);
+    }
+
+    @Test
+    public void onDropInEvent_whenHostIsNotResumed_doesNotStartPaymentFlow() {
+        sut.onDropInEvent(
+                DropInEvent.createSupportedPaymentMethodSelectedEvent(DropInPaymentMethod.PAYPAL));
+
+        verify(host, never()).startPaymentFlow(any(DropInPaymentMethod.class));
+    }
+
+    @Test
+    public void onError_deliversErrorToHost() {
+        Exception error = new Exception("error");
+        sut.onError(error);
+
+        verify(dropInInternalClient).sendAnalyticsEvent("sdk.exit.sdk-error");
+        verify(host).onFinishWithError(same(error));
+    }
+
+    @Test
+    public void onBottomSheetHidden_withoutResult_deliversCancellationToHost() {
+        sut.onBottomSheetHidden();
+
+        verify(dropInInternalClient).sendAnalyticsEvent("sdk.exit.canceled");
+        verify(host).onFinish(isNull(), same(DropInExitTransition.FADE_OUT));
+    }
+}
@@ -2,19 +2,37 @@ package com.braintreepayments.api;
 
 import static junit.framework.TestCase.assertNotNull;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Looper;
 
+import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentActivity;
+import androidx.fragment.app.FragmentManager;
+import androidx.fragment.app.FragmentTransaction;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.test.core.app.ApplicationProvider;
 import androidx.work.testing.WorkManagerTestInitHelper;
 
@@ -73,7 +91,285 @@ public class DropInClientUnitTest {
 
         AuthorizationCallback callback = mock(AuthorizationCallback.class);
         sut.getAuthorization(callback);
-        verify(braintreeClient).getAuthorization(callback);
+        verify(braintreeClient).getAuthorization(any(AuthorizationCallback.class));
+        verify(callback).onAuthorizationResult(authorization, null);
+    }
+
+    @Test
+    public void getAuthorization_withTracer_reportsAuthorizationSpan() {
+        Authorization authorization = mock(Authorization.class);
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sessionId("session-id")
+                .authorizationSuccess(authorization)
+                .build();
+
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(braintreeClient);
+
+        DropInClient sut = new DropInClient(params);
+        DropInTracer tracer = mock(DropInTracer.class);
+        sut.setTracer(tracer);
+        sut.getAuthorization(mock(AuthorizationCallback.class));
+
+        ArgumentCaptor<DropInSpan> captor = ArgumentCaptor.forClass(DropInSpan.class);
+        verify(tracer).onSpanEnded(captor.capture());
+        assertEquals(DropInSpanPhase.AUTHORIZATION, captor.getValue().getPhase());
+        assertEquals(DropInSpanOutcome.SUCCEEDED, captor.getValue().getOutcome());
+        DropInTracers.clear();
+    }
+
+    @Test
+    public void launchDropIn_handsOffLaunchSpanForSessionId() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sessionId("session-id")
+                .build();
+        DropInClient sut = new DropInClient(new DropInClientParams().braintreeClient(braintreeClient));
+        sut.observer = mock(DropInLifecycleObserver.class);
+
+        sut.launchDropIn(new DropInRequest());
+
+        DropInSpan launchSpan = DropInTracers.takeLaunchSpan("session-id");
+        assertEquals(DropInSpanPhase.LAUNCH, launchSpan.getPhase());
+        assertFalse(launchSpan.isEnded());
+    }
+
+    @Test
+    public void launchDropIn_withAuthorizationError_reportsFailedLaunchSpan() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationError(new Exception("auth error"))
+                .sessionId("session-id")
+                .build();
+        DropInClient sut = new DropInClient(new DropInClientParams().braintreeClient(braintreeClient));
+        sut.setListener(mock(DropInListener.class));
+        DropInTracer tracer = mock(DropInTracer.class);
+        sut.setTracer(tracer);
+
+        sut.launchDropIn(new DropInRequest());
+
+        ArgumentCaptor<DropInSpan> captor = ArgumentCaptor.forClass(DropInSpan.class);
+        verify(tracer, times(2)).onSpanEnded(captor.capture());
+        DropInSpan launchSpan = captor.getAllValues().get(1);
+        assertEquals(DropInSpanPhase.LAUNCH, launchSpan.getPhase());
+        assertEquals(DropInSpanOutcome.FAILED, launchSpan.getOutcome());
+        assertNull(DropInTracers.takeLaunchSpan("session-id"));
+        DropInTracers.clear();
+    }
+
+    @Test
+    public void showEmbeddedDropIn_addsEmbeddedFragmentToContainer() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sessionId("session-id")
+                .build();
+        FragmentActivity activity = mock(FragmentActivity.class);
+        FragmentManager fragmentManager = mock(FragmentManager.class);
+        FragmentTransaction transaction = mock(FragmentTransaction.class);
+        when(activity.getSupportFragmentManager()).thenReturn(fragmentManager);
+        when(fragmentManager.beginTransaction()).thenReturn(transaction);
+        when(transaction.replace(anyInt(), any(Fragment.class), anyString())).thenReturn(transaction);
+
+        DropInClient sut = new DropInClient(new DropInClientParams()
+                .activity(activity)
+                .braintreeClient(braintreeClient));
+        sut.observer = mock(DropInLifecycleObserver.class);
+
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setPayPalDisabled(true);
+        dropInRequest.setVenmoDisabled(true);
+        dropInRequest.setGooglePayDisabled(true);
+        sut.showEmbeddedDropIn(dropInRequest, 123);
+
+        verify(transaction).replace(eq(123), any(DropInEmbeddedFragment.class),
+                eq(DropInEmbeddedFragment.TAG));
+        verify(transaction).commitAllowingStateLoss();
+        verify(sut.observer, never()).launch(any(DropInIntentData.class));
+        assertEquals(DropInSpanPhase.LAUNCH, DropInTracers.takeLaunchSpan("session-id").getPhase());
+    }
+
+    @Test
+    public void showEmbeddedDropIn_withThreeDSecureRequest_launchesDropInActivity() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sessionId("session-id")
+                .build();
+        DropInClient sut = new DropInClient(new DropInClientParams()
+                .activity(activity)
+                .braintreeClient(braintreeClient));
+        sut.observer = mock(DropInLifecycleObserver.class);
+
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setPayPalDisabled(true);
+        dropInRequest.setVenmoDisabled(true);
+        dropInRequest.setGooglePayDisabled(true);
+        dropInRequest.setThreeDSecureRequest(new ThreeDSecureRequest());
+        sut.showEmbeddedDropIn(dropInRequest, 123);
+
+        verify(sut.observer).launch(any(DropInIntentData.class));
+        DropInTracers.clear();
+    }
+
+    @Test
+    public void showEmbeddedDropIn_withPayPalEnabled_launchesDropInActivity() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sessionId("session-id")
+                .build();
+        DropInClient sut = new DropInClient(new DropInClientParams()
+                .activity(activity)
+                .braintreeClient(braintreeClient));
+        sut.observer = mock(DropInLifecycleObserver.class);
+
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setVenmoDisabled(true);
+        dropInRequest.setGooglePayDisabled(true);
+        sut.showEmbeddedDropIn(dropInRequest, 123);
+
+        verify(sut.observer).launch(any(DropInIntentData.class));
+        DropInTracers.clear();
+    }
+
+    @Test
+    public void showEmbeddedDropIn_withDefaultRequest_launchesDropInActivity() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sessionId("session-id")
+                .build();
+        DropInClient sut = new DropInClient(new DropInClientParams()
+                .activity(activity)
+                .braintreeClient(braintreeClient));
+        sut.observer = mock(DropInLifecycleObserver.class);
+
+        sut.showEmbeddedDropIn(new DropInRequest(), 123);
+
+        verify(sut.observer).launch(any(DropInIntentData.class));
+        DropInTracers.clear();
+    }
+
+    @Test
+    public void constructor_handsClientToRestoredEmbeddedFragment() {
+        FragmentActivity activity = Robolectric.buildActivity(FragmentActivity.class).setup().get();
+        DropInEmbeddedFragment fragment = addEmbeddedFragment(activity);
+
+        DropInClient sut = new DropInClient(new DropInClientParams()
+                .activity(activity)
+                .lifecycle(mock(Lifecycle.class))
+                .braintreeClient(new MockBraintreeClientBuilder().build()));
+
+        assertSame(sut, getEmbeddedViewModel(fragment).getDropInClient());
+    }
+
+    @Test
+    public void onDestroy_removesClientFromEmbeddedFragment() {
+        FragmentActivity activity = Robolectric.buildActivity(FragmentActivity.class).setup().get();
+        DropInClient sut = new DropInClient(new DropInClientParams()
+                .activity(activity)
+                .lifecycle(mock(Lifecycle.class))
+                .braintreeClient(new MockBraintreeClientBuilder().build()));
+        DropInEmbeddedFragment fragment = addEmbeddedFragment(activity);
+        assertSame(sut, getEmbeddedViewModel(fragment).getDropInClient());
+
+        sut.onDestroy();
+        assertNull(getEmbeddedViewModel(fragment).getDropInClient());
+    }
+
+    private static DropInEmbeddedFragment addEmbeddedFragment(FragmentActivity activity) {
+        DropInEmbeddedFragment fragment = DropInEmbeddedFragment.from(new DropInRequest(), "session-id");
+        // views are not created, so the fragment doesn't start Drop-in
+        activity.getSupportFragmentManager()
+                .beginTransaction()
+                .add(fragment, DropInEmbeddedFragment.TAG)
+                .setMaxLifecycle(fragment, Lifecycle.State.CREATED)
+                .commitNow();
+        return fragment;
+    }
+
+    private static DropInEmbeddedViewModel getEmbeddedViewModel(Fragment fragment) {
+        return new ViewModelProvider(fragment).get(DropInEmbeddedViewModel.class);
+    }
+
+    @Test
+    public void constructor_withSameAuthorization_startsSessionForEachClient() {
+        FragmentActivity activity = Robolectric.buildActivity(FragmentActivity.class).setup().get();
+
+        DropInClient sut = new DropInClient(activity, Fixtures.TOKENIZATION_KEY);
+        DropInClient otherClient = new DropInClient(activity, Fixtures.TOKENIZATION_KEY);
+
+        assertNotSame(sut.braintreeClient, otherClient.braintreeClient);
+        assertNotEquals(sut.braintreeClient.getSessionId(),
+                otherClient.braintreeClient.getSessionId());
+        DropInSessionRegistry.clear();
+    }
+
+    @Test
+    public void onDestroy_releasesBraintreeClientToSessionRegistry() {
+        BraintreeClient braintreeClient = DropInSessionRegistry.acquire(
+                ApplicationProvider.getApplicationContext(), Fixtures.TOKENIZATION_KEY, null, null);
+        DropInClient sut = new DropInClient(new DropInClientParams().braintreeClient(braintreeClient));
+
+        sut.onDestroy();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertNotSame(braintreeClient, DropInSessionRegistry.acquire(
+                ApplicationProvider.getApplicationContext(), Fixtures.TOKENIZATION_KEY,
+                braintreeClient.getSessionId(), null));
+        DropInSessionRegistry.clear();
+    }
+
+    @Test
+    public void setTracer_registersTracerForSessionId() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sessionId("session-id")
+                .build();
+        DropInClient sut = new DropInClient(new DropInClientParams().braintreeClient(braintreeClient));
+
+        DropInTracer tracer = mock(DropInTracer.class);
+        sut.setTracer(tracer);
+        assertSame(tracer, DropInTracers.get("session-id"));
+
+        sut.setTracer(null);
+        assertNull(DropInTracers.get("session-id"));
+    }
+
+    @Test
+    public void setFrameMetricsListener_registersListenerForSessionId() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sessionId("session-id")
+                .build();
+        DropInClient sut = new DropInClient(new DropInClientParams().braintreeClient(braintreeClient));
+
+        DropInFrameMetricsListener listener = mock(DropInFrameMetricsListener.class);
+        sut.setFrameMetricsListener(listener);
+        assertSame(listener, DropInFrameMonitor.getListener("session-id"));
+
+        sut.onDestroy();
+        assertNull(DropInFrameMonitor.getListener("session-id"));
+    }
+
+    @Test
+    public void onDestroy_unregistersTracer() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .sessionId("session-id")
+                .build();
+        DropInClient sut = new DropInClient(new DropInClientParams().braintreeClient(braintreeClient));
+        sut.setTracer(mock(DropInTracer.class));
+
+        sut.onDestroy();
+        assertNull(DropInTracers.get("session-id"));
+    }
+
+    @Test
+    public void onDestroy_releasesLaunchSpanNoDropInTook() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sessionId("session-id")
+                .build();
+        DropInClient sut = new DropInClient(new DropInClientParams().braintreeClient(braintreeClient));
+        sut.observer = mock(DropInLifecycleObserver.class);
+        sut.launchDropIn(new DropInRequest());
+
+        sut.onDestroy();
+        assertNull(DropInTracers.takeLaunchSpan("session-id"));
     }
 
     @Test
@@ -435,4 +731,120 @@ public class DropInClientUnitTest {
         sut.invalidateClientToken();
         verify(braintreeClient).invalidateClientToken();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void invalidateClientToken_clearsConfigurationCache() {
+        DropInConfigurationCache configurationCache = mock(DropInConfigurationCache.class);
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(new MockBraintreeClientBuilder().build())
+                .configurationCache(configurationCache);
+        DropInClient sut = new DropInClient(params);
+
+        sut.invalidateClientToken();
+        verify(configurationCache).clear();
+    }
+
+    @Test
+    public void clearConfigurationCache_clearsConfigurationCache() {
+        DropInConfigurationCache configurationCache = mock(DropInConfigurationCache.class);
+        DropInClientParams params = new DropInClientParams()
+                .configurationCache(configurationCache);
+        DropInClient sut = new DropInClient(params);
+
+        sut.clearConfigurationCache();
+        verify(configurationCache).clear();
+    }
+
+    @Test
+    public void prepare_withoutActivity_doesNothing() {
+        DropInClientParams params = new DropInClientParams()
+                .braintreeClient(new MockBraintreeClientBuilder().build());
+        DropInClient sut = spy(new DropInClient(params));
+
+        sut.prepare(new DropInRequest());
+        verify(sut, never()).createDropInInternalClient(any(DropInRequest.class));
+    }
+
+    @Test
+    public void launchDropIn_withPreparedRequest_handsOffPreparedSession() {
+        DropInSession dropInSession = createDropInSession();
+        DropInInternalClient dropInInternalClient = new MockDropInInternalClientBuilder()
+                .getDropInSessionSuccess(dropInSession)
+                .build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sessionId("prepared-session-id")
+                .build();
+
+        DropInRequest dropInRequest = new DropInRequest();
+        DropInClientParams params = new DropInClientParams()
+                .activity(activity)
+                .braintreeClient(braintreeClient);
+        DropInClient sut = spy(new DropInClient(params));
+        doReturn(dropInInternalClient).when(sut).createDropInInternalClient(dropInRequest);
+        sut.observer = mock(DropInLifecycleObserver.class);
+
+        sut.prepare(dropInRequest);
+        sut.launchDropIn(dropInRequest);
+
+        assertSame(dropInSession, PreparedDropInSessions.take("prepared-session-id"));
+        assertNull(sut.preparedDropInSession);
+    }
+
+    @Test
+    public void launchDropIn_withDifferentRequest_discardsPreparedSession() {
+        DropInInternalClient dropInInternalClient = new MockDropInInternalClientBuilder()
+                .getDropInSessionSuccess(createDropInSession())
+                .build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sessionId("prepared-session-id")
+                .build();
+
+        DropInRequest preparedRequest = new DropInRequest();
+        DropInClientParams params = new DropInClientParams()
+                .activity(activity)
+                .braintreeClient(braintreeClient);
+        DropInClient sut = spy(new DropInClient(params));
+        doReturn(dropInInternalClient).when(sut).createDropInInternalClient(preparedRequest);
+        sut.observer = mock(DropInLifecycleObserver.class);
+
+        sut.prepare(preparedRequest);
+        sut.launchDropIn(new DropInRequest());
+
+        assertNull(PreparedDropInSessions.take("prepared-session-id"));
+        assertNull(sut.preparedDropInSession);
+    }
+
+    @Test
+    public void launchDropIn_withExpiredPreparedSession_discardsPreparedSession() {
+        DropInSession expiredSession = new DropInSession(
+                mock(Authorization.class), mock(Configuration.class), new ArrayList<>(),
+                new ArrayList<>(), null, 0, 0);
+        DropInInternalClient dropInInternalClient = new MockDropInInternalClientBuilder()
+                .getDropInSessionSuccess(expiredSession)
+                .build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sessionId("prepared-session-id")
+                .build();
+
+        DropInRequest dropInRequest = new DropInRequest();
+        DropInClientParams params = new DropInClientParams()
+                .activity(activity)
+                .braintreeClient(braintreeClient);
+        DropInClient sut = spy(new DropInClient(params));
+        doReturn(dropInInternalClient).when(sut).createDropInInternalClient(dropInRequest);
+        sut.observer = mock(DropInLifecycleObserver.class);
+
+        sut.prepare(dropInRequest);
+        sut.launchDropIn(dropInRequest);
+
+        assertNull(PreparedDropInSessions.take("prepared-session-id"));
+    }
+
+    private static DropInSession createDropInSession() {
+        return new DropInSession(mock(Authorization.class), mock(Configuration.class),
+                new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+    }
+}
@@ -0,0 +1,99 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.json.JSONException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class DropInConfigurationCacheUnitTest {
+
+    private static final String KEY = "com.braintreepayments.api.dropin.CONFIGURATION_SNAPSHOT";
+
+    private BraintreeSharedPreferences braintreeSharedPreferences;
+    private long now;
+
+    private DropInConfigurationCache sut;
+
+    @Before
+    public void beforeEach() {
+        braintreeSharedPreferences = mock(BraintreeSharedPreferences.class);
+        now = 1000;
+        sut = new DropInConfigurationCache(braintreeSharedPreferences, () -> now);
+    }
+
+    @Test
+    public void get_whenNoSnapshotExists_returnsNull() {
+        when(braintreeSharedPreferences.getString(KEY, null)).thenReturn(null);
+        assertNull(sut.get(Authorization.fromString(Fixtures.TOKENIZATION_KEY)));
+    }
+
+    @Test
+    public void get_returnsSnapshotStoredForSameAuthorization() throws JSONException {
+        Authorization authorization = Authorization.fromString(Fixtures.TOKENIZATION_KEY);
+        storeSnapshot(authorization, Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY), true);
+
+        DropInConfigurationCache.Snapshot snapshot = sut.get(authorization);
+        assertNotNull(snapshot);
+        assertTrue(snapshot.isReadyToGooglePay());
+        assertTrue(snapshot.getConfiguration().isGooglePayEnabled());
+    }
+
+    @Test
+    public void get_withDifferentAuthorization_returnsNull() throws JSONException {
+        storeSnapshot(Authorization.fromString(Fixtures.TOKENIZATION_KEY),
+                Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY), false);
+
+        assertNull(sut.get(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN)));
+    }
+
+    @Test
+    public void get_whenSnapshotIsOlderThanMaxAge_returnsNull() throws JSONException {
+        Authorization authorization = Authorization.fromString(Fixtures.TOKENIZATION_KEY);
+        storeSnapshot(authorization, Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY), false);
+
+        now += DropInConfigurationCache.MAX_AGE_MILLIS;
+        assertNull(sut.get(authorization));
+    }
+
+    @Test
+    public void get_whenSnapshotIsMalformed_returnsNull() {
+        when(braintreeSharedPreferences.getString(KEY, null)).thenReturn("not json");
+        assertNull(sut.get(Authorization.fromString(Fixtures.TOKENIZATION_KEY)));
+    }
+
+    @Test
+    public void clear_removesSnapshot() {
+        sut.clear();
+        verify(braintreeSharedPreferences).putString(KEY, null);
+    }
+
+    @Test
+    public void fingerprint_doesNotContainRawAuthorization() {
+        String fingerprint = DropInConfigurationCache.fingerprint(
+                Authorization.fromString(Fixtures.TOKENIZATION_KEY));
+        assertNotEquals(Fixtures.TOKENIZATION_KEY, fingerprint);
+        assertEquals(fingerprint, DropInConfigurationCache.fingerprint(
+                Authorization.fromString(Fixtures.TOKENIZATION_KEY)));
+    }
+
+    private void storeSnapshot(Authorization authorization, Configuration configuration, boolean isReadyToGooglePay) {
+        sut.put(authorization, configuration, isReadyToGooglePay);
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(braintreeSharedPreferences).putString(eq(KEY), captor.capture());
+        when(braintreeSharedPreferences.getString(KEY, null)).thenReturn(captor.getValue());
+    }
+}
@@ -0,0 +1,23 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+
+public class DropInEmbeddedViewModelUnitTest {
+
+    @Test
+    public void removeDropInClient_onlyRemovesSameClient() {
+        DropInEmbeddedViewModel sut = new DropInEmbeddedViewModel();
+        DropInClient dropInClient = mock(DropInClient.class);
+        sut.setDropInClient(dropInClient);
+
+        sut.removeDropInClient(mock(DropInClient.class));
+        assertSame(dropInClient, sut.getDropInClient());
+
+        sut.removeDropInClient(dropInClient);
+        assertNull(sut.getDropInClient());
+    }
+}
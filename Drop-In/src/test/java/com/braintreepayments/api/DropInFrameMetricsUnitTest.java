@@ -0,0 +1,75 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class DropInFrameMetricsUnitTest {
+
+    private DropInFrameMetrics sut;
+
+    @Before
+    public void beforeEach() {
+        sut = new DropInFrameMetrics(DropInDeviceClass.LOW);
+    }
+
+    @Test
+    public void getDeviceClass_returnsDeviceClass() {
+        assertSame(DropInDeviceClass.LOW, sut.getDeviceClass());
+    }
+
+    @Test
+    public void addFrame_countsFramesAndJankyFrames() {
+        sut.addFrame(false, Collections.emptyMap());
+        sut.addFrame(true, Collections.emptyMap());
+        sut.addFrame(false, Collections.emptyMap());
+
+        assertEquals(3, sut.getFrameCount());
+        assertEquals(1, sut.getJankyFrameCount());
+    }
+
+    @Test
+    public void addFrame_countsJankyFramesForEachState() {
+        sut.addFrame(true, states(DropInFrameMetrics.FRAGMENT, "ADD_CARD"));
+        sut.addFrame(true, states(DropInFrameMetrics.FRAGMENT, "ADD_CARD"));
+        sut.addFrame(true, states(DropInFrameMetrics.BOTTOM_SHEET_VIEW, "VAULT_MANAGER"));
+        sut.addFrame(false, states(DropInFrameMetrics.FRAGMENT, "CARD_DETAILS"));
+
+        Map<String, Integer> jankyFrameCounts = sut.getJankyFrameCounts();
+        assertEquals(2, jankyFrameCounts.size());
+        assertEquals(2, (int) jankyFrameCounts.get("Fragment=ADD_CARD"));
+        assertEquals(1, (int) jankyFrameCounts.get("BottomSheetView=VAULT_MANAGER"));
+        assertFalse(jankyFrameCounts.containsKey("Fragment=CARD_DETAILS"));
+    }
+
+    @Test
+    public void addFrame_countsJankyFramesWhileBottomSheetSlides() {
+        sut.addFrame(true, states(DropInFrameMetrics.BOTTOM_SHEET_STATE, "SHOW_REQUESTED"));
+        sut.addFrame(true, states(DropInFrameMetrics.BOTTOM_SHEET_STATE, "HIDE_REQUESTED"));
+        sut.addFrame(true, states(DropInFrameMetrics.BOTTOM_SHEET_STATE, "SHOWN"));
+
+        assertEquals(2, sut.getSheetAnimationJankyFrameCount());
+    }
+
+    @Test
+    public void addFrame_countsJankyFramesOnKeystrokes() {
+        sut.addFrame(true, states(DropInFrameMetrics.INTERACTION, DropInFrameMetrics.KEYSTROKE));
+        sut.addFrame(false, states(DropInFrameMetrics.INTERACTION, DropInFrameMetrics.KEYSTROKE));
+        sut.addFrame(true, Collections.emptyMap());
+
+        assertEquals(1, sut.getKeystrokeJankyFrameCount());
+    }
+
+    private static Map<String, String> states(String key, String value) {
+        Map<String, String> states = new HashMap<>();
+        states.put(key, value);
+        return states;
+    }
+}
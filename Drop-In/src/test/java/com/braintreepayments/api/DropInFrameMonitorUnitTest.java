@@ -0,0 +1,103 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import androidx.fragment.app.FragmentActivity;
+import androidx.metrics.performance.FrameData;
+import androidx.metrics.performance.StateInfo;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+
+@RunWith(RobolectricTestRunner.class)
+public class DropInFrameMonitorUnitTest {
+
+    @After
+    public void afterEach() {
+        DropInFrameMonitor.clear();
+    }
+
+    @Test
+    public void start_withoutListener_doesNotMonitorFrames() {
+        assertNull(DropInFrameMonitor.start(mock(FragmentActivity.class), "session-id"));
+        assertNull(DropInFrameMonitor.start(mock(FragmentActivity.class), null));
+    }
+
+    @Test
+    public void putListener_withNull_removesListener() {
+        DropInFrameMetricsListener listener = mock(DropInFrameMetricsListener.class);
+        DropInFrameMonitor.putListener("session-id", listener);
+        assertSame(listener, DropInFrameMonitor.getListener("session-id"));
+
+        DropInFrameMonitor.putListener("session-id", null);
+        assertNull(DropInFrameMonitor.getListener("session-id"));
+    }
+
+    @Test
+    public void onFrame_addsFrameWithItsStatesToMetrics() {
+        DropInFrameMetrics metrics = new DropInFrameMetrics(DropInDeviceClass.HIGH);
+        DropInFrameMonitor sut = new DropInFrameMonitor("session-id",
+                mock(DropInFrameMetricsListener.class), metrics);
+
+        sut.onFrame(frameData(true,
+                stateInfo(DropInFrameMetrics.BOTTOM_SHEET_STATE, "SHOW_REQUESTED"),
+                stateInfo(DropInFrameMetrics.FRAGMENT, "BOTTOM_SHEET")));
+        sut.onFrame(frameData(false));
+
+        assertEquals(2, metrics.getFrameCount());
+        assertEquals(1, metrics.getJankyFrameCount());
+        assertEquals(1, metrics.getSheetAnimationJankyFrameCount());
+        assertEquals(1, (int) metrics.getJankyFrameCounts().get("Fragment=BOTTOM_SHEET"));
+    }
+
+    @Test
+    public void onFrame_withoutJank_onlyCountsFrame() {
+        DropInFrameMetrics metrics = new DropInFrameMetrics(DropInDeviceClass.HIGH);
+        DropInFrameMonitor sut = new DropInFrameMonitor("session-id",
+                mock(DropInFrameMetricsListener.class), metrics);
+
+        FrameData frameData = frameData(false,
+                stateInfo(DropInFrameMetrics.FRAGMENT, "BOTTOM_SHEET"));
+        sut.onFrame(frameData);
+
+        assertEquals(1, metrics.getFrameCount());
+        assertTrue(metrics.getJankyFrameCounts().isEmpty());
+        verify(frameData, never()).getStates();
+    }
+
+    @Test
+    public void deliverMetrics_deliversMetricsToListener() {
+        DropInFrameMetricsListener listener = mock(DropInFrameMetricsListener.class);
+        DropInFrameMetrics metrics = new DropInFrameMetrics(DropInDeviceClass.MEDIUM);
+        DropInFrameMonitor sut = new DropInFrameMonitor("session-id", listener, metrics);
+
+        sut.deliverMetrics();
+
+        verify(listener).onFrameMetrics(metrics);
+    }
+
+    private static FrameData frameData(boolean isJank, StateInfo... states) {
+        FrameData frameData = mock(FrameData.class);
+        when(frameData.isJank()).thenReturn(isJank);
+        when(frameData.getStates()).thenReturn(Arrays.asList(states));
+        return frameData;
+    }
+
+    private static StateInfo stateInfo(String key, String value) {
+        StateInfo stateInfo = mock(StateInfo.class);
+        when(stateInfo.getKey()).thenReturn(key);
+        when(stateInfo.getValue()).thenReturn(value);
+        return stateInfo;
+    }
+}
@@ -2,19 +2,25 @@ package com.braintreepayments.api;
 
 import static junit.framework.TestCase.assertFalse;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
 
+import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
+import android.os.Looper;
 
 import androidx.fragment.app.FragmentActivity;
 import androidx.test.core.app.ApplicationProvider;
@@ -32,6 +38,7 @@ import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.android.controller.ActivityController;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -40,7 +47,7 @@ import java.util.List;
 public class DropInInternalClientUnitTest {
 
     @Captor
-    ArgumentCaptor<List<DropInPaymentMethod>> paymentMethodTypesCaptor;
+    ArgumentCaptor<DropInSession> dropInSessionCaptor;
 
     @Captor
     ArgumentCaptor<List<PaymentMethodNonce>> paymentMethodNoncesCaptor;
@@ -101,7 +108,13 @@ public class DropInInternalClientUnitTest {
         DropInInternalClient sut = new DropInInternalClient(params);
         sut.getConfiguration(callback);
 
-        verify(braintreeClient).getConfiguration(callback);
+        ArgumentCaptor<ConfigurationCallback> captor =
+                ArgumentCaptor.forClass(ConfigurationCallback.class);
+        verify(braintreeClient).getConfiguration(captor.capture());
+
+        Configuration configuration = mock(Configuration.class);
+        captor.getValue().onResult(configuration, null);
+        verify(callback).onResult(configuration, null);
     }
 
     @Test
@@ -130,15 +143,82 @@ public class DropInInternalClientUnitTest {
         sut.collectDeviceData(activity, true, callback);
 
         DataCollectorRequest request = new DataCollectorRequest(true);
-        verify(dataCollector).collectDeviceData(activity, request, callback);
+        ArgumentCaptor<DataCollectorCallback> captor =
+                ArgumentCaptor.forClass(DataCollectorCallback.class);
+        verify(dataCollector).collectDeviceData(same(activity), eq(request), captor.capture());
+
+        captor.getValue().onResult("device data", null);
+        verify(callback).onResult("device data", null);
+    }
+
+    @Test
+    public void collectDeviceData_afterPrefetch_reusesDeviceDataWithoutCollectingAgain() {
+        DataCollector dataCollector = new MockDataCollectorBuilder()
+                .collectDeviceDataSuccess("device data")
+                .build();
+        DropInRequest dropInRequest = new DropInRequest(true);
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .dropInRequest(dropInRequest)
+                .dataCollector(dataCollector);
+
+        DataCollectorCallback callback = mock(DataCollectorCallback.class);
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.prefetchDeviceData(activity);
+        sut.collectDeviceData(activity, true, callback);
+
+        verify(dataCollector, times(1)).collectDeviceData(
+                any(Context.class), any(DataCollectorRequest.class), any(DataCollectorCallback.class));
+        verify(callback).onResult("device data", null);
+    }
+
+    @Test
+    public void collectDeviceData_whilePrefetchIsInFlight_joinsPrefetch() {
+        DataCollector dataCollector = mock(DataCollector.class);
+        DropInRequest dropInRequest = new DropInRequest(true);
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .dropInRequest(dropInRequest)
+                .dataCollector(dataCollector);
+
+        DataCollectorCallback callback = mock(DataCollectorCallback.class);
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.prefetchDeviceData(activity);
+        sut.collectDeviceData(activity, true, callback);
+
+        ArgumentCaptor<DataCollectorCallback> captor =
+                ArgumentCaptor.forClass(DataCollectorCallback.class);
+        verify(dataCollector).collectDeviceData(same(activity), any(DataCollectorRequest.class), captor.capture());
+
+        captor.getValue().onResult("device data", null);
+        verify(callback).onResult("device data", null);
+    }
+
+    @Test
+    public void collectDeviceData_whenPrefetchFails_collectsAgain() {
+        DataCollector dataCollector = new MockDataCollectorBuilder()
+                .collectDeviceDataError(new Exception("error"))
+                .build();
+        DropInRequest dropInRequest = new DropInRequest();
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .dropInRequest(dropInRequest)
+                .dataCollector(dataCollector);
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.prefetchDeviceData(activity);
+        sut.collectDeviceData(activity, false, mock(DataCollectorCallback.class));
+
+        verify(dataCollector, times(2)).collectDeviceData(
+                any(Context.class), any(DataCollectorRequest.class), any(DataCollectorCallback.class));
     }
 
     @Test
-    public void getSupportedPaymentMethods_whenGooglePayEnabledInConfigAndIsReadyToPaySuccess_includesGooglePay() throws JSONException {
+    public void getDropInSession_whenGooglePayEnabledInConfigAndIsReadyToPaySuccess_includesGooglePay() throws JSONException {
         GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
                 .isReadyToPaySuccess(true)
                 .build();
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
                 .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY))
                 .build();
 
@@ -148,22 +228,23 @@ public class DropInInternalClientUnitTest {
                 .googlePayClient(googlePayClient);
 
         DropInInternalClient sut = new DropInInternalClient(params);
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
 
-        sut.getSupportedPaymentMethods(activity, callback);
-        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        sut.getDropInSession(activity, callback);
+        verify(callback).onResult(dropInSessionCaptor.capture(), (Exception) isNull());
 
-        List<DropInPaymentMethod> paymentMethods = paymentMethodTypesCaptor.getValue();
+        List<DropInPaymentMethod> paymentMethods = dropInSessionCaptor.getValue().getSupportedPaymentMethods();
         assertEquals(1, paymentMethods.size());
         assertEquals(DropInPaymentMethod.GOOGLE_PAY, paymentMethods.get(0));
     }
 
     @Test
-    public void getSupportedPaymentMethods_whenGooglePayEnabledInConfigAndIsReadyToPayError_filtersGooglePayFromSupportedMethods() throws JSONException {
+    public void getDropInSession_whenGooglePayEnabledInConfigAndIsReadyToPayError_filtersGooglePayFromSupportedMethods() throws JSONException {
         GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
                 .isReadyToPayError(new Exception("google pay error"))
                 .build();
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
                 .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY))
                 .build();
 
@@ -173,19 +254,20 @@ public class DropInInternalClientUnitTest {
                 .googlePayClient(googlePayClient);
 
         DropInInternalClient sut = new DropInInternalClient(params);
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
 
-        sut.getSupportedPaymentMethods(activity, callback);
-        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        sut.getDropInSession(activity, callback);
+        verify(callback).onResult(dropInSessionCaptor.capture(), (Exception) isNull());
 
-        List<DropInPaymentMethod> paymentMethods = paymentMethodTypesCaptor.getValue();
+        List<DropInPaymentMethod> paymentMethods = dropInSessionCaptor.getValue().getSupportedPaymentMethods();
         assertEquals(0, paymentMethods.size());
     }
 
     @Test
-    public void getSupportedPaymentMethods_whenGooglePayDisabledInDropInRequest_filtersGooglePayFromSupportedMethods() throws JSONException {
+    public void getDropInSession_whenGooglePayDisabledInDropInRequest_filtersGooglePayFromSupportedMethods() throws JSONException {
         GooglePayClient googlePayClient = new MockGooglePayClientBuilder().build();
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
                 .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY))
                 .build();
 
@@ -198,32 +280,15 @@ public class DropInInternalClientUnitTest {
                 .googlePayClient(googlePayClient);
 
         DropInInternalClient sut = new DropInInternalClient(params);
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
 
-        sut.getSupportedPaymentMethods(activity, callback);
-        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        sut.getDropInSession(activity, callback);
+        verify(callback).onResult(dropInSessionCaptor.capture(), (Exception) isNull());
 
-        List<DropInPaymentMethod> paymentMethods = paymentMethodTypesCaptor.getValue();
+        List<DropInPaymentMethod> paymentMethods = dropInSessionCaptor.getValue().getSupportedPaymentMethods();
         assertEquals(0, paymentMethods.size());
     }
 
-    @Test
-    public void getSupportedPaymentMethods_whenConfigurationFetchFails_forwardsError() {
-        Exception configurationError = new Exception("configuration error");
-        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
-                .configurationError(configurationError)
-                .build();
-
-        DropInInternalClientParams params = new DropInInternalClientParams()
-                .braintreeClient(braintreeClient);
-
-        DropInInternalClient sut = new DropInInternalClient(params);
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
-
-        sut.getSupportedPaymentMethods(activity, callback);
-        verify(callback).onResult(null, configurationError);
-    }
-
     @Test
     public void shouldRequestThreeDSecureVerification_whenNonceIsGooglePayNonNetworkTokenized_returnsTrue() throws JSONException {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
@@ -480,9 +545,9 @@ public class DropInInternalClientUnitTest {
 
 
     @Test
-    public void getSupportedPaymentMethods_whenNoPaymentMethodsEnabledInConfiguration_callsBackWithNoPaymentMethods() {
+    public void getDropInSession_whenNoPaymentMethodsEnabledInConfiguration_callsBackWithNoPaymentMethods() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
-                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
                 .configuration(mockConfiguration(false, false, false, false, false))
                 .build();
 
@@ -496,19 +561,19 @@ public class DropInInternalClientUnitTest {
 
         DropInInternalClient sut = new DropInInternalClient(params);
 
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
-        sut.getSupportedPaymentMethods(activity, callback);
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+        sut.getDropInSession(activity, callback);
 
-        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        verify(callback).onResult(dropInSessionCaptor.capture(), (Exception) isNull());
 
-        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
+        List<DropInPaymentMethod> paymentMethodTypes = dropInSessionCaptor.getValue().getSupportedPaymentMethods();
         assertEquals(0, paymentMethodTypes.size());
     }
 
     @Test
-    public void getSupportedPaymentMethods_whenPaymentMethodsEnabledInConfiguration_callsBackWithPaymentMethods() {
+    public void getDropInSession_whenPaymentMethodsEnabledInConfiguration_callsBackWithPaymentMethods() {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
-                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
                 .configuration(mockConfiguration(true, true, true, true, false))
                 .build();
 
@@ -527,12 +592,12 @@ public class DropInInternalClientUnitTest {
 
         DropInInternalClient sut = new DropInInternalClient(params);
 
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
-        sut.getSupportedPaymentMethods(activity, callback);
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+        sut.getDropInSession(activity, callback);
 
-        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        verify(callback).onResult(dropInSessionCaptor.capture(), (Exception) isNull());
 
-        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
+        List<DropInPaymentMethod> paymentMethodTypes = dropInSessionCaptor.getValue().getSupportedPaymentMethods();
 
         assertEquals(4, paymentMethodTypes.size());
         assertEquals(DropInPaymentMethod.PAYPAL, paymentMethodTypes.get(0));
@@ -542,12 +607,12 @@ public class DropInInternalClientUnitTest {
     }
 
     @Test
-    public void getSupportedPaymentMethods_whenUnionPayNotSupportedAndOtherCardsPresent_callsBackWithOtherCards() {
+    public void getDropInSession_whenUnionPayNotSupportedAndOtherCardsPresent_callsBackWithOtherCards() {
         Configuration configuration = mockConfiguration(false, false, true, false, false);
         when(configuration.getSupportedCardTypes())
                 .thenReturn(Arrays.asList(DropInPaymentMethod.UNIONPAY.name(), DropInPaymentMethod.VISA.name()));
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
-                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
                 .configuration(configuration)
                 .build();
 
@@ -560,25 +625,25 @@ public class DropInInternalClientUnitTest {
                 .braintreeClient(braintreeClient);
 
         DropInInternalClient sut = new DropInInternalClient(params);
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
-        sut.getSupportedPaymentMethods(activity, callback);
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+        sut.getDropInSession(activity, callback);
 
-        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        verify(callback).onResult(dropInSessionCaptor.capture(), (Exception) isNull());
 
-        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
+        List<DropInPaymentMethod> paymentMethodTypes = dropInSessionCaptor.getValue().getSupportedPaymentMethods();
 
         assertEquals(1, paymentMethodTypes.size());
         assertEquals(DropInPaymentMethod.UNKNOWN, paymentMethodTypes.get(0));
     }
 
     @Test
-    public void getSupportedPaymentMethods_whenOnlyUnionPayPresentAndNotSupported_callsBackWithNoCards() {
+    public void getDropInSession_whenOnlyUnionPayPresentAndNotSupported_callsBackWithNoCards() {
         Configuration configuration = mockConfiguration(false, false, true, false, false);
         when(configuration.getSupportedCardTypes())
                 .thenReturn(Collections.singletonList("UnionPay"));
 
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
-                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
                 .configuration(configuration)
                 .build();
 
@@ -591,23 +656,23 @@ public class DropInInternalClientUnitTest {
                 .braintreeClient(braintreeClient);
 
         DropInInternalClient sut = new DropInInternalClient(params);
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
-        sut.getSupportedPaymentMethods(activity, callback);
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+        sut.getDropInSession(activity, callback);
 
-        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        verify(callback).onResult(dropInSessionCaptor.capture(), (Exception) isNull());
 
-        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
+        List<DropInPaymentMethod> paymentMethodTypes = dropInSessionCaptor.getValue().getSupportedPaymentMethods();
         assertEquals(0, paymentMethodTypes.size());
     }
 
     @Test
-    public void getSupportedPaymentMethods_whenOnlyUnionPayPresentAndSupported_callsBackWithCards() {
+    public void getDropInSession_whenOnlyUnionPayPresentAndSupported_callsBackWithCards() {
         Configuration configuration = mockConfiguration(false, false, true, false, true);
         when(configuration.getSupportedCardTypes())
                 .thenReturn(Collections.singletonList(DropInPaymentMethod.UNIONPAY.name()));
 
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
-                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
                 .configuration(configuration)
                 .build();
 
@@ -620,25 +685,25 @@ public class DropInInternalClientUnitTest {
                 .braintreeClient(braintreeClient);
 
         DropInInternalClient sut = new DropInInternalClient(params);
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
-        sut.getSupportedPaymentMethods(activity, callback);
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+        sut.getDropInSession(activity, callback);
 
-        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        verify(callback).onResult(dropInSessionCaptor.capture(), (Exception) isNull());
 
-        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
+        List<DropInPaymentMethod> paymentMethodTypes = dropInSessionCaptor.getValue().getSupportedPaymentMethods();
 
         assertEquals(1, paymentMethodTypes.size());
         assertEquals(DropInPaymentMethod.UNKNOWN, paymentMethodTypes.get(0));
     }
 
     @Test
-    public void getSupportedPaymentMethods_whenCardsDisabledInDropInRequest_doesNotReturnCards() {
+    public void getDropInSession_whenCardsDisabledInDropInRequest_doesNotReturnCards() {
         Configuration configuration = mockConfiguration(false, false, true, false, false);
         DropInRequest dropInRequest = new DropInRequest();
         dropInRequest.setCardDisabled(true);
 
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
-                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
                 .configuration(configuration)
                 .build();
 
@@ -651,23 +716,23 @@ public class DropInInternalClientUnitTest {
                 .braintreeClient(braintreeClient);
 
         DropInInternalClient sut = new DropInInternalClient(params);
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
-        sut.getSupportedPaymentMethods(activity, callback);
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+        sut.getDropInSession(activity, callback);
 
-        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        verify(callback).onResult(dropInSessionCaptor.capture(), (Exception) isNull());
 
-        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
+        List<DropInPaymentMethod> paymentMethodTypes = dropInSessionCaptor.getValue().getSupportedPaymentMethods();
         assertEquals(0, paymentMethodTypes.size());
     }
 
     @Test
-    public void getSupportedPaymentMethods_whenPayPalDisabledInDropInRequest_doesNotReturnPayPal() {
+    public void getDropInSession_whenPayPalDisabledInDropInRequest_doesNotReturnPayPal() {
         Configuration configuration = mockConfiguration(true, false, false, false, false);
         DropInRequest dropInRequest = new DropInRequest();
         dropInRequest.setPayPalDisabled(true);
 
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
-                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
                 .configuration(configuration)
                 .build();
 
@@ -680,23 +745,23 @@ public class DropInInternalClientUnitTest {
                 .braintreeClient(braintreeClient);
 
         DropInInternalClient sut = new DropInInternalClient(params);
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
-        sut.getSupportedPaymentMethods(activity, callback);
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+        sut.getDropInSession(activity, callback);
 
-        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        verify(callback).onResult(dropInSessionCaptor.capture(), (Exception) isNull());
 
-        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
+        List<DropInPaymentMethod> paymentMethodTypes = dropInSessionCaptor.getValue().getSupportedPaymentMethods();
         assertEquals(0, paymentMethodTypes.size());
     }
 
     @Test
-    public void getSupportedPaymentMethods_whenVenmoDisabledInDropInRequest_doesNotReturnVenmo() {
+    public void getDropInSession_whenVenmoDisabledInDropInRequest_doesNotReturnVenmo() {
         Configuration configuration = mockConfiguration(false, true, false, false, false);
         DropInRequest dropInRequest = new DropInRequest();
         dropInRequest.setVenmoDisabled(true);
 
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
-                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
                 .configuration(configuration)
                 .build();
 
@@ -713,22 +778,22 @@ public class DropInInternalClientUnitTest {
                 .braintreeClient(braintreeClient);
 
         DropInInternalClient sut = new DropInInternalClient(params);
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
-        sut.getSupportedPaymentMethods(activity, callback);
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+        sut.getDropInSession(activity, callback);
 
-        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        verify(callback).onResult(dropInSessionCaptor.capture(), (Exception) isNull());
 
-        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
+        List<DropInPaymentMethod> paymentMethodTypes = dropInSessionCaptor.getValue().getSupportedPaymentMethods();
         assertEquals(0, paymentMethodTypes.size());
     }
 
     @Test
-    public void getSupportedPaymentMethods_whenVenmoNotInstalled_doesNotReturnVenmo() {
+    public void getDropInSession_whenVenmoNotInstalled_doesNotReturnVenmo() {
         Configuration configuration = mockConfiguration(false, true, false, false, false);
         DropInRequest dropInRequest = new DropInRequest();
 
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
-                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
                 .configuration(configuration)
                 .build();
 
@@ -745,23 +810,23 @@ public class DropInInternalClientUnitTest {
                 .braintreeClient(braintreeClient);
 
         DropInInternalClient sut = new DropInInternalClient(params);
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
-        sut.getSupportedPaymentMethods(activity, callback);
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+        sut.getDropInSession(activity, callback);
 
-        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        verify(callback).onResult(dropInSessionCaptor.capture(), (Exception) isNull());
 
-        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
+        List<DropInPaymentMethod> paymentMethodTypes = dropInSessionCaptor.getValue().getSupportedPaymentMethods();
         assertEquals(0, paymentMethodTypes.size());
     }
 
     @Test
-    public void getSupportedPaymentMethods_whenGooglePayDisabledInDropInRequest_doesNotReturnGooglePay() {
+    public void getDropInSession_whenGooglePayDisabledInDropInRequest_doesNotReturnGooglePay() {
         Configuration configuration = mockConfiguration(false, false, false, true, false);
         DropInRequest dropInRequest = new DropInRequest();
         dropInRequest.setGooglePayDisabled(true);
 
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
-                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
                 .configuration(configuration)
                 .build();
 
@@ -774,12 +839,12 @@ public class DropInInternalClientUnitTest {
                 .braintreeClient(braintreeClient);
 
         DropInInternalClient sut = new DropInInternalClient(params);
-        GetSupportedPaymentMethodsCallback callback = mock(GetSupportedPaymentMethodsCallback.class);
-        sut.getSupportedPaymentMethods(activity, callback);
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+        sut.getDropInSession(activity, callback);
 
-        verify(callback).onResult(paymentMethodTypesCaptor.capture(), (Exception) isNull());
+        verify(callback).onResult(dropInSessionCaptor.capture(), (Exception) isNull());
 
-        List<DropInPaymentMethod> paymentMethodTypes = paymentMethodTypesCaptor.getValue();
+        List<DropInPaymentMethod> paymentMethodTypes = dropInSessionCaptor.getValue().getSupportedPaymentMethods();
         assertEquals(0, paymentMethodTypes.size());
     }
 
@@ -999,7 +1064,71 @@ public class DropInInternalClientUnitTest {
         DropInInternalClient sut = new DropInInternalClient(params);
         sut.tokenizeCard(card, callback);
 
-        verify(cardClient).tokenize(card, callback);
+        ArgumentCaptor<CardTokenizeCallback> captor =
+                ArgumentCaptor.forClass(CardTokenizeCallback.class);
+        verify(cardClient).tokenize(same(card), captor.capture());
+
+        CardNonce cardNonce = mock(CardNonce.class);
+        captor.getValue().onResult(cardNonce, null);
+        verify(callback).onResult(cardNonce, null);
+    }
+
+    @Test
+    public void tokenizeCard_reportsCardTokenizationSpanWithCardType() throws JSONException {
+        CardClient cardClient = mock(CardClient.class);
+        DropInTracer tracer = mock(DropInTracer.class);
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .cardClient(cardClient)
+                .spanRecorder(new DropInSpanRecorder(tracer));
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.tokenizeCard(new Card(), mock(CardTokenizeCallback.class));
+
+        ArgumentCaptor<DropInSpan> spanCaptor = ArgumentCaptor.forClass(DropInSpan.class);
+        verify(tracer).onSpanStarted(spanCaptor.capture());
+        DropInSpan span = spanCaptor.getValue();
+        assertEquals(DropInSpanPhase.CARD_TOKENIZATION, span.getPhase());
+        assertFalse(span.isEnded());
+
+        ArgumentCaptor<CardTokenizeCallback> captor =
+                ArgumentCaptor.forClass(CardTokenizeCallback.class);
+        verify(cardClient).tokenize(any(Card.class), captor.capture());
+        captor.getValue().onResult(CardNonce.fromJSON(new JSONObject(Fixtures.VISA_CREDIT_CARD_RESPONSE)), null);
+
+        verify(tracer).onSpanEnded(span);
+        assertEquals(DropInSpanOutcome.SUCCEEDED, span.getOutcome());
+        assertEquals(DropInPaymentMethod.VISA, span.getPaymentMethod());
+    }
+
+    @Test
+    public void getVaultedPaymentMethods_reportsConfigurationAndVaultFetchSpans() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(mockConfiguration(true, true, true, true, true))
+                .build();
+        Exception vaultError = new Exception("vault error");
+        PaymentMethodClient paymentMethodClient = new MockPaymentMethodClientBuilder()
+                .getPaymentMethodNoncesError(vaultError)
+                .build();
+        DropInTracer tracer = mock(DropInTracer.class);
+
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setGooglePayDisabled(true);
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .dropInRequest(dropInRequest)
+                .braintreeClient(braintreeClient)
+                .paymentMethodClient(paymentMethodClient)
+                .spanRecorder(new DropInSpanRecorder(tracer));
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.getVaultedPaymentMethods(activity, mock(GetPaymentMethodNoncesCallback.class));
+
+        ArgumentCaptor<DropInSpan> captor = ArgumentCaptor.forClass(DropInSpan.class);
+        verify(tracer, times(2)).onSpanEnded(captor.capture());
+        List<DropInSpan> spans = captor.getAllValues();
+        assertEquals(DropInSpanPhase.CONFIGURATION, spans.get(0).getPhase());
+        assertEquals(DropInSpanOutcome.SUCCEEDED, spans.get(0).getOutcome());
+        assertEquals(DropInSpanPhase.VAULT_FETCH, spans.get(1).getPhase());
+        assertEquals(DropInSpanOutcome.FAILED, spans.get(1).getOutcome());
     }
 
     @Test
@@ -1565,6 +1694,368 @@ public class DropInInternalClientUnitTest {
         verify(callback).onResult((DropInResult) isNull(), same(error));
     }
 
+    @Test
+    public void getDropInSession_withClientToken_callsBackSessionWithVaultedPaymentMethods() throws JSONException {
+        Authorization clientToken = Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN);
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(clientToken)
+                .configuration(mockConfiguration(true, false, true, false, false))
+                .build();
+
+        PaymentMethodNonce cardNonce = CardNonce.fromJSON(
+                new JSONObject(Fixtures.PAYMENT_METHODS_VISA_CREDIT_CARD));
+        PaymentMethodClient paymentMethodClient = new MockPaymentMethodClientBuilder()
+                .getPaymentMethodNoncesSuccess(Collections.singletonList(cardNonce))
+                .build();
+
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setGooglePayDisabled(true);
+
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .dropInRequest(dropInRequest)
+                .paymentMethodClient(paymentMethodClient)
+                .braintreeClient(braintreeClient);
+
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.getDropInSession(activity, callback);
+
+        ArgumentCaptor<DropInSession> captor = ArgumentCaptor.forClass(DropInSession.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+
+        DropInSession dropInSession = captor.getValue();
+        assertSame(clientToken, dropInSession.getAuthorization());
+        assertEquals(Arrays.asList(DropInPaymentMethod.PAYPAL, DropInPaymentMethod.UNKNOWN),
+                dropInSession.getSupportedPaymentMethods());
+        assertEquals(1, dropInSession.getSupportedCardTypes().size());
+        assertEquals(1, dropInSession.getVaultedPaymentMethods().size());
+        assertSame(cardNonce, dropInSession.getVaultedPaymentMethods().get(0));
+    }
+
+    @Test
+    public void getDropInSession_withTokenizationKey_doesNotFetchVaultedPaymentMethods() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+                .configuration(mockConfiguration(true, false, true, false, false))
+                .build();
+
+        PaymentMethodClient paymentMethodClient = mock(PaymentMethodClient.class);
+
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setGooglePayDisabled(true);
+
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .dropInRequest(dropInRequest)
+                .paymentMethodClient(paymentMethodClient)
+                .braintreeClient(braintreeClient);
+
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.getDropInSession(activity, callback);
+
+        ArgumentCaptor<DropInSession> captor = ArgumentCaptor.forClass(DropInSession.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+        assertNull(captor.getValue().getVaultedPaymentMethods());
+        verify(paymentMethodClient, never()).getPaymentMethodNonces(any(GetPaymentMethodNoncesCallback.class));
+    }
+
+    @Test
+    public void getDropInSession_startsVaultAndGooglePayRequestsTogether() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .configuration(mockConfiguration(true, false, true, true, false))
+                .build();
+
+        // neither request completes, so both must have been started independently
+        PaymentMethodClient paymentMethodClient = mock(PaymentMethodClient.class);
+        GooglePayClient googlePayClient = mock(GooglePayClient.class);
+
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .dropInRequest(new DropInRequest())
+                .paymentMethodClient(paymentMethodClient)
+                .googlePayClient(googlePayClient)
+                .braintreeClient(braintreeClient);
+
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.getDropInSession(activity, callback);
+
+        verify(paymentMethodClient).getPaymentMethodNonces(any(GetPaymentMethodNoncesCallback.class));
+        verify(googlePayClient).isReadyToPay(same(activity), any(GooglePayIsReadyToPayCallback.class));
+        verify(callback, never()).onResult(any(), any());
+    }
+
+    @Test
+    public void getVaultedPaymentMethods_whileVaultRequestIsInFlight_reportsCoalescedRequestsOnVaultFetchSpan() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(mockConfiguration(true, true, true, true, true))
+                .build();
+        PaymentMethodClient paymentMethodClient = mock(PaymentMethodClient.class);
+        DropInTracer tracer = mock(DropInTracer.class);
+
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setGooglePayDisabled(true);
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .dropInRequest(dropInRequest)
+                .paymentMethodClient(paymentMethodClient)
+                .braintreeClient(braintreeClient)
+                .spanRecorder(new DropInSpanRecorder(tracer));
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.getVaultedPaymentMethods(activity, mock(GetPaymentMethodNoncesCallback.class));
+        sut.getVaultedPaymentMethods(activity, mock(GetPaymentMethodNoncesCallback.class));
+        sut.getVaultedPaymentMethods(activity, mock(GetPaymentMethodNoncesCallback.class));
+
+        ArgumentCaptor<GetPaymentMethodNoncesCallback> captor =
+                ArgumentCaptor.forClass(GetPaymentMethodNoncesCallback.class);
+        verify(paymentMethodClient).getPaymentMethodNonces(captor.capture());
+        captor.getValue().onResult(Collections.emptyList(), null);
+
+        ArgumentCaptor<DropInSpan> spanCaptor = ArgumentCaptor.forClass(DropInSpan.class);
+        verify(tracer, atLeastOnce()).onSpanEnded(spanCaptor.capture());
+        List<DropInSpan> vaultFetchSpans = new ArrayList<>();
+        for (DropInSpan span : spanCaptor.getAllValues()) {
+            if (span.getPhase() == DropInSpanPhase.VAULT_FETCH) {
+                vaultFetchSpans.add(span);
+            }
+        }
+        assertEquals(1, vaultFetchSpans.size());
+        assertEquals(2, vaultFetchSpans.get(0).getCoalescedRequestCount());
+    }
+
+    @Test
+    public void getVaultedPaymentMethods_whileVaultRequestIsInFlight_sharesRequest() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(mockConfiguration(true, true, true, true, true))
+                .build();
+        PaymentMethodClient paymentMethodClient = mock(PaymentMethodClient.class);
+
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setGooglePayDisabled(true);
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .dropInRequest(dropInRequest)
+                .paymentMethodClient(paymentMethodClient)
+                .braintreeClient(braintreeClient);
+
+        GetPaymentMethodNoncesCallback firstCallback = mock(GetPaymentMethodNoncesCallback.class);
+        GetPaymentMethodNoncesCallback secondCallback = mock(GetPaymentMethodNoncesCallback.class);
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.getVaultedPaymentMethods(activity, firstCallback);
+        sut.getVaultedPaymentMethods(activity, secondCallback);
+
+        ArgumentCaptor<GetPaymentMethodNoncesCallback> captor =
+                ArgumentCaptor.forClass(GetPaymentMethodNoncesCallback.class);
+        verify(paymentMethodClient).getPaymentMethodNonces(captor.capture());
+        assertEquals(1, sut.getRequestCoalescer().getCoalescedRequestCount());
+
+        Exception error = new Exception("vault error");
+        captor.getValue().onResult(null, error);
+        verify(firstCallback).onResult(null, error);
+        verify(secondCallback).onResult(null, error);
+    }
+
+    @Test
+    public void getDropInSession_whenReadyToGooglePay_includesGooglePayInSupportedAndVaultedPaymentMethods() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .configuration(mockConfiguration(false, false, false, true, false))
+                .build();
+
+        PaymentMethodNonce googlePayCardNonce = GooglePayCardNonce.fromJSON(
+                new JSONObject(Fixtures.GOOGLE_PAY_NETWORK_TOKENIZED_RESPONSE));
+        PaymentMethodClient paymentMethodClient = new MockPaymentMethodClientBuilder()
+                .getPaymentMethodNoncesSuccess(Collections.singletonList(googlePayCardNonce))
+                .build();
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPaySuccess(true)
+                .build();
+
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .dropInRequest(new DropInRequest())
+                .paymentMethodClient(paymentMethodClient)
+                .googlePayClient(googlePayClient)
+                .braintreeClient(braintreeClient);
+
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.getDropInSession(activity, callback);
+
+        ArgumentCaptor<DropInSession> captor = ArgumentCaptor.forClass(DropInSession.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+
+        DropInSession dropInSession = captor.getValue();
+        assertEquals(Collections.singletonList(DropInPaymentMethod.GOOGLE_PAY),
+                dropInSession.getSupportedPaymentMethods());
+        assertEquals(Collections.singletonList(googlePayCardNonce),
+                dropInSession.getVaultedPaymentMethods());
+        verify(googlePayClient).isReadyToPay(same(activity), any(GooglePayIsReadyToPayCallback.class));
+    }
+
+    @Test
+    public void getDropInSession_forwardsVaultedPaymentMethodsFetchError() {
+        Exception vaultError = new Exception("vault error");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .configuration(mockConfiguration(true, false, true, false, false))
+                .build();
+
+        PaymentMethodClient paymentMethodClient = new MockPaymentMethodClientBuilder()
+                .getPaymentMethodNoncesError(vaultError)
+                .build();
+        GooglePayClient googlePayClient = new MockGooglePayClientBuilder()
+                .isReadyToPaySuccess(true)
+                .build();
+
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .dropInRequest(new DropInRequest())
+                .paymentMethodClient(paymentMethodClient)
+                .googlePayClient(googlePayClient)
+                .braintreeClient(braintreeClient);
+
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.getDropInSession(activity, callback);
+
+        verify(callback).onResult(null, vaultError);
+    }
+
+    @Test
+    public void getDropInSession_storesConfigurationSnapshot() {
+        Authorization tokenizationKey = Authorization.fromString(Fixtures.TOKENIZATION_KEY);
+        Configuration configuration = mockConfiguration(true, false, true, false, false);
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(tokenizationKey)
+                .configuration(configuration)
+                .build();
+
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setGooglePayDisabled(true);
+
+        DropInConfigurationCache configurationCache = mock(DropInConfigurationCache.class);
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .dropInRequest(dropInRequest)
+                .configurationCache(configurationCache)
+                .braintreeClient(braintreeClient);
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.getDropInSession(activity, mock(DropInSessionCallback.class));
+
+        verify(configurationCache).put(tokenizationKey, configuration, false);
+    }
+
+    @Test
+    public void getCachedDropInSession_buildsSessionFromConfigurationSnapshot() {
+        Authorization tokenizationKey = Authorization.fromString(Fixtures.TOKENIZATION_KEY);
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(tokenizationKey)
+                .build();
+
+        Configuration configuration = mockConfiguration(true, false, true, true, false);
+        DropInConfigurationCache configurationCache = mock(DropInConfigurationCache.class);
+        when(configurationCache.get(tokenizationKey))
+                .thenReturn(new DropInConfigurationCache.Snapshot(configuration, true));
+
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .dropInRequest(new DropInRequest())
+                .configurationCache(configurationCache)
+                .braintreeClient(braintreeClient);
+
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.getCachedDropInSession(activity, callback);
+
+        ArgumentCaptor<DropInSession> captor = ArgumentCaptor.forClass(DropInSession.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+
+        DropInSession dropInSession = captor.getValue();
+        assertSame(configuration, dropInSession.getConfiguration());
+        assertEquals(Arrays.asList(DropInPaymentMethod.PAYPAL, DropInPaymentMethod.UNKNOWN,
+                DropInPaymentMethod.GOOGLE_PAY), dropInSession.getSupportedPaymentMethods());
+        assertNull(dropInSession.getVaultedPaymentMethods());
+        verify(braintreeClient, never()).getConfiguration(any(ConfigurationCallback.class));
+    }
+
+    @Test
+    public void getCachedDropInSession_withCacheExecutor_readsSnapshotOffTheMainThread() {
+        Authorization tokenizationKey = Authorization.fromString(Fixtures.TOKENIZATION_KEY);
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(tokenizationKey)
+                .build();
+
+        Configuration configuration = mockConfiguration(true, false, true, true, false);
+        DropInConfigurationCache configurationCache = mock(DropInConfigurationCache.class);
+        when(configurationCache.get(tokenizationKey))
+                .thenReturn(new DropInConfigurationCache.Snapshot(configuration, true));
+        List<Runnable> cacheTasks = new ArrayList<>();
+
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .dropInRequest(new DropInRequest())
+                .configurationCache(configurationCache)
+                .cacheExecutor(cacheTasks::add)
+                .braintreeClient(braintreeClient);
+
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.getCachedDropInSession(activity, callback);
+
+        verify(configurationCache, never()).get(any(Authorization.class));
+        assertEquals(1, cacheTasks.size());
+
+        cacheTasks.get(0).run();
+        verify(configurationCache).get(tokenizationKey);
+        verify(callback, never()).onResult(any(), any());
+
+        shadowOf(Looper.getMainLooper()).idle();
+        verify(callback).onResult(any(DropInSession.class), (Exception) isNull());
+    }
+
+    @Test
+    public void getCachedDropInSession_withoutSnapshot_callsBackNull() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+                .build();
+
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .dropInRequest(new DropInRequest())
+                .configurationCache(mock(DropInConfigurationCache.class))
+                .braintreeClient(braintreeClient);
+
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.getCachedDropInSession(activity, callback);
+
+        verify(callback).onResult(null, null);
+    }
+
+    @Test
+    public void getDropInSession_forwardsConfigurationFetchError() {
+        Exception configurationError = new Exception("configuration error");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .configurationError(configurationError)
+                .build();
+
+        DropInInternalClientParams params = new DropInInternalClientParams()
+                .dropInRequest(new DropInRequest())
+                .braintreeClient(braintreeClient);
+
+        DropInSessionCallback callback = mock(DropInSessionCallback.class);
+
+        DropInInternalClient sut = new DropInInternalClient(params);
+        sut.getDropInSession(activity, callback);
+
+        verify(callback).onResult(null, configurationError);
+    }
+
     private Configuration mockConfiguration(
             boolean paypalEnabled,
             boolean venmoEnabled,
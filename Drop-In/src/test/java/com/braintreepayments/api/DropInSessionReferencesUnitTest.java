@@ -0,0 +1,64 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+
+public class DropInSessionReferencesUnitTest {
+
+    private DropInSessionReferences<Object> sut;
+
+    @Before
+    public void beforeEach() {
+        sut = new DropInSessionReferences<>();
+    }
+
+    @Test
+    public void put_registersObjectForSessionId() {
+        Object value = new Object();
+        sut.put("session-id", value);
+
+        assertSame(value, sut.get("session-id"));
+        assertNull(sut.get("other-session-id"));
+    }
+
+    @Test
+    public void put_withNullValue_removesRegistration() {
+        sut.put("session-id", new Object());
+        sut.put("session-id", null);
+
+        assertNull(sut.get("session-id"));
+        assertEquals(0, sut.size());
+    }
+
+    @Test
+    public void remove_returnsObjectOnlyOnce() {
+        Object value = new Object();
+        sut.put("session-id", value);
+
+        assertSame(value, sut.remove("session-id"));
+        assertNull(sut.remove("session-id"));
+    }
+
+    @Test
+    public void size_doesNotCountCollectedObjects() throws InterruptedException {
+        Object value = new Object();
+        sut.put("session-id", value);
+        sut.put("collected-session-id", new Object());
+
+        WeakReference<Object> sentinel = new WeakReference<>(new Object());
+        while (sentinel.get() != null) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, sut.size());
+        assertSame(value, sut.get("session-id"));
+        assertNull(sut.get("collected-session-id"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.work.testing.WorkManagerTestInitHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class DropInSessionRegistryUnitTest {
+
+    private Context context;
+
+    @Before
+    public void beforeEach() {
+        context = ApplicationProvider.getApplicationContext();
+        // This suppresses errors from WorkManager initialization within BraintreeClient initialization (AnalyticsClient)
+        WorkManagerTestInitHelper.initializeTestWorkManager(context);
+    }
+
+    @After
+    public void afterEach() {
+        DropInSessionRegistry.clear();
+    }
+
+    @Test
+    public void acquire_withoutSessionId_createsClientWithNewSession() {
+        BraintreeClient braintreeClient =
+                DropInSessionRegistry.acquire(context, Fixtures.TOKENIZATION_KEY, null, null);
+        BraintreeClient otherClient =
+                DropInSessionRegistry.acquire(context, Fixtures.TOKENIZATION_KEY, null, null);
+
+        assertNotSame(braintreeClient, otherClient);
+        assertNotEquals(braintreeClient.getSessionId(), otherClient.getSessionId());
+    }
+
+    @Test
+    public void acquire_withSessionId_returnsClientOfSession() {
+        BraintreeClient braintreeClient =
+                DropInSessionRegistry.acquire(context, Fixtures.TOKENIZATION_KEY, null, null);
+
+        assertSame(braintreeClient, DropInSessionRegistry.acquire(context,
+                Fixtures.TOKENIZATION_KEY, braintreeClient.getSessionId(), null));
+    }
+
+    @Test
+    public void acquire_withSessionIdAndDifferentUrlScheme_createsClientForSession() {
+        BraintreeClient braintreeClient =
+                DropInSessionRegistry.acquire(context, Fixtures.TOKENIZATION_KEY, null, null);
+
+        BraintreeClient sessionClient = DropInSessionRegistry.acquire(context,
+                Fixtures.TOKENIZATION_KEY, braintreeClient.getSessionId(), "custom-scheme");
+
+        assertNotSame(braintreeClient, sessionClient);
+        assertEquals(braintreeClient.getSessionId(), sessionClient.getSessionId());
+    }
+
+    @Test
+    public void acquire_withSessionIdOfRegisteredClient_returnsRegisteredClient() {
+        BraintreeClient braintreeClient = new BraintreeClient(context, Fixtures.TOKENIZATION_KEY);
+        DropInSessionRegistry.register(braintreeClient, null);
+
+        assertSame(braintreeClient, DropInSessionRegistry.acquire(context,
+                Fixtures.BASE64_CLIENT_TOKEN, braintreeClient.getSessionId(), null));
+    }
+
+    @Test
+    public void release_whenReacquiredBeforeMainThreadIsIdle_keepsClient() {
+        BraintreeClient braintreeClient =
+                DropInSessionRegistry.acquire(context, Fixtures.TOKENIZATION_KEY, null, null);
+        String sessionId = braintreeClient.getSessionId();
+
+        DropInSessionRegistry.release(braintreeClient);
+        BraintreeClient reacquiredClient = DropInSessionRegistry.acquire(context,
+                Fixtures.TOKENIZATION_KEY, sessionId, null);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertSame(braintreeClient, reacquiredClient);
+        assertSame(braintreeClient, DropInSessionRegistry.acquire(context,
+                Fixtures.TOKENIZATION_KEY, sessionId, null));
+    }
+
+    @Test
+    public void release_lastReference_removesClientWhenMainThreadIsIdle() {
+        BraintreeClient braintreeClient =
+                DropInSessionRegistry.acquire(context, Fixtures.TOKENIZATION_KEY, null, null);
+        String sessionId = braintreeClient.getSessionId();
+        DropInSessionRegistry.acquire(context, Fixtures.TOKENIZATION_KEY, sessionId, null);
+
+        DropInSessionRegistry.release(braintreeClient);
+        shadowOf(Looper.getMainLooper()).idle();
+        assertSame(braintreeClient, DropInSessionRegistry.acquire(context,
+                Fixtures.TOKENIZATION_KEY, sessionId, null));
+
+        DropInSessionRegistry.release(braintreeClient);
+        DropInSessionRegistry.release(braintreeClient);
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(0, DropInSessionRegistry.size());
+        assertNotSame(braintreeClient, DropInSessionRegistry.acquire(context,
+                Fixtures.TOKENIZATION_KEY, sessionId, null));
+    }
+
+    @Test
+    public void release_ofClientReplacedForOtherUrlScheme_removesBothClients() {
+        BraintreeClient braintreeClient =
+                DropInSessionRegistry.acquire(context, Fixtures.TOKENIZATION_KEY, null, null);
+        String sessionId = braintreeClient.getSessionId();
+        BraintreeClient sessionClient = DropInSessionRegistry.acquire(context,
+                Fixtures.TOKENIZATION_KEY, sessionId, "custom-scheme");
+
+        DropInSessionRegistry.release(braintreeClient);
+        DropInSessionRegistry.release(sessionClient);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(0, DropInSessionRegistry.size());
+        BraintreeClient reacquiredClient = DropInSessionRegistry.acquire(context,
+                Fixtures.TOKENIZATION_KEY, sessionId, "custom-scheme");
+        assertNotSame(braintreeClient, reacquiredClient);
+        assertNotSame(sessionClient, reacquiredClient);
+    }
+}
@@ -0,0 +1,44 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import android.os.Bundle;
+
+import androidx.fragment.app.FragmentActivity;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+
+@RunWith(RobolectricTestRunner.class)
+public class DropInSessionStateUnitTest {
+
+    @Test
+    public void getRestoredSessionId_ofNewOwner_returnsNull() {
+        FragmentActivity activity = Robolectric.buildActivity(FragmentActivity.class).setup().get();
+
+        assertNull(DropInSessionState.of(activity).getRestoredSessionId());
+    }
+
+    @Test
+    public void getRestoredSessionId_ofRecreatedOwner_returnsSavedSessionIdOfEachClient() {
+        ActivityController<FragmentActivity> activityController =
+                Robolectric.buildActivity(FragmentActivity.class).setup();
+        DropInSessionState.of(activityController.get()).save("session-id");
+        DropInSessionState.of(activityController.get()).save("other-session-id");
+
+        Bundle outState = new Bundle();
+        activityController.saveInstanceState(outState);
+        FragmentActivity recreatedActivity =
+                Robolectric.buildActivity(FragmentActivity.class).setup(outState).get();
+
+        assertEquals("session-id",
+                DropInSessionState.of(recreatedActivity).getRestoredSessionId());
+        assertEquals("other-session-id",
+                DropInSessionState.of(recreatedActivity).getRestoredSessionId());
+        assertNull(DropInSessionState.of(recreatedActivity).getRestoredSessionId());
+    }
+}
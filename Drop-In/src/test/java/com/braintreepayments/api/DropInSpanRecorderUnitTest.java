@@ -0,0 +1,110 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class DropInSpanRecorderUnitTest {
+
+    private DropInTracer tracer;
+    private long now;
+
+    private DropInSpanRecorder sut;
+
+    @Before
+    public void beforeEach() {
+        tracer = mock(DropInTracer.class);
+        now = 1000;
+        sut = new DropInSpanRecorder(tracer, () -> now);
+    }
+
+    @Test
+    public void start_reportsSpanToTracer() {
+        DropInSpan span = sut.start(DropInSpanPhase.VAULT_FETCH);
+
+        verify(tracer).onSpanStarted(span);
+        assertEquals(DropInSpanPhase.VAULT_FETCH, span.getPhase());
+        assertEquals(1000, span.getStartTimeMillis());
+        assertFalse(span.isEnded());
+        assertNull(span.getOutcome());
+        assertEquals(-1, span.getEndTimeMillis());
+        assertEquals(-1, span.getDurationMillis());
+    }
+
+    @Test
+    public void end_withoutError_reportsSucceededSpanToTracer() {
+        DropInSpan span = sut.start(DropInSpanPhase.CONFIGURATION);
+        now += 250;
+        sut.end(span, null);
+
+        verify(tracer).onSpanEnded(span);
+        assertTrue(span.isEnded());
+        assertEquals(DropInSpanOutcome.SUCCEEDED, span.getOutcome());
+        assertEquals(1250, span.getEndTimeMillis());
+        assertEquals(250, span.getDurationMillis());
+    }
+
+    @Test
+    public void end_withError_reportsFailedSpan() {
+        DropInSpan span = sut.start(DropInSpanPhase.AUTHORIZATION);
+        sut.end(span, new Exception("error"));
+
+        assertEquals(DropInSpanOutcome.FAILED, span.getOutcome());
+    }
+
+    @Test
+    public void end_withUserCanceledException_reportsCanceledSpan() {
+        DropInSpan span = sut.start(DropInSpanPhase.THREE_D_SECURE_CHALLENGE);
+        sut.end(span, new UserCanceledException("canceled"));
+
+        assertEquals(DropInSpanOutcome.CANCELED, span.getOutcome());
+    }
+
+    @Test
+    public void end_withPaymentMethod_setsPaymentMethodOfSpan() {
+        DropInSpan span = sut.start(DropInSpanPhase.CARD_TOKENIZATION);
+        assertNull(span.getPaymentMethod());
+
+        sut.end(span, DropInSpanOutcome.SUCCEEDED, DropInPaymentMethod.VISA);
+        assertEquals(DropInPaymentMethod.VISA, span.getPaymentMethod());
+    }
+
+    @Test
+    public void end_whenSpanAlreadyEnded_doesNotReportAgain() {
+        DropInSpan span = sut.start(DropInSpanPhase.RESULT_DELIVERY, DropInPaymentMethod.PAYPAL);
+        sut.end(span, null);
+        now += 100;
+        sut.end(span, new Exception("error"));
+
+        ArgumentCaptor<DropInSpan> captor = ArgumentCaptor.forClass(DropInSpan.class);
+        verify(tracer, times(1)).onSpanEnded(captor.capture());
+        assertSame(span, captor.getValue());
+        assertEquals(DropInSpanOutcome.SUCCEEDED, span.getOutcome());
+        assertEquals(DropInPaymentMethod.PAYPAL, span.getPaymentMethod());
+    }
+
+    @Test
+    public void end_withNullSpan_doesNothing() {
+        sut.end(null, null);
+        verify(tracer, times(0)).onSpanEnded(any(DropInSpan.class));
+    }
+
+    @Test
+    public void withoutTracer_createsSpansWithoutReporting() {
+        DropInSpanRecorder recorder = new DropInSpanRecorder(null, () -> now);
+        DropInSpan span = recorder.start(DropInSpanPhase.DEVICE_DATA);
+        recorder.end(span, null);
+
+        assertTrue(span.isEnded());
+    }
+}
@@ -0,0 +1,129 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import androidx.fragment.app.Fragment;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.braintreepayments.api.dropin.R;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class DropInViewCacheUnitTest {
+
+    private Context context;
+    private FrameLayout parent;
+    private List<Runnable> inflateTasks;
+    private DropInViewCache sut;
+
+    @Before
+    public void beforeEach() {
+        context = new ContextThemeWrapper(
+                ApplicationProvider.getApplicationContext(), R.style.bt_drop_in_activity_theme);
+        parent = new FrameLayout(context);
+        inflateTasks = new ArrayList<>();
+        sut = new DropInViewCache(context, inflateTasks::add);
+    }
+
+    @Test
+    public void preinflate_cachesLayoutInflatedOnExecutor() {
+        sut.preinflate(parent, DropInViewCache.ADD_CARD);
+        assertFalse(sut.contains(DropInViewCache.ADD_CARD));
+
+        runInflateTasks();
+
+        assertTrue(sut.contains(DropInViewCache.ADD_CARD));
+        View view = sut.take(LayoutInflater.from(context), DropInViewCache.ADD_CARD, parent);
+        assertNotNull(view.findViewById(R.id.bt_card_form));
+        assertFalse(sut.contains(DropInViewCache.ADD_CARD));
+    }
+
+    @Test
+    public void preinflate_doesNotUseFactoryOfContextInflater() throws InterruptedException {
+        Context factoryContext = new ContextThemeWrapper(
+                ApplicationProvider.getApplicationContext(), R.style.bt_drop_in_activity_theme);
+        LayoutInflater.Factory2 factory = mock(LayoutInflater.Factory2.class);
+        LayoutInflater.from(factoryContext).setFactory2(factory);
+        sut = new DropInViewCache(factoryContext, inflateTasks::add);
+
+        sut.preinflate(new FrameLayout(factoryContext), DropInViewCache.CARD_DETAILS);
+        // custom views only get the background inflater when they inflate off the main thread
+        Thread inflateThread = new Thread(inflateTasks.remove(0));
+        inflateThread.start();
+        inflateThread.join();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(sut.contains(DropInViewCache.CARD_DETAILS));
+        verifyNoInteractions(factory);
+    }
+
+    @Test
+    public void preinflate_whenLayoutIsCachedOrInflating_doesNotInflateAgain() {
+        sut.preinflate(parent, DropInViewCache.CARD_DETAILS);
+        sut.preinflate(parent, DropInViewCache.CARD_DETAILS);
+        runInflateTasks();
+        sut.preinflate(parent, DropInViewCache.CARD_DETAILS);
+
+        assertTrue(inflateTasks.isEmpty());
+    }
+
+    @Test
+    public void take_returnsCachedViewOnlyOnce() {
+        sut.preinflate(parent, DropInViewCache.CARD_DETAILS);
+        runInflateTasks();
+
+        LayoutInflater inflater = LayoutInflater.from(context);
+        View cachedView = sut.take(inflater, DropInViewCache.CARD_DETAILS, parent);
+        View inflatedView = sut.take(inflater, DropInViewCache.CARD_DETAILS, parent);
+
+        assertNotSame(cachedView, inflatedView);
+        assertNotNull(inflatedView.findViewById(R.id.bt_card_form));
+    }
+
+    @Test
+    public void take_whenLayoutIsNotCached_inflatesLayout() {
+        View view = sut.take(LayoutInflater.from(context), DropInViewCache.ADD_CARD, parent);
+        assertNotNull(view.findViewById(R.id.bt_card_form));
+    }
+
+    @Test
+    public void from_whenActivityIsOwner_returnsActivityCache() {
+        DropInActivity activity = mock(DropInActivity.class);
+        when(activity.getDropInViewCache()).thenReturn(sut);
+        Fragment fragment = mock(Fragment.class);
+        when(fragment.getActivity()).thenReturn(activity);
+
+        assertSame(sut, DropInViewCache.from(fragment));
+    }
+
+    private void runInflateTasks() {
+        List<Runnable> tasks = new ArrayList<>(inflateTasks);
+        inflateTasks.clear();
+        for (Runnable task : tasks) {
+            task.run();
+        }
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+}
@@ -0,0 +1,100 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.braintreepayments.api.dropin.R;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class DropInViewPoolUnitTest {
+
+    private RecyclerView parent;
+    private VaultManagerPaymentMethodsAdapter adapter;
+    private DropInViewPool sut;
+
+    @Before
+    public void beforeEach() {
+        parent = new RecyclerView(new ContextThemeWrapper(
+                ApplicationProvider.getApplicationContext(), R.style.bt_drop_in_activity_theme));
+        adapter = new VaultManagerPaymentMethodsAdapter(mock(View.OnClickListener.class));
+        sut = new DropInViewPool();
+    }
+
+    @Test
+    public void prepopulate_createsViewHoldersWhenMainThreadIsIdle() {
+        sut.prepopulate(parent, adapter, DropInViewPool.VAULT_MANAGER_ROW, 3);
+        assertEquals(0, sut.getRecycledViewCount(DropInViewPool.VAULT_MANAGER_ROW));
+
+        idleMainThread();
+
+        assertEquals(3, sut.getRecycledViewCount(DropInViewPool.VAULT_MANAGER_ROW));
+        RecyclerView.ViewHolder viewHolder = sut.getRecycledView(DropInViewPool.VAULT_MANAGER_ROW);
+        assertTrue(viewHolder.itemView instanceof PaymentMethodItemView);
+        assertEquals(DropInViewPool.VAULT_MANAGER_ROW, viewHolder.getItemViewType());
+    }
+
+    @Test
+    public void prepopulate_whenCalledAgain_doesNotCreateMoreViewHolders() {
+        sut.prepopulate(parent, adapter, DropInViewPool.VAULT_MANAGER_ROW, 2);
+        sut.prepopulate(parent, adapter, DropInViewPool.VAULT_MANAGER_ROW, 2);
+        idleMainThread();
+        sut.prepopulate(parent, adapter, DropInViewPool.VAULT_MANAGER_ROW, 2);
+        idleMainThread();
+
+        assertEquals(2, sut.getRecycledViewCount(DropInViewPool.VAULT_MANAGER_ROW));
+    }
+
+    @Test
+    public void prepopulate_stopsWhenPoolIsFull() {
+        sut.prepopulate(parent, adapter, DropInViewPool.VAULT_MANAGER_ROW,
+                DropInViewPool.VAULT_MANAGER_ROWS + 5);
+        idleMainThread();
+
+        assertEquals(DropInViewPool.VAULT_MANAGER_ROWS,
+                sut.getRecycledViewCount(DropInViewPool.VAULT_MANAGER_ROW));
+    }
+
+    @Test
+    public void from_whenActivityIsOwner_returnsActivityPool() {
+        DropInActivity activity = mock(DropInActivity.class);
+        when(activity.getDropInViewPool()).thenReturn(sut);
+        Fragment fragment = mock(Fragment.class);
+        when(fragment.getActivity()).thenReturn(activity);
+
+        assertSame(sut, DropInViewPool.from(fragment));
+    }
+
+    @Test
+    public void from_whenEmbeddedInParentFragment_returnsParentPool() {
+        DropInEmbeddedFragment embeddedFragment = mock(DropInEmbeddedFragment.class);
+        when(embeddedFragment.getDropInViewPool()).thenReturn(sut);
+        Fragment fragment = mock(Fragment.class);
+        when(fragment.getParentFragment()).thenReturn(embeddedFragment);
+
+        assertSame(sut, DropInViewPool.from(fragment));
+    }
+
+    private static void idleMainThread() {
+        // each idle pass creates at most one view holder
+        for (int i = 0; i < DropInViewPool.VAULT_MANAGER_ROWS * 2; i++) {
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.braintreepayments.api;
+
+import static android.os.Looper.getMainLooper;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.braintreepayments.mockgateway.GatewayEndpoint;
+import com.braintreepayments.mockgateway.LatencyDistribution;
+import com.braintreepayments.mockgateway.MockGateway;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Exercises {@link PaymentMethodClient} with a real {@link BraintreeClient} against a local
+ * {@link MockGateway} instead of mocked callbacks, so responses arrive asynchronously.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class PaymentMethodClientGatewayUnitTest {
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    private Context context;
+    private MockGateway gateway;
+
+    @Before
+    public void beforeEach() throws IOException {
+        context = ApplicationProvider.getApplicationContext();
+        gateway = new MockGateway();
+        gateway.addVaultedCards(3);
+        gateway.start();
+    }
+
+    @After
+    public void afterEach() throws IOException {
+        gateway.shutdown();
+    }
+
+    @Test
+    public void getPaymentMethodNonces_withSlowNetwork_returnsVaultedPaymentMethods() throws InterruptedException {
+        gateway.setLatency(LatencyDistribution.logNormal(200, 0.5));
+        PaymentMethodClient sut =
+                new PaymentMethodClient(new BraintreeClient(context, gateway.createClientToken()));
+
+        AtomicReference<List<PaymentMethodNonce>> result = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        sut.getPaymentMethodNonces((paymentMethodNonces, error) -> {
+            assertNull(error);
+            result.set(paymentMethodNonces);
+            latch.countDown();
+        });
+        await(latch);
+
+        assertEquals(3, result.get().size());
+        assertEquals("mock-vaulted-card-nonce-0", result.get().get(0).getString());
+        assertEquals(1, gateway.getRequestCount(GatewayEndpoint.CONFIGURATION));
+    }
+
+    @Test
+    public void createClientToken_scopesVaultCacheToCustomer() {
+        String customerKey = VaultedPaymentMethodCache.customerKey(
+                Authorization.fromString(gateway.createClientToken("customer-1")));
+
+        assertNotNull(customerKey);
+        assertEquals(customerKey, VaultedPaymentMethodCache.customerKey(
+                Authorization.fromString(gateway.createClientToken("customer-1"))));
+        assertNotEquals(customerKey, VaultedPaymentMethodCache.customerKey(
+                Authorization.fromString(gateway.createClientToken("customer-2"))));
+    }
+
+    @Test
+    public void getPaymentMethodNonces_withServerError_returnsError() throws InterruptedException {
+        gateway.setErrorRate(GatewayEndpoint.PAYMENT_METHODS, 1);
+        PaymentMethodClient sut =
+                new PaymentMethodClient(new BraintreeClient(context, gateway.createClientToken()));
+
+        AtomicReference<Exception> result = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        sut.getPaymentMethodNonces((paymentMethodNonces, error) -> {
+            assertNull(paymentMethodNonces);
+            result.set(error);
+            latch.countDown();
+        });
+        await(latch);
+
+        assertNotNull(result.get());
+    }
+
+    @Test
+    public void deletePaymentMethods_removesPaymentMethodsFromVault() throws InterruptedException {
+        gateway.setLatency(GatewayEndpoint.GRAPHQL, LatencyDistribution.fixed(300));
+        PaymentMethodClient sut =
+                new PaymentMethodClient(new BraintreeClient(context, gateway.createClientToken()));
+
+        AtomicReference<List<PaymentMethodNonce>> vault = new AtomicReference<>();
+        CountDownLatch fetchLatch = new CountDownLatch(1);
+        sut.getPaymentMethodNonces((paymentMethodNonces, error) -> {
+            vault.set(paymentMethodNonces);
+            fetchLatch.countDown();
+        });
+        await(fetchLatch);
+
+        AtomicReference<DeletePaymentMethodNoncesResult> result = new AtomicReference<>();
+        CountDownLatch deleteLatch = new CountDownLatch(1);
+        sut.deletePaymentMethods(vault.get().subList(0, 2), (deleteResult, error) -> {
+            assertNull(error);
+            result.set(deleteResult);
+            deleteLatch.countDown();
+        });
+        await(deleteLatch);
+
+        assertEquals(2, result.get().getDeletedPaymentMethodNonces().size());
+        assertEquals(1, gateway.getVaultedCardCount());
+    }
+
+    /**
+     * Responses are delivered on the main thread, so its looper has to run while waiting.
+     */
+    private static void await(CountDownLatch latch) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (latch.getCount() > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for the mock gateway");
+            }
+            shadowOf(getMainLooper()).idle();
+            Thread.sleep(10);
+        }
+    }
+}
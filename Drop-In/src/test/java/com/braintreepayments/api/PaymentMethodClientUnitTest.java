@@ -3,19 +3,25 @@ package com.braintreepayments.api;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
 
 import android.content.Context;
+import android.os.Looper;
 
 import androidx.test.core.app.ApplicationProvider;
 
+import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
@@ -25,6 +31,8 @@ import org.mockito.Captor;
 import org.mockito.MockitoAnnotations;
 import org.robolectric.RobolectricTestRunner;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 @RunWith(RobolectricTestRunner.class)
@@ -395,4 +403,340 @@ public class PaymentMethodClientUnitTest {
         assertEquals("test-session-id", metadata.getString("sessionId"));
         assertEquals("client", metadata.getString("source"));
     }
+
+    @Test
+    public void getPaymentMethodNonces_withCache_storesParsedResponse() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(UnitTestFixturesHelper.clientTokenWithAuthorizationFingerprint(
+                        "signature|customer_id=customer&public_key=public_key"))
+                .sendGETSuccessfulResponse(Fixtures.PAYMENT_METHODS_GET_PAYMENT_METHODS_RESPONSE)
+                .build();
+        VaultedPaymentMethodCache cache = mock(VaultedPaymentMethodCache.class);
+
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient, cache);
+
+        GetPaymentMethodNoncesCallback callback = mock(GetPaymentMethodNoncesCallback.class);
+        sut.getPaymentMethodNonces(callback);
+
+        verify(callback).onResult(paymentMethodNoncesCaptor.capture(), (Exception) isNull());
+        verify(cache).put(anyString(), same(paymentMethodNoncesCaptor.getValue()));
+    }
+
+    @Test
+    public void getPaymentMethodNonces_withParseExecutor_parsesOnExecutorAndDeliversOnMainThread() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(UnitTestFixturesHelper.clientTokenWithAuthorizationFingerprint(
+                        "signature|customer_id=customer&public_key=public_key"))
+                .sendGETSuccessfulResponse(Fixtures.PAYMENT_METHODS_GET_PAYMENT_METHODS_RESPONSE)
+                .build();
+        VaultedPaymentMethodCache cache = mock(VaultedPaymentMethodCache.class);
+        List<Runnable> parseTasks = new ArrayList<>();
+
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient, cache, parseTasks::add);
+
+        GetPaymentMethodNoncesCallback callback = mock(GetPaymentMethodNoncesCallback.class);
+        sut.getPaymentMethodNonces(callback);
+
+        assertEquals(1, parseTasks.size());
+        parseTasks.get(0).run();
+        verify(callback, never()).onResult(any(), any());
+
+        shadowOf(Looper.getMainLooper()).idle();
+        verify(callback).onResult(paymentMethodNoncesCaptor.capture(), (Exception) isNull());
+        assertEquals("123456-12345-12345-a-adfa", paymentMethodNoncesCaptor.getValue().get(0).getString());
+        verify(cache).put(anyString(), same(paymentMethodNoncesCaptor.getValue()));
+        verify(braintreeClient).sendAnalyticsEvent("get-payment-methods.succeeded");
+    }
+
+    @Test
+    public void getPaymentMethodNonces_withParseExecutor_andTokenizationKey_parsesOnExecutor() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+                .sendGETSuccessfulResponse(Fixtures.PAYMENT_METHODS_GET_PAYMENT_METHODS_RESPONSE)
+                .build();
+        VaultedPaymentMethodCache cache = mock(VaultedPaymentMethodCache.class);
+        List<Runnable> parseTasks = new ArrayList<>();
+
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient, cache, parseTasks::add);
+
+        GetPaymentMethodNoncesCallback callback = mock(GetPaymentMethodNoncesCallback.class);
+        sut.getPaymentMethodNonces(callback);
+
+        assertEquals(1, parseTasks.size());
+        parseTasks.get(0).run();
+        verify(callback, never()).onResult(any(), any());
+
+        shadowOf(Looper.getMainLooper()).idle();
+        verify(callback).onResult(paymentMethodNoncesCaptor.capture(), (Exception) isNull());
+        assertEquals("123456-12345-12345-a-adfa", paymentMethodNoncesCaptor.getValue().get(0).getString());
+        verify(cache, never()).put(anyString(), any());
+        verify(braintreeClient).sendAnalyticsEvent("get-payment-methods.succeeded");
+    }
+
+    @Test
+    public void getPaymentMethodNonces_withParseExecutor_andClientTokenWithoutCustomerId_parsesOnExecutor() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(UnitTestFixturesHelper.clientTokenWithAuthorizationFingerprint(
+                        "header.eyJvcHRpb25zIjp7fX0.signature"))
+                .sendGETSuccessfulResponse(Fixtures.PAYMENT_METHODS_GET_PAYMENT_METHODS_RESPONSE)
+                .build();
+        VaultedPaymentMethodCache cache = mock(VaultedPaymentMethodCache.class);
+        List<Runnable> parseTasks = new ArrayList<>();
+
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient, cache, parseTasks::add);
+
+        GetPaymentMethodNoncesCallback callback = mock(GetPaymentMethodNoncesCallback.class);
+        sut.getPaymentMethodNonces(callback);
+
+        assertEquals(1, parseTasks.size());
+        verify(cache, never()).get(anyString());
+        parseTasks.get(0).run();
+        verify(callback, never()).onResult(any(), any());
+
+        shadowOf(Looper.getMainLooper()).idle();
+        verify(callback).onResult(paymentMethodNoncesCaptor.capture(), (Exception) isNull());
+        assertEquals("123456-12345-12345-a-adfa", paymentMethodNoncesCaptor.getValue().get(0).getString());
+    }
+
+    @Test
+    public void getPaymentMethodNonces_withParseExecutor_whenResponseCannotBeParsed_deliversErrorOnMainThread() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(UnitTestFixturesHelper.clientTokenWithAuthorizationFingerprint(
+                        "signature|customer_id=customer&public_key=public_key"))
+                .sendGETSuccessfulResponse("{}")
+                .build();
+        VaultedPaymentMethodCache cache = mock(VaultedPaymentMethodCache.class);
+
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient, cache, Runnable::run);
+
+        GetPaymentMethodNoncesCallback callback = mock(GetPaymentMethodNoncesCallback.class);
+        sut.getPaymentMethodNonces(callback);
+        verify(callback, never()).onResult(any(), any());
+
+        shadowOf(Looper.getMainLooper()).idle();
+        verify(callback).onResult((List<PaymentMethodNonce>) isNull(), any(JSONException.class));
+        verify(cache, never()).put(anyString(), any());
+        verify(braintreeClient).sendAnalyticsEvent("get-payment-methods.failed");
+    }
+
+    @Test
+    public void getPaymentMethodNonces_withCache_whenOffline_forwardsErrorWithoutReadingCache() {
+        IOException offlineError = new IOException("offline");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(UnitTestFixturesHelper.clientTokenWithAuthorizationFingerprint(
+                        "signature|customer_id=customer&public_key=public_key"))
+                .sendGETErrorResponse(offlineError)
+                .build();
+        VaultedPaymentMethodCache cache = mock(VaultedPaymentMethodCache.class);
+
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient, cache);
+
+        GetPaymentMethodNoncesCallback callback = mock(GetPaymentMethodNoncesCallback.class);
+        sut.getPaymentMethodNonces(callback);
+
+        verify(callback).onResult(null, offlineError);
+        verify(cache, never()).get(anyString());
+        verify(braintreeClient).sendAnalyticsEvent("get-payment-methods.failed");
+    }
+
+    @Test
+    public void getPaymentMethodNonces_withCache_whenServerErrors_forwardsError() {
+        Exception serverError = new Exception("server error");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(UnitTestFixturesHelper.clientTokenWithAuthorizationFingerprint(
+                        "signature|customer_id=customer&public_key=public_key"))
+                .sendGETErrorResponse(serverError)
+                .build();
+        VaultedPaymentMethodCache cache = mock(VaultedPaymentMethodCache.class);
+
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient, cache);
+
+        GetPaymentMethodNoncesCallback callback = mock(GetPaymentMethodNoncesCallback.class);
+        sut.getPaymentMethodNonces(callback);
+
+        verify(callback).onResult(null, serverError);
+        verify(cache, never()).put(anyString(), any());
+    }
+
+    @Test
+    public void getCachedPaymentMethodNonces_returnsCachedVaultForCustomer() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        ClientToken clientToken = UnitTestFixturesHelper.clientTokenWithAuthorizationFingerprint(
+                "signature|customer_id=customer&public_key=public_key");
+        VaultedPaymentMethodNonceList cachedVault =
+                new VaultedPaymentMethodNonceList(new ArrayList<>());
+        VaultedPaymentMethodCache cache = mock(VaultedPaymentMethodCache.class);
+        when(cache.get(VaultedPaymentMethodCache.customerKey(clientToken))).thenReturn(cachedVault);
+
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient, cache);
+
+        assertSame(cachedVault, sut.getCachedPaymentMethodNonces(clientToken));
+    }
+
+    @Test
+    public void getCachedPaymentMethodNonces_withTokenizationKey_returnsNull() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        VaultedPaymentMethodCache cache = mock(VaultedPaymentMethodCache.class);
+
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient, cache);
+
+        assertNull(sut.getCachedPaymentMethodNonces(Authorization.fromString(Fixtures.TOKENIZATION_KEY)));
+        verify(cache, never()).get(anyString());
+    }
+
+    @Test
+    public void deletePaymentMethodNonce_onSuccess_clearsVaultCache() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sendGraphQLPOSTSuccessfulResponse("Success")
+                .build();
+        VaultedPaymentMethodCache cache = mock(VaultedPaymentMethodCache.class);
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient, cache);
+
+        sut.deletePaymentMethod(context, cardNonce, mock(DeletePaymentMethodNonceCallback.class));
+
+        verify(cache).clear();
+    }
+
+    @Test
+    public void deletePaymentMethods_postsAliasedMutationsInOneRequest() throws Exception {
+        CardNonce otherCardNonce = mock(CardNonce.class);
+        when(otherCardNonce.getString()).thenReturn("im-another-card-nonce");
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sendGraphQLPOSTSuccessfulResponse("{\"data\":{}}")
+                .build();
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient);
+
+        List<PaymentMethodNonce> nonces = new ArrayList<>();
+        nonces.add(cardNonce);
+        nonces.add(otherCardNonce);
+        sut.deletePaymentMethods(nonces, mock(DeletePaymentMethodNoncesCallback.class));
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpResponseCallback.class));
+
+        JSONObject graphQlRequest = new JSONObject(captor.getValue());
+        String query = graphQlRequest.getString(GraphQLConstants.Keys.QUERY);
+        assertTrue(query.contains("delete0: deletePaymentMethodFromSingleUseToken(input: $input0)"));
+        assertTrue(query.contains("delete1: deletePaymentMethodFromSingleUseToken(input: $input1)"));
+        assertEquals("DeletePaymentMethodsFromSingleUseTokens",
+                graphQlRequest.getString(GraphQLConstants.Keys.OPERATION_NAME));
+
+        JSONObject variables = graphQlRequest.getJSONObject("variables");
+        assertEquals("im-a-card-nonce",
+                variables.getJSONObject("input0").getString("singleUseTokenId"));
+        assertEquals("im-another-card-nonce",
+                variables.getJSONObject("input1").getString("singleUseTokenId"));
+    }
+
+    @Test
+    public void deletePaymentMethods_onSuccess_reportsEveryNonceAsDeleted() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sendGraphQLPOSTSuccessfulResponse("{\"data\":{}}")
+                .build();
+        VaultedPaymentMethodCache vaultedPaymentMethodCache = mock(VaultedPaymentMethodCache.class);
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient, vaultedPaymentMethodCache);
+
+        DeletePaymentMethodNoncesCallback callback = mock(DeletePaymentMethodNoncesCallback.class);
+        List<PaymentMethodNonce> nonces = new ArrayList<>();
+        nonces.add(cardNonce);
+        sut.deletePaymentMethods(nonces, callback);
+
+        ArgumentCaptor<DeletePaymentMethodNoncesResult> captor =
+                ArgumentCaptor.forClass(DeletePaymentMethodNoncesResult.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+        assertEquals(nonces, captor.getValue().getDeletedPaymentMethodNonces());
+        assertTrue(captor.getValue().getFailedPaymentMethodNonces().isEmpty());
+
+        verify(vaultedPaymentMethodCache).clear();
+        verify(braintreeClient).sendAnalyticsEvent("delete-payment-methods.succeeded");
+    }
+
+    @Test
+    public void deletePaymentMethods_withErrorForOneAlias_reportsFailureForThatNonceOnly() {
+        CardNonce otherCardNonce = mock(CardNonce.class);
+        when(otherCardNonce.getString()).thenReturn("im-another-card-nonce");
+
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sendGraphQLPOSTSuccessfulResponse("{\"data\":{\"delete0\":{}, \"delete1\":null},"
+                        + "\"errors\":[{\"message\":\"Cannot delete\",\"path\":[\"delete1\"]}]}")
+                .build();
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient);
+
+        DeletePaymentMethodNoncesCallback callback = mock(DeletePaymentMethodNoncesCallback.class);
+        List<PaymentMethodNonce> nonces = new ArrayList<>();
+        nonces.add(cardNonce);
+        nonces.add(otherCardNonce);
+        sut.deletePaymentMethods(nonces, callback);
+
+        ArgumentCaptor<DeletePaymentMethodNoncesResult> captor =
+                ArgumentCaptor.forClass(DeletePaymentMethodNoncesResult.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+
+        DeletePaymentMethodNoncesResult result = captor.getValue();
+        assertEquals(1, result.getDeletedPaymentMethodNonces().size());
+        assertSame(cardNonce, result.getDeletedPaymentMethodNonces().get(0));
+        assertEquals(1, result.getFailedPaymentMethodNonces().size());
+        assertSame(otherCardNonce, result.getFailedPaymentMethodNonces().get(0));
+        assertEquals("Cannot delete", result.getError(otherCardNonce).getCause().getMessage());
+        verify(braintreeClient).sendAnalyticsEvent("delete-payment-methods.failed");
+    }
+
+    @Test
+    public void deletePaymentMethods_onRequestError_reportsEveryNonceAsFailed() {
+        Exception httpError = new IOException("offline");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN))
+                .sendGraphQLPOSTErrorResponse(httpError)
+                .build();
+        VaultedPaymentMethodCache vaultedPaymentMethodCache = mock(VaultedPaymentMethodCache.class);
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient, vaultedPaymentMethodCache);
+
+        DeletePaymentMethodNoncesCallback callback = mock(DeletePaymentMethodNoncesCallback.class);
+        List<PaymentMethodNonce> nonces = new ArrayList<>();
+        nonces.add(cardNonce);
+        sut.deletePaymentMethods(nonces, callback);
+
+        ArgumentCaptor<DeletePaymentMethodNoncesResult> captor =
+                ArgumentCaptor.forClass(DeletePaymentMethodNoncesResult.class);
+        verify(callback).onResult(captor.capture(), (Exception) isNull());
+        assertTrue(captor.getValue().getDeletedPaymentMethodNonces().isEmpty());
+        assertSame(httpError, captor.getValue().getError(cardNonce).getCause());
+
+        verify(vaultedPaymentMethodCache, never()).clear();
+    }
+
+    @Test
+    public void deletePaymentMethods_withTokenizationKey_returnsAnError() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .authorizationSuccess(Authorization.fromString(Fixtures.TOKENIZATION_KEY))
+                .build();
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient);
+
+        DeletePaymentMethodNoncesCallback callback = mock(DeletePaymentMethodNoncesCallback.class);
+        List<PaymentMethodNonce> nonces = new ArrayList<>();
+        nonces.add(cardNonce);
+        sut.deletePaymentMethods(nonces, callback);
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(callback).onResult((DeletePaymentMethodNoncesResult) isNull(), captor.capture());
+        assertTrue(captor.getValue() instanceof BraintreeException);
+        verify(braintreeClient, never()).sendGraphQLPOST(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void deletePaymentMethods_withNoNonces_doesNotSendARequest() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        PaymentMethodClient sut = new PaymentMethodClient(braintreeClient);
+
+        DeletePaymentMethodNoncesCallback callback = mock(DeletePaymentMethodNoncesCallback.class);
+        sut.deletePaymentMethods(new ArrayList<>(), callback);
+
+        verify(callback).onResult(any(DeletePaymentMethodNoncesResult.class), (Exception) isNull());
+        verify(braintreeClient, never()).sendGraphQLPOST(anyString(), any(HttpResponseCallback.class));
+    }
 }
@@ -0,0 +1,112 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RequestCoalescerUnitTest {
+
+    private List<RequestCoalescer.ResultCallback<String>> startedRequests;
+    private RequestCoalescer.Request<String> request;
+
+    private RequestCoalescer sut;
+
+    @Before
+    public void beforeEach() {
+        startedRequests = new ArrayList<>();
+        request = startedRequests::add;
+        sut = new RequestCoalescer();
+    }
+
+    @Test
+    public void execute_whileRequestIsInFlight_sharesRequest() {
+        RequestCoalescer.ResultCallback<String> first = mockCallback();
+        RequestCoalescer.ResultCallback<String> second = mockCallback();
+
+        sut.execute("key", request, first);
+        sut.execute("key", request, second);
+        assertEquals(1, startedRequests.size());
+
+        startedRequests.get(0).onResult("result", null);
+        verify(first).onResult("result", null);
+        verify(second).onResult("result", null);
+
+        assertEquals(1, sut.getStartedRequestCount());
+        assertEquals(1, sut.getCoalescedRequestCount());
+    }
+
+    @Test
+    public void getCoalescedRequestCount_countsCallersSharingInFlightRequest() {
+        sut.execute("key", request, mockCallback());
+        assertEquals(0, sut.getCoalescedRequestCount("key"));
+
+        sut.execute("key", request, mockCallback());
+        sut.execute("key", request, mockCallback());
+        assertEquals(2, sut.getCoalescedRequestCount("key"));
+        assertEquals(0, sut.getCoalescedRequestCount("other-key"));
+
+        startedRequests.get(0).onResult("result", null);
+        assertEquals(0, sut.getCoalescedRequestCount("key"));
+    }
+
+    @Test
+    public void execute_sharesErrors() {
+        RequestCoalescer.ResultCallback<String> first = mockCallback();
+        RequestCoalescer.ResultCallback<String> second = mockCallback();
+        Exception error = new Exception("error");
+
+        sut.execute("key", request, first);
+        sut.execute("key", request, second);
+        startedRequests.get(0).onResult(null, error);
+
+        verify(first).onResult(null, error);
+        verify(second).onResult(null, error);
+    }
+
+    @Test
+    public void execute_afterRequestCompletes_startsNewRequest() {
+        sut.execute("key", request, mockCallback());
+        startedRequests.get(0).onResult("result", null);
+
+        RequestCoalescer.ResultCallback<String> callback = mockCallback();
+        sut.execute("key", request, callback);
+
+        assertEquals(2, startedRequests.size());
+        verify(callback, never()).onResult("result", null);
+        assertEquals(2, sut.getStartedRequestCount());
+        assertEquals(0, sut.getCoalescedRequestCount());
+    }
+
+    @Test
+    public void execute_withDifferentKeys_startsSeparateRequests() {
+        sut.execute("key", request, mockCallback());
+        sut.execute("other-key", request, mockCallback());
+
+        assertEquals(2, startedRequests.size());
+        assertEquals(0, sut.getCoalescedRequestCount());
+    }
+
+    @Test
+    public void execute_fromWithinCallback_startsNewRequest() {
+        RequestCoalescer.ResultCallback<String> retry = mockCallback();
+        sut.execute("key", request, (result, error) -> sut.execute("key", request, retry));
+
+        startedRequests.get(0).onResult("result", null);
+        assertEquals(2, startedRequests.size());
+
+        startedRequests.get(1).onResult("second result", null);
+        verify(retry).onResult("second result", null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RequestCoalescer.ResultCallback<String> mockCallback() {
+        return mock(RequestCoalescer.ResultCallback.class);
+    }
+}
@@ -7,4 +7,12 @@ public class UnitTestFixturesHelper {
     public static String base64EncodedClientTokenFromFixture(String fixture) {
         return Base64.getEncoder().encodeToString(fixture.getBytes());
     }
+
+    public static ClientToken clientTokenWithAuthorizationFingerprint(String authorizationFingerprint) {
+        String clientToken = "{"
+                + "\"configUrl\": \"https://api.sandbox.braintreegateway.com/merchants/merchant_id/client_api/v1/configuration\","
+                + "\"authorizationFingerprint\": \"" + authorizationFingerprint + "\""
+                + "}";
+        return (ClientToken) Authorization.fromString(base64EncodedClientTokenFromFixture(clientToken));
+    }
 }
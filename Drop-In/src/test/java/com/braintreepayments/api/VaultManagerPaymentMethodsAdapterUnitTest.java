@@ -0,0 +1,150 @@
+package com.braintreepayments.api;
+
+import static android.os.Looper.getMainLooper;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class VaultManagerPaymentMethodsAdapterUnitTest {
+
+    private VaultManagerPaymentMethodsAdapter.OnSelectionChangedListener selectionListener;
+    private VaultManagerPaymentMethodsAdapter sut;
+
+    @Before
+    public void beforeEach() {
+        selectionListener = mock(VaultManagerPaymentMethodsAdapter.OnSelectionChangedListener.class);
+        sut = new VaultManagerPaymentMethodsAdapter(mock(View.OnClickListener.class), selectionListener);
+    }
+
+    @Test
+    public void constructor_hasStableIds() {
+        assertTrue(sut.hasStableIds());
+    }
+
+    @Test
+    public void submitPaymentMethodNonces_displaysEveryPaymentMethod() {
+        sut.submitPaymentMethodNonces(nonces(25));
+
+        assertEquals(25, sut.getItemCount());
+        assertEquals(25, sut.getPaymentMethodNonces().size());
+        verify(selectionListener).onSelectionChanged(0);
+    }
+
+    @Test
+    public void getItemId_isUniquePerPaymentMethod() {
+        sut.submitPaymentMethodNonces(nonces(3));
+
+        assertNotEquals(sut.getItemId(0), sut.getItemId(1));
+        assertNotEquals(sut.getItemId(1), sut.getItemId(2));
+        assertEquals(sut.getItemId(1), sut.getItemId(1));
+    }
+
+    @Test
+    public void getItemId_isUniqueForPaymentMethodsThatDisplayTheSame() {
+        List<PaymentMethodNonce> nonces = new ArrayList<>();
+        nonces.add(cardNonce("nonce-0", "1111"));
+        nonces.add(cardNonce("nonce-1", "1111"));
+        sut.submitPaymentMethodNonces(nonces);
+
+        assertNotEquals(sut.getItemId(0), sut.getItemId(1));
+    }
+
+    @Test
+    public void submitPaymentMethodNonces_withRefetchedVault_keepsItemIdsAndDoesNotRebindRows()
+            throws InterruptedException {
+        sut.submitPaymentMethodNonces(nonces(3));
+        awaitItemCount(3);
+        long[] itemIds = { sut.getItemId(0), sut.getItemId(1), sut.getItemId(2) };
+
+        RecyclerView.AdapterDataObserver observer = mock(RecyclerView.AdapterDataObserver.class);
+        sut.registerAdapterDataObserver(observer);
+        // the same vault, with the new nonces the gateway minted for this fetch
+        List<PaymentMethodNonce> refetched = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            refetched.add(cardNonce("refetched-nonce-" + i, "000" + i));
+        }
+        sut.submitPaymentMethodNonces(refetched);
+        for (int i = 0; i < 100 && !"refetched-nonce-0".equals(sut.getCurrentList().get(0).getNonce()); i++) {
+            Thread.sleep(10);
+            shadowOf(getMainLooper()).idle();
+        }
+
+        assertEquals("refetched-nonce-0", sut.getCurrentList().get(0).getNonce());
+        assertEquals(itemIds[0], sut.getItemId(0));
+        assertEquals(itemIds[1], sut.getItemId(1));
+        assertEquals(itemIds[2], sut.getItemId(2));
+        verify(observer, never()).onChanged();
+        verify(observer, never()).onItemRangeChanged(anyInt(), anyInt());
+        verify(observer, never()).onItemRangeChanged(anyInt(), anyInt(), any());
+        verify(observer, never()).onItemRangeInserted(anyInt(), anyInt());
+        verify(observer, never()).onItemRangeRemoved(anyInt(), anyInt());
+        verify(observer, never()).onItemRangeMoved(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void submitPaymentMethodNonces_forgetsItemIdsOfRemovedPaymentMethods() throws InterruptedException {
+        List<PaymentMethodNonce> nonces = nonces(3);
+        sut.submitPaymentMethodNonces(nonces);
+        long remainingItemId = sut.getItemId(2);
+        sut.getItemId(0);
+        sut.getItemId(1);
+        assertEquals(3, sut.getItemIdCount());
+
+        sut.submitPaymentMethodNonces(nonces.subList(2, 3));
+        awaitItemCount(1);
+
+        assertEquals(1, sut.getItemIdCount());
+        assertEquals(remainingItemId, sut.getItemId(0));
+    }
+
+    @Test
+    public void getPaymentMethodNonces_beforeSubmit_isEmpty() {
+        assertEquals(0, sut.getPaymentMethodNonces().size());
+        assertEquals(0, sut.getItemCount());
+    }
+
+    // lists are diffed on a background thread and committed on the main thread
+    private void awaitItemCount(int itemCount) throws InterruptedException {
+        for (int i = 0; i < 100 && sut.getItemCount() != itemCount; i++) {
+            Thread.sleep(10);
+            shadowOf(getMainLooper()).idle();
+        }
+        assertEquals(itemCount, sut.getItemCount());
+    }
+
+    private static List<PaymentMethodNonce> nonces(int count) {
+        List<PaymentMethodNonce> nonces = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nonces.add(cardNonce("nonce-" + i, "000" + i));
+        }
+        return nonces;
+    }
+
+    private static CardNonce cardNonce(String nonceString, String lastFour) {
+        CardNonce nonce = mock(CardNonce.class);
+        when(nonce.getString()).thenReturn(nonceString);
+        when(nonce.getCardType()).thenReturn("Visa");
+        when(nonce.getLastFour()).thenReturn(lastFour);
+        return nonce;
+    }
+}
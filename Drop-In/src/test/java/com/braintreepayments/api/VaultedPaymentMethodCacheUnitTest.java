@@ -0,0 +1,176 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.util.Base64;
+
+import org.json.JSONException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class VaultedPaymentMethodCacheUnitTest {
+
+    private static final String KEY = "com.braintreepayments.api.dropin.VAULTED_PAYMENT_METHODS";
+
+    private static final String VAULT_RESPONSE = "{\"paymentMethods\":[{\"type\":\"CreditCard\","
+            + "\"nonce\":\"fake-card-nonce\",\"description\":\"ending in 11\",\"default\":true,"
+            + "\"details\":{\"cardType\":\"Visa\",\"lastTwo\":\"11\",\"lastFour\":\"1111\","
+            + "\"expirationMonth\":\"01\",\"expirationYear\":\"2030\"}}]}";
+
+    private BraintreeSharedPreferences braintreeSharedPreferences;
+    private VaultedPaymentMethodCipher cipher;
+    private long now;
+
+    private VaultedPaymentMethodCache sut;
+
+    @Before
+    public void beforeEach() {
+        braintreeSharedPreferences = mock(BraintreeSharedPreferences.class);
+        cipher = mock(VaultedPaymentMethodCipher.class);
+        when(cipher.encrypt(anyString())).thenAnswer(invocation -> "encrypted:" + invocation.getArgument(0));
+        when(cipher.decrypt(anyString())).thenAnswer(invocation ->
+                ((String) invocation.getArgument(0)).substring("encrypted:".length()));
+
+        now = 1000;
+        sut = new VaultedPaymentMethodCache(braintreeSharedPreferences, cipher, () -> now);
+    }
+
+    @Test
+    public void get_afterPut_returnsPaymentMethodsWithoutNonces() throws JSONException {
+        sut.put("customer-key", VaultedPaymentMethodNonceList.parse(VAULT_RESPONSE));
+
+        VaultedPaymentMethodNonceList cached = sut.get("customer-key");
+        assertNotNull(cached);
+        assertEquals(1, cached.size());
+        assertFalse(cached.hasPaymentMethodNonces());
+        assertNull(cached.get(0));
+        assertNull(cached.getSummary(0).getNonce());
+        assertEquals(DropInPaymentMethod.VISA, cached.getSummary(0).getPaymentMethod());
+        assertEquals("1111", cached.getSummary(0).getDescription());
+    }
+
+    @Test
+    public void put_persistsEncryptedPaymentMethodsWithoutNonces() throws JSONException {
+        sut.put("customer-key", VaultedPaymentMethodNonceList.parse(VAULT_RESPONSE));
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(braintreeSharedPreferences).putString(eq(KEY), captor.capture());
+        assertTrue(captor.getValue().contains("encrypted:"));
+        assertFalse(captor.getValue().contains("fake-card-nonce"));
+    }
+
+    @Test
+    public void put_whenEncryptionFails_doesNotPersistPlainText() {
+        when(cipher.encrypt(anyString())).thenReturn(null);
+        sut.put("customer-key", new ArrayList<>());
+
+        verify(braintreeSharedPreferences).putString(KEY, null);
+    }
+
+    @Test
+    public void get_readsPersistedPaymentMethodsWithoutNonces() throws JSONException {
+        persist("customer-key", VaultedPaymentMethodNonceList.parse(VAULT_RESPONSE));
+
+        VaultedPaymentMethodNonceList cached = sut.get("customer-key");
+        assertNotNull(cached);
+        assertEquals(1, cached.size());
+        assertFalse(cached.hasPaymentMethodNonces());
+        assertEquals(VaultedPaymentMethodSummary.TYPE_CARD, cached.getSummary(0).getType());
+        assertEquals(DropInPaymentMethod.VISA, cached.getSummary(0).getPaymentMethod());
+        assertEquals("1111", cached.getSummary(0).getDescription());
+        assertTrue(cached.getSummary(0).isDefault());
+    }
+
+    @Test
+    public void get_forDifferentCustomer_returnsNull() {
+        persist("customer-key", new ArrayList<>());
+        assertNull(sut.get("other-customer-key"));
+    }
+
+    @Test
+    public void get_whenEntryIsExpired_returnsNull() {
+        sut.put("customer-key", new ArrayList<>());
+
+        now += VaultedPaymentMethodCache.MAX_AGE_MILLIS;
+        assertNull(sut.get("customer-key"));
+    }
+
+    @Test
+    public void customerKey_withTokenizationKey_returnsNull() {
+        assertNull(VaultedPaymentMethodCache.customerKey(
+                Authorization.fromString(Fixtures.TOKENIZATION_KEY)));
+    }
+
+    @Test
+    public void customerKey_withClientTokenForCustomer_isScopedToCustomer() {
+        String customerKey =
+                VaultedPaymentMethodCache.customerKey(clientToken("customer_id=customer-1"));
+        assertNotNull(customerKey);
+        assertEquals(customerKey,
+                VaultedPaymentMethodCache.customerKey(clientToken("customer_id=customer-1")));
+        assertNotEquals(customerKey,
+                VaultedPaymentMethodCache.customerKey(clientToken("customer_id=customer-2")));
+    }
+
+    @Test
+    public void customerKey_withJwtClientTokenForCustomer_isScopedToCustomer() {
+        String customerKey = VaultedPaymentMethodCache.customerKey(
+                jwtClientToken("{\"options\":{\"customer_id\":\"customer-1\"}}", "signature-1"));
+        assertNotNull(customerKey);
+        assertEquals(customerKey, VaultedPaymentMethodCache.customerKey(
+                jwtClientToken("{\"options\":{\"customer_id\":\"customer-1\"}}", "signature-2")));
+        assertNotEquals(customerKey, VaultedPaymentMethodCache.customerKey(
+                jwtClientToken("{\"options\":{\"customer_id\":\"customer-2\"}}", "signature-1")));
+    }
+
+    @Test
+    public void customerKey_withClientTokenWithoutCustomer_isScopedToClientToken() {
+        String customerKey = VaultedPaymentMethodCache.customerKey(
+                jwtClientToken("{\"sub\":\"merchant\"}", "signature-1"));
+        assertNotNull(customerKey);
+        assertEquals(customerKey, VaultedPaymentMethodCache.customerKey(
+                jwtClientToken("{\"sub\":\"merchant\"}", "signature-1")));
+        assertNotEquals(customerKey, VaultedPaymentMethodCache.customerKey(
+                jwtClientToken("{\"sub\":\"merchant\"}", "signature-2")));
+    }
+
+    private void persist(String customerKey, List<PaymentMethodNonce> paymentMethodNonces) {
+        VaultedPaymentMethodCache writer =
+                new VaultedPaymentMethodCache(braintreeSharedPreferences, cipher, () -> now);
+        writer.put(customerKey, paymentMethodNonces);
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(braintreeSharedPreferences).putString(eq(KEY), captor.capture());
+        when(braintreeSharedPreferences.getString(KEY, null)).thenReturn(captor.getValue());
+    }
+
+    private static ClientToken clientToken(String claims) {
+        return UnitTestFixturesHelper.clientTokenWithAuthorizationFingerprint(
+                "signature|" + claims + "&public_key=public_key");
+    }
+
+    private static ClientToken jwtClientToken(String claims, String signature) {
+        String payload = Base64.encodeToString(claims.getBytes(StandardCharsets.UTF_8),
+                Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP);
+        return UnitTestFixturesHelper.clientTokenWithAuthorizationFingerprint(
+                "eyJhbGciOiJFUzI1NiJ9." + payload + "." + signature);
+    }
+}
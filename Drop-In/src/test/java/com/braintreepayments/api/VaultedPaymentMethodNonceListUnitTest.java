@@ -0,0 +1,175 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class VaultedPaymentMethodNonceListUnitTest {
+
+    private static final String CARD = "{\"type\":\"CreditCard\",\"nonce\":\"fake-card-nonce\","
+            + "\"description\":\"ending in 11\",\"default\":true,\"securityQuestions\":[],"
+            + "\"details\":{\"cardType\":\"Visa\",\"lastTwo\":\"11\",\"lastFour\":\"1111\","
+            + "\"expirationMonth\":\"01\",\"expirationYear\":\"2030\"},"
+            + "\"binData\":{\"prepaid\":\"Unknown\",\"healthcare\":\"Unknown\"}}";
+
+    private static final String GOOGLE_PAY = "{\"type\":\"AndroidPayCard\","
+            + "\"nonce\":\"fake-google-pay-nonce\",\"details\":{\"cardType\":\"Visa\","
+            + "\"lastTwo\":\"11\",\"lastFour\":\"1111\",\"nested\":{\"values\":[1, 2.5, null]}}}";
+
+    private static final String PAYPAL = "{\"details\":{\"payerInfo\":{\"email\":\"payer@example.com\","
+            + "\"firstName\":\"Some\"}},\"type\":\"PayPalAccount\",\"nonce\":\"fake-paypal-nonce\","
+            + "\"default\":false}";
+
+    private static final String VENMO = "{\"type\":\"VenmoAccount\",\"nonce\":\"fake-venmo-nonce\","
+            + "\"details\":{\"username\":\"venmojoe\"}}";
+
+    private static String response(String... entries) {
+        return "{\"paymentMethods\":[" + String.join(",", entries) + "]}";
+    }
+
+    @Test
+    public void parse_skipsUnsupportedTypes() throws JSONException {
+        VaultedPaymentMethodNonceList sut =
+                VaultedPaymentMethodNonceList.parse(response(CARD, GOOGLE_PAY, PAYPAL, VENMO));
+
+        assertEquals(3, sut.size());
+        assertEquals(VaultedPaymentMethodSummary.TYPE_CARD, sut.getSummary(0).getType());
+        assertEquals(VaultedPaymentMethodSummary.TYPE_PAYPAL, sut.getSummary(1).getType());
+        assertEquals(VaultedPaymentMethodSummary.TYPE_VENMO, sut.getSummary(2).getType());
+    }
+
+    @Test(expected = JSONException.class)
+    public void parse_withEntryThatCannotBeBuilt_throwsJSONException() throws JSONException {
+        VaultedPaymentMethodNonceList.parse(
+                response(PAYPAL, "{\"type\":\"CreditCard\",\"nonce\":\"fake-card-nonce\"}"));
+    }
+
+    @Test
+    public void parse_readsDisplayFields() throws JSONException {
+        VaultedPaymentMethodNonceList sut =
+                VaultedPaymentMethodNonceList.parse(response(CARD, PAYPAL, VENMO));
+
+        VaultedPaymentMethodSummary card = sut.getSummary(0);
+        assertEquals("fake-card-nonce", card.getNonce());
+        assertTrue(card.isDefault());
+        assertEquals(DropInPaymentMethod.VISA, card.getPaymentMethod());
+        assertEquals("1111", card.getDescription());
+
+        VaultedPaymentMethodSummary payPal = sut.getSummary(1);
+        assertEquals("fake-paypal-nonce", payPal.getNonce());
+        assertFalse(payPal.isDefault());
+        assertEquals(DropInPaymentMethod.PAYPAL, payPal.getPaymentMethod());
+        assertEquals("payer@example.com", payPal.getDescription());
+
+        VaultedPaymentMethodSummary venmo = sut.getSummary(2);
+        assertEquals(DropInPaymentMethod.VENMO, venmo.getPaymentMethod());
+        assertEquals("venmojoe", venmo.getDescription());
+    }
+
+    @Test
+    public void get_returnsNonceBuiltFromEntry() throws JSONException {
+        VaultedPaymentMethodNonceList sut =
+                VaultedPaymentMethodNonceList.parse(response(CARD, PAYPAL, VENMO));
+
+        CardNonce cardNonce = (CardNonce) sut.get(0);
+        assertEquals("fake-card-nonce", cardNonce.getString());
+        assertEquals("1111", cardNonce.getLastFour());
+        assertEquals("Visa", cardNonce.getCardType());
+        assertTrue(cardNonce.isDefault());
+
+        assertSame(cardNonce, sut.get(0));
+        assertSame(cardNonce, sut.getSummary(0).getPaymentMethodNonce());
+    }
+
+    @Test
+    public void get_buildsPayPalAndVenmoNonces() throws JSONException {
+        VaultedPaymentMethodNonceList sut =
+                VaultedPaymentMethodNonceList.parse(response(PAYPAL, VENMO));
+
+        assertEquals("fake-paypal-nonce", sut.get(0).getString());
+        assertTrue(sut.get(0) instanceof PayPalAccountNonce);
+        assertEquals("venmojoe", ((VenmoAccountNonce) sut.get(1)).getUsername());
+    }
+
+    @Test
+    public void get_buildsNonceFromEntryAfterUnsupportedEntries() throws JSONException {
+        VaultedPaymentMethodNonceList sut =
+                VaultedPaymentMethodNonceList.parse(response(GOOGLE_PAY, VENMO, GOOGLE_PAY, CARD));
+
+        assertEquals(2, sut.size());
+        assertEquals("1111", ((CardNonce) sut.get(1)).getLastFour());
+        assertEquals("venmojoe", ((VenmoAccountNonce) sut.get(0)).getUsername());
+    }
+
+    @Test(expected = JSONException.class)
+    public void parse_withVenmoEntryWithoutUsername_throwsJSONException() throws JSONException {
+        VaultedPaymentMethodNonceList.parse(response(
+                "{\"type\":\"VenmoAccount\",\"nonce\":\"fake-venmo-nonce\",\"details\":{}}"));
+    }
+
+    @Test(expected = JSONException.class)
+    public void parse_withoutPaymentMethods_throwsJSONException() throws JSONException {
+        VaultedPaymentMethodNonceList.parse("{}");
+    }
+
+    @Test(expected = JSONException.class)
+    public void parse_withEntryWithoutType_throwsJSONException() throws JSONException {
+        VaultedPaymentMethodNonceList.parse(response("{\"nonce\":\"fake-nonce\"}"));
+    }
+
+    @Test(expected = JSONException.class)
+    public void parse_withMalformedJson_throwsJSONException() throws JSONException {
+        VaultedPaymentMethodNonceList.parse("{\"paymentMethods\":[");
+    }
+
+    @Test
+    public void equals_comparesDisplayedPaymentMethods() throws JSONException {
+        VaultedPaymentMethodNonceList first = VaultedPaymentMethodNonceList.parse(response(CARD, PAYPAL));
+        // every fetch of the vault mints new nonces
+        VaultedPaymentMethodNonceList second = VaultedPaymentMethodNonceList.parse(response(
+                CARD.replace("fake-card-nonce", "other-card-nonce"),
+                PAYPAL.replace("fake-paypal-nonce", "other-paypal-nonce")));
+        VaultedPaymentMethodNonceList third = VaultedPaymentMethodNonceList.parse(response(CARD));
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, third);
+    }
+
+    @Test
+    public void equals_withCachedVault_isNotEqualToFetchedVault() throws JSONException {
+        VaultedPaymentMethodNonceList fetched = VaultedPaymentMethodNonceList.parse(response(CARD));
+        List<VaultedPaymentMethodSummary> cachedSummaries = new ArrayList<>();
+        cachedSummaries.add(fetched.getSummary(0).withoutPaymentMethodNonce());
+        VaultedPaymentMethodNonceList cached = new VaultedPaymentMethodNonceList(cachedSummaries);
+
+        assertTrue(fetched.hasPaymentMethodNonces());
+        assertFalse(cached.hasPaymentMethodNonces());
+        assertNotEquals(fetched, cached);
+        assertEquals(fetched.getSummary(0).getDisplayKey(), cached.getSummary(0).getDisplayKey());
+    }
+
+    @Test
+    public void of_wrapsBuiltNonces() {
+        PaymentMethodNonce cardNonce = mock(CardNonce.class);
+        VaultedPaymentMethodNonceList sut =
+                VaultedPaymentMethodNonceList.of(Collections.singletonList(cardNonce));
+
+        assertEquals(VaultedPaymentMethodSummary.TYPE_CARD, sut.getSummary(0).getType());
+        assertSame(cardNonce, sut.get(0));
+        assertSame(sut, VaultedPaymentMethodNonceList.of(sut));
+    }
+}
@@ -0,0 +1,64 @@
+package com.braintreepayments.demo.macrobenchmark
+
+import androidx.benchmark.macro.ExperimentalBaselineProfilesApi
+import androidx.benchmark.macro.junit4.BaselineProfileRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.braintreepayments.demo.macrobenchmark.DemoFlows.addCard
+import com.braintreepayments.demo.macrobenchmark.DemoFlows.closeVaultManager
+import com.braintreepayments.demo.macrobenchmark.DemoFlows.launchDemo
+import com.braintreepayments.demo.macrobenchmark.DemoFlows.openVaultManager
+import com.braintreepayments.demo.macrobenchmark.DemoFlows.showBottomSheet
+import com.braintreepayments.mockgateway.MockGateway
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Generates the baseline profile for the Drop-In library by driving the Demo app through
+ * launch, the bottom sheet, add card, card details and the vault manager.
+ *
+ * Run on a rooted or userdebug device with
+ * `./gradlew :Macrobenchmark:connectedBenchmarkAndroidTest -P android.testInstrumentationRunnerArguments.class=com.braintreepayments.demo.macrobenchmark.BaselineProfileGenerator`
+ * and then `./gradlew :Macrobenchmark:updateDropInBaselineProfile`, which replaces
+ * `Drop-In/src/main/baseline-prof.txt` with the generated rules for Drop-in's own classes. Don't
+ * edit the profile by hand.
+ */
+@OptIn(ExperimentalBaselineProfilesApi::class)
+@RunWith(AndroidJUnit4::class)
+class BaselineProfileGenerator {
+
+    @get:Rule
+    val baselineProfileRule = BaselineProfileRule()
+
+    private val gateway = MockGateway()
+
+    @Before
+    fun setUp() {
+        // the vault manager can only be opened when the customer has vaulted payment methods
+        gateway.addVaultedCards(2)
+        gateway.start()
+    }
+
+    @After
+    fun tearDown() = gateway.shutdown()
+
+    @Test
+    fun generate() = baselineProfileRule.collectBaselineProfile(
+        packageName = DEMO_PACKAGE,
+        packageFilters = listOf(DROP_IN_PACKAGE)
+    ) {
+        launchDemo(gateway.merchantServerUrl, customerId = "baseline-profile")
+
+        showBottomSheet()
+        addCard()
+
+        showBottomSheet()
+        openVaultManager()
+        closeVaultManager()
+    }
+}
+
+// shared with the Braintree core SDK; updateDropInBaselineProfile keeps Drop-in's classes only
+private const val DROP_IN_PACKAGE = "com.braintreepayments.api"
@@ -0,0 +1,135 @@
+package com.braintreepayments.demo.macrobenchmark
+
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.ExperimentalMetricApi
+import androidx.benchmark.macro.FrameTimingMetric
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.TraceSectionMetric
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import com.braintreepayments.demo.macrobenchmark.DemoFlows.addCard
+import com.braintreepayments.demo.macrobenchmark.DemoFlows.dismissBottomSheet
+import com.braintreepayments.demo.macrobenchmark.DemoFlows.launchDemo
+import com.braintreepayments.demo.macrobenchmark.DemoFlows.openVaultManager
+import com.braintreepayments.demo.macrobenchmark.DemoFlows.showBottomSheet
+import com.braintreepayments.mockgateway.MockGateway
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * End-to-end timing of the Drop-in checkout flows in the Demo app against a local mock gateway.
+ *
+ * Durations are read from the async trace sections Drop-in records for each
+ * [com.braintreepayments.api.DropInSpanPhase], for example `DropIn.LAUNCH`, so they match the
+ * spans reported to a `DropInTracer`.
+ */
+@OptIn(ExperimentalMetricApi::class)
+@LargeTest
+@RunWith(AndroidJUnit4::class)
+class CheckoutBenchmark {
+
+    @get:Rule
+    val benchmarkRule = MacrobenchmarkRule()
+
+    private val gateway = MockGateway()
+
+    @Before
+    fun setUp() {
+        gateway.addVaultedCards(VAULT_SIZE)
+        gateway.start()
+    }
+
+    @After
+    fun tearDown() = gateway.shutdown()
+
+    /**
+     * From `DropInClient#launchDropIn` until the bottom sheet is shown, and the frames of the
+     * slide up animation.
+     */
+    @Test
+    fun launchToBottomSheetShown() = benchmarkRule.measureRepeated(
+        packageName = DEMO_PACKAGE,
+        metrics = listOf(
+            TraceSectionMetric("DropIn.LAUNCH"),
+            TraceSectionMetric("DropIn.SHEET_ANIMATION"),
+            FrameTimingMetric()
+        ),
+        compilationMode = CompilationMode.DEFAULT,
+        startupMode = StartupMode.COLD,
+        iterations = ITERATIONS,
+        setupBlock = {
+            launchDemo(gateway.merchantServerUrl, CUSTOMER_ID)
+        }
+    ) {
+        showBottomSheet()
+    }
+
+    /**
+     * Frames of the slide down animation when the customer cancels Drop-in. Frames that overrun
+     * their deadline during sheet entry are reported by [launchToBottomSheetShown].
+     */
+    @Test
+    fun bottomSheetExit() = benchmarkRule.measureRepeated(
+        packageName = DEMO_PACKAGE,
+        metrics = listOf(FrameTimingMetric()),
+        compilationMode = CompilationMode.DEFAULT,
+        startupMode = StartupMode.COLD,
+        iterations = ITERATIONS,
+        setupBlock = {
+            launchDemo(gateway.merchantServerUrl, CUSTOMER_ID)
+            showBottomSheet()
+        }
+    ) {
+        dismissBottomSheet()
+    }
+
+    /**
+     * Frames of the page transition from the bottom sheet to the vault manager.
+     */
+    @Test
+    fun vaultManagerTransition() = benchmarkRule.measureRepeated(
+        packageName = DEMO_PACKAGE,
+        metrics = listOf(FrameTimingMetric()),
+        compilationMode = CompilationMode.DEFAULT,
+        startupMode = StartupMode.COLD,
+        iterations = ITERATIONS,
+        setupBlock = {
+            launchDemo(gateway.merchantServerUrl, CUSTOMER_ID)
+            showBottomSheet()
+        }
+    ) {
+        openVaultManager()
+    }
+
+    /**
+     * From submitting card details until Drop-in returns the result to the Demo app.
+     */
+    @Test
+    fun cardSubmitToResult() = benchmarkRule.measureRepeated(
+        packageName = DEMO_PACKAGE,
+        metrics = listOf(
+            TraceSectionMetric("DropIn.CARD_CHECKOUT"),
+            TraceSectionMetric("DropIn.CARD_TOKENIZATION"),
+            TraceSectionMetric("DropIn.RESULT_DELIVERY")
+        ),
+        compilationMode = CompilationMode.DEFAULT,
+        startupMode = StartupMode.COLD,
+        iterations = ITERATIONS,
+        setupBlock = {
+            launchDemo(gateway.merchantServerUrl, CUSTOMER_ID)
+            showBottomSheet()
+        }
+    ) {
+        addCard()
+    }
+
+    companion object {
+        private const val CUSTOMER_ID = "checkout-benchmark"
+        private const val ITERATIONS = 10
+        private const val VAULT_SIZE = 10
+    }
+}
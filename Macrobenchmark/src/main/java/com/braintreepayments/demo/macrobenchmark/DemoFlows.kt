@@ -0,0 +1,99 @@
+package com.braintreepayments.demo.macrobenchmark
+
+import android.content.Intent
+import androidx.benchmark.macro.MacrobenchmarkScope
+import androidx.test.uiautomator.By
+import androidx.test.uiautomator.BySelector
+import androidx.test.uiautomator.Direction
+import androidx.test.uiautomator.UiObject2
+import androidx.test.uiautomator.Until
+import java.util.regex.Pattern
+
+const val DEMO_PACKAGE = "com.braintreepayments.demo"
+
+private const val DROP_IN_PACKAGE = DEMO_PACKAGE
+private const val TIMEOUT_MILLIS = 30_000L
+
+// both the add payment method button and the last used payment method launch Drop-in
+private val LAUNCH_DROP_IN_BUTTONS =
+    Pattern.compile("$DEMO_PACKAGE:id/(add_payment_method|payment_method)")
+
+// matches the Visa test card used by the Demo app's instrumentation tests
+private const val VISA = "4111111111111111"
+
+/**
+ * UI flows through the Demo app shared by the baseline profile generator and the benchmarks.
+ *
+ * Settings are passed as launch extras, which the Demo app stores before creating its
+ * `DropInClient`. Flows run against a [com.braintreepayments.mockgateway.MockGateway] so that
+ * network responses are the same on every iteration.
+ */
+object DemoFlows {
+
+    /**
+     * Launches the Demo app for a customer with a client token and the vault manager enabled.
+     */
+    fun MacrobenchmarkScope.launchDemo(merchantServerUrl: String, customerId: String) {
+        pressHome()
+        startActivityAndWait(Intent(Intent.ACTION_MAIN).apply {
+            setPackage(DEMO_PACKAGE)
+            addCategory(Intent.CATEGORY_LAUNCHER)
+            putExtra("tokenization_key", false)
+            putExtra("enable_vault_manager", true)
+            putExtra("customer", customerId)
+            putExtra("merchant_server_url", merchantServerUrl)
+        })
+    }
+
+    /**
+     * Taps the Demo app's add payment method button or last used payment method and waits for
+     * the bottom sheet to finish sliding up.
+     */
+    fun MacrobenchmarkScope.showBottomSheet() {
+        waitForObject(By.res(LAUNCH_DROP_IN_BUTTONS).enabled(true)).click()
+        waitForObject(By.res(DROP_IN_PACKAGE, "bt_supported_payment_methods"))
+        device.waitForIdle()
+    }
+
+    /**
+     * Presses back to cancel Drop-in and waits for the bottom sheet to finish sliding down.
+     */
+    fun MacrobenchmarkScope.dismissBottomSheet() {
+        device.pressBack()
+        waitForObject(By.res(LAUNCH_DROP_IN_BUTTONS).enabled(true))
+        device.waitForIdle()
+    }
+
+    fun MacrobenchmarkScope.addCard() {
+        waitForObject(By.text("Credit or Debit Card")).click()
+
+        waitForObject(By.res(DROP_IN_PACKAGE, "bt_card_form_card_number")).text = VISA
+        waitForObject(By.res(DROP_IN_PACKAGE, "bt_button")).click()
+
+        waitForObject(By.res(DROP_IN_PACKAGE, "bt_card_form_expiration")).text = "1230"
+        device.findObject(By.res(DROP_IN_PACKAGE, "bt_card_form_cvv"))?.text = "123"
+        device.findObject(By.res(DROP_IN_PACKAGE, "bt_card_form_postal_code"))?.text = "12345"
+        waitForObject(By.res(DROP_IN_PACKAGE, "bt_button")).click()
+
+        // the result is displayed by the Demo app once Drop-in finishes
+        waitForObject(By.res(DEMO_PACKAGE, "nonce_details"))
+    }
+
+    fun MacrobenchmarkScope.openVaultManager() {
+        waitForObject(By.res(DROP_IN_PACKAGE, "bt_vault_edit_button")).click()
+        val list = waitForObject(By.res(DROP_IN_PACKAGE, "bt_vault_manager_list"))
+        list.fling(Direction.DOWN)
+        device.waitForIdle()
+    }
+
+    fun MacrobenchmarkScope.closeVaultManager() {
+        waitForObject(By.res(DROP_IN_PACKAGE, "bt_vault_manager_close")).click()
+        waitForObject(By.res(DROP_IN_PACKAGE, "bt_supported_payment_methods"))
+        device.waitForIdle()
+    }
+
+    fun MacrobenchmarkScope.waitForObject(selector: BySelector): UiObject2 =
+        checkNotNull(device.wait(Until.findObject(selector), TIMEOUT_MILLIS)) {
+            "Timed out waiting for $selector"
+        }
+}
@@ -0,0 +1,66 @@
+package com.braintreepayments.demo.macrobenchmark
+
+import androidx.benchmark.macro.BaselineProfileMode
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.ExperimentalMetricApi
+import androidx.benchmark.macro.FrameTimingMetric
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.TraceSectionMetric
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.filters.LargeTest
+import com.braintreepayments.demo.macrobenchmark.DemoFlows.launchDemo
+import com.braintreepayments.demo.macrobenchmark.DemoFlows.showBottomSheet
+import com.braintreepayments.mockgateway.MockGateway
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+
+/**
+ * Measures showing the Drop-in bottom sheet with and without Drop-in's baseline profile.
+ *
+ * [CompilationMode.None] approximates a fresh install before cloud profiles are available;
+ * [BaselineProfileMode.Require] fails the run if the profile was not installed, which is the case
+ * until a profile generated by [BaselineProfileGenerator] has been checked in.
+ */
+@OptIn(ExperimentalMetricApi::class)
+@LargeTest
+@RunWith(Parameterized::class)
+class DropInStartupBenchmark(private val compilationMode: CompilationMode) {
+
+    @get:Rule
+    val benchmarkRule = MacrobenchmarkRule()
+
+    private val gateway = MockGateway()
+
+    @Before
+    fun setUp() = gateway.start()
+
+    @After
+    fun tearDown() = gateway.shutdown()
+
+    @Test
+    fun showBottomSheet() = benchmarkRule.measureRepeated(
+        packageName = DEMO_PACKAGE,
+        metrics = listOf(TraceSectionMetric("DropInActivity.onCreate"), FrameTimingMetric()),
+        compilationMode = compilationMode,
+        startupMode = StartupMode.COLD,
+        iterations = 10,
+        setupBlock = {
+            launchDemo(gateway.merchantServerUrl, customerId = "startup-benchmark")
+        }
+    ) {
+        showBottomSheet()
+    }
+
+    companion object {
+        @JvmStatic
+        @Parameterized.Parameters(name = "{0}")
+        fun compilationModes() = listOf(
+            CompilationMode.None(),
+            CompilationMode.Partial(BaselineProfileMode.Require)
+        )
+    }
+}
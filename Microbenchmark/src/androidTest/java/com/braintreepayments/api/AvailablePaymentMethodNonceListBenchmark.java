@@ -0,0 +1,55 @@
+package com.braintreepayments.api;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import org.json.JSONException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Filtering a customer's vault down to the payment methods a {@link DropInRequest} allows.
+ */
+@RunWith(Parameterized.class)
+public class AvailablePaymentMethodNonceListBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Parameterized.Parameters(name = "vaultSize={0}")
+    public static List<Integer> vaultSizes() {
+        return Arrays.asList(10, 100, 1000);
+    }
+
+    private final int vaultSize;
+
+    private Configuration configuration;
+    private List<PaymentMethodNonce> paymentMethodNonces;
+    private DropInRequest dropInRequest;
+
+    public AvailablePaymentMethodNonceListBenchmark(int vaultSize) {
+        this.vaultSize = vaultSize;
+    }
+
+    @Before
+    public void setUp() throws JSONException {
+        configuration = Configuration.fromJson(BenchmarkFixtures.CONFIGURATION);
+        paymentMethodNonces = BenchmarkFixtures.paymentMethodNonces(vaultSize);
+        dropInRequest = new DropInRequest();
+        dropInRequest.setVenmoDisabled(true);
+    }
+
+    @Test
+    public void filter() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            new AvailablePaymentMethodNonceList(configuration, paymentMethodNonces, dropInRequest, true);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.braintreepayments.api;
+
+import org.json.JSONException;
+
+import java.util.List;
+
+/**
+ * Payment methods responses and configuration used by the benchmarks.
+ */
+class BenchmarkFixtures {
+
+    private static final String CARD = "{\"type\":\"CreditCard\",\"nonce\":\"fake-card-nonce-%d\","
+            + "\"description\":\"ending in 11\",\"default\":false,\"consumed\":false,"
+            + "\"details\":{\"cardType\":\"Visa\",\"lastTwo\":\"11\",\"lastFour\":\"1111\","
+            + "\"bin\":\"411111\",\"expirationMonth\":\"01\",\"expirationYear\":\"2030\"},"
+            + "\"binData\":{\"prepaid\":\"Unknown\",\"healthcare\":\"Unknown\",\"debit\":\"Unknown\","
+            + "\"durbinRegulated\":\"Unknown\",\"commercial\":\"Unknown\",\"payroll\":\"Unknown\","
+            + "\"issuingBank\":\"Unknown\",\"countryOfIssuance\":\"Unknown\",\"productId\":\"Unknown\"}}";
+
+    private static final String PAYPAL = "{\"type\":\"PayPalAccount\",\"nonce\":\"fake-paypal-nonce-%d\","
+            + "\"description\":\"PayPal\",\"default\":false,\"consumed\":false,"
+            + "\"details\":{\"email\":\"payer@example.com\",\"payerInfo\":{\"email\":\"payer@example.com\","
+            + "\"firstName\":\"Some\",\"lastName\":\"Payer\"}}}";
+
+    private static final String VENMO = "{\"type\":\"VenmoAccount\",\"nonce\":\"fake-venmo-nonce-%d\","
+            + "\"description\":\"VenmoAccount\",\"default\":false,\"consumed\":false,"
+            + "\"details\":{\"username\":\"venmojoe\"}}";
+
+    // not supported by the vault manager, so it is skipped while parsing
+    private static final String GOOGLE_PAY = "{\"type\":\"AndroidPayCard\","
+            + "\"nonce\":\"fake-google-pay-nonce-%d\",\"description\":\"Android Pay\","
+            + "\"details\":{\"cardType\":\"Visa\",\"lastTwo\":\"11\",\"lastFour\":\"1111\"}}";
+
+    static final String CONFIGURATION = "{\"clientApiUrl\":\"https://api.example.com/client_api\","
+            + "\"environment\":\"sandbox\",\"merchantId\":\"merchant_id\",\"challenges\":[],"
+            + "\"creditCards\":{\"supportedCardTypes\":[\"Visa\",\"MasterCard\"]},"
+            + "\"paypalEnabled\":true,\"paypal\":{\"displayName\":\"Merchant\","
+            + "\"environment\":\"offline\"},\"payWithVenmo\":{\"accessToken\":\"access-token\","
+            + "\"environment\":\"sandbox\",\"merchantId\":\"venmo_merchant_id\"}}";
+
+    private BenchmarkFixtures() {}
+
+    /**
+     * @return a payment methods response with {@code size} entries, cycling through cards,
+     * PayPal, Venmo and Google Pay
+     */
+    static String paymentMethodsResponse(int size) {
+        String[] templates = { CARD, PAYPAL, VENMO, GOOGLE_PAY };
+        StringBuilder response = new StringBuilder("{\"paymentMethods\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                response.append(',');
+            }
+            response.append(String.format(templates[i % templates.length], i));
+        }
+        return response.append("]}").toString();
+    }
+
+    static List<PaymentMethodNonce> paymentMethodNonces(int size) {
+        try {
+            return VaultedPaymentMethodNonceList.parse(paymentMethodsResponse(size));
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static CardNonce cardNonce() {
+        return (CardNonce) paymentMethodNonces(1).get(0);
+    }
+}
@@ -0,0 +1,60 @@
+package com.braintreepayments.api;
+
+import android.os.Bundle;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+
+/**
+ * Encoding and decoding the {@link DropInEvent}s fragments send to {@link DropInActivity} as
+ * fragment results.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DropInEventBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Test
+    public void supportedPaymentMethodSelected() {
+        roundTrip(DropInEvent.createSupportedPaymentMethodSelectedEvent(DropInPaymentMethod.PAYPAL));
+    }
+
+    @Test
+    public void vaultedPaymentMethodSelected() {
+        roundTrip(DropInEvent.createVaultedPaymentMethodSelectedEvent(BenchmarkFixtures.cardNonce()));
+    }
+
+    @Test
+    public void cardDetailsSubmit() {
+        Card card = new Card();
+        card.setNumber("4111111111111111");
+        card.setExpirationMonth("12");
+        card.setExpirationYear("2030");
+        card.setCvv("123");
+        card.setPostalCode("12345");
+        roundTrip(DropInEvent.createCardDetailsSubmitEvent(card));
+    }
+
+    @Test
+    public void deleteVaultedPaymentMethods() {
+        ArrayList<PaymentMethodNonce> paymentMethodNonces =
+                new ArrayList<>(BenchmarkFixtures.paymentMethodNonces(10));
+        roundTrip(DropInEvent.createDeleteVaultedPaymentMethodNoncesEvent(paymentMethodNonces));
+    }
+
+    private void roundTrip(DropInEvent event) {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Bundle bundle = event.toBundle();
+            DropInEvent.fromBundle(bundle);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.braintreepayments.api;
+
+import android.os.Parcel;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Round trips of the objects passed to and returned from {@link DropInActivity} through a
+ * {@link Parcel}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ParcelBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Test
+    public void dropInRequest() {
+        DropInRequest dropInRequest = new DropInRequest();
+        dropInRequest.setThreeDSecureRequest(new ThreeDSecureRequest());
+        dropInRequest.setGooglePayRequest(new GooglePayRequest());
+        dropInRequest.setPayPalRequest(new PayPalCheckoutRequest("1.00"));
+        dropInRequest.setVenmoRequest(new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE));
+        dropInRequest.setVaultManagerEnabled(true);
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Parcel parcel = Parcel.obtain();
+            dropInRequest.writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            DropInRequest.CREATOR.createFromParcel(parcel);
+            parcel.recycle();
+        }
+    }
+
+    @Test
+    public void dropInResult() {
+        DropInResult dropInResult = new DropInResult();
+        dropInResult.setPaymentMethodNonce(BenchmarkFixtures.cardNonce());
+        dropInResult.setDeviceData("{\"device_session_id\":\"device-session-id\"}");
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Parcel parcel = Parcel.obtain();
+            dropInResult.writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            DropInResult.CREATOR.createFromParcel(parcel);
+            parcel.recycle();
+        }
+    }
+}
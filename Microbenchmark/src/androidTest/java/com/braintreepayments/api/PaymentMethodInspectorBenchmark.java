@@ -0,0 +1,50 @@
+package com.braintreepayments.api;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+/**
+ * Mapping nonces and card type names to payment methods, done for every item the vault manager
+ * and the supported payment methods list bind.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PaymentMethodInspectorBenchmark {
+
+    private static final String[] CARD_TYPES = {
+            "Visa", "MasterCard", "American Express", "Discover", "JCB", "Maestro", "UnionPay",
+            "Hiper", "Hipercard", "Diners Club", "Unknown"
+    };
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final PaymentMethodInspector sut = new PaymentMethodInspector();
+
+    @Test
+    public void getPaymentMethod() {
+        List<PaymentMethodNonce> paymentMethodNonces = BenchmarkFixtures.paymentMethodNonces(4);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (int i = 0; i < paymentMethodNonces.size(); i++) {
+                sut.getPaymentMethod(paymentMethodNonces.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void getCardTypeFromString() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (String cardType : CARD_TYPES) {
+                sut.getCardTypeFromString(cardType);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.braintreepayments.api;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import org.json.JSONException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parsing a payment methods response, which is what
+ * {@code PaymentMethodClient#parsePaymentMethodNonces} does for every vault fetch, and building
+ * the nonce of the payment method a customer selects.
+ */
+@RunWith(Parameterized.class)
+public class VaultedPaymentMethodNonceListBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Parameterized.Parameters(name = "vaultSize={0}")
+    public static List<Integer> vaultSizes() {
+        return Arrays.asList(1, 10, 100, 1000);
+    }
+
+    private final String response;
+
+    public VaultedPaymentMethodNonceListBenchmark(int vaultSize) {
+        response = BenchmarkFixtures.paymentMethodsResponse(vaultSize);
+    }
+
+    @Test
+    public void parse() throws JSONException {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            VaultedPaymentMethodNonceList.parse(response);
+        }
+    }
+
+    /**
+     * Selecting a payment method builds its nonce, which reads the response up to its entry again.
+     */
+    @Test
+    public void parseAndSelectLastPaymentMethod() throws JSONException {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            VaultedPaymentMethodNonceList vault = VaultedPaymentMethodNonceList.parse(response);
+            vault.get(vault.size() - 1);
+        }
+    }
+}
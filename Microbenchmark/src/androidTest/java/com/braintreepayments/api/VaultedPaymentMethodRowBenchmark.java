@@ -0,0 +1,61 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.annotation.UiThreadTest;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.braintreepayments.api.dropin.R;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Creating the rows of the vaulted payment methods carousel and the vault manager, done for each
+ * row that is not reused from {@link DropInViewPool}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class VaultedPaymentMethodRowBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Context context;
+    private ViewGroup parent;
+
+    @Before
+    public void beforeEach() {
+        context = new ContextThemeWrapper(
+                InstrumentationRegistry.getInstrumentation().getTargetContext(),
+                R.style.bt_drop_in_activity_theme);
+        parent = new FrameLayout(context);
+    }
+
+    @Test
+    @UiThreadTest
+    public void vaultManagerRow() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            new PaymentMethodItemView(context);
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void vaultedPaymentMethodCard() {
+        LayoutInflater inflater = LayoutInflater.from(context);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            inflater.inflate(R.layout.bt_vaulted_payment_method_card, parent, false);
+        }
+    }
+}
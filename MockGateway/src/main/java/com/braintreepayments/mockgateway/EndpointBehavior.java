@@ -0,0 +1,16 @@
+package com.braintreepayments.mockgateway;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The latency, faults and payload size configured for a {@link GatewayEndpoint}.
+ */
+class EndpointBehavior {
+
+    volatile LatencyDistribution latency = LatencyDistribution.none();
+    volatile double errorRate;
+    volatile double disconnectRate;
+    volatile int paddingBytes;
+
+    final AtomicInteger requestCount = new AtomicInteger();
+}
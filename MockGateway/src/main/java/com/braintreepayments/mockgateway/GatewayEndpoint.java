@@ -0,0 +1,37 @@
+package com.braintreepayments.mockgateway;
+
+/**
+ * The requests served by a {@link MockGateway}. Latency and faults are configured per endpoint.
+ */
+public enum GatewayEndpoint {
+
+    /**
+     * {@code POST /client_tokens} on the Demo merchant server.
+     */
+    CLIENT_TOKEN,
+
+    /**
+     * {@code POST /transactions} on the Demo merchant server.
+     */
+    TRANSACTION,
+
+    /**
+     * {@code GET v1/configuration}.
+     */
+    CONFIGURATION,
+
+    /**
+     * {@code GET v1/payment_methods}, the customer's vaulted payment methods.
+     */
+    PAYMENT_METHODS,
+
+    /**
+     * {@code POST v1/payment_methods/credit_cards}.
+     */
+    CARD_TOKENIZATION,
+
+    /**
+     * {@code POST graphql}, used to delete vaulted payment methods.
+     */
+    GRAPHQL
+}
@@ -0,0 +1,90 @@
+package com.braintreepayments.mockgateway;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Response bodies served by {@link MockGateway}, trimmed to the fields Drop-in reads.
+ */
+class GatewayResponses {
+
+    private GatewayResponses() {}
+
+    static String clientTokenResponse(String clientToken) {
+        return "{\"value\":\"" + clientToken + "\"}";
+    }
+
+    static String transactionResponse() {
+        return "{\"message\":\"created\"}";
+    }
+
+    static String error() {
+        return "{\"error\":{\"message\":\"Mock gateway error\"}}";
+    }
+
+    static String graphQLDeleteResponse() {
+        return "{\"data\":{\"deletePaymentMethodFromSingleUseToken\":{\"clientMutationId\":null}}}";
+    }
+
+    /**
+     * Adds an unused field to the start of a JSON object.
+     */
+    static String pad(String jsonObject, int paddingBytes) {
+        if (paddingBytes <= 0) {
+            return jsonObject;
+        }
+
+        StringBuilder padded = new StringBuilder(jsonObject.length() + paddingBytes + 16)
+                .append("{\"padding\":\"");
+        for (int i = 0; i < paddingBytes; i++) {
+            padded.append('x');
+        }
+        padded.append('"');
+        if (jsonObject.length() > 2) {
+            padded.append(',');
+        }
+        return padded.append(jsonObject, 1, jsonObject.length()).toString();
+    }
+
+    static String configuration(String clientApiUrl, String graphQLUrl) {
+        return "{"
+                + "\"clientApiUrl\":\"" + clientApiUrl + "\","
+                + "\"environment\":\"development\","
+                + "\"merchantId\":\"mock_merchant_id\","
+                + "\"challenges\":[],"
+                + "\"creditCards\":{\"supportedCardTypes\":"
+                + "[\"Visa\",\"MasterCard\",\"American Express\",\"Discover\"]},"
+                + "\"paypalEnabled\":false,"
+                + "\"androidPay\":{\"enabled\":false},"
+                + "\"threeDSecureEnabled\":false,"
+                + "\"graphQL\":{\"url\":\"" + graphQLUrl + "\",\"features\":[]}"
+                + "}";
+    }
+
+    static String paymentMethods(List<String> cards) {
+        // String.join is not available on every API level the benchmarks run on
+        StringBuilder paymentMethods = new StringBuilder();
+        for (String card : cards) {
+            if (paymentMethods.length() > 0) {
+                paymentMethods.append(',');
+            }
+            paymentMethods.append(card);
+        }
+        return "{\"paymentMethods\":[" + paymentMethods + "]}";
+    }
+
+    static String creditCards(String card) {
+        return "{\"creditCards\":[" + card + "]}";
+    }
+
+    static String card(String nonce, boolean isDefault) {
+        return String.format(Locale.US, "{\"type\":\"CreditCard\",\"nonce\":\"%s\","
+                + "\"description\":\"ending in 11\",\"default\":%b,\"consumed\":false,"
+                + "\"details\":{\"cardType\":\"Visa\",\"lastTwo\":\"11\",\"lastFour\":\"1111\","
+                + "\"bin\":\"411111\",\"expirationMonth\":\"12\",\"expirationYear\":\"2030\"},"
+                + "\"binData\":{\"prepaid\":\"Unknown\",\"healthcare\":\"Unknown\","
+                + "\"debit\":\"Unknown\",\"durbinRegulated\":\"Unknown\",\"commercial\":\"Unknown\","
+                + "\"payroll\":\"Unknown\",\"issuingBank\":\"Unknown\","
+                + "\"countryOfIssuance\":\"Unknown\",\"productId\":\"Unknown\"}}", nonce, isDefault);
+    }
+}
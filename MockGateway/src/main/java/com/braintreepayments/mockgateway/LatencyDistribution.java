@@ -0,0 +1,60 @@
+package com.braintreepayments.mockgateway;
+
+import java.util.Random;
+
+/**
+ * The time a {@link MockGateway} waits before responding to a request.
+ */
+public abstract class LatencyDistribution {
+
+    /**
+     * @return a distribution that responds immediately
+     */
+    public static LatencyDistribution none() {
+        return fixed(0);
+    }
+
+    public static LatencyDistribution fixed(final long delayMillis) {
+        return new LatencyDistribution() {
+            @Override
+            long nextDelayMillis(Random random) {
+                return delayMillis;
+            }
+        };
+    }
+
+    /**
+     * @return a distribution with delays evenly spread between {@code minMillis} and
+     * {@code maxMillis}
+     */
+    public static LatencyDistribution uniform(final long minMillis, final long maxMillis) {
+        if (maxMillis < minMillis) {
+            throw new IllegalArgumentException("maxMillis must not be less than minMillis");
+        }
+        return new LatencyDistribution() {
+            @Override
+            long nextDelayMillis(Random random) {
+                return minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+            }
+        };
+    }
+
+    /**
+     * Mobile network latency has a long tail; a log-normal distribution reproduces the occasional
+     * request that takes several times the median.
+     *
+     * @param medianMillis the median delay
+     * @param sigma the spread of the distribution; {@code 0.5} puts the 95th percentile at about
+     *              2.3 times the median
+     */
+    public static LatencyDistribution logNormal(final long medianMillis, final double sigma) {
+        return new LatencyDistribution() {
+            @Override
+            long nextDelayMillis(Random random) {
+                return Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+            }
+        };
+    }
+
+    abstract long nextDelayMillis(Random random);
+}
@@ -0,0 +1,336 @@
+package com.braintreepayments.mockgateway;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.ByteString;
+
+/**
+ * A local stand-in for the Demo merchant server and the Braintree gateway so that Drop-in can be
+ * measured and tested without a sandbox account and with repeatable responses.
+ * <p>
+ * The server issues client tokens whose configuration URL points back at itself and serves
+ * configuration, vaulted payment methods, card tokenization and GraphQL payment method deletion.
+ * Tokenized cards are not added to the vault so that every iteration of a benchmark sees the same
+ * vault.
+ * <p>
+ * Each {@link GatewayEndpoint} can be given a {@link LatencyDistribution}, an error rate, a
+ * disconnect rate and padding that grows its response. Latency and faults are drawn from a seeded
+ * {@link Random}, so a run with the same seed and request order sees the same delays and faults.
+ */
+public class MockGateway {
+
+    private static final String CLIENT_TOKENS_PATH = "/client_tokens";
+    private static final String TRANSACTIONS_PATH = "/transactions";
+    private static final String CONFIGURATION_PATH = "/client_api/v1/configuration";
+    private static final String PAYMENT_METHODS_PATH = "/client_api/v1/payment_methods";
+    private static final String CREDIT_CARDS_PATH = "/client_api/v1/payment_methods/credit_cards";
+    private static final String GRAPHQL_PATH = "/graphql";
+
+    private static final String DEFAULT_CUSTOMER_ID = "mock-customer";
+
+    private static final Pattern CUSTOMER_ID =
+            Pattern.compile("\"customerId\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern SINGLE_USE_TOKEN_ID =
+            Pattern.compile("\"singleUseTokenId\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final MockWebServer server = new MockWebServer();
+    private final Random random;
+    private final Map<GatewayEndpoint, EndpointBehavior> behaviors =
+            new EnumMap<>(GatewayEndpoint.class);
+
+    private final List<String> vaultedCards = new ArrayList<>();
+    private final List<String> vaultedNonces = new ArrayList<>();
+    private final AtomicInteger tokenizedCardCount = new AtomicInteger();
+    private final AtomicInteger clientTokenCount = new AtomicInteger();
+
+    public MockGateway() {
+        this(0);
+    }
+
+    /**
+     * @param seed seeds the latency and faults drawn for each request
+     */
+    public MockGateway(long seed) {
+        random = new Random(seed);
+        for (GatewayEndpoint endpoint : GatewayEndpoint.values()) {
+            behaviors.put(endpoint, new EndpointBehavior());
+        }
+
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return MockGateway.this.dispatch(request);
+            }
+        });
+    }
+
+    /**
+     * Starts the gateway on the loopback interface of the device it runs on.
+     */
+    public void start() throws IOException {
+        server.start(InetAddress.getByName("127.0.0.1"), 0);
+    }
+
+    public void shutdown() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * @return the URL to use as the Demo app's merchant server
+     */
+    public String getMerchantServerUrl() {
+        return url("");
+    }
+
+    /**
+     * @return a client token for the gateway's customer, for tests that create a
+     * {@code BraintreeClient} without going through the merchant server
+     */
+    public String createClientToken() {
+        return createClientToken(DEFAULT_CUSTOMER_ID);
+    }
+
+    /**
+     * Like gateway client tokens, the authorization fingerprint is a JWT whose
+     * {@code options.customer_id} claim names the customer, so Drop-in caches the customer's
+     * vaulted payment methods as it does in production. Each token has a new signature, and every
+     * customer sees the same vault.
+     *
+     * @return a client token for a customer
+     */
+    public String createClientToken(String customerId) {
+        String header = "{\"typ\":\"JWT\",\"alg\":\"ES256\",\"kid\":\"mock-key\"}";
+        String claims = String.format(Locale.US,
+                "{\"iss\":\"%s\",\"options\":{\"customer_id\":\"%s\"}}",
+                getMerchantServerUrl(), customerId);
+        String authorizationFingerprint =
+                base64Url(header) + "." + base64Url(claims) + ".mock-signature-"
+                        + clientTokenCount.getAndIncrement();
+
+        String clientToken = String.format(Locale.US,
+                "{\"version\":2,\"authorizationFingerprint\":\"%s\","
+                        + "\"configUrl\":\"%s\"}",
+                authorizationFingerprint, url(CONFIGURATION_PATH));
+        return ByteString.encodeUtf8(clientToken).base64();
+    }
+
+    /**
+     * Adds vaulted Visa cards for the customer, for example to measure the vault manager with a
+     * large vault.
+     */
+    public synchronized void addVaultedCards(int count) {
+        for (int i = 0; i < count; i++) {
+            int index = vaultedCards.size();
+            String nonce = "mock-vaulted-card-nonce-" + index;
+            vaultedNonces.add(nonce);
+            vaultedCards.add(GatewayResponses.card(nonce, index == 0));
+        }
+    }
+
+    public synchronized int getVaultedCardCount() {
+        return vaultedCards.size();
+    }
+
+    /**
+     * Sets the latency of every endpoint.
+     */
+    public void setLatency(LatencyDistribution latency) {
+        for (GatewayEndpoint endpoint : GatewayEndpoint.values()) {
+            setLatency(endpoint, latency);
+        }
+    }
+
+    public void setLatency(GatewayEndpoint endpoint, LatencyDistribution latency) {
+        behaviors.get(endpoint).latency = latency;
+    }
+
+    /**
+     * @param errorRate the fraction of requests, from {@code 0} to {@code 1}, that fail with an
+     *                  HTTP 500 response
+     */
+    public void setErrorRate(GatewayEndpoint endpoint, double errorRate) {
+        behaviors.get(endpoint).errorRate = checkRate(errorRate);
+    }
+
+    /**
+     * @param disconnectRate the fraction of requests, from {@code 0} to {@code 1}, whose
+     *                       connection is closed before a response is sent
+     */
+    public void setDisconnectRate(GatewayEndpoint endpoint, double disconnectRate) {
+        behaviors.get(endpoint).disconnectRate = checkRate(disconnectRate);
+    }
+
+    /**
+     * Grows successful responses of an endpoint by an unused field of {@code paddingBytes}
+     * characters, to measure parsing larger payloads.
+     */
+    public void setPaddingBytes(GatewayEndpoint endpoint, int paddingBytes) {
+        behaviors.get(endpoint).paddingBytes = paddingBytes;
+    }
+
+    /**
+     * @return the number of requests received since the gateway was started
+     */
+    public int getRequestCount() {
+        return server.getRequestCount();
+    }
+
+    /**
+     * @return the number of requests received for an endpoint, including failed requests
+     */
+    public int getRequestCount(GatewayEndpoint endpoint) {
+        return behaviors.get(endpoint).requestCount.get();
+    }
+
+    private MockResponse dispatch(RecordedRequest request) {
+        GatewayEndpoint endpoint = endpointOf(request);
+        if (endpoint == null) {
+            return new MockResponse().setResponseCode(404);
+        }
+
+        EndpointBehavior behavior = behaviors.get(endpoint);
+        behavior.requestCount.incrementAndGet();
+
+        long delayMillis;
+        double fault;
+        synchronized (random) {
+            delayMillis = Math.max(0, behavior.latency.nextDelayMillis(random));
+            fault = random.nextDouble();
+        }
+
+        MockResponse response;
+        if (fault < behavior.disconnectRate) {
+            response = new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START);
+        } else if (fault < behavior.disconnectRate + behavior.errorRate) {
+            response = json(GatewayResponses.error()).setResponseCode(500);
+        } else {
+            response = respond(endpoint, request, behavior.paddingBytes);
+        }
+        return response.setHeadersDelay(delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private MockResponse respond(GatewayEndpoint endpoint, RecordedRequest request, int paddingBytes) {
+        switch (endpoint) {
+            case CLIENT_TOKEN:
+                String clientToken = createClientToken(customerIdOf(request.getBody().readUtf8()));
+                return json(GatewayResponses.clientTokenResponse(clientToken), paddingBytes);
+            case TRANSACTION:
+                return json(GatewayResponses.transactionResponse(), paddingBytes);
+            case CONFIGURATION:
+                return json(GatewayResponses.configuration(url("/client_api"), url(GRAPHQL_PATH)),
+                        paddingBytes);
+            case PAYMENT_METHODS:
+                return json(GatewayResponses.paymentMethods(getVaultedCards()), paddingBytes);
+            case CARD_TOKENIZATION:
+                String card = GatewayResponses.card(
+                        "mock-card-nonce-" + tokenizedCardCount.getAndIncrement(), false);
+                return json(GatewayResponses.creditCards(card), paddingBytes).setResponseCode(201);
+            case GRAPHQL:
+                deleteVaultedCards(request.getBody().readUtf8());
+                return json(GatewayResponses.graphQLDeleteResponse(), paddingBytes);
+            default:
+                return new MockResponse().setResponseCode(404);
+        }
+    }
+
+    private static GatewayEndpoint endpointOf(RecordedRequest request) {
+        String path = request.getRequestUrl().encodedPath();
+        boolean isPost = "POST".equals(request.getMethod());
+
+        if (isPost && CLIENT_TOKENS_PATH.equals(path)) {
+            return GatewayEndpoint.CLIENT_TOKEN;
+        } else if (isPost && TRANSACTIONS_PATH.equals(path)) {
+            return GatewayEndpoint.TRANSACTION;
+        } else if (!isPost && CONFIGURATION_PATH.equals(path)) {
+            return GatewayEndpoint.CONFIGURATION;
+        } else if (!isPost && PAYMENT_METHODS_PATH.equals(path)) {
+            return GatewayEndpoint.PAYMENT_METHODS;
+        } else if (isPost && CREDIT_CARDS_PATH.equals(path)) {
+            return GatewayEndpoint.CARD_TOKENIZATION;
+        } else if (isPost && GRAPHQL_PATH.equals(path)) {
+            return GatewayEndpoint.GRAPHQL;
+        }
+        return null;
+    }
+
+    /**
+     * @return the {@code customerId} of a merchant server client token request, or the default
+     * customer when the request does not name one
+     */
+    private static String customerIdOf(String clientTokenRequest) {
+        Matcher matcher = CUSTOMER_ID.matcher(clientTokenRequest);
+        return matcher.find() ? matcher.group(1) : DEFAULT_CUSTOMER_ID;
+    }
+
+    private synchronized List<String> getVaultedCards() {
+        return new ArrayList<>(vaultedCards);
+    }
+
+    /**
+     * Removes the vaulted cards referenced by the {@code singleUseTokenId} variables of a delete
+     * mutation.
+     */
+    private synchronized void deleteVaultedCards(String graphQLRequest) {
+        Set<String> nonces = new HashSet<>();
+        Matcher matcher = SINGLE_USE_TOKEN_ID.matcher(graphQLRequest);
+        while (matcher.find()) {
+            nonces.add(matcher.group(1));
+        }
+
+        Iterator<String> nonceIterator = vaultedNonces.iterator();
+        Iterator<String> cardIterator = vaultedCards.iterator();
+        while (nonceIterator.hasNext()) {
+            cardIterator.next();
+            if (nonces.contains(nonceIterator.next())) {
+                nonceIterator.remove();
+                cardIterator.remove();
+            }
+        }
+    }
+
+    private String url(String path) {
+        String url = server.url(path).toString();
+        return path.isEmpty() ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private static String base64Url(String json) {
+        // JWT segments are unpadded
+        return ByteString.encodeUtf8(json).base64Url().replace("=", "");
+    }
+
+    private static double checkRate(double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("rate must be between 0 and 1");
+        }
+        return rate;
+    }
+
+    private static MockResponse json(String body) {
+        return json(body, 0);
+    }
+
+    private static MockResponse json(String body, int paddingBytes) {
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody(GatewayResponses.pad(body, paddingBytes));
+    }
+}
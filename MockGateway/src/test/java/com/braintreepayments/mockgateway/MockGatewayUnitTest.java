@@ -0,0 +1,180 @@
+package com.braintreepayments.mockgateway;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.ByteString;
+
+public class MockGatewayUnitTest {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private MockGateway sut;
+    private OkHttpClient httpClient;
+
+    @Before
+    public void beforeEach() throws IOException {
+        sut = new MockGateway();
+        sut.start();
+        httpClient = new OkHttpClient();
+    }
+
+    @After
+    public void afterEach() throws IOException {
+        sut.shutdown();
+    }
+
+    @Test
+    public void clientToken_pointsConfigurationAtGateway() throws IOException {
+        String body = post("/client_tokens", "{}");
+        String clientToken = body.substring("{\"value\":\"".length(), body.length() - 2);
+
+        String decoded = ByteString.decodeBase64(clientToken).utf8();
+        assertTrue(decoded.contains(
+                "\"configUrl\":\"" + sut.getMerchantServerUrl() + "/client_api/v1/configuration\""));
+    }
+
+    @Test
+    public void configuration_pointsClientApiAndGraphQLAtGateway() throws IOException {
+        String body = get("/client_api/v1/configuration?configVersion=3");
+
+        assertTrue(body.contains("\"clientApiUrl\":\"" + sut.getMerchantServerUrl() + "/client_api\""));
+        assertTrue(body.contains("\"url\":\"" + sut.getMerchantServerUrl() + "/graphql\""));
+    }
+
+    @Test
+    public void paymentMethods_returnsVaultedCards() throws IOException {
+        sut.addVaultedCards(3);
+
+        String body = get("/client_api/v1/payment_methods?default_first=true");
+
+        assertTrue(body.contains("mock-vaulted-card-nonce-0"));
+        assertTrue(body.contains("mock-vaulted-card-nonce-2"));
+    }
+
+    @Test
+    public void cardTokenization_doesNotChangeVault() throws IOException {
+        sut.addVaultedCards(1);
+
+        String body = post("/client_api/v1/payment_methods/credit_cards", "{}");
+
+        assertTrue(body.startsWith("{\"creditCards\":[{\"type\":\"CreditCard\""));
+        assertEquals(1, sut.getVaultedCardCount());
+    }
+
+    @Test
+    public void graphQLDelete_removesReferencedCardsFromVault() throws IOException {
+        sut.addVaultedCards(3);
+
+        post("/graphql", "{\"variables\":{"
+                + "\"input0\":{\"singleUseTokenId\":\"mock-vaulted-card-nonce-0\"},"
+                + "\"input1\":{\"singleUseTokenId\":\"mock-vaulted-card-nonce-2\"}}}");
+
+        assertEquals(1, sut.getVaultedCardCount());
+        String body = get("/client_api/v1/payment_methods");
+        assertTrue(body.contains("mock-vaulted-card-nonce-1"));
+        assertFalse(body.contains("mock-vaulted-card-nonce-0"));
+    }
+
+    @Test
+    public void errorRate_failsRequestsWithServerError() throws IOException {
+        sut.setErrorRate(GatewayEndpoint.PAYMENT_METHODS, 1);
+
+        Response response = execute(new Request.Builder()
+                .url(sut.getMerchantServerUrl() + "/client_api/v1/payment_methods"));
+
+        assertEquals(500, response.code());
+        assertEquals(1, sut.getRequestCount(GatewayEndpoint.PAYMENT_METHODS));
+    }
+
+    @Test
+    public void disconnectRate_closesConnectionWithoutResponse() {
+        sut.setDisconnectRate(GatewayEndpoint.CONFIGURATION, 1);
+
+        try {
+            get("/client_api/v1/configuration");
+            fail("expected the connection to be closed");
+        } catch (IOException expected) {
+            // the gateway closed the connection
+        }
+    }
+
+    @Test
+    public void paddingBytes_growsResponse() throws IOException {
+        sut.setPaddingBytes(GatewayEndpoint.CONFIGURATION, 1000);
+
+        String body = get("/client_api/v1/configuration");
+
+        assertTrue(body.startsWith("{\"padding\":\"xxx"));
+        assertTrue(body.contains(",\"clientApiUrl\":"));
+        assertTrue(body.length() > 1000);
+    }
+
+    @Test
+    public void latency_delaysResponse() throws IOException {
+        sut.setLatency(GatewayEndpoint.CONFIGURATION, LatencyDistribution.fixed(200));
+
+        long start = System.nanoTime();
+        get("/client_api/v1/configuration");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis >= 200);
+    }
+
+    @Test
+    public void unknownPath_returnsNotFound() throws IOException {
+        Response response = execute(new Request.Builder()
+                .url(sut.getMerchantServerUrl() + "/unknown"));
+
+        assertEquals(404, response.code());
+    }
+
+    @Test
+    public void latencyDistributions_stayWithinBounds() {
+        Random random = new Random(0);
+        LatencyDistribution uniform = LatencyDistribution.uniform(50, 150);
+        LatencyDistribution logNormal = LatencyDistribution.logNormal(100, 0.5);
+
+        for (int i = 0; i < 1000; i++) {
+            long delay = uniform.nextDelayMillis(random);
+            assertTrue(delay >= 50 && delay <= 150);
+            assertTrue(logNormal.nextDelayMillis(random) >= 0);
+        }
+        assertEquals(0, LatencyDistribution.none().nextDelayMillis(random));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setErrorRate_withRateAboveOne_throws() {
+        sut.setErrorRate(GatewayEndpoint.GRAPHQL, 1.5);
+    }
+
+    private String get(String path) throws IOException {
+        Response response = execute(new Request.Builder().url(sut.getMerchantServerUrl() + path));
+        return response.body().string();
+    }
+
+    private String post(String path, String body) throws IOException {
+        Response response = execute(new Request.Builder()
+                .url(sut.getMerchantServerUrl() + path)
+                .post(RequestBody.create(body, JSON)));
+        return response.body().string();
+    }
+
+    private Response execute(Request.Builder request) throws IOException {
+        return httpClient.newCall(request.build()).execute();
+    }
+}